@@ -84,6 +84,16 @@ public abstract class LeaderConfig {
         return 5000L;
     }
 
+    /**
+     * If positive, the leader keeps serving requests for this long after a quorum last confirmed its leadership,
+     * instead of checking with a quorum on every request. In exchange, a new leader cannot be elected until the
+     * current lease (plus an allowance for clock drift) has expired. This must be the same on every node.
+     */
+    @Value.Default
+    public long leaderLeaseMs() {
+        return 0L;
+    }
+
     @Value.Check
     protected final void check() {
         Preconditions.checkState(quorumSize() > leaders().size() / 2,
@@ -92,6 +102,9 @@ public abstract class LeaderConfig {
                 "The quorumSize '%s' must be less than or equal to the amount of leader entries %s.",
                 quorumSize(), leaders());
 
+        Preconditions.checkState(leaderLeaseMs() >= 0,
+                "The leaderLeaseMs '%s' cannot be negative.", leaderLeaseMs());
+
         Preconditions.checkArgument(leaders().contains(localServer()),
                 "The localServer '%s' must included in the leader entries %s.", localServer(), leaders());
         Preconditions.checkArgument(ensureDirectoryExists(learnerLogDir()),
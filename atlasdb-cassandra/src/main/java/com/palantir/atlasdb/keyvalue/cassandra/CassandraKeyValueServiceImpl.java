@@ -46,6 +46,7 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.InstrumentedExecutorService;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
@@ -129,6 +130,7 @@ import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
 import com.palantir.common.base.FunctionCheckedException;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.exception.AtlasDbDependencyException;
 import com.palantir.common.exception.PalantirRuntimeException;
 import com.palantir.logsafe.SafeArg;
@@ -351,7 +353,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             CassandraClientPool clientPool,
             Optional<LeaderConfig> leaderConfig,
             CassandraMutationTimestampProvider mutationTimestampProvider) {
-        super(createInstrumentedFixedThreadPool(config, metricsManager.getRegistry()));
+        super(createInstrumentedFixedThreadPool(config, metricsManager));
         this.log = log;
         this.metricsManager = metricsManager;
         this.config = config;
@@ -381,11 +383,16 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     }
 
     private static ExecutorService createInstrumentedFixedThreadPool(CassandraKeyValueServiceConfig config,
-            MetricRegistry registry) {
+            MetricsManager metricsManager) {
+        ExecutorService executor = createFixedThreadPool("Atlas Cassandra KVS",
+                config.poolSize() * config.servers().size());
+        // Whether the executor is a thread pool or limits virtual threads, this is how many requests are waiting
+        // for one of the pool's slots.
+        metricsManager.registerMetric(CassandraKeyValueService.class, "executorService", "queuedTasks",
+                (Gauge<Integer>) () -> PTExecutors.getNumQueuedTasks(executor));
         return new InstrumentedExecutorService(
-                createFixedThreadPool("Atlas Cassandra KVS",
-                        config.poolSize() * config.servers().size()),
-                registry,
+                executor,
+                metricsManager.getRegistry(),
                 MetricRegistry.name(CassandraKeyValueService.class, "executorService"));
     }
 
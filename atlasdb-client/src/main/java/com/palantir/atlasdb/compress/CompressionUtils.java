@@ -16,13 +16,28 @@
 package com.palantir.atlasdb.compress;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.xerial.snappy.Snappy;
 
+import com.github.luben.zstd.Zstd;
+import com.google.common.primitives.Ints;
 import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
 import com.palantir.common.base.Throwables;
 
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+
 public final class CompressionUtils {
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+    private static final int ZSTD_COMPRESSION_LEVEL = 3;
+    /**
+     * The LZ4 block format extends a match by at most 255 bytes per byte of input, so no valid block decompresses to
+     * more than this many times its own size.
+     */
+    private static final int LZ4_MAX_COMPRESSION_RATIO = 255;
+
     private CompressionUtils() {
         // empty
     }
@@ -30,6 +45,10 @@ public final class CompressionUtils {
     public static byte[] compress(byte[] bytes, Compression compressionType) {
         if (compressionType == Compression.SNAPPY) {
             return compressWithSnappy(bytes);
+        } else if (compressionType == Compression.LZ4) {
+            return compressWithLz4(bytes);
+        } else if (compressionType == Compression.ZSTD) {
+            return compressWithZstd(bytes);
         } else if (compressionType == Compression.NONE) {
             return bytes;
         } else {
@@ -40,6 +59,10 @@ public final class CompressionUtils {
     public static byte[] decompress(byte[] bytes, Compression compressionType) {
         if (compressionType == Compression.SNAPPY) {
             return decompressWithSnappy(bytes);
+        } else if (compressionType == Compression.LZ4) {
+            return decompressWithLz4(bytes);
+        } else if (compressionType == Compression.ZSTD) {
+            return decompressWithZstd(bytes);
         } else if (compressionType == Compression.NONE) {
             return bytes;
         } else {
@@ -65,4 +88,63 @@ public final class CompressionUtils {
             throw Throwables.throwUncheckedException(e);
         }
     }
+
+    /**
+     * Compresses with the LZ4 block format. The uncompressed length is written as a four byte big-endian prefix, so
+     * that decompression can allocate the output array exactly once.
+     */
+    public static byte[] compressWithLz4(byte[] bytes) {
+        LZ4Compressor compressor = LZ4_FACTORY.fastCompressor();
+        int maxCompressedLength = compressor.maxCompressedLength(bytes.length);
+        byte[] output = new byte[Integer.BYTES + maxCompressedLength];
+        writeLength(output, bytes.length);
+        int compressedLength = compressor.compress(
+                bytes, 0, bytes.length, output, Integer.BYTES, maxCompressedLength);
+        return Arrays.copyOf(output, Integer.BYTES + compressedLength);
+    }
+
+    public static byte[] decompressWithLz4(byte[] bytes) {
+        if (bytes.length < Integer.BYTES) {
+            throw new IllegalArgumentException("Cannot decompress these bytes using LZ4");
+        }
+        int length = Ints.fromBytes(bytes[0], bytes[1], bytes[2], bytes[3]);
+        // Check the length before allocating it, so that corrupt bytes cannot make us allocate an arbitrary amount.
+        long maxLength = (long) (bytes.length - Integer.BYTES) * LZ4_MAX_COMPRESSION_RATIO;
+        if (length < 0 || length > maxLength) {
+            throw new IllegalArgumentException("Cannot decompress these bytes using LZ4");
+        }
+        byte[] output = new byte[length];
+        try {
+            int compressedLength = LZ4_FACTORY.fastDecompressor().decompress(bytes, Integer.BYTES, output, 0, length);
+            if (Integer.BYTES + compressedLength != bytes.length) {
+                throw new IllegalArgumentException("Cannot decompress these bytes using LZ4");
+            }
+        } catch (LZ4Exception e) {
+            throw new IllegalArgumentException("Cannot decompress these bytes using LZ4", e);
+        }
+        return output;
+    }
+
+    public static byte[] compressWithZstd(byte[] bytes) {
+        return Zstd.compress(bytes, ZSTD_COMPRESSION_LEVEL);
+    }
+
+    public static byte[] decompressWithZstd(byte[] bytes) {
+        long length = Zstd.decompressedSize(bytes);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot decompress these bytes using Zstandard");
+        }
+        try {
+            return Zstd.decompress(bytes, (int) length);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cannot decompress these bytes using Zstandard", e);
+        }
+    }
+
+    private static void writeLength(byte[] output, int length) {
+        output[0] = (byte) (length >> 24);
+        output[1] = (byte) (length >> 16);
+        output[2] = (byte) (length >> 8);
+        output[3] = (byte) length;
+    }
 }
@@ -22,7 +22,6 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.HashMultimap;
@@ -70,17 +69,16 @@ public abstract class AbstractKeyValueService implements KeyValueService {
     }
 
     /**
-     * Creates a fixed thread pool.
+     * Creates an executor for blocking key value service calls; see
+     * {@link PTExecutors#newBlockingExecutor(String, int, boolean)}.
      *
      * @param threadNamePrefix thread name prefix
-     * @param poolSize fixed thread pool size
-     * @return a new fixed size thread pool with a keep alive time of 1 minute
+     * @param poolSize the maximum number of tasks to run at once
+     * @return a new fixed size thread pool with a keep alive time of 1 minute, or an executor limited to poolSize
+     * concurrent virtual threads if virtual threads are enabled
      */
     protected static ExecutorService createFixedThreadPool(String threadNamePrefix, int poolSize) {
-        ThreadPoolExecutor executor = PTExecutors.newFixedThreadPool(poolSize,
-                new NamedThreadFactory(threadNamePrefix, false));
-        executor.setKeepAliveTime(1, TimeUnit.MINUTES);
-        return executor;
+        return PTExecutors.newBlockingExecutor(threadNamePrefix, poolSize, false);
     }
 
     @Override
@@ -16,6 +16,11 @@
 package com.palantir.atlasdb.schema;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.slf4j.Logger;
@@ -42,6 +47,7 @@ import com.palantir.common.annotation.Output;
 import com.palantir.common.base.AbortingVisitor;
 import com.palantir.common.base.AbortingVisitors;
 import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.Throwables;
 import com.palantir.common.collect.Maps2;
 import com.palantir.util.Mutable;
 import com.palantir.util.Mutables;
@@ -58,6 +64,9 @@ public class KvsRangeMigrator implements RangeMigrator {
     private final long migrationTimestamp;
     private final AbstractTaskCheckpointer checkpointer;
     private final Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform;
+    private final Optional<Executor> writeExecutor;
+    private final AtomicLong cellsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
 
     KvsRangeMigrator(TableReference srcTable,
                      TableReference destTable,
@@ -67,7 +76,8 @@ public class KvsRangeMigrator implements RangeMigrator {
                      KeyValueService writeKvs,
                      long migrationTimestamp,
                      AbstractTaskCheckpointer checkpointer,
-                     Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform) {
+                     Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform,
+                     Optional<Executor> writeExecutor) {
         this.srcTable = srcTable;
         this.destTable = destTable;
         this.readBatchSize = readBatchSize;
@@ -77,6 +87,21 @@ public class KvsRangeMigrator implements RangeMigrator {
         this.migrationTimestamp = migrationTimestamp;
         this.checkpointer = checkpointer;
         this.rowTransform = rowTransform;
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * The number of cells written to the destination table so far, over all ranges.
+     */
+    public long getCellsWritten() {
+        return cellsWritten.get();
+    }
+
+    /**
+     * The approximate number of bytes written to the destination table so far, over all ranges.
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
     }
 
     @Override
@@ -106,12 +131,64 @@ public class KvsRangeMigrator implements RangeMigrator {
 
     @Override
     public void migrateRange(RangeRequest range, long rangeId) {
+        if (writeExecutor.isPresent()) {
+            migrateRangePipelined(range, rangeId, writeExecutor.get());
+            return;
+        }
+
         byte[] lastRow;
         do {
             lastRow = copyOneTransaction(range, rangeId);
         } while (!isRangeDone(lastRow));
     }
 
+    /**
+     * Reads each batch of the range while the previous batch is written and checkpointed on the write executor.
+     * At most one batch is written at a time, so checkpoints still advance in order and only past rows that have
+     * been written, and at most two batches are held in memory.
+     */
+    private void migrateRangePipelined(RangeRequest range, long rangeId, Executor executor) {
+        byte[] start = txManager.runTaskWithRetry(transaction -> getCheckpoint(rangeId, transaction));
+        CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+        while (start != null) {
+            RangeRequest.Builder builder = range.getBuilder().startRowInclusive(start);
+            if (builder.isInvalidRange()) {
+                break;
+            }
+            RangeRequest rangeToUse = builder.build();
+            Batch batch = readTxManager.runTaskWithRetry(readT -> readBatch(readT, rangeToUse));
+
+            join(pendingWrite);
+            pendingWrite = CompletableFuture.runAsync(() -> writeAndCheckpoint(batch, rangeId), executor);
+            start = isRangeDone(batch.lastRow) ? null : getNextRowName(batch.lastRow);
+        }
+        join(pendingWrite);
+    }
+
+    private Batch readBatch(Transaction readT, RangeRequest rangeToUse) {
+        Map<Cell, byte[]> writeMap = Maps.newHashMap();
+        byte[] lastRow = internalCopyRange(readT.getRange(srcTable, rangeToUse), getMaxBytesPerBatch(), writeMap);
+        return new Batch(writeMap, lastRow);
+    }
+
+    private void writeAndCheckpoint(Batch batch, long rangeId) {
+        writeToKvs(batch.writeMap);
+        recordWrite(batch.writeMap);
+        byte[] nextRow = getNextRowName(batch.lastRow);
+        txManager.runTaskWithRetry(writeT -> {
+            checkpointer.checkpoint(srcTable.getQualifiedName(), rangeId, nextRow, writeT);
+            return null;
+        });
+    }
+
+    private static void join(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw Throwables.throwUncheckedException(e.getCause());
+        }
+    }
+
     private boolean isRangeDone(byte[] row) {
         return row == null || RangeRequests.isLastRowName(row);
     }
@@ -136,7 +213,7 @@ public class KvsRangeMigrator implements RangeMigrator {
                                               long rangeId,
                                               Transaction readT,
                                               Transaction writeT) {
-        final long maxBytes = TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES / 2;
+        final long maxBytes = getMaxBytesPerBatch();
         byte[] start = getCheckpoint(rangeId, writeT);
         if (start == null) {
             return null;
@@ -160,6 +237,7 @@ public class KvsRangeMigrator implements RangeMigrator {
             log.trace("Copying {} bytes for range {} on table {}", lastRow.length, rangeId, srcTable);
         }
         writeToKvs(writeMap);
+        recordWrite(writeMap);
 
         byte[] nextRow = getNextRowName(lastRow);
         checkpointer.checkpoint(srcTable.getQualifiedName(), rangeId, nextRow, writeT);
@@ -167,6 +245,19 @@ public class KvsRangeMigrator implements RangeMigrator {
         return lastRow;
     }
 
+    private static long getMaxBytesPerBatch() {
+        return TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES / 2;
+    }
+
+    private void recordWrite(Map<Cell, byte[]> writeMap) {
+        long bytes = 0L;
+        for (Map.Entry<Cell, byte[]> e : writeMap.entrySet()) {
+            bytes += e.getValue().length + Cells.getApproxSizeOfCell(e.getKey());
+        }
+        cellsWritten.addAndGet(writeMap.size());
+        bytesWritten.addAndGet(bytes);
+    }
+
     private byte[] getCheckpoint(long rangeId, Transaction writeT) {
         return checkpointer.getCheckpoint(srcTable.getQualifiedName(), rangeId, writeT);
     }
@@ -229,4 +320,14 @@ public class KvsRangeMigrator implements RangeMigrator {
         }
         return true;
     }
+
+    private static final class Batch {
+        private final Map<Cell, byte[]> writeMap;
+        private final byte[] lastRow;
+
+        private Batch(Map<Cell, byte[]> writeMap, byte[] lastRow) {
+            this.writeMap = writeMap;
+            this.lastRow = lastRow;
+        }
+    }
 }
@@ -16,6 +16,8 @@
 package com.palantir.atlasdb.schema;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
@@ -36,6 +38,9 @@ import com.palantir.common.collect.Maps2;
  *
  * If readTxManager is not given, the read transaction will be the same as the write transaction.
  * This will not work for kvs migrations.
+ *
+ * If writeExecutor is given, each range is copied as a pipeline: the next batch is read while the previous one is
+ * written and checkpointed on the writeExecutor. Otherwise each batch is read, written and checkpointed in turn.
  */
 public class KvsRangeMigratorBuilder {
     private TableReference srcTable;
@@ -47,6 +52,7 @@ public class KvsRangeMigratorBuilder {
     private long migrationTimestamp;
     private AbstractTaskCheckpointer checkpointer;
     private Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform;
+    private Optional<Executor> writeExecutor;
 
     public KvsRangeMigratorBuilder() {
         srcTable = null;
@@ -58,6 +64,7 @@ public class KvsRangeMigratorBuilder {
         migrationTimestamp = -1;
         checkpointer = null;
         rowTransform = getIdentityTransform();
+        writeExecutor = Optional.empty();
     }
 
     private static Function<RowResult<byte[]>, Map<Cell, byte[]>> getIdentityTransform() {
@@ -118,6 +125,12 @@ public class KvsRangeMigratorBuilder {
         return this;
     }
 
+    public KvsRangeMigratorBuilder writeExecutor(Executor executor) {
+        Preconditions.checkNotNull(executor);
+        this.writeExecutor = Optional.of(executor);
+        return this;
+    }
+
     public KvsRangeMigrator build() {
         if (destTable == null) {
             destTable = srcTable;
@@ -140,6 +153,7 @@ public class KvsRangeMigratorBuilder {
                 writeKvs,
                 migrationTimestamp,
                 checkpointer,
-                rowTransform);
+                rowTransform,
+                writeExecutor);
     }
 }
@@ -37,6 +37,7 @@ public class StreamStoreDefinition {
     private final String longName;
     private final ValueType idType;
     private final boolean compressStream;
+    private final boolean compressBlocks;
     private final int numberOfRowComponentsHashed;
 
     private int inMemoryThreshold;
@@ -48,6 +49,7 @@ public class StreamStoreDefinition {
             ValueType idType,
             int inMemoryThreshold,
             boolean compressStream,
+            boolean compressBlocks,
             int numberOfRowComponentsHashed) {
         this.streamStoreTables = streamStoreTables;
         this.shortName = shortName;
@@ -55,6 +57,7 @@ public class StreamStoreDefinition {
         this.idType = idType;
         this.inMemoryThreshold = inMemoryThreshold;
         this.compressStream = compressStream;
+        this.compressBlocks = compressBlocks;
         this.numberOfRowComponentsHashed = numberOfRowComponentsHashed;
     }
 
@@ -72,7 +75,8 @@ public class StreamStoreDefinition {
 
     public StreamStoreRenderer getRenderer(String packageName, String name) {
         String renderedLongName = Renderers.CamelCase(longName);
-        return new StreamStoreRenderer(renderedLongName, idType, packageName, name, inMemoryThreshold, compressStream);
+        return new StreamStoreRenderer(
+                renderedLongName, idType, packageName, name, inMemoryThreshold, compressStream, compressBlocks);
     }
 
     public Multimap<String, Supplier<OnCleanupTask>> getCleanupTasks(
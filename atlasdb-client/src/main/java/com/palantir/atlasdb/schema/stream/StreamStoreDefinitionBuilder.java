@@ -33,6 +33,7 @@ public class StreamStoreDefinitionBuilder {
             Maps.newHashMapWithExpectedSize(StreamTableType.values().length);
     private int inMemoryThreshold = AtlasDbConstants.DEFAULT_STREAM_IN_MEMORY_THRESHOLD;
     private boolean compressStream;
+    private boolean compressBlocks;
     private int numberOfRowComponentsHashed = 0;
 
     /**
@@ -49,6 +50,7 @@ public class StreamStoreDefinitionBuilder {
         this.shortName = shortName;
         this.longName = longName;
         this.compressStream = false;
+        this.compressBlocks = false;
     }
 
     /**
@@ -106,6 +108,18 @@ public class StreamStoreDefinitionBuilder {
         return this;
     }
 
+    /**
+     * Compresses each block with LZ4 in the client before it is written, instead of compressing the stream as a
+     * whole. Blocks keep their position in the original stream, so range reads only fetch the blocks they need.
+     * This cannot be combined with {@link #compressStreamInClient()}, and should not be changed for an existing
+     * store schema, as previously written blocks would no longer be readable. Streams are still split into
+     * fixed-size blocks, which are not deduplicated; only whole streams with the same hash are stored once.
+     */
+    public StreamStoreDefinitionBuilder compressBlocksInClient() {
+        compressBlocks = true;
+        return this;
+    }
+
     public StreamStoreDefinitionBuilder inMemoryThreshold(int inMemoryThreshold) {
         this.inMemoryThreshold = inMemoryThreshold;
         return this;
@@ -118,6 +132,8 @@ public class StreamStoreDefinitionBuilder {
         Preconditions.checkArgument(valueType.getJavaClassName().equals("long"), "Stream ids must be a long");
         Preconditions.checkArgument(inMemoryThreshold <= StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD,
                 "inMemoryThreshold cannot be greater than %s", StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD);
+        Preconditions.checkArgument(!(compressStream && compressBlocks),
+                "A stream store may compress either whole streams or individual blocks in the client, but not both");
 
         return new StreamStoreDefinition(
                 tablesToCreate,
@@ -126,6 +142,7 @@ public class StreamStoreDefinitionBuilder {
                 valueType,
                 inMemoryThreshold,
                 compressStream,
+                compressBlocks,
                 numberOfRowComponentsHashed);
     }
 
@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.stream;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -32,9 +33,11 @@ import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
 import com.google.common.primitives.Ints;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
@@ -111,22 +114,55 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
             loadSingleBlockToOutputStream(transaction, id, 0, ios);
             return ios.getInputStream();
         } else {
-            return makeStream(transaction, id, metadata);
+            return makeStream(transaction, id, 0L, getNumberOfBlocksFromMetadata(metadata));
         }
     }
 
-    private InputStream makeStream(Transaction parent, T id, StreamMetadata metadata) {
-        long totalBlocks = getNumberOfBlocksFromMetadata(metadata);
+    @Override
+    public InputStream loadStreamRange(Transaction transaction, T id, long offset, long length) {
+        Preconditions.checkArgument(offset >= 0, "Offset must be non-negative, but was %s", offset);
+        Preconditions.checkArgument(length >= 0, "Length must be non-negative, but was %s", length);
+        StreamMetadata metadata = getMetadata(transaction, id);
+        checkStreamStored(id, metadata);
+
+        long bytesInRange = Math.min(length, Math.max(0L, metadata.getLength() - offset));
+        if (bytesInRange == 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        long firstBlock = offset / BLOCK_SIZE_IN_BYTES;
+        long lastBlock = (offset + bytesInRange - 1) / BLOCK_SIZE_IN_BYTES;
+        InputStream blocks = makeStream(transaction, id, firstBlock, lastBlock - firstBlock + 1);
+        return sliceStream(blocks, offset - firstBlock * BLOCK_SIZE_IN_BYTES, bytesInRange);
+    }
+
+    /**
+     * Skips the first offset bytes of the given stream, and limits what remains to length bytes. If the stream ends
+     * before offset, the returned stream is empty.
+     */
+    protected static InputStream sliceStream(InputStream stream, long offset, long length) {
+        try {
+            ByteStreams.skipFully(stream, offset);
+        } catch (EOFException e) {
+            return new ByteArrayInputStream(new byte[0]);
+        } catch (IOException e) {
+            throw Throwables.rewrapAndThrowUncheckedException("Could not skip to the start of the requested range.", e);
+        }
+        return ByteStreams.limit(stream, length);
+    }
+
+    private InputStream makeStream(Transaction parent, T id, long firstBlockOfStream, long totalBlocks) {
         int blocksInMemory = getNumberOfBlocksThatFitInMemory();
 
         BlockGetter pageRefresher = new BlockGetter() {
             @Override
             public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                long firstBlockToLoad = firstBlockOfStream + firstBlock;
                 if (parent.isUncommitted()) {
-                    loadNBlocksToOutputStream(parent, id, firstBlock, numBlocks, destination);
+                    loadNBlocksToOutputStream(parent, id, firstBlockToLoad, numBlocks, destination);
                 } else {
                     txnMgr.runTaskReadOnly(txn -> {
-                        loadNBlocksToOutputStream(txn, id, firstBlock, numBlocks, destination);
+                        loadNBlocksToOutputStream(txn, id, firstBlockToLoad, numBlocks, destination);
                         return null;
                     });
                 }
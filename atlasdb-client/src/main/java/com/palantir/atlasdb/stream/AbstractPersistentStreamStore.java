@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -41,11 +42,17 @@ import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.impl.TxTask;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.util.Pair;
 import com.palantir.util.crypto.Sha256Hash;
 
 public abstract class AbstractPersistentStreamStore extends AbstractGenericStreamStore<Long>
         implements PersistentStreamStore {
+    private static final ExecutorService BLOCK_WRITE_EXECUTOR = PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("stream-store-block-writer", true));
+
+    private final Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration;
     private final StreamStoreBackoffStrategy backoffStrategy;
 
     protected AbstractPersistentStreamStore(TransactionManager txManager) {
@@ -55,6 +62,7 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
     protected AbstractPersistentStreamStore(TransactionManager txManager,
             Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
         super(txManager);
+        this.persistenceConfiguration = persistenceConfiguration;
         this.backoffStrategy = StandardPeriodicBackoffStrategy.create(persistenceConfiguration);
     }
 
@@ -183,6 +191,15 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
     }
 
     private void storeBlocksFromStream(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
+        int numConcurrentBlockWrites = persistenceConfiguration.get().numConcurrentBlockWrites();
+        if (streamOperationIsTransactional(tx) || numConcurrentBlockWrites == 1) {
+            storeBlocksSequentially(tx, id, stream);
+        } else {
+            storeBlocksConcurrently(id, stream, numConcurrentBlockWrites);
+        }
+    }
+
+    private void storeBlocksSequentially(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
         long blockNumber = 0;
 
         while (true) {
@@ -207,6 +224,40 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         }
     }
 
+    private void storeBlocksConcurrently(long id, InputStream stream, int numConcurrentBlockWrites)
+            throws IOException {
+        // Each block is written in its own transaction while the calling thread reads (and, through the wrapping
+        // DigestInputStream, hashes) the next one. Buffers are not reused, because a block may still be referenced
+        // by the key value service after its transaction commits; memory is instead bounded by the write window.
+        ConcurrentBlockWriter blockWriter = new ConcurrentBlockWriter(
+                BLOCK_WRITE_EXECUTOR,
+                (blockNumber, block) -> storeBlockWithNonNullTransaction(null, id, blockNumber, block),
+                numConcurrentBlockWrites);
+        try {
+            long blockNumber = 0;
+            while (true) {
+                byte[] bytesToStore = new byte[BLOCK_SIZE_IN_BYTES];
+                int length = ByteStreams.read(stream, bytesToStore, 0, BLOCK_SIZE_IN_BYTES);
+                if (length == 0) {
+                    break;
+                }
+                if (length < BLOCK_SIZE_IN_BYTES) {
+                    blockWriter.submit(blockNumber, PtBytes.head(bytesToStore, length));
+                    break;
+                } else {
+                    blockWriter.submit(blockNumber, bytesToStore);
+                }
+                blockNumber++;
+                backoffStrategy.accept(blockNumber);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Don't let in-flight writes race with the caller recording this stream as failed.
+            blockWriter.awaitInFlightWrites();
+            throw e;
+        }
+        blockWriter.awaitCompletion();
+    }
+
     private boolean streamOperationIsTransactional(@Nullable Transaction tx) {
         // TODO (jkong): I'm using tx == null as a proxy for whether the entire operation should be done
         // transactionally or not (null implies nontransactional).
@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Preconditions;
+import com.palantir.common.base.Throwables;
+
+/**
+ * Writes the blocks of a single stream on an {@link Executor}, allowing at most a fixed number of writes to be in
+ * flight at once. {@link #submit(long, byte[])} blocks the caller while that many writes are outstanding, which
+ * bounds the number of block buffers held in memory.
+ *
+ * Not thread-safe: blocks must be submitted from a single thread.
+ */
+final class ConcurrentBlockWriter {
+    private final Executor executor;
+    private final BlockWriter blockWriter;
+    private final int maxInFlightWrites;
+    private final Semaphore inFlightWrites;
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    ConcurrentBlockWriter(Executor executor, BlockWriter blockWriter, int maxInFlightWrites) {
+        Preconditions.checkArgument(maxInFlightWrites > 0, "Must allow at least one write in flight");
+        this.executor = executor;
+        this.blockWriter = blockWriter;
+        this.maxInFlightWrites = maxInFlightWrites;
+        this.inFlightWrites = new Semaphore(maxInFlightWrites);
+    }
+
+    /**
+     * Schedules the given block to be written, waiting first for a write slot to become free. If a previously
+     * submitted block failed to be written, that failure is rethrown instead.
+     */
+    void submit(long blockNumber, byte[] block) throws InterruptedIOException {
+        throwIfAnyWriteFailed();
+        acquireWriteSlot();
+        try {
+            // A write may have failed while we were waiting for the slot.
+            throwIfAnyWriteFailed();
+            executor.execute(() -> writeAndReleaseSlot(blockNumber, block));
+        } catch (RuntimeException | Error e) {
+            inFlightWrites.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for all submitted blocks to be written, rethrowing the first failure encountered, if any.
+     */
+    void awaitCompletion() {
+        awaitInFlightWrites();
+        throwIfAnyWriteFailed();
+    }
+
+    /**
+     * Waits for all submitted blocks to finish, ignoring any failures. Used when the upload is abandoned, so that
+     * no blocks are written after the caller has recorded the stream as failed.
+     */
+    void awaitInFlightWrites() {
+        inFlightWrites.acquireUninterruptibly(maxInFlightWrites);
+        inFlightWrites.release(maxInFlightWrites);
+    }
+
+    private void acquireWriteSlot() throws InterruptedIOException {
+        try {
+            inFlightWrites.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to write a stream block");
+        }
+    }
+
+    private void writeAndReleaseSlot(long blockNumber, byte[] block) {
+        try {
+            if (firstFailure.get() == null) {
+                blockWriter.write(blockNumber, block);
+            }
+        } catch (Throwable t) {
+            firstFailure.compareAndSet(null, t);
+        } finally {
+            inFlightWrites.release();
+        }
+    }
+
+    private void throwIfAnyWriteFailed() {
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw Throwables.rewrapAndThrowUncheckedException(failure);
+        }
+    }
+
+    @FunctionalInterface
+    interface BlockWriter {
+        void write(long blockNumber, byte[] block);
+    }
+}
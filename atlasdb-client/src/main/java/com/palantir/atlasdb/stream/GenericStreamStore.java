@@ -55,6 +55,13 @@ public interface GenericStreamStore<ID> {
      */
     Map<ID, InputStream> loadStreams(Transaction tx, Set<ID> ids);
 
+    /**
+     * Loads up to length bytes of the stream with ID id, starting at byte offset. Only the blocks covering the
+     * requested range are read. The returned stream is shorter than length if the range extends past the end of the
+     * stream, and is empty if offset is at or beyond the end of the stream.
+     */
+    InputStream loadStreamRange(Transaction tx, ID id, long offset, long length);
+
     /**
      * Loads the whole stream, and saves it to a local temporary file.
      */
@@ -55,11 +55,25 @@ public interface StreamStorePersistenceConfiguration {
         return 0;
     }
 
+    /**
+     * The number of blocks that a nontransactional storeStream() may have in flight at once. Each block is written
+     * in its own transaction; the source stream continues to be read and hashed on the calling thread, which blocks
+     * once this many writes are outstanding. A value of 1 writes blocks one at a time on the calling thread.
+     *
+     * Transactional stores write every block in the caller's transaction, so this parameter does not apply to them.
+     */
+    @Value.Default
+    default int numConcurrentBlockWrites() {
+        return 1;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkState(numBlocksToWriteBeforePause() > 0,
                 "Number of blocks to write before pausing must be positive");
         Preconditions.checkState(writePauseDurationMillis() >= 0,
                 "Pause duration between batches of writes must be non-negative");
+        Preconditions.checkState(numConcurrentBlockWrites() > 0,
+                "Number of concurrent block writes must be positive");
     }
 }
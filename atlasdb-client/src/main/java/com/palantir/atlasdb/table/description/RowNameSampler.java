@@ -0,0 +1,205 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.description;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
+
+/**
+ * Estimates how the rows of a table are distributed by reading the first few rows of many small ranges. A range
+ * whose rows were not all read is assumed to continue at the density of the rows that were read, and the ranges
+ * estimated to hold the most rows are split and read again, so that skewed tables, such as tables whose row names
+ * start with a timestamp, are narrowed down to the part of the key space that actually holds rows.
+ * <p>
+ * The estimate is best for row names whose leading bytes are fixed-length values, such as hashes, longs and
+ * timestamps. For variable-length strings it is coarser, since such row names use the key space very unevenly.
+ */
+final class RowNameSampler {
+    private static final int INITIAL_RANGES = 256;
+    private static final int SUBDIVISIONS = 16;
+    private static final double MAX_ESTIMATED_ROWS = 1L << 40;
+
+    private final KeyValueService kvs;
+    private final TableReference tableRef;
+    private final long timestamp;
+    private final int rowsPerRange;
+    private final int maxRanges;
+
+    RowNameSampler(KeyValueService kvs, TableReference tableRef, long timestamp) {
+        this(kvs, tableRef, timestamp, 16, 2048);
+    }
+
+    @VisibleForTesting
+    RowNameSampler(KeyValueService kvs, TableReference tableRef, long timestamp, int rowsPerRange, int maxRanges) {
+        this.kvs = kvs;
+        this.tableRef = tableRef;
+        this.timestamp = timestamp;
+        this.rowsPerRange = rowsPerRange;
+        this.maxRanges = maxRanges;
+    }
+
+    SampledRowNamePartitioner sample() {
+        List<byte[]> initialBoundaries = Lists.newArrayList();
+        initialBoundaries.add(PtBytes.EMPTY_BYTE_ARRAY);
+        for (int i = 1; i < INITIAL_RANGES; i++) {
+            initialBoundaries.add(new byte[] {(byte) i});
+        }
+        NavigableMap<byte[], SampledRange> ranges = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        readRanges(initialBoundaries, PtBytes.EMPTY_BYTE_ARRAY).forEach(range -> ranges.put(range.startRow, range));
+        int numRangesRead = ranges.size();
+
+        // Every split reads more ranges, so this stops once maxRanges ranges have been read.
+        while (true) {
+            // Splitting a range that holds few more rows than are read from it would not tell us much more.
+            double threshold = Math.max(2 * estimateTotalRows(ranges.values()) / INITIAL_RANGES, 2.0 * rowsPerRange);
+            List<SampledRange> toSplit = ranges.values().stream()
+                    .filter(range -> range.hasMoreRows && range.estimatedRows > threshold)
+                    .sorted(Comparator.comparingDouble((SampledRange range) -> range.estimatedRows).reversed())
+                    .collect(Collectors.toList());
+            boolean anySplit = false;
+            for (SampledRange range : toSplit) {
+                if (numRangesRead + SUBDIVISIONS > maxRanges) {
+                    break;
+                }
+                List<byte[]> boundaries = range.subdivide();
+                if (boundaries.size() > 1) {
+                    List<SampledRange> subranges = readRanges(boundaries, range.endRow);
+                    subranges.forEach(subrange -> ranges.put(subrange.startRow, subrange));
+                    numRangesRead += subranges.size();
+                    anySplit = true;
+                }
+            }
+            if (!anySplit) {
+                return toPartitioner(ranges.values());
+            }
+        }
+    }
+
+    /**
+     * Reads the first rows of each range between consecutive boundaries, where the last range ends at endRow.
+     */
+    private List<SampledRange> readRanges(List<byte[]> boundaries, byte[] endRow) {
+        List<RangeRequest> requests = Lists.newArrayListWithCapacity(boundaries.size());
+        for (int i = 0; i < boundaries.size(); i++) {
+            requests.add(RangeRequest.builder()
+                    .startRowInclusive(boundaries.get(i))
+                    .endRowExclusive(i + 1 < boundaries.size() ? boundaries.get(i + 1) : endRow)
+                    .batchHint(rowsPerRange)
+                    .build());
+        }
+        Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> pages =
+                kvs.getFirstBatchForRanges(tableRef, requests, timestamp);
+        List<SampledRange> ranges = Lists.newArrayListWithCapacity(requests.size());
+        for (RangeRequest request : requests) {
+            TokenBackedBasicResultsPage<RowResult<Value>, byte[]> page = pages.get(request);
+            List<byte[]> rowNames = page == null
+                    ? Lists.newArrayList()
+                    : Lists.transform(page.getResults(), RowResult::getRowName);
+            boolean hasMoreRows = page != null && page.moreResultsAvailable() && !rowNames.isEmpty();
+            ranges.add(new SampledRange(request.getStartInclusive(), request.getEndExclusive(), rowNames,
+                    hasMoreRows ? page.getTokenForNextPage() : null));
+        }
+        return ranges;
+    }
+
+    private static double estimateTotalRows(Iterable<SampledRange> ranges) {
+        double total = 0;
+        for (SampledRange range : ranges) {
+            total += range.estimatedRows;
+        }
+        return total;
+    }
+
+    private static SampledRowNamePartitioner toPartitioner(Iterable<SampledRange> ranges) {
+        NavigableMap<byte[], Long> rowsBefore = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        double rowsSoFar = 0;
+        for (SampledRange range : ranges) {
+            rowsBefore.putIfAbsent(range.startRow, Math.round(rowsSoFar));
+            for (int i = 0; i < range.rowNames.size(); i++) {
+                rowsBefore.putIfAbsent(range.rowNames.get(i), Math.round(rowsSoFar + i));
+            }
+            if (range.hasMoreRows) {
+                // The rest of the range is assumed to hold its estimated rows evenly from the next unread row.
+                rowsBefore.putIfAbsent(range.nextRow, Math.round(rowsSoFar + range.rowNames.size()));
+            }
+            rowsSoFar += range.estimatedRows;
+        }
+        return new SampledRowNamePartitioner(rowsBefore, Math.round(rowsSoFar));
+    }
+
+    private static final class SampledRange {
+        private final byte[] startRow;
+        private final byte[] endRow;
+        private final List<byte[]> rowNames;
+        private final boolean hasMoreRows;
+        private final byte[] nextRow;
+        private final double estimatedRows;
+
+        private SampledRange(byte[] startRow, byte[] endRow, List<byte[]> rowNames, byte[] nextRow) {
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.rowNames = rowNames;
+            this.hasMoreRows = nextRow != null;
+            this.nextRow = nextRow;
+            this.estimatedRows = hasMoreRows ? estimateRows() : rowNames.size();
+        }
+
+        /**
+         * Assumes that the rest of the range holds as many rows per unit of key space as the part between the first
+         * row read and the next unread row.
+         */
+        private double estimateRows() {
+            double readFraction = SampledRowNamePartitioner.fraction(rowNames.get(0), endRow, nextRow);
+            double unreadRows = readFraction <= 0
+                    ? MAX_ESTIMATED_ROWS
+                    : Math.min(MAX_ESTIMATED_ROWS, rowNames.size() * (1 - readFraction) / readFraction);
+            return rowNames.size() + unreadRows;
+        }
+
+        /**
+         * Splits this range into smaller ranges, evenly over the part of the range from its first row, since the part
+         * before its first row holds no rows.
+         */
+        private List<byte[]> subdivide() {
+            byte[] firstRow = rowNames.get(0);
+            List<byte[]> boundaries = Lists.newArrayList();
+            boundaries.add(startRow);
+            for (int i = 1; i < SUBDIVISIONS; i++) {
+                byte[] boundary = SampledRowNamePartitioner.interpolate(firstRow, endRow, (double) i / SUBDIVISIONS);
+                byte[] previous = boundaries.get(boundaries.size() - 1);
+                if (UnsignedBytes.lexicographicalComparator().compare(boundary, previous) > 0) {
+                    boundaries.add(boundary);
+                }
+            }
+            return boundaries;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.description;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+
+/**
+ * Partitions row names by an estimate of how the rows of a table are actually distributed, rather than by assuming
+ * that row names are uniformly distributed. The estimate is a piecewise linear cumulative distribution: each point
+ * gives the number of rows before a row name, and rows are assumed to be spread evenly between consecutive points.
+ * <p>
+ * Use {@link #sample(KeyValueService, TableReference, long)} to estimate the distribution of an existing table, or
+ * {@link #fromSample(Collection)} to partition by a sample of row names obtained some other way.
+ */
+public class SampledRowNamePartitioner implements RowNamePartitioner {
+    private static final int FRACTION_BITS = 32;
+
+    private final byte[][] rowNames;
+    private final long[] rowsBefore;
+    private final long totalRows;
+
+    /**
+     * @param rowsBefore the number of rows before each row name, which must not decrease as the row names increase
+     * @param totalRows the number of rows in the table, which must be at least the number of rows before any row name
+     */
+    public SampledRowNamePartitioner(SortedMap<byte[], Long> rowsBefore, long totalRows) {
+        this.rowNames = new byte[rowsBefore.size()][];
+        this.rowsBefore = new long[rowsBefore.size()];
+        this.totalRows = totalRows;
+        long previous = 0L;
+        int index = 0;
+        for (Map.Entry<byte[], Long> entry : rowsBefore.entrySet()) {
+            Preconditions.checkArgument(entry.getValue() >= previous && entry.getValue() <= totalRows,
+                    "The number of rows before each row name must be non-decreasing and at most totalRows");
+            rowNames[index] = entry.getKey();
+            this.rowsBefore[index] = entry.getValue();
+            previous = entry.getValue();
+            index++;
+        }
+    }
+
+    /**
+     * Partitions by a sample of row names, where each sampled row name stands for the same number of rows.
+     */
+    public static SampledRowNamePartitioner fromSample(Collection<byte[]> sampleRowNames) {
+        ImmutableSortedMap.Builder<byte[], Long> rowsBefore =
+                ImmutableSortedMap.orderedBy(UnsignedBytes.lexicographicalComparator());
+        List<byte[]> sorted = Lists.newArrayList(sampleRowNames);
+        sorted.sort(UnsignedBytes.lexicographicalComparator());
+        long index = 0;
+        byte[] previous = null;
+        for (byte[] rowName : sorted) {
+            if (previous == null || !Arrays.equals(previous, rowName)) {
+                rowsBefore.put(rowName, index);
+            }
+            previous = rowName;
+            index++;
+        }
+        return new SampledRowNamePartitioner(rowsBefore.build(), index);
+    }
+
+    /**
+     * Estimates the distribution of the rows of the given table by reading a few rows from many small ranges of the
+     * table, and narrowing down on the ranges that hold the most rows. This reads at most a few tens of thousands of
+     * rows, however large the table is.
+     */
+    public static SampledRowNamePartitioner sample(KeyValueService kvs, TableReference tableRef, long timestamp) {
+        return new RowNameSampler(kvs, tableRef, timestamp).sample();
+    }
+
+    @Override
+    public List<byte[]> getPartitions(int numberRanges) {
+        List<byte[]> ret = Lists.newArrayList();
+        ret.add(PtBytes.EMPTY_BYTE_ARRAY);
+        if (totalRows == 0 || rowNames.length == 0) {
+            return ret;
+        }
+        for (int i = 1; i < numberRanges; i++) {
+            byte[] partition = getRowNameWithRowsBefore((double) totalRows * i / numberRanges);
+            if (UnsignedBytes.lexicographicalComparator().compare(partition, ret.get(ret.size() - 1)) > 0) {
+                ret.add(partition);
+            }
+        }
+        return ret;
+    }
+
+    private byte[] getRowNameWithRowsBefore(double targetRowsBefore) {
+        int index = 0;
+        while (index < rowNames.length && rowsBefore[index] < targetRowsBefore) {
+            index++;
+        }
+        if (index == 0) {
+            return rowNames[0];
+        }
+        byte[] previousRowName = rowNames[index - 1];
+        long previousRowsBefore = rowsBefore[index - 1];
+        byte[] nextRowName = index < rowNames.length ? rowNames[index] : PtBytes.EMPTY_BYTE_ARRAY;
+        long nextRowsBefore = index < rowNames.length ? rowsBefore[index] : totalRows;
+        if (nextRowsBefore == targetRowsBefore && index < rowNames.length) {
+            return nextRowName;
+        }
+        return interpolate(previousRowName, nextRowName,
+                (targetRowsBefore - previousRowsBefore) / (nextRowsBefore - previousRowsBefore));
+    }
+
+    @Override
+    public boolean isHotSpot() {
+        return false;
+    }
+
+    @Override
+    public List<RowNamePartitioner> compound(RowNamePartitioner next) {
+        return ImmutableList.<RowNamePartitioner>of(this);
+    }
+
+    /**
+     * Returns the row name the given fraction of the way from startRow to endRow, where an empty endRow is the end
+     * of the key space. The result is never less than startRow, and is less than endRow if fraction is less than 1.
+     */
+    static byte[] interpolate(byte[] startRow, byte[] endRow, double fraction) {
+        int length = Math.max(startRow.length, endRow.length) + 1;
+        BigInteger start = toNumber(startRow, length);
+        BigInteger width = toEndNumber(endRow, length).subtract(start);
+        BigInteger offset = width.multiply(BigInteger.valueOf((long) (fraction * (1L << FRACTION_BITS))))
+                .shiftRight(FRACTION_BITS);
+        byte[] rowName = toBytes(start.add(offset), length);
+        return UnsignedBytes.lexicographicalComparator().compare(rowName, startRow) < 0 ? startRow : rowName;
+    }
+
+    /**
+     * Returns how far rowName is from startRow towards endRow, as a fraction between 0 and 1, where an empty endRow
+     * is the end of the key space.
+     */
+    static double fraction(byte[] startRow, byte[] endRow, byte[] rowName) {
+        int length = Math.max(Math.max(startRow.length, endRow.length), rowName.length) + 1;
+        BigInteger start = toNumber(startRow, length);
+        BigInteger width = toEndNumber(endRow, length).subtract(start);
+        if (width.signum() <= 0) {
+            return 1.0;
+        }
+        BigDecimal offset = new BigDecimal(toNumber(rowName, length).subtract(start));
+        double fraction = offset.divide(new BigDecimal(width), MathContext.DECIMAL64).doubleValue();
+        return Math.max(0.0, Math.min(1.0, fraction));
+    }
+
+    private static BigInteger toNumber(byte[] rowName, int length) {
+        return new BigInteger(1, Arrays.copyOf(rowName, length));
+    }
+
+    private static BigInteger toEndNumber(byte[] endRow, int length) {
+        if (endRow.length == 0) {
+            byte[] endOfKeySpace = new byte[length];
+            Arrays.fill(endOfKeySpace, (byte) 0xff);
+            return new BigInteger(1, endOfKeySpace);
+        }
+        return toNumber(endRow, length);
+    }
+
+    private static byte[] toBytes(BigInteger num, int length) {
+        byte[] rawBytes = num.toByteArray();
+        byte[] paddedBytes = new byte[length];
+        int copyLength = Math.min(rawBytes.length, length);
+        System.arraycopy(rawBytes, rawBytes.length - copyLength, paddedBytes, length - copyLength, copyLength);
+        return paddedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SampledRowNamePartitioner [numPoints=" + rowNames.length + ", totalRows=" + totalRows + "]";
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(rowNames) * 31 + Arrays.hashCode(rowsBefore) * 17 + Longs.hashCode(totalRows);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        SampledRowNamePartitioner other = (SampledRowNamePartitioner) obj;
+        return totalRows == other.totalRows
+                && Arrays.deepEquals(rowNames, other.rowNames)
+                && Arrays.equals(rowsBefore, other.rowsBefore);
+    }
+}
@@ -58,6 +58,7 @@ import com.google.common.io.ByteStreams;
 import com.google.common.io.CountingInputStream;
 import com.google.common.primitives.Ints;
 import com.google.protobuf.ByteString;
+import com.palantir.atlasdb.compress.CompressionUtils;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
@@ -94,14 +95,20 @@ public class StreamStoreRenderer {
     private final String schemaName;
     private final int inMemoryThreshold;
     private final boolean clientSideCompression;
+    private final boolean clientSideBlockCompression;
 
     public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, boolean clientSideCompression) {
+        this(name, streamIdType, packageName, schemaName, inMemoryThreshold, clientSideCompression, false);
+    }
+
+    public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, boolean clientSideCompression, boolean clientSideBlockCompression) {
         this.name = name;
         this.streamIdType = streamIdType;
         this.packageName = packageName;
         this.schemaName = schemaName;
         this.inMemoryThreshold = inMemoryThreshold;
         this.clientSideCompression = clientSideCompression;
+        this.clientSideBlockCompression = clientSideBlockCompression;
     }
 
     public String getPackageName() {
@@ -182,6 +189,8 @@ public class StreamStoreRenderer {
                         line();
                         loadStreamsWithCompression();
                         line();
+                        loadStreamRangeWithCompression();
+                        line();
                         tryWriteStreamToFile();
                         line();
                         makeStreamUsingTransaction();
@@ -257,7 +266,11 @@ public class StreamStoreRenderer {
                     line("try {"); {
                         line("// Do a touch operation on this table to ensure we get a conflict if someone cleans it up.");
                         line("touchMetadataWhileStoringForConflicts(t, row.getId(), row.getBlockId());");
-                        line("tables.get", StreamValueTable, "(t).putValue(row, block);");
+                        if (clientSideBlockCompression) {
+                            line("tables.get", StreamValueTable, "(t).putValue(row, CompressionUtils.compressWithLz4(block));");
+                        } else {
+                            line("tables.get", StreamValueTable, "(t).putValue(row, block);");
+                        }
                     } line("} catch (RuntimeException e) {"); {
                         line("log.error(\"Error storing block {} for stream id {}\", row.getBlockId(), row.getId(), e);");
                         line("throw e;");
@@ -354,7 +367,11 @@ public class StreamStoreRenderer {
             private void getBlock() {
                 line("private byte[] getBlock(Transaction t, ", StreamValueRow, " row) {"); {
                     line(StreamValueTable, " valueTable = tables.get", StreamValueTable, "(t);");
-                    line("return valueTable.getValues(ImmutableSet.of(row)).get(row);");
+                    if (clientSideBlockCompression) {
+                        line("return CompressionUtils.decompressWithLz4(valueTable.getValues(ImmutableSet.of(row)).get(row));");
+                    } else {
+                        line("return valueTable.getValues(ImmutableSet.of(row)).get(row);");
+                    }
                 } line("}");
             }
 
@@ -599,6 +616,14 @@ public class StreamStoreRenderer {
                 } line("}");
             }
 
+            private void loadStreamRangeWithCompression() {
+                line("@Override");
+                line("public InputStream loadStreamRange(Transaction t, final ", StreamId, " id, long offset, long length) {"); {
+                    line("// Compressed blocks do not line up with offsets in the original stream, so decompress from the start.");
+                    line("return sliceStream(loadStream(t, id), offset, length);");
+                } line("}");
+            }
+
             private void tryWriteStreamToFile() {
                 line("@Override");
                 line("protected void tryWriteStreamToFile(Transaction transaction, ", StreamId, " id, StreamMetadata metadata, FileOutputStream fos) throws IOException {"); {
@@ -830,6 +855,7 @@ public class StreamStoreRenderer {
         CheckForNull.class,
         Generated.class,
         LZ4CompressingInputStream.class,
+        CompressionUtils.class,
         LZ4BlockInputStream.class,
         Pair.class,
         Functions.class,
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.Optional;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.CellReference;
+import com.palantir.atlasdb.keyvalue.api.ImmutableCellReference;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.impl.CellReadCachePolicyManager.Policy;
+
+/**
+ * A weight-bounded cache of cells read by the transactions of one transaction manager, for the tables that
+ * {@link CellReadCachePolicyManager} allows to be cached.
+ *
+ * Each entry records the version of a cell that a transaction saw at its start timestamp: its value, which is empty
+ * if the cell was deleted or never written, and the commit timestamp of the transaction that wrote it. Seeing that
+ * version at start timestamp S shows that no later version of the cell committed before S, so the entry holds for
+ * every reader whose start timestamp is after the commit timestamp and no later than S. Readers that started after S
+ * miss, because this client does not learn of writes from other clients; when they read the same version again, the
+ * entry is extended to their start timestamp.
+ */
+public final class CellReadCache {
+    private static final long DEFAULT_MAX_CACHE_BYTES = 16 * 1024 * 1024;
+    private static final long NEVER_WRITTEN = -1L;
+
+    private final CellReadCachePolicyManager policyManager;
+    private final Cache<CellReference, CachedVersion> cache;
+
+    @VisibleForTesting
+    CellReadCache(CellReadCachePolicyManager policyManager, long maxCacheBytes) {
+        this.policyManager = policyManager;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxCacheBytes)
+                .<CellReference, CachedVersion>weigher((cellRef, version) -> cellRef.cell().getRowName().length
+                        + cellRef.cell().getColumnName().length
+                        + version.value.length)
+                .build();
+    }
+
+    public static CellReadCache createWithNoCaching() {
+        return new CellReadCache(CellReadCachePolicyManager.createWithNoCaching(), 0);
+    }
+
+    public static CellReadCache create(KeyValueService kvs) {
+        return new CellReadCache(CellReadCachePolicyManager.create(kvs), DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    public Policy getPolicy(TableReference tableRef) {
+        return policyManager.get(tableRef);
+    }
+
+    /**
+     * Returns a copy of the value of the cell that is visible to a transaction with the given start timestamp, or
+     * {@link Optional#empty()} if the cache does not know it. Deleted and never written cells have an empty value.
+     */
+    public Optional<byte[]> get(TableReference tableRef, Cell cell, long startTimestamp) {
+        CachedVersion version = cache.getIfPresent(cellReference(tableRef, cell));
+        if (version == null || !version.isVisibleAt(startTimestamp)) {
+            return Optional.empty();
+        }
+        // Callers may modify the arrays we return, so never hand out the cached array itself.
+        return Optional.of(version.value.clone());
+    }
+
+    /**
+     * Records that the latest version of the cell visible at startTimestamp, which may be a deletion, was written by
+     * the transaction that committed at commitTimestamp.
+     */
+    public void putVisibleVersion(
+            TableReference tableRef,
+            Cell cell,
+            long startTimestamp,
+            long commitTimestamp,
+            byte[] value) {
+        put(tableRef, cell, new CachedVersion(value.clone(), commitTimestamp, startTimestamp));
+    }
+
+    /**
+     * Records that no version of the cell, not even a deletion, was visible at startTimestamp.
+     */
+    public void putNeverWritten(TableReference tableRef, Cell cell, long startTimestamp) {
+        put(tableRef, cell, new CachedVersion(new byte[0], NEVER_WRITTEN, startTimestamp));
+    }
+
+    private void put(TableReference tableRef, Cell cell, CachedVersion version) {
+        Policy policy = getPolicy(tableRef);
+        if (policy == Policy.NONE || (policy == Policy.ABSENT_CELLS && version.value.length != 0)) {
+            return;
+        }
+        cache.asMap().merge(cellReference(tableRef, cell), version, CachedVersion::merge);
+    }
+
+    private static CellReference cellReference(TableReference tableRef, Cell cell) {
+        return ImmutableCellReference.builder().tableRef(tableRef).cell(cell).build();
+    }
+
+    private static final class CachedVersion {
+        private final byte[] value;
+        private final long commitTimestamp;
+        private final long lastReadTimestamp;
+
+        CachedVersion(byte[] value, long commitTimestamp, long lastReadTimestamp) {
+            this.value = value;
+            this.commitTimestamp = commitTimestamp;
+            this.lastReadTimestamp = lastReadTimestamp;
+        }
+
+        boolean isVisibleAt(long startTimestamp) {
+            return commitTimestamp < startTimestamp && startTimestamp <= lastReadTimestamp;
+        }
+
+        /**
+         * Commit timestamps identify the writing transaction, so two reads that saw the same commit timestamp saw the
+         * same version, and the version was the latest one for every start timestamp between them. Otherwise we keep
+         * the version that was read most recently, as later readers are the more likely to ask for it.
+         */
+        static CachedVersion merge(CachedVersion existing, CachedVersion update) {
+            if (existing.commitTimestamp == update.commitTimestamp) {
+                return existing.lastReadTimestamp >= update.lastReadTimestamp
+                        ? existing
+                        : new CachedVersion(existing.value, existing.commitTimestamp, update.lastReadTimestamp);
+            }
+            return existing.lastReadTimestamp > update.lastReadTimestamp ? existing : update;
+        }
+    }
+}
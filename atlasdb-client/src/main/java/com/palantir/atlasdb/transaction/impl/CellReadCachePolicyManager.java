@@ -0,0 +1,87 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.CachePriority;
+import com.palantir.atlasdb.table.description.TableMetadata;
+
+/**
+ * Decides, from the {@link CachePriority} and negative lookups flag in each table's metadata, which cells a
+ * {@link CellReadCache} may keep.
+ *
+ * Like {@link ConflictDetectionManager}, this does not attempt to invalidate metadata that changes after it was
+ * first loaded.
+ */
+public final class CellReadCachePolicyManager {
+    public enum Policy {
+        /**
+         * Every read goes to the key value service.
+         */
+        NONE,
+        /**
+         * Cells found to be absent are remembered, so repeated lookups of missing cells are served locally.
+         */
+        ABSENT_CELLS,
+        /**
+         * Both present and absent cells are remembered.
+         */
+        ALL_CELLS
+    }
+
+    private final LoadingCache<TableReference, Policy> cache;
+
+    private CellReadCachePolicyManager(CacheLoader<TableReference, Policy> loader) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(100_000)
+                .build(loader);
+    }
+
+    public static CellReadCachePolicyManager createWithNoCaching() {
+        return new CellReadCachePolicyManager(CacheLoader.from(tableRef -> Policy.NONE));
+    }
+
+    public static CellReadCachePolicyManager create(KeyValueService kvs) {
+        return new CellReadCachePolicyManager(CacheLoader.from(tableRef -> {
+            byte[] metadata = kvs.getMetadataForTable(tableRef);
+            if (metadata == null || metadata.length == 0) {
+                return Policy.NONE;
+            }
+            return getPolicyFromMetadata(TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(metadata));
+        }));
+    }
+
+    public Policy get(TableReference tableRef) {
+        return cache.getUnchecked(tableRef);
+    }
+
+    @VisibleForTesting
+    static Policy getPolicyFromMetadata(TableMetadata metadata) {
+        CachePriority cachePriority = metadata.getCachePriority();
+        if (cachePriority == CachePriority.HOT || cachePriority == CachePriority.HOTTEST) {
+            return Policy.ALL_CELLS;
+        }
+        if (metadata.hasNegativeLookups()) {
+            return Policy.ABSENT_CELLS;
+        }
+        return Policy.NONE;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.palantir.common.proxy.CallDecorator;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * A {@link CallDecorator} recording the same metrics and performance logs as
+ * {@link AtlasDbMetrics#instrument(MetricRegistry, Class, Object, String)}: a timer named
+ * {@code <serviceName>.<methodName>} of every call, successful or not, a meter
+ * {@code <serviceName>.<methodName>.failures} of failed calls and one per exception type below it, and a
+ * {@code failures} meter of failures across all services.
+ */
+public final class MetricsCallDecorator<T> implements CallDecorator<T> {
+    private static final String FAILURES = "failures";
+    private static final long LOG_DURATIONS_GREATER_THAN_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final MetricRegistry metricRegistry;
+    private final T delegate;
+    private final String serviceName;
+    private final Logger performanceLogger;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricsCallDecorator(MetricRegistry metricRegistry, T delegate, String serviceName) {
+        this.metricRegistry = metricRegistry;
+        this.delegate = delegate;
+        this.serviceName = serviceName;
+        this.performanceLogger = LoggerFactory.getLogger("performance." + serviceName);
+    }
+
+    @Override
+    public T delegate() {
+        return delegate;
+    }
+
+    @Override
+    public long beforeCall(String methodName) {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void afterSuccess(String methodName, long token) {
+        updateTimer(methodName, token);
+    }
+
+    @Override
+    public void afterFailure(String methodName, long token, Throwable error) {
+        metricRegistry.meter(FAILURES).mark();
+        String failuresMetricName = MetricRegistry.name(serviceName, methodName, FAILURES);
+        metricRegistry.meter(failuresMetricName).mark();
+        metricRegistry.meter(MetricRegistry.name(failuresMetricName, error.getClass().getName())).mark();
+        updateTimer(methodName, token);
+    }
+
+    private void updateTimer(String methodName, long token) {
+        long durationNanos = System.nanoTime() - token;
+        timers.computeIfAbsent(methodName, name -> metricRegistry.timer(MetricRegistry.name(serviceName, name)))
+                .update(durationNanos, TimeUnit.NANOSECONDS);
+        logDuration(methodName, durationNanos);
+    }
+
+    private void logDuration(String methodName, long durationNanos) {
+        if (performanceLogger.isTraceEnabled() && durationNanos > LOG_DURATIONS_GREATER_THAN_NANOS) {
+            performanceLogger.trace("{}.{} took {} ns",
+                    SafeArg.of("serviceName", serviceName),
+                    SafeArg.of("methodName", methodName),
+                    SafeArg.of("durationNanos", durationNanos));
+        }
+    }
+}
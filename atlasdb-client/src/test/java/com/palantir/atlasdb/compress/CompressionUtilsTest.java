@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
+
+@RunWith(Parameterized.class)
+public class CompressionUtilsTest {
+    private static final byte[] REPETITIVE_VALUE = PtBytes.toBytes(
+            "{\"status\":\"STORED\",\"length\":1024}{\"status\":\"STORED\",\"length\":1024}");
+
+    private final Compression compression;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> compressions() {
+        return Arrays.asList(new Object[][] {{Compression.SNAPPY}, {Compression.LZ4}, {Compression.ZSTD}});
+    }
+
+    public CompressionUtilsTest(Compression compression) {
+        this.compression = compression;
+    }
+
+    @Test
+    public void roundTripsEmptyValue() {
+        assertRoundTrips(new byte[0]);
+    }
+
+    @Test
+    public void roundTripsRepetitiveValue() {
+        assertRoundTrips(REPETITIVE_VALUE);
+    }
+
+    @Test
+    public void roundTripsRandomValue() {
+        byte[] value = new byte[100_000];
+        new Random(0).nextBytes(value);
+        assertRoundTrips(value);
+    }
+
+    @Test
+    public void compressesRepetitiveValue() {
+        assertThat(CompressionUtils.compress(REPETITIVE_VALUE, compression).length)
+                .isLessThan(REPETITIVE_VALUE.length);
+    }
+
+    @Test
+    public void throwsOnBytesThatWereNotCompressed() {
+        byte[] garbage = new byte[] {-1, -1, -1, -1, -1, -1, -1, -1};
+        assertThatThrownBy(() -> CompressionUtils.decompress(garbage, compression))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void roundTripsHighlyCompressibleValue() {
+        assertRoundTrips(new byte[1_000_000]);
+    }
+
+    @Test
+    public void throwsOnLz4LengthTooLargeForCompressedBytes() {
+        Assume.assumeTrue(compression == Compression.LZ4);
+        byte[] corrupt = CompressionUtils.compress(REPETITIVE_VALUE, compression);
+        corrupt[0] = 0x7f;
+        assertThatThrownBy(() -> CompressionUtils.decompress(corrupt, compression))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void throwsOnNegativeLz4Length() {
+        Assume.assumeTrue(compression == Compression.LZ4);
+        byte[] corrupt = CompressionUtils.compress(REPETITIVE_VALUE, compression);
+        corrupt[0] = (byte) 0x80;
+        assertThatThrownBy(() -> CompressionUtils.decompress(corrupt, compression))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertRoundTrips(byte[] value) {
+        byte[] compressed = CompressionUtils.compress(value, compression);
+        assertThat(CompressionUtils.decompress(compressed, compression)).isEqualTo(value);
+    }
+}
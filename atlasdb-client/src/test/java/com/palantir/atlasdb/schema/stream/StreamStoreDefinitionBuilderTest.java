@@ -15,6 +15,10 @@
  */
 package com.palantir.atlasdb.schema.stream;
 
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
 
 import org.junit.Test;
 
@@ -35,4 +39,36 @@ public class StreamStoreDefinitionBuilderTest {
                 .inMemoryThreshold(StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD)
                 .build();
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotCompressBothStreamsAndBlocks() {
+        new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .compressStreamInClient()
+                .compressBlocksInClient()
+                .build();
+    }
+
+    @Test
+    public void blockCompressionCompressesEachBlockInGeneratedCode() {
+        String streamStore = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .compressBlocksInClient()
+                .build()
+                .getRenderer("package", "Test")
+                .renderStreamStore();
+
+        assertThat(streamStore, allOf(
+                containsString("CompressionUtils.compressWithLz4(block)"),
+                containsString("CompressionUtils.decompressWithLz4("),
+                not(containsString("LZ4CompressingInputStream(hashingStream)"))));
+    }
+
+    @Test
+    public void blocksAreNotCompressedByDefault() {
+        String streamStore = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .build()
+                .getRenderer("package", "Test")
+                .renderStreamStore();
+
+        assertThat(streamStore, not(containsString("CompressionUtils.compressWithLz4")));
+    }
 }
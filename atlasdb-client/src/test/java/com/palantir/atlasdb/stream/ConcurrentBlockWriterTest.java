@@ -0,0 +1,181 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ConcurrentBlockWriterTest {
+    private static final byte[] BLOCK = new byte[] {1, 2, 3};
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void writesAllSubmittedBlocks() throws InterruptedIOException {
+        Map<Long, byte[]> written = new ConcurrentHashMap<>();
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor, written::put, 4);
+
+        for (long i = 0; i < 100; i++) {
+            writer.submit(i, BLOCK);
+        }
+        writer.awaitCompletion();
+
+        assertThat(written).hasSize(100);
+    }
+
+    @Test
+    public void neverHasMoreThanMaxWritesInFlight() throws InterruptedIOException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxObserved = new AtomicInteger();
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor, (blockNumber, block) -> {
+            maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleepUninterruptibly(5);
+            inFlight.decrementAndGet();
+        }, 3);
+
+        for (long i = 0; i < 30; i++) {
+            writer.submit(i, BLOCK);
+        }
+        writer.awaitCompletion();
+
+        assertThat(maxObserved.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void submitBlocksWhileWriteWindowIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor,
+                (blockNumber, block) -> awaitUninterruptibly(release), 1);
+        writer.submit(0, BLOCK);
+
+        CountDownLatch secondSubmitted = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                writer.submit(1, BLOCK);
+                secondSubmitted.countDown();
+            } catch (InterruptedIOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThat(secondSubmitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        assertThat(secondSubmitted.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.awaitCompletion();
+    }
+
+    @Test
+    public void rethrowsWriteFailureOnCompletion() throws InterruptedIOException {
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor, (blockNumber, block) -> {
+            throw new IllegalStateException("boom");
+        }, 2);
+
+        writer.submit(0, BLOCK);
+
+        assertThatThrownBy(writer::awaitCompletion)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("boom");
+    }
+
+    @Test
+    public void rethrowsWriteFailureOnSubsequentSubmit() throws InterruptedIOException {
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor, (blockNumber, block) -> {
+            throw new IllegalStateException("boom");
+        }, 1);
+
+        writer.submit(0, BLOCK);
+
+        assertThatThrownBy(() -> writer.submit(1, BLOCK))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("boom");
+    }
+
+    @Test
+    public void abandonedUploadDoesNotHangIfWriteFailsWhileBlocksAreSubmitted() throws Exception {
+        CountDownLatch failFirstWrite = new CountDownLatch(1);
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor, (blockNumber, block) -> {
+            if (blockNumber == 0) {
+                awaitUninterruptibly(failFirstWrite);
+                throw new IllegalStateException("boom");
+            }
+        }, 2);
+
+        // As AbstractPersistentStreamStore does: submit until a failure surfaces, then wait for in-flight writes.
+        Future<Void> upload = executor.submit(() -> {
+            try {
+                for (long i = 0; i < 1000; i++) {
+                    writer.submit(i, BLOCK);
+                    if (i == 1) {
+                        failFirstWrite.countDown();
+                    }
+                }
+            } catch (IllegalStateException e) {
+                writer.awaitInFlightWrites();
+                throw e;
+            }
+            return null;
+        });
+
+        assertThatThrownBy(() -> upload.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void awaitInFlightWritesIgnoresFailures() throws InterruptedIOException {
+        ConcurrentBlockWriter writer = new ConcurrentBlockWriter(executor, (blockNumber, block) -> {
+            throw new IllegalStateException("boom");
+        }, 2);
+
+        writer.submit(0, BLOCK);
+        writer.awaitInFlightWrites();
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.description;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+
+public class SampledRowNamePartitionerTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final long START_MILLIS = 1_500_000_000_000L;
+
+    @Test
+    public void partitionsSampleIntoEqualParts() {
+        List<byte[]> sample = Lists.newArrayList();
+        for (int i = 99; i >= 0; i--) {
+            sample.add(new byte[] {(byte) i});
+        }
+
+        assertThat(SampledRowNamePartitioner.fromSample(sample).getPartitions(4)).containsExactly(
+                PtBytes.EMPTY_BYTE_ARRAY, new byte[] {25}, new byte[] {50}, new byte[] {75});
+    }
+
+    @Test
+    public void emptySampleHasOnePartition() {
+        assertThat(SampledRowNamePartitioner.fromSample(Lists.newArrayList()).getPartitions(4))
+                .containsExactly(PtBytes.EMPTY_BYTE_ARRAY);
+    }
+
+    @Test
+    public void interpolatesBetweenRowNames() {
+        assertThat(SampledRowNamePartitioner.interpolate(PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY, 0.5))
+                .isEqualTo(new byte[] {0x7f});
+        assertThat(SampledRowNamePartitioner.interpolate(new byte[] {0x10}, new byte[] {0x11}, 0.5))
+                .isEqualTo(new byte[] {0x10, (byte) 0x80});
+        assertThat(SampledRowNamePartitioner.fraction(new byte[] {0x00}, new byte[] {0x10}, new byte[] {0x08}))
+                .isEqualTo(0.5);
+    }
+
+    @Test
+    public void sampleOfEmptyTableHasOnePartition() {
+        KeyValueService kvs = createKvsWithRows(0);
+
+        assertThat(SampledRowNamePartitioner.sample(kvs, TABLE, Long.MAX_VALUE).getPartitions(4))
+                .containsExactly(PtBytes.EMPTY_BYTE_ARRAY);
+    }
+
+    @Test
+    public void sampleBalancesTimestampPrefixedRows() {
+        KeyValueService kvs = createKvsWithRows(1000);
+
+        List<byte[]> partitions = SampledRowNamePartitioner.sample(kvs, TABLE, Long.MAX_VALUE).getPartitions(4);
+
+        assertThat(partitions).hasSize(4);
+        for (int i = 0; i < partitions.size(); i++) {
+            long rowsInPartition = countRows(partitions.get(i),
+                    i + 1 < partitions.size() ? partitions.get(i + 1) : PtBytes.EMPTY_BYTE_ARRAY);
+            assertThat(rowsInPartition).isBetween(200L, 300L);
+        }
+    }
+
+    private static KeyValueService createKvsWithRows(int numRows) {
+        KeyValueService kvs = new InMemoryKeyValueService(false);
+        kvs.createTable(TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        Map<Cell, byte[]> values = Maps.newHashMap();
+        for (int i = 0; i < numRows; i++) {
+            values.put(Cell.create(timestampRow(i), PtBytes.toBytes("c")), PtBytes.toBytes(i));
+        }
+        kvs.put(TABLE, values, 1L);
+        return kvs;
+    }
+
+    private static long countRows(byte[] startRow, byte[] endRow) {
+        long count = 0;
+        for (int i = 0; i < 1000; i++) {
+            byte[] row = timestampRow(i);
+            if (UnsignedBytes.lexicographicalComparator().compare(row, startRow) >= 0
+                    && (endRow.length == 0 || UnsignedBytes.lexicographicalComparator().compare(row, endRow) < 0)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] timestampRow(int index) {
+        return Longs.toByteArray(START_MILLIS + index * 1000L);
+    }
+}
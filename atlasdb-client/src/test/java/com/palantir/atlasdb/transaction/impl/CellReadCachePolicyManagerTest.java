@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.CachePriority;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.table.description.ColumnMetadataDescription;
+import com.palantir.atlasdb.table.description.NameMetadataDescription;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.transaction.api.ConflictHandler;
+import com.palantir.atlasdb.transaction.impl.CellReadCachePolicyManager.Policy;
+
+public class CellReadCachePolicyManagerTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+
+    @Test
+    public void hotTablesCacheAllCells() {
+        assertThat(policyFor(CachePriority.HOT, false)).isEqualTo(Policy.ALL_CELLS);
+        assertThat(policyFor(CachePriority.HOTTEST, true)).isEqualTo(Policy.ALL_CELLS);
+    }
+
+    @Test
+    public void negativeLookupTablesCacheAbsentCells() {
+        assertThat(policyFor(CachePriority.WARM, true)).isEqualTo(Policy.ABSENT_CELLS);
+        assertThat(policyFor(CachePriority.COLDEST, true)).isEqualTo(Policy.ABSENT_CELLS);
+    }
+
+    @Test
+    public void otherTablesAreNotCached() {
+        assertThat(policyFor(CachePriority.WARM, false)).isEqualTo(Policy.NONE);
+        assertThat(policyFor(CachePriority.COLD, false)).isEqualTo(Policy.NONE);
+    }
+
+    @Test
+    public void tablesWithoutMetadataAreNotCached() {
+        KeyValueService kvs = mock(KeyValueService.class);
+        when(kvs.getMetadataForTable(TABLE)).thenReturn(new byte[0]);
+
+        assertThat(CellReadCachePolicyManager.create(kvs).get(TABLE)).isEqualTo(Policy.NONE);
+    }
+
+    @Test
+    public void readsPolicyFromPersistedMetadata() {
+        KeyValueService kvs = mock(KeyValueService.class);
+        when(kvs.getMetadataForTable(TABLE)).thenReturn(metadata(CachePriority.HOTTEST, false).persistToBytes());
+
+        assertThat(CellReadCachePolicyManager.create(kvs).get(TABLE)).isEqualTo(Policy.ALL_CELLS);
+    }
+
+    @Test
+    public void noCachingManagerIgnoresMetadata() {
+        assertThat(CellReadCachePolicyManager.createWithNoCaching().get(TABLE)).isEqualTo(Policy.NONE);
+    }
+
+    private static Policy policyFor(CachePriority cachePriority, boolean negativeLookups) {
+        return CellReadCachePolicyManager.getPolicyFromMetadata(metadata(cachePriority, negativeLookups));
+    }
+
+    private static TableMetadata metadata(CachePriority cachePriority, boolean negativeLookups) {
+        return new TableMetadata(
+                new NameMetadataDescription(),
+                new ColumnMetadataDescription(),
+                ConflictHandler.RETRY_ON_WRITE_WRITE,
+                cachePriority,
+                false,
+                0,
+                negativeLookups,
+                SweepStrategy.CONSERVATIVE,
+                false);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.CachePriority;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.table.description.ColumnMetadataDescription;
+import com.palantir.atlasdb.table.description.NameMetadataDescription;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.transaction.api.ConflictHandler;
+
+public class CellReadCacheTest {
+    private static final TableReference HOT_TABLE = TableReference.createFromFullyQualifiedName("test.hot");
+    private static final TableReference NEGATIVE_LOOKUPS_TABLE =
+            TableReference.createFromFullyQualifiedName("test.negative_lookups");
+    private static final TableReference UNCACHED_TABLE = TableReference.createFromFullyQualifiedName("test.uncached");
+    private static final Cell CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("column"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+
+    private final CellReadCache cache = createCache();
+
+    @Test
+    public void servesVersionsToReadersBetweenTheirCommitAndTheirRead() {
+        cache.putVisibleVersion(HOT_TABLE, CELL, 20, 10, VALUE);
+
+        assertThat(cache.get(HOT_TABLE, CELL, 10)).isEmpty();
+        assertThat(cache.get(HOT_TABLE, CELL, 11)).hasValue(VALUE);
+        assertThat(cache.get(HOT_TABLE, CELL, 20)).hasValue(VALUE);
+        assertThat(cache.get(HOT_TABLE, CELL, 21)).isEmpty();
+    }
+
+    @Test
+    public void servesNeverWrittenCellsToAllEarlierReaders() {
+        cache.putNeverWritten(HOT_TABLE, CELL, 20);
+
+        assertThat(cache.get(HOT_TABLE, CELL, 1)).hasValue(PtBytes.EMPTY_BYTE_ARRAY);
+        assertThat(cache.get(HOT_TABLE, CELL, 20)).hasValue(PtBytes.EMPTY_BYTE_ARRAY);
+        assertThat(cache.get(HOT_TABLE, CELL, 21)).isEmpty();
+    }
+
+    @Test
+    public void rereadingTheSameVersionExtendsItToLaterReaders() {
+        cache.putVisibleVersion(HOT_TABLE, CELL, 20, 10, VALUE);
+        cache.putVisibleVersion(HOT_TABLE, CELL, 30, 10, VALUE);
+
+        assertThat(cache.get(HOT_TABLE, CELL, 15)).hasValue(VALUE);
+        assertThat(cache.get(HOT_TABLE, CELL, 30)).hasValue(VALUE);
+    }
+
+    @Test
+    public void keepsTheMostRecentlyReadVersion() {
+        cache.putVisibleVersion(HOT_TABLE, CELL, 30, 25, PtBytes.toBytes("newer"));
+        cache.putVisibleVersion(HOT_TABLE, CELL, 20, 10, VALUE);
+
+        assertThat(cache.get(HOT_TABLE, CELL, 30)).hasValue(PtBytes.toBytes("newer"));
+        assertThat(cache.get(HOT_TABLE, CELL, 20)).isEmpty();
+    }
+
+    @Test
+    public void negativeLookupTablesOnlyCacheDeletedAndNeverWrittenCells() {
+        Cell deletedCell = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("deleted"));
+        Cell neverWrittenCell = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("never_written"));
+        cache.putVisibleVersion(NEGATIVE_LOOKUPS_TABLE, CELL, 20, 10, VALUE);
+        cache.putVisibleVersion(NEGATIVE_LOOKUPS_TABLE, deletedCell, 20, 10, PtBytes.EMPTY_BYTE_ARRAY);
+        cache.putNeverWritten(NEGATIVE_LOOKUPS_TABLE, neverWrittenCell, 20);
+
+        assertThat(cache.get(NEGATIVE_LOOKUPS_TABLE, CELL, 15)).isEmpty();
+        assertThat(cache.get(NEGATIVE_LOOKUPS_TABLE, deletedCell, 15)).hasValue(PtBytes.EMPTY_BYTE_ARRAY);
+        assertThat(cache.get(NEGATIVE_LOOKUPS_TABLE, neverWrittenCell, 15)).hasValue(PtBytes.EMPTY_BYTE_ARRAY);
+    }
+
+    @Test
+    public void doesNotCacheOtherTables() {
+        cache.putVisibleVersion(UNCACHED_TABLE, CELL, 20, 10, VALUE);
+        cache.putNeverWritten(UNCACHED_TABLE, CELL, 20);
+
+        assertThat(cache.get(UNCACHED_TABLE, CELL, 15)).isEmpty();
+    }
+
+    @Test
+    public void cachedValuesAreNotSharedWithCallers() {
+        byte[] value = VALUE.clone();
+        cache.putVisibleVersion(HOT_TABLE, CELL, 20, 10, value);
+        value[0] = 'x';
+        cache.get(HOT_TABLE, CELL, 15).get()[1] = 'x';
+
+        assertThat(cache.get(HOT_TABLE, CELL, 15)).hasValue(VALUE);
+    }
+
+    private static CellReadCache createCache() {
+        KeyValueService kvs = mock(KeyValueService.class);
+        when(kvs.getMetadataForTable(HOT_TABLE)).thenReturn(metadata(CachePriority.HOT, false));
+        when(kvs.getMetadataForTable(NEGATIVE_LOOKUPS_TABLE)).thenReturn(metadata(CachePriority.WARM, true));
+        when(kvs.getMetadataForTable(UNCACHED_TABLE)).thenReturn(metadata(CachePriority.WARM, false));
+        return CellReadCache.create(kvs);
+    }
+
+    private static byte[] metadata(CachePriority cachePriority, boolean negativeLookups) {
+        return new TableMetadata(
+                new NameMetadataDescription(),
+                new ColumnMetadataDescription(),
+                ConflictHandler.RETRY_ON_WRITE_WRITE,
+                cachePriority,
+                false,
+                0,
+                negativeLookups,
+                SweepStrategy.CONSERVATIVE,
+                false).persistToBytes();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.proxy;
+
+/**
+ * Hooks run around every call made through a decorator generated with {@code @AutoDecorate}. Unlike an
+ * {@link java.lang.reflect.InvocationHandler}, the generated decorator calls the delegate directly, so no
+ * {@link java.lang.reflect.Method} lookup, argument array or boxing is needed per call.
+ *
+ * @param <T> the decorated interface
+ */
+public interface CallDecorator<T> {
+    /**
+     * The object that calls are forwarded to.
+     */
+    T delegate();
+
+    /**
+     * Called before each call to the delegate. The returned token, for example a start time, is passed to
+     * {@link #afterSuccess} or {@link #afterFailure} once the call completes.
+     */
+    long beforeCall(String methodName);
+
+    void afterSuccess(String methodName, long token);
+
+    void afterFailure(String methodName, long token, Throwable error);
+}
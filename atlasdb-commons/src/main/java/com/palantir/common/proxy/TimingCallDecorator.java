@@ -0,0 +1,63 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.proxy;
+
+import org.slf4j.Logger;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Logs the duration of every call at trace level, as a {@link TimingProxy} with a
+ * {@link com.palantir.util.timer.LoggingOperationTimer} does, for use with decorators generated with
+ * {@code @AutoDecorate}.
+ *
+ * @param <T> the decorated interface
+ */
+public final class TimingCallDecorator<T> implements CallDecorator<T> {
+    private final T delegate;
+    private final Logger log;
+
+    public TimingCallDecorator(T delegate, Logger log) {
+        this.delegate = Preconditions.checkNotNull(delegate);
+        this.log = Preconditions.checkNotNull(log);
+    }
+
+    @Override
+    public T delegate() {
+        return delegate;
+    }
+
+    @Override
+    public long beforeCall(String methodName) {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void afterSuccess(String methodName, long token) {
+        logDuration(methodName, token);
+    }
+
+    @Override
+    public void afterFailure(String methodName, long token, Throwable error) {
+        logDuration(methodName, token);
+    }
+
+    private void logDuration(String methodName, long startTimeMillis) {
+        if (log.isTraceEnabled()) {
+            log.trace("Duration [{}] ms : {}", System.currentTimeMillis() - startTimeMillis, methodName);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+public class TimingCallDecoratorTest {
+    private static final String METHOD_NAME = "getFreshTimestamp";
+
+    private final Runnable delegate = mock(Runnable.class);
+    private final Logger log = mock(Logger.class);
+    private final TimingCallDecorator<Runnable> decorator = new TimingCallDecorator<>(delegate, log);
+
+    @Test
+    public void forwardsToTheDelegate() {
+        assertThat(decorator.delegate()).isSameAs(delegate);
+    }
+
+    @Test
+    public void logsTheDurationOfSuccessfulAndFailedCalls() {
+        when(log.isTraceEnabled()).thenReturn(true);
+
+        decorator.afterSuccess(METHOD_NAME, decorator.beforeCall(METHOD_NAME));
+        decorator.afterFailure(METHOD_NAME, decorator.beforeCall(METHOD_NAME), new RuntimeException());
+
+        verify(log, times(2)).trace(anyString(), anyLong(), eq(METHOD_NAME));
+    }
+
+    @Test
+    public void doesNotLogIfTraceIsDisabled() {
+        decorator.afterSuccess(METHOD_NAME, decorator.beforeCall(METHOD_NAME));
+
+        verify(log, never()).trace(anyString(), anyLong(), anyString());
+    }
+}
@@ -53,6 +53,16 @@ public abstract class TimeLockClientConfig {
         return ImmutableServerListConfig.builder().build();
     }
 
+    /**
+     * If true, locks are kept alive through a lock session on the TimeLock server, so that each refresh request only
+     * carries the locks acquired since the previous one. Requires TimeLock servers that use the async lock service;
+     * while the servers do not support lock sessions, locks are refreshed individually.
+     */
+    @Value.Default
+    public boolean enableLockSessions() {
+        return false;
+    }
+
     public ServerListConfig toNamespacedServerList() {
         return ServerListConfigs.namespaceUris(serversList(), getClientOrThrow());
     }
@@ -26,11 +26,14 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import javax.net.ssl.SSLSocketFactory;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.Response;
 
 import org.immutables.value.Value;
 
 import com.codahale.metrics.InstrumentedExecutorService;
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
@@ -41,6 +44,7 @@ import com.palantir.atlasdb.config.LeaderRuntimeConfig;
 import com.palantir.atlasdb.http.AtlasDbHttpClients;
 import com.palantir.atlasdb.http.NotCurrentLeaderExceptionMapper;
 import com.palantir.atlasdb.http.UserAgents;
+import com.palantir.atlasdb.http.errors.AtlasDbRemoteException;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.concurrent.PTExecutors;
@@ -118,7 +122,7 @@ public final class Leaders {
 
         PaxosAcceptor ourAcceptor = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
                 PaxosAcceptor.class,
-                PaxosAcceptorImpl.newAcceptor(config.acceptorLogDir().getPath()));
+                PaxosAcceptorImpl.newAcceptor(config.acceptorLogDir().getPath(), config.leaderLeaseMs()));
         PaxosLearner ourLearner = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
                 PaxosLearner.class,
                 PaxosLearnerImpl.newLearner(config.learnerLogDir().getPath(), leadershipEventRecorder));
@@ -171,6 +175,8 @@ public final class Leaders {
                 .leaderPingResponseWaitMs(config.leaderPingResponseWaitMs())
                 .eventRecorder(leadershipEventRecorder)
                 .onlyLogOnQuorumFailure(JavaSuppliers.compose(LeaderRuntimeConfig::onlyLogOnQuorumFailure, runtime))
+                .leaderLeaseMs(config.leaderLeaseMs())
+                .isUnsupportedEndpoint(Leaders::isNotFound)
                 .build();
 
         LeaderElectionService leaderElectionService = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
@@ -189,6 +195,12 @@ public final class Leaders {
                 .build();
     }
 
+    private static boolean isNotFound(RuntimeException exception) {
+        return Throwables.getCausalChain(exception).stream().anyMatch(cause -> cause instanceof NotFoundException
+                || (cause instanceof AtlasDbRemoteException
+                        && ((AtlasDbRemoteException) cause).getStatus() == Response.Status.NOT_FOUND.getStatusCode()));
+    }
+
     public static <T> List<T> createProxyAndLocalList(
             MetricRegistry metrics,
             T localObject,
@@ -22,6 +22,7 @@ import java.net.ProxySelector;
 import java.net.SocketAddress;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -30,15 +31,19 @@ import javax.net.ssl.SSLSocketFactory;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HostAndPort;
 import com.palantir.atlasdb.config.ServerListConfig;
 import com.palantir.atlasdb.http.AtlasDbHttpClients;
-import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.atlasdb.http.OkHttpClientMetrics;
+import com.palantir.atlasdb.util.InstrumentedServices;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.remoting.api.config.service.ProxyConfiguration;
 import com.palantir.remoting.api.config.ssl.SslConfiguration;
 import com.palantir.remoting3.config.ssl.SslSocketFactories;
 
+import okhttp3.Protocol;
+
 public class ServiceCreator<T> implements Function<ServerListConfig, T> {
     private final MetricsManager metricsManager;
     private final Class<T> serviceClass;
@@ -83,13 +88,31 @@ public class ServiceCreator<T> implements Function<ServerListConfig, T> {
             java.util.function.Function<ProxyConfiguration, ProxySelector> proxySelectorCreator,
             Class<T> type,
             String userAgent) {
+        registerHttpClientMetrics(metricsManager);
         return AtlasDbHttpClients.createLiveReloadingProxyWithFailover(
                 metricsManager.getRegistry(),
                 serverListConfigSupplier, sslSocketFactoryCreator, proxySelectorCreator, type, userAgent);
     }
 
+    private static void registerHttpClientMetrics(MetricsManager metricsManager) {
+        OkHttpClientMetrics metrics = OkHttpClientMetrics.instance();
+        metricsManager.registerOrGet(OkHttpClientMetrics.class, "pooledConnections",
+                metrics::getPooledConnectionCount, ImmutableMap.of());
+        metricsManager.registerOrGet(OkHttpClientMetrics.class, "idleConnections",
+                metrics::getIdleConnectionCount, ImmutableMap.of());
+        metricsManager.registerOrGet(OkHttpClientMetrics.class, "connectionsOpened",
+                metrics::getConnectionsOpened, ImmutableMap.of());
+        for (Protocol protocol : OkHttpClientMetrics.TRACKED_PROTOCOLS) {
+            Map<String, String> tags = ImmutableMap.of("protocol", protocol.toString());
+            metricsManager.registerOrGet(OkHttpClientMetrics.class, "activeCalls",
+                    () -> metrics.getActiveCalls(protocol), tags);
+            metricsManager.registerOrGet(OkHttpClientMetrics.class, "totalCalls",
+                    () -> metrics.getTotalCalls(protocol), tags);
+        }
+    }
+
     public static <T> T createInstrumentedService(MetricRegistry metricRegistry, T service, Class<T> serviceClass) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 serviceClass,
                 service,
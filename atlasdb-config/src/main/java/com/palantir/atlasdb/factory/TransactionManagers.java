@@ -121,6 +121,7 @@ import com.palantir.atlasdb.transaction.impl.consistency.ImmutableTimestampCorro
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionServices;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.atlasdb.util.InstrumentedServices;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.common.annotation.Output;
@@ -136,6 +137,7 @@ import com.palantir.lock.client.LockRefreshingLockService;
 import com.palantir.lock.client.TimeLockClient;
 import com.palantir.lock.impl.LegacyTimelockService;
 import com.palantir.lock.impl.LockServiceImpl;
+import com.palantir.lock.v2.LockSessionService;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.remoting.api.config.service.ServiceConfiguration;
@@ -323,7 +325,7 @@ public abstract class TransactionManagers {
             }
 
             kvs = TracingKeyValueService.create(kvs);
-            kvs = AtlasDbMetrics.instrument(metricsManager.getRegistry(), KeyValueService.class,
+            kvs = InstrumentedServices.instrument(metricsManager.getRegistry(), KeyValueService.class,
                     kvs, MetricRegistry.name(KeyValueService.class));
             return ValidatingQueryRewritingKeyValueService.create(kvs);
         }, closeables);
@@ -696,7 +698,10 @@ public abstract class TransactionManagers {
 
     private static LockAndTimestampServices withRefreshingLockService(
             LockAndTimestampServices lockAndTimestampServices) {
-        TimeLockClient timeLockClient = TimeLockClient.createDefault(lockAndTimestampServices.timelock());
+        TimeLockClient timeLockClient = lockAndTimestampServices.lockSessions()
+                .map(lockSessions -> TimeLockClient.createWithLockSessions(
+                        lockAndTimestampServices.timelock(), lockSessions))
+                .orElseGet(() -> TimeLockClient.createDefault(lockAndTimestampServices.timelock()));
         return ImmutableLockAndTimestampServices.builder()
                 .from(lockAndTimestampServices)
                 .timelock(timeLockClient)
@@ -779,8 +784,9 @@ public abstract class TransactionManagers {
                 TimeLockMigrator.create(metricsManager,
                         serverListConfigSupplier, invalidator, userAgent, config.initializeAsync());
         migrator.migrate(); // This can proceed async if config.initializeAsync() was set
+        boolean enableLockSessions = config.timelock().map(TimeLockClientConfig::enableLockSessions).orElse(false);
         return ImmutableLockAndTimestampServices.copyOf(
-                getLockAndTimestampServices(metricsManager, serverListConfigSupplier, userAgent))
+                getLockAndTimestampServices(metricsManager, serverListConfigSupplier, userAgent, enableLockSessions))
                 .withMigrator(migrator);
     }
 
@@ -800,7 +806,8 @@ public abstract class TransactionManagers {
     private static LockAndTimestampServices getLockAndTimestampServices(
             MetricsManager metricsManager,
             Supplier<ServerListConfig> timelockServerListConfig,
-            String userAgent) {
+            String userAgent,
+            boolean enableLockSessions) {
         LockService lockService = new ServiceCreator<>(metricsManager, LockService.class, userAgent)
                 .applyDynamic(timelockServerListConfig);
         TimelockService timelockService = new ServiceCreator<>(metricsManager, TimelockService.class, userAgent)
@@ -808,12 +815,17 @@ public abstract class TransactionManagers {
         TimestampManagementService timestampManagementService =
                 new ServiceCreator<>(metricsManager, TimestampManagementService.class, userAgent)
                         .applyDynamic(timelockServerListConfig);
+        Optional<LockSessionService> lockSessions = enableLockSessions
+                ? Optional.of(new ServiceCreator<>(metricsManager, LockSessionService.class, userAgent)
+                        .applyDynamic(timelockServerListConfig))
+                : Optional.empty();
 
         return ImmutableLockAndTimestampServices.builder()
                 .lock(lockService)
                 .timestamp(new TimelockTimestampServiceAdapter(timelockService))
                 .timestampManagement(timestampManagementService)
                 .timelock(timelockService)
+                .lockSessions(lockSessions)
                 .build();
     }
 
@@ -992,6 +1004,7 @@ public abstract class TransactionManagers {
         TimestampManagementService timestampManagement();
         TimelockService timelock();
         Optional<TimeLockMigrator> migrator();
+        Optional<LockSessionService> lockSessions();
 
         @SuppressWarnings("checkstyle:WhitespaceAround")
         @Value.Default
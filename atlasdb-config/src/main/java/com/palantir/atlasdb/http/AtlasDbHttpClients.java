@@ -28,7 +28,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.palantir.atlasdb.config.ServerListConfig;
-import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.atlasdb.util.InstrumentedServices;
 import com.palantir.remoting.api.config.service.ProxyConfiguration;
 import com.palantir.remoting.api.config.ssl.SslConfiguration;
 
@@ -55,7 +55,7 @@ public final class AtlasDbHttpClients {
             String uri,
             Class<T> type,
             String userAgent) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 type,
                 AtlasDbFeignTargetFactory.createProxy(sslSocketFactory, uri, type, userAgent),
@@ -69,7 +69,7 @@ public final class AtlasDbHttpClients {
             boolean refreshingHttpClient,
             Class<T> type,
             String userAgent) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 type,
                 AtlasDbFeignTargetFactory.createProxy(sslSocketFactory, uri, refreshingHttpClient, type, userAgent),
@@ -181,7 +181,7 @@ public final class AtlasDbHttpClients {
             Collection<String> endpointUris,
             Class<T> type,
             String userAgent) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 type,
                 AtlasDbFeignTargetFactory.createProxyWithFailover(
@@ -196,7 +196,7 @@ public final class AtlasDbHttpClients {
             Function<ProxyConfiguration, ProxySelector> proxySelectorCreator,
             Class<T> type,
             String userAgent) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 type,
                 AtlasDbFeignTargetFactory.createLiveReloadingProxyWithFailover(
@@ -212,7 +212,7 @@ public final class AtlasDbHttpClients {
             Function<ProxyConfiguration, ProxySelector> proxySelectorCreator,
             Class<T> type,
             String userAgent) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 type,
                 AtlasDbFeignTargetFactory.createLiveReloadingProxyWithFailover(
@@ -232,7 +232,7 @@ public final class AtlasDbHttpClients {
             MetricRegistry metricRegistry,
             Optional<SSLSocketFactory> sslSocketFactory,
             Optional<ProxySelector> proxySelector, Collection<String> endpointUris, Class<T> type) {
-        return AtlasDbMetrics.instrument(
+        return InstrumentedServices.instrument(
                 metricRegistry,
                 type,
                 AtlasDbFeignTargetFactory.createProxyWithFailover(
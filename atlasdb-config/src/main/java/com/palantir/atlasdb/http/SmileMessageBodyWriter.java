@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writes response entities as Smile, using the same Jackson annotations as for JSON.
+ */
+@Provider
+@Produces(SmileMediaTypes.APPLICATION_JACKSON_SMILE)
+public class SmileMessageBodyWriter implements MessageBodyWriter<Object> {
+    private final ObjectMapper smileMapper;
+
+    public SmileMessageBodyWriter() {
+        this(SmileMediaTypes.createSmileMapper());
+    }
+
+    public SmileMessageBodyWriter(ObjectMapper smileMapper) {
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mediaType != null
+                && SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE.getType().equals(mediaType.getType())
+                && SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE.getSubtype().equals(mediaType.getSubtype());
+    }
+
+    @Override
+    public long getSize(Object value, Class<?> type, Type genericType, Annotation[] annotations,
+            MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        ObjectWriter writer = genericType == null
+                ? smileMapper.writer()
+                : smileMapper.writerFor(smileMapper.constructType(genericType));
+        writer.writeValue(entityStream, value);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Sends successful JSON responses as Smile to clients that accept Smile, such as the clients created by
+ * {@link AtlasDbFeignTargetFactory}. Must be registered together with a {@link SmileMessageBodyWriter}.
+ *
+ * Only responses are converted; requests and error responses are always JSON, so that clients that do not know
+ * about Smile, and the error decoders of those that do, are unaffected.
+ */
+public class SmileResponseFilter implements ContainerResponseFilter {
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (response.hasEntity()
+                && response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL
+                && isJson(response.getMediaType())
+                && acceptsSmile(request)) {
+            response.setEntity(
+                    response.getEntity(),
+                    response.getEntityAnnotations(),
+                    SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE);
+        }
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return mediaType != null
+                && MediaType.APPLICATION_JSON_TYPE.getType().equals(mediaType.getType())
+                && MediaType.APPLICATION_JSON_TYPE.getSubtype().equals(mediaType.getSubtype());
+    }
+
+    private static boolean acceptsSmile(ContainerRequestContext request) {
+        // Compared by type and subtype only, so that wildcard Accept headers do not opt clients into Smile.
+        return request.getAcceptableMediaTypes().stream()
+                .anyMatch(mediaType -> SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE.getType()
+                        .equals(mediaType.getType())
+                        && SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE.getSubtype().equals(mediaType.getSubtype()));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.util;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.common.proxy.CallDecorator;
+import com.palantir.lock.LockService;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.processors.AutoDecorate;
+import com.palantir.timestamp.TimestampService;
+
+/**
+ * Instruments services with metrics in the same way as {@link AtlasDbMetrics#instrument}. The services on the
+ * transaction hot path are wrapped in decorators generated at compile time, which call the delegate directly instead
+ * of going through a reflective proxy; all other services fall back to {@link AtlasDbMetrics#instrument}.
+ */
+@AutoDecorate(typesToDecorate = {
+        KeyValueService.class,
+        LockService.class,
+        TimelockService.class,
+        TimestampService.class})
+public final class InstrumentedServices {
+    private static final Map<Class<?>, Function<?, ?>> GENERATED_DECORATORS = ImmutableMap.of(
+            KeyValueService.class,
+            (Function<CallDecorator<KeyValueService>, KeyValueService>) AutoDecorated_KeyValueService::new,
+            LockService.class,
+            (Function<CallDecorator<LockService>, LockService>) AutoDecorated_LockService::new,
+            TimelockService.class,
+            (Function<CallDecorator<TimelockService>, TimelockService>) AutoDecorated_TimelockService::new,
+            TimestampService.class,
+            (Function<CallDecorator<TimestampService>, TimestampService>) AutoDecorated_TimestampService::new);
+
+    private InstrumentedServices() {
+        // utility
+    }
+
+    public static <T, U extends T> T instrument(
+            MetricRegistry metricRegistry, Class<T> serviceInterface, U service, String name) {
+        Function<CallDecorator<T>, T> generatedDecorator = getGeneratedDecorator(serviceInterface);
+        if (generatedDecorator == null) {
+            return AtlasDbMetrics.instrument(metricRegistry, serviceInterface, service, name);
+        }
+        return generatedDecorator.apply(new MetricsCallDecorator<>(metricRegistry, service, name));
+    }
+
+    @SuppressWarnings("unchecked") // GENERATED_DECORATORS maps each type to a decorator of that type.
+    private static <T> Function<CallDecorator<T>, T> getGeneratedDecorator(Class<T> serviceInterface) {
+        return (Function<CallDecorator<T>, T>) GENERATED_DECORATORS.get(serviceInterface);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.v2.LockToken;
+
+public class SmileMessageBodyWriterTest {
+    private static final TypeReference<Set<LockToken>> TOKENS_TYPE_REFERENCE = new TypeReference<Set<LockToken>>() { };
+    private static final Type TOKENS_TYPE = TOKENS_TYPE_REFERENCE.getType();
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private final SmileMessageBodyWriter writer = new SmileMessageBodyWriter();
+    private final ObjectMapper smileMapper = SmileMediaTypes.createSmileMapper();
+
+    @Test
+    public void writesSmileThatCanBeReadBack() throws IOException {
+        Set<LockToken> tokens = ImmutableSet.of(LockToken.of(UUID.randomUUID()), LockToken.of(UUID.randomUUID()));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writer.writeTo(tokens, tokens.getClass(), TOKENS_TYPE, NO_ANNOTATIONS,
+                SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE, new MultivaluedHashMap<>(), body);
+
+        Set<LockToken> decoded = smileMapper.readValue(body.toByteArray(), TOKENS_TYPE_REFERENCE);
+        assertThat(decoded).isEqualTo(tokens);
+    }
+
+    @Test
+    public void onlyWritesSmile() {
+        assertThat(writer.isWriteable(Set.class, TOKENS_TYPE, NO_ANNOTATIONS,
+                SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE)).isTrue();
+        assertThat(writer.isWriteable(Set.class, TOKENS_TYPE, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE))
+                .isFalse();
+    }
+}
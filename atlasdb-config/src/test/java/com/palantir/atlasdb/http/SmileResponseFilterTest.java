@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class SmileResponseFilterTest {
+    private static final Object ENTITY = new Object();
+    private static final Annotation[] ANNOTATIONS = new Annotation[0];
+    private static final MediaType ACCEPTED_SMILE = MediaType.valueOf(SmileMediaTypes.APPLICATION_JACKSON_SMILE);
+
+    private final SmileResponseFilter filter = new SmileResponseFilter();
+    private final ContainerRequestContext request = mock(ContainerRequestContext.class);
+    private final ContainerResponseContext response = mock(ContainerResponseContext.class);
+
+    @Test
+    public void sendsSmileToClientsThatAcceptIt() {
+        setUp(ImmutableList.of(ACCEPTED_SMILE, MediaType.APPLICATION_JSON_TYPE), Response.Status.OK);
+
+        filter.filter(request, response);
+
+        verify(response).setEntity(ENTITY, ANNOTATIONS, SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE);
+    }
+
+    @Test
+    public void sendsJsonToClientsThatDoNotAcceptSmile() {
+        setUp(ImmutableList.of(MediaType.APPLICATION_JSON_TYPE), Response.Status.OK);
+
+        filter.filter(request, response);
+
+        verify(response, never()).setEntity(any(), any(), any());
+    }
+
+    @Test
+    public void sendsJsonToClientsThatAcceptAnything() {
+        setUp(ImmutableList.of(MediaType.WILDCARD_TYPE), Response.Status.OK);
+
+        filter.filter(request, response);
+
+        verify(response, never()).setEntity(any(), any(), any());
+    }
+
+    @Test
+    public void sendsErrorsAsJson() {
+        setUp(ImmutableList.of(ACCEPTED_SMILE), Response.Status.SERVICE_UNAVAILABLE);
+
+        filter.filter(request, response);
+
+        verify(response, never()).setEntity(any(), any(), eq(SmileMediaTypes.APPLICATION_JACKSON_SMILE_TYPE));
+    }
+
+    @Test
+    public void doesNotConvertPlainText() {
+        setUp(ImmutableList.of(ACCEPTED_SMILE), Response.Status.OK);
+        when(response.getMediaType()).thenReturn(MediaType.TEXT_PLAIN_TYPE);
+
+        filter.filter(request, response);
+
+        verify(response, never()).setEntity(any(), any(), any());
+    }
+
+    private void setUp(List<MediaType> acceptableMediaTypes, Response.Status status) {
+        when(request.getAcceptableMediaTypes()).thenReturn(acceptableMediaTypes);
+        when(response.hasEntity()).thenReturn(true);
+        when(response.getEntity()).thenReturn(ENTITY);
+        when(response.getEntityAnnotations()).thenReturn(ANNOTATIONS);
+        when(response.getStatusInfo()).thenReturn(status);
+        when(response.getMediaType()).thenReturn(MediaType.APPLICATION_JSON_TYPE);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.palantir.timestamp.TimestampRange;
+import com.palantir.timestamp.TimestampService;
+
+public class InstrumentedServicesTest {
+    private static final String SERVICE_NAME = "timestamp";
+
+    private final TimestampService timestampService = mock(TimestampService.class);
+
+    @Test
+    public void generatedDecoratorsRecordTheSameMetricsAsTheTritiumProxy() {
+        when(timestampService.getFreshTimestamp()).thenReturn(1L);
+        when(timestampService.getFreshTimestamps(2)).thenReturn(TimestampRange.createInclusiveRange(2, 3));
+        when(timestampService.getFreshTimestamps(0)).thenThrow(new IllegalArgumentException("no timestamps"));
+
+        MetricRegistry proxyRegistry = new MetricRegistry();
+        exercise(AtlasDbMetrics.instrument(proxyRegistry, TimestampService.class, timestampService, SERVICE_NAME));
+        MetricRegistry decoratorRegistry = new MetricRegistry();
+        TimestampService decorated = InstrumentedServices.instrument(
+                decoratorRegistry, TimestampService.class, timestampService, SERVICE_NAME);
+        assertThat(decorated.getClass()).isEqualTo(AutoDecorated_TimestampService.class);
+        exercise(decorated);
+
+        assertThat(counts(decoratorRegistry)).isEqualTo(counts(proxyRegistry));
+        assertThat(counts(decoratorRegistry)).containsEntry("timestamp.getFreshTimestamps", 2L)
+                .containsEntry("timestamp.getFreshTimestamps.failures", 1L)
+                .containsEntry("timestamp.getFreshTimestamps.failures." + IllegalArgumentException.class.getName(), 1L)
+                .containsEntry("failures", 1L);
+    }
+
+    private static void exercise(TimestampService service) {
+        service.getFreshTimestamp();
+        service.getFreshTimestamps(2);
+        assertThatThrownBy(() -> service.getFreshTimestamps(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Long> counts(MetricRegistry registry) {
+        Map<String, Metric> metrics = registry.getMetrics();
+        return metrics.entrySet().stream()
+                .filter(entry -> entry.getValue() instanceof Counting)
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> ((Counting) entry.getValue()).getCount()));
+    }
+}
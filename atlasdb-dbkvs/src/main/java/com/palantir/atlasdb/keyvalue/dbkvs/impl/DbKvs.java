@@ -242,14 +242,15 @@ public final class DbKvs extends AbstractKeyValueService {
         this.getCandidateCellsForSweepingStrategy = getCandidateCellsForSweepingStrategy;
     }
 
-    private static ThreadPoolExecutor newFixedThreadPool(int maxPoolSize) {
-        ThreadPoolExecutor pool = PTExecutors.newThreadPoolExecutor(maxPoolSize, maxPoolSize,
-                15L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<Runnable>(),
-                new NamedThreadFactory("Atlas DbKvs reader", true /* daemon */));
-
-        pool.allowCoreThreadTimeOut(false);
-        return pool;
+    private static ExecutorService newFixedThreadPool(int maxPoolSize) {
+        return PTExecutors.newBlockingExecutor("Atlas DbKvs reader", maxPoolSize, true /* daemon */, () -> {
+            ThreadPoolExecutor pool = PTExecutors.newThreadPoolExecutor(maxPoolSize, maxPoolSize,
+                    15L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new NamedThreadFactory("Atlas DbKvs reader", true /* daemon */));
+            pool.allowCoreThreadTimeOut(false);
+            return pool;
+        });
     }
 
     private void init() {
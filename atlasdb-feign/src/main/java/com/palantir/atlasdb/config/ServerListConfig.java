@@ -35,6 +35,17 @@ public interface ServerListConfig {
 
     Optional<ProxyConfiguration> proxyConfiguration();
 
+    /**
+     * If true and no {@link #sslConfiguration()} is given, clients talk to the servers using HTTP/2 over cleartext
+     * with prior knowledge, so that all requests to a server share a single multiplexed connection. Every server must
+     * then accept cleartext HTTP/2 (for example, through an {@code h2c} connector). Over TLS, HTTP/2 is negotiated
+     * with the server regardless of this setting.
+     */
+    @Value.Default
+    default boolean http2PriorKnowledge() {
+        return false;
+    }
+
     default boolean hasAtLeastOneServer() {
         return servers().size() >= 1;
     }
@@ -36,6 +36,7 @@ import feign.Client;
 import feign.Contract;
 import feign.Feign;
 import feign.Request;
+import feign.RequestInterceptor;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
@@ -54,7 +55,10 @@ public final class AtlasDbFeignTargetFactory {
     private static final Contract contract = new JAXRSContract();
     private static final Encoder encoder = new JacksonEncoder(mapper);
     private static final Decoder decoder = new TextDelegateDecoder(
-            new OptionalAwareDecoder(new JacksonDecoder(mapper)));
+            new OptionalAwareDecoder(new SmileDelegateDecoder(
+                    new JacksonDecoder(mapper),
+                    SmileMediaTypes.createSmileMapper())));
+    private static final RequestInterceptor smileAcceptingInterceptor = new SmileAcceptingRequestInterceptor();
     private static final ErrorDecoder errorDecoder = new AtlasDbErrorDecoder();
 
     private AtlasDbFeignTargetFactory() {
@@ -79,6 +83,7 @@ public final class AtlasDbFeignTargetFactory {
                 .contract(contract)
                 .encoder(encoder)
                 .decoder(decoder)
+                .requestInterceptor(smileAcceptingInterceptor)
                 .errorDecoder(errorDecoder)
                 .retryer(new InterruptHonoringRetryer())
                 .client(refreshingHttpClient
@@ -96,6 +101,7 @@ public final class AtlasDbFeignTargetFactory {
                 .contract(contract)
                 .encoder(encoder)
                 .decoder(decoder)
+                .requestInterceptor(smileAcceptingInterceptor)
                 .errorDecoder(new RsErrorDecoder())
                 .client(FeignOkHttpClients.newOkHttpClient(sslSocketFactory, Optional.empty(),  userAgent))
                 .target(type, uri);
@@ -113,6 +119,7 @@ public final class AtlasDbFeignTargetFactory {
                 endpointUris,
                 DEFAULT_FEIGN_OPTIONS,
                 FailoverFeignTarget.DEFAULT_MAX_BACKOFF_MILLIS,
+                false,
                 type,
                 userAgent);
     }
@@ -132,6 +139,7 @@ public final class AtlasDbFeignTargetFactory {
                 endpointUris,
                 new Request.Options(feignConnectTimeout, feignReadTimeout),
                 maxBackoffMillis,
+                false,
                 type,
                 userAgent);
     }
@@ -142,15 +150,17 @@ public final class AtlasDbFeignTargetFactory {
             Collection<String> endpointUris,
             Request.Options feignOptions,
             int maxBackoffMillis,
+            boolean http2PriorKnowledge,
             Class<T> type,
             String userAgent) {
         FailoverFeignTarget<T> failoverFeignTarget = new FailoverFeignTarget<>(endpointUris, maxBackoffMillis, type);
-        Client client = failoverFeignTarget.wrapClient(
-                FeignOkHttpClients.newOkHttpClient(sslSocketFactory, proxySelector, userAgent));
+        Client client = failoverFeignTarget.wrapClient(FeignOkHttpClients.newOkHttpClient(
+                sslSocketFactory, proxySelector, userAgent, http2PriorKnowledge));
         return Feign.builder()
                 .contract(contract)
                 .encoder(encoder)
                 .decoder(decoder)
+                .requestInterceptor(smileAcceptingInterceptor)
                 .errorDecoder(errorDecoder)
                 .client(client)
                 .retryer(failoverFeignTarget)
@@ -196,9 +206,9 @@ public final class AtlasDbFeignTargetFactory {
                                         serverListConfig.sslConfiguration().map(sslSocketFactoryCreator),
                                         serverListConfig.proxyConfiguration().map(proxySelectorCreator),
                                         serverListConfig.servers(),
-                                        feignConnectTimeout,
-                                        feignReadTimeout,
+                                        new Request.Options(feignConnectTimeout, feignReadTimeout),
                                         maxBackoffMillis,
+                                        serverListConfig.http2PriorKnowledge(),
                                         type,
                                         userAgent);
                             }
@@ -34,6 +34,7 @@ import okhttp3.CipherSuite;
 import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
 import okhttp3.Interceptor;
+import okhttp3.Protocol;
 import okhttp3.Response;
 import okhttp3.TlsVersion;
 
@@ -101,7 +102,20 @@ public final class FeignOkHttpClients {
             Optional<SSLSocketFactory> sslSocketFactory,
             Optional<ProxySelector> proxySelector,
             String userAgent) {
-        return new OkHttpClient(newRawOkHttpClient(sslSocketFactory, proxySelector, userAgent));
+        return newOkHttpClient(sslSocketFactory, proxySelector, userAgent, false);
+    }
+
+    /**
+     * Returns a feign {@link Client} wrapping a {@link okhttp3.OkHttpClient} client with optionally
+     * specified {@link SSLSocketFactory}. If http2PriorKnowledge is true and no {@link SSLSocketFactory} is given,
+     * the client speaks HTTP/2 over cleartext without first negotiating it, so the servers must all support that.
+     */
+    public static Client newOkHttpClient(
+            Optional<SSLSocketFactory> sslSocketFactory,
+            Optional<ProxySelector> proxySelector,
+            String userAgent,
+            boolean http2PriorKnowledge) {
+        return new OkHttpClient(newRawOkHttpClient(sslSocketFactory, proxySelector, userAgent, http2PriorKnowledge));
     }
 
     /**
@@ -123,14 +137,31 @@ public final class FeignOkHttpClients {
             Optional<SSLSocketFactory> sslSocketFactory,
             Optional<ProxySelector> proxySelector,
             String userAgent) {
+        return newRawOkHttpClient(sslSocketFactory, proxySelector, userAgent, false);
+    }
+
+    @VisibleForTesting
+    static okhttp3.OkHttpClient newRawOkHttpClient(
+            Optional<SSLSocketFactory> sslSocketFactory,
+            Optional<ProxySelector> proxySelector,
+            String userAgent,
+            boolean http2PriorKnowledge) {
+        ConnectionPool connectionPool =
+                new ConnectionPool(CONNECTION_POOL_SIZE, KEEP_ALIVE_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        OkHttpClientMetrics.instance().registerConnectionPool(connectionPool);
+
         // Don't allow retrying on connection failures - see ticket #2194
         okhttp3.OkHttpClient.Builder builder = new okhttp3.OkHttpClient.Builder()
                 .connectionSpecs(CONNECTION_SPEC_WITH_CYPHER_SUITES)
-                .connectionPool(new ConnectionPool(CONNECTION_POOL_SIZE, KEEP_ALIVE_TIME_MILLIS, TimeUnit.MILLISECONDS))
+                .connectionPool(connectionPool)
+                .eventListenerFactory(OkHttpClientMetrics.instance().eventListenerFactory())
                 .proxySelector(proxySelector.orElse(ProxySelector.getDefault()))
                 .retryOnConnectionFailure(false);
         if (sslSocketFactory.isPresent()) {
             builder.sslSocketFactory(sslSocketFactory.get());
+        } else if (http2PriorKnowledge) {
+            // Over TLS, HTTP/2 is negotiated through ALPN instead.
+            builder.protocols(ImmutableList.of(Protocol.H2_PRIOR_KNOWLEDGE));
         }
         builder.interceptors().add(new UserAgentAddingInterceptor(userAgent));
 
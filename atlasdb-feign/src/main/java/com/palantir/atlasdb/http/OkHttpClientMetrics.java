@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * Connection pool and call statistics for all OkHttp clients created by {@link FeignOkHttpClients}.
+ *
+ * Calls are counted by the protocol of the connection they run on. Calls over HTTP/2 are streams multiplexed over a
+ * shared connection, so comparing the number of active HTTP/2 calls with the number of pooled connections shows how
+ * well connections are being shared.
+ */
+public final class OkHttpClientMetrics {
+    public static final List<Protocol> TRACKED_PROTOCOLS =
+            ImmutableList.of(Protocol.HTTP_1_1, Protocol.HTTP_2, Protocol.H2_PRIOR_KNOWLEDGE);
+
+    private static final OkHttpClientMetrics INSTANCE = new OkHttpClientMetrics();
+
+    // Weakly held, so that the pools of clients that have been refreshed away can be garbage collected.
+    private final Set<ConnectionPool> connectionPools =
+            Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+    private final Map<Protocol, AtomicLong> activeCalls = Maps.toMap(TRACKED_PROTOCOLS, unused -> new AtomicLong());
+    private final Map<Protocol, AtomicLong> totalCalls = Maps.toMap(TRACKED_PROTOCOLS, unused -> new AtomicLong());
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final EventListener eventListener = new MetricsEventListener();
+
+    @VisibleForTesting
+    OkHttpClientMetrics() {
+        // use instance()
+    }
+
+    public static OkHttpClientMetrics instance() {
+        return INSTANCE;
+    }
+
+    void registerConnectionPool(ConnectionPool connectionPool) {
+        connectionPools.add(connectionPool);
+    }
+
+    EventListener.Factory eventListenerFactory() {
+        return unused -> eventListener;
+    }
+
+    /**
+     * The number of connections, idle or in use, held by the connection pools of all live clients.
+     */
+    public int getPooledConnectionCount() {
+        return connectionPools.stream().mapToInt(ConnectionPool::connectionCount).sum();
+    }
+
+    public int getIdleConnectionCount() {
+        return connectionPools.stream().mapToInt(ConnectionPool::idleConnectionCount).sum();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    /**
+     * The number of calls currently using a connection of the given protocol; for HTTP/2, the number of open streams.
+     */
+    public long getActiveCalls(Protocol protocol) {
+        AtomicLong calls = activeCalls.get(protocol);
+        return calls == null ? 0L : calls.get();
+    }
+
+    public long getTotalCalls(Protocol protocol) {
+        AtomicLong calls = totalCalls.get(protocol);
+        return calls == null ? 0L : calls.get();
+    }
+
+    private final class MetricsEventListener extends EventListener {
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connectionsOpened.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            AtomicLong calls = activeCalls.get(connection.protocol());
+            if (calls != null) {
+                calls.incrementAndGet();
+                totalCalls.get(connection.protocol()).incrementAndGet();
+            }
+        }
+
+        @Override
+        public void connectionReleased(Call call, Connection connection) {
+            AtomicLong calls = activeCalls.get(connection.protocol());
+            if (calls != null) {
+                calls.decrementAndGet();
+            }
+        }
+    }
+}
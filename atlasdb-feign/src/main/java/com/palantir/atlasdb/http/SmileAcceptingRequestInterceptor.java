@@ -0,0 +1,40 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import java.util.Collection;
+
+import javax.ws.rs.core.MediaType;
+
+import com.google.common.net.HttpHeaders;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Asks for Smile responses from endpoints that produce JSON, falling back to JSON if the server does not support
+ * Smile. Request bodies are still sent as JSON, since every server accepts those.
+ */
+public class SmileAcceptingRequestInterceptor implements RequestInterceptor {
+    @Override
+    public void apply(RequestTemplate template) {
+        Collection<String> accept = template.headers().get(HttpHeaders.ACCEPT);
+        if (accept != null && accept.size() == 1 && accept.contains(MediaType.APPLICATION_JSON)) {
+            template.header(HttpHeaders.ACCEPT, (String) null);
+            template.header(HttpHeaders.ACCEPT, SmileMediaTypes.SMILE_OR_JSON);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.google.common.net.HttpHeaders;
+import com.palantir.common.remoting.HeaderAccessUtils;
+
+import feign.FeignException;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+/**
+ * If the response has a Content-Type of {@link SmileMediaTypes#APPLICATION_JACKSON_SMILE}, then this decoder reads
+ * it with a Smile object mapper. Otherwise, it falls back to the delegate.
+ */
+public class SmileDelegateDecoder implements Decoder {
+    private static final String CONTENT_TYPE = HttpHeaders.CONTENT_TYPE.toLowerCase();
+
+    private final Decoder delegate;
+    private final ObjectMapper smileMapper;
+
+    public SmileDelegateDecoder(Decoder delegate, ObjectMapper smileMapper) {
+        this.delegate = delegate;
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException, FeignException {
+        if (!HeaderAccessUtils.shortcircuitingCaseInsensitiveContainsEntry(
+                response.headers(),
+                CONTENT_TYPE,
+                SmileMediaTypes.APPLICATION_JACKSON_SMILE)) {
+            return delegate.decode(response, type);
+        }
+
+        if (response.body() == null) {
+            return null;
+        }
+        try (InputStream body = response.body().asInputStream()) {
+            return smileMapper.readValue(body, smileMapper.constructType(type));
+        } catch (RuntimeJsonMappingException e) {
+            throw new DecodeException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import javax.ws.rs.core.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+/**
+ * AtlasDB remoting can send response bodies as Jackson Smile, a binary encoding of the JSON data model, to clients
+ * that ask for it. Smile is smaller than JSON and cheaper to read and write, and writes byte arrays as raw bytes
+ * rather than as base64 strings. Servers that do not support Smile answer such clients with JSON.
+ */
+public final class SmileMediaTypes {
+    public static final String APPLICATION_JACKSON_SMILE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_JACKSON_SMILE_TYPE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * The Accept header sent by AtlasDB clients for JSON endpoints: Smile if the server supports it, else JSON.
+     */
+    public static final String SMILE_OR_JSON = APPLICATION_JACKSON_SMILE + ", " + MediaType.APPLICATION_JSON + ";q=0.9";
+
+    private SmileMediaTypes() {
+        // utility
+    }
+
+    public static ObjectMapper createSmileMapper() {
+        return new ObjectMapper(new SmileFactory())
+                .registerModule(new Jdk8Module());
+    }
+}
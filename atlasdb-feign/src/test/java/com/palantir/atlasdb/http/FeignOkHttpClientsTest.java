@@ -22,6 +22,7 @@ import java.util.Optional;
 import org.junit.Test;
 
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
 public class FeignOkHttpClientsTest {
     @Test
@@ -30,4 +31,18 @@ public class FeignOkHttpClientsTest {
                 Optional.empty(), "userAgent");
         assertThat(okHttpClient.retryOnConnectionFailure()).isFalse();
     }
+
+    @Test
+    public void clientNegotiatesHttp2ByDefault() {
+        OkHttpClient okHttpClient = FeignOkHttpClients.newRawOkHttpClient(Optional.empty(),
+                Optional.empty(), "userAgent");
+        assertThat(okHttpClient.protocols()).containsExactly(Protocol.HTTP_2, Protocol.HTTP_1_1);
+    }
+
+    @Test
+    public void clientUsesHttp2WithPriorKnowledgeOverCleartextIfRequested() {
+        OkHttpClient okHttpClient = FeignOkHttpClients.newRawOkHttpClient(Optional.empty(),
+                Optional.empty(), "userAgent", true);
+        assertThat(okHttpClient.protocols()).containsExactly(Protocol.H2_PRIOR_KNOWLEDGE);
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class OkHttpClientMetricsTest {
+    private static final String PING_PATH = "/ping";
+
+    @Rule
+    public WireMockRule server = new WireMockRule(WireMockConfiguration.wireMockConfig().dynamicPort());
+
+    private final OkHttpClientMetrics metrics = OkHttpClientMetrics.instance();
+
+    @Test
+    public void countsCallsByProtocolAndReleasesThemOnCompletion() throws IOException {
+        server.stubFor(get(urlEqualTo(PING_PATH)).willReturn(aResponse().withStatus(200).withBody("pong")));
+        OkHttpClient client = FeignOkHttpClients.newRawOkHttpClient(Optional.empty(), Optional.empty(), "userAgent");
+        long totalCallsBefore = metrics.getTotalCalls(Protocol.HTTP_1_1);
+        long activeCallsBefore = metrics.getActiveCalls(Protocol.HTTP_1_1);
+        long connectionsOpenedBefore = metrics.getConnectionsOpened();
+
+        makeCall(client);
+        makeCall(client);
+
+        assertThat(metrics.getTotalCalls(Protocol.HTTP_1_1)).isEqualTo(totalCallsBefore + 2);
+        assertThat(metrics.getActiveCalls(Protocol.HTTP_1_1)).isEqualTo(activeCallsBefore);
+        assertThat(metrics.getConnectionsOpened()).isEqualTo(connectionsOpenedBefore + 1);
+    }
+
+    @Test
+    public void countsConnectionsInThePoolsOfLiveClients() throws IOException {
+        server.stubFor(get(urlEqualTo(PING_PATH)).willReturn(aResponse().withStatus(200).withBody("pong")));
+        OkHttpClient client = FeignOkHttpClients.newRawOkHttpClient(Optional.empty(), Optional.empty(), "userAgent");
+
+        makeCall(client);
+
+        assertThat(metrics.getPooledConnectionCount()).isGreaterThanOrEqualTo(1);
+        assertThat(client.connectionPool().connectionCount()).isEqualTo(1);
+        assertThat(client.connectionPool().idleConnectionCount()).isEqualTo(1);
+    }
+
+    private void makeCall(OkHttpClient client) throws IOException {
+        Request request = new Request.Builder().url("http://localhost:" + server.port() + PING_PATH).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertThat(response.body().string()).isEqualTo("pong");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.google.common.net.HttpHeaders;
+
+import feign.RequestTemplate;
+
+public class SmileAcceptingRequestInterceptorTest {
+    private final SmileAcceptingRequestInterceptor interceptor = new SmileAcceptingRequestInterceptor();
+
+    @Test
+    public void prefersSmileForJsonEndpoints() {
+        RequestTemplate template = new RequestTemplate().header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+
+        interceptor.apply(template);
+
+        assertThat(template.headers().get(HttpHeaders.ACCEPT)).containsExactly(SmileMediaTypes.SMILE_OR_JSON);
+    }
+
+    @Test
+    public void leavesOtherAcceptHeadersAlone() {
+        RequestTemplate template = new RequestTemplate().header(HttpHeaders.ACCEPT, MediaType.TEXT_PLAIN);
+
+        interceptor.apply(template);
+
+        assertThat(template.headers().get(HttpHeaders.ACCEPT)).containsExactly(MediaType.TEXT_PLAIN);
+    }
+
+    @Test
+    public void doesNotAddAcceptHeader() {
+        RequestTemplate template = new RequestTemplate();
+
+        interceptor.apply(template);
+
+        assertThat(template.headers()).doesNotContainKey(HttpHeaders.ACCEPT);
+    }
+}
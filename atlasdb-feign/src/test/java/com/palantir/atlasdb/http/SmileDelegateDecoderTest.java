@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+public class SmileDelegateDecoderTest {
+    private static final int HTTP_OK = 200;
+    private static final String REASON = "reason";
+
+    private final ObjectMapper smileMapper = SmileMediaTypes.createSmileMapper();
+    private final Decoder delegate = mock(Decoder.class);
+    private final SmileDelegateDecoder decoder = new SmileDelegateDecoder(delegate, smileMapper);
+
+    @Test
+    public void decodesSmileContent() throws IOException {
+        Map<String, Optional<Long>> value = ImmutableMap.of("present", Optional.of(5L), "absent", Optional.empty());
+        Response response = createResponse(
+                ImmutableMap.of("content-type", ImmutableList.of(SmileMediaTypes.APPLICATION_JACKSON_SMILE)),
+                smileMapper.writeValueAsBytes(value));
+
+        Object decoded = decoder.decode(response, new TypeReference<Map<String, Optional<Long>>>() { }.getType());
+
+        assertThat(decoded).isEqualTo(value);
+        verify(delegate, never()).decode(any(), any());
+    }
+
+    @Test
+    public void delegatesJsonContent() throws IOException {
+        Response response = createResponse(
+                ImmutableMap.of(HttpHeaders.CONTENT_TYPE, ImmutableList.of(MediaType.APPLICATION_JSON)),
+                "5".getBytes());
+
+        decoder.decode(response, Long.class);
+
+        verify(delegate).decode(response, Long.class);
+    }
+
+    @Test
+    public void delegatesContentWithNoHttpHeaders() throws IOException {
+        Response response = createResponse(ImmutableMap.of(), "5".getBytes());
+
+        decoder.decode(response, Long.class);
+
+        verify(delegate).decode(response, Long.class);
+    }
+
+    private static Response createResponse(Map<String, Collection<String>> headers, byte[] body) {
+        return Response.create(HTTP_OK, REASON, headers, body);
+    }
+}
@@ -171,9 +171,14 @@ public class Scrubber {
         this.threadCount = threadCount;
         this.readThreadCount = readThreadCount;
         this.followers = followers;
-        NamedThreadFactory threadFactory = new NamedThreadFactory(SCRUBBER_THREAD_PREFIX, true);
-        this.readerExec = PTExecutors.newFixedThreadPool(readThreadCount, threadFactory);
-        this.exec = PTExecutors.newFixedThreadPool(threadCount, threadFactory);
+        this.readerExec = newScrubberExecutor(readThreadCount);
+        this.exec = newScrubberExecutor(threadCount);
+    }
+
+    private static ExecutorService newScrubberExecutor(int threadCount) {
+        return PTExecutors.newBlockingExecutor(SCRUBBER_THREAD_PREFIX, threadCount, true,
+                () -> PTExecutors.newFixedThreadPool(threadCount,
+                        new NamedThreadFactory(SCRUBBER_THREAD_PREFIX, true /* daemon */)));
     }
 
     public boolean isInitialized() {
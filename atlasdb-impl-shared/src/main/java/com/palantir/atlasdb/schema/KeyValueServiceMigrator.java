@@ -23,6 +23,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
@@ -32,6 +33,7 @@ import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.table.description.RowNamePartitioner;
+import com.palantir.atlasdb.table.description.SampledRowNamePartitioner;
 import com.palantir.atlasdb.table.description.TableMetadata;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.base.Throwables;
@@ -179,6 +181,8 @@ public class KeyValueServiceMigrator {
                 new GeneralTaskCheckpointer(checkpointTable, toKvs, txManager);
 
         ExecutorService executor = PTExecutors.newFixedThreadPool(threads);
+        // Each range reads its next batch while its previous batch is written on this pool.
+        ExecutorService writeExecutor = PTExecutors.newFixedThreadPool(threads);
         try {
             migrateTables(
                     tables,
@@ -187,6 +191,7 @@ public class KeyValueServiceMigrator {
                     toKvs,
                     migrationTimestampSupplier.get(),
                     executor,
+                    writeExecutor,
                     checkpointer);
             processMessage("Data migration complete.", KvsMigrationMessageLevel.INFO);
         } catch (Throwable t) {
@@ -194,7 +199,9 @@ public class KeyValueServiceMigrator {
             Throwables.throwUncheckedException(t);
         } finally {
             executor.shutdown();
+            writeExecutor.shutdown();
             executor.awaitTermination(10000L, TimeUnit.MILLISECONDS);
+            writeExecutor.awaitTermination(10000L, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -204,6 +211,7 @@ public class KeyValueServiceMigrator {
                                KeyValueService writeKvs,
                                long migrationTimestamp,
                                ExecutorService executor,
+                               ExecutorService writeExecutor,
                                GeneralTaskCheckpointer checkpointer) {
         processMessage("Migrating tables at migrationTimestamp " + migrationTimestamp,
                 KvsMigrationMessageLevel.INFO);
@@ -211,22 +219,42 @@ public class KeyValueServiceMigrator {
             KvsRangeMigrator rangeMigrator =
                     new KvsRangeMigratorBuilder().srcTable(table).readBatchSize(getBatchSize(table)).readTxManager(
                             readTxManager).txManager(txManager).writeKvs(writeKvs).migrationTimestamp(
-                            migrationTimestamp).checkpointer(checkpointer).build();
+                            migrationTimestamp).checkpointer(checkpointer).writeExecutor(writeExecutor).build();
             TableMigratorBuilder builder =
                     new TableMigratorBuilder().srcTable(table).partitions(PARTITIONS).partitioners(
-                            getPartitioners(fromKvs, table)).readBatchSize(
+                            getPartitioners(fromKvs, table, migrationTimestamp)).readBatchSize(
                             getBatchSize(table)).executor(executor).checkpointer(checkpointer).progress(
                             taskProgress).rangeMigrator(rangeMigrator);
             TableMigrator migrator = builder.build();
+            Stopwatch stopwatch = Stopwatch.createStarted();
             migrator.migrate();
+            processThroughputMessage(table, rangeMigrator, stopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
     }
 
-    private List<RowNamePartitioner> getPartitioners(KeyValueService kvs, TableReference table) {
+    private void processThroughputMessage(TableReference table, KvsRangeMigrator rangeMigrator, long elapsedMillis) {
+        double elapsedSeconds = Math.max(elapsedMillis, 1L) / 1000.0;
+        processMessage(String.format("Migrated %d cells (%d bytes) of table %s in %.1f seconds:"
+                        + " %.0f cells/s, %.2f MB/s",
+                        rangeMigrator.getCellsWritten(),
+                        rangeMigrator.getBytesWritten(),
+                        table,
+                        elapsedSeconds,
+                        rangeMigrator.getCellsWritten() / elapsedSeconds,
+                        rangeMigrator.getBytesWritten() / elapsedSeconds / (1024 * 1024)),
+                KvsMigrationMessageLevel.INFO);
+    }
+
+    private List<RowNamePartitioner> getPartitioners(KeyValueService kvs, TableReference table, long timestamp) {
         try {
             byte[] metadata = kvs.getMetadataForTable(table);
             TableMetadata tableMeta = TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(metadata);
-            return tableMeta.getRowMetadata().getPartitionersForRow();
+            List<RowNamePartitioner> partitioners = tableMeta.getRowMetadata().getPartitionersForRow();
+            if (!partitioners.isEmpty()) {
+                return partitioners;
+            }
+            // The schema says nothing about how rows are distributed, so estimate it from the table itself.
+            return ImmutableList.of(SampledRowNamePartitioner.sample(kvs, table, timestamp));
         } catch (RuntimeException e) {
             processMessage(
                     "Could not resolve partitioners from table metadata for "
@@ -15,14 +15,18 @@
  */
 package com.palantir.atlasdb.table.common;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 
+import javax.annotation.Nullable;
+
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 
 public class MutableRange {
     private byte[] startRow;
-    private final byte[] endRow;
+    private byte[] endRow;
     private final int batchSize;
 
     public MutableRange(byte[] startRow, byte[] endRow, int batchSize) {
@@ -39,6 +43,15 @@ public class MutableRange {
         return RangeRequest.builder().startRowInclusive(startRow).endRowExclusive(endRow).build();
     }
 
+    @Nullable
+    byte[] getStartRow() {
+        return startRow;
+    }
+
+    byte[] getEndRow() {
+        return endRow;
+    }
+
     public int getBatchSize() {
         return batchSize;
     }
@@ -47,6 +60,41 @@ public class MutableRange {
         return startRow == null;
     }
 
+    /**
+     * Splits off the upper half of the rows that are left in this range, which this range will no longer cover.
+     * Returns null if this range is complete, or is too narrow to be split.
+     */
+    @Nullable
+    MutableRange split() {
+        if (startRow == null) {
+            return null;
+        }
+        // One extra byte allows ranges between adjacent row names of the same length to be split.
+        int length = Math.max(startRow.length, endRow.length) + 1;
+        byte[] paddedEndRow = Arrays.copyOf(endRow, length);
+        if (endRow.length == 0) {
+            Arrays.fill(paddedEndRow, (byte) 0xff);
+        }
+        BigInteger start = new BigInteger(1, Arrays.copyOf(startRow, length));
+        BigInteger end = new BigInteger(1, paddedEndRow);
+        byte[] midRow = toBytes(start.add(end).shiftRight(1), length);
+        if (UnsignedBytes.lexicographicalComparator().compare(midRow, startRow) <= 0
+                || (endRow.length != 0 && UnsignedBytes.lexicographicalComparator().compare(midRow, endRow) >= 0)) {
+            return null;
+        }
+        MutableRange upperHalf = new MutableRange(midRow, endRow, batchSize);
+        endRow = midRow;
+        return upperHalf;
+    }
+
+    private static byte[] toBytes(BigInteger num, int length) {
+        byte[] rawBytes = num.toByteArray();
+        byte[] paddedBytes = new byte[length];
+        int copyLength = Math.min(rawBytes.length, length);
+        System.arraycopy(rawBytes, rawBytes.length - copyLength, paddedBytes, length - copyLength, copyLength);
+        return paddedBytes;
+    }
+
     @Override
     public String toString() {
         return "MutableRange [startRow=" + Arrays.toString(startRow) + ", endRow="
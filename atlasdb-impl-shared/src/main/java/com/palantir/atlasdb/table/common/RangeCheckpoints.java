@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.common;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.schema.AbstractTaskCheckpointer;
+import com.palantir.atlasdb.schema.GeneralTaskCheckpointer;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+
+/**
+ * Records the progress of a {@link TableTasks} run, so that a run that is interrupted or fails can be resumed from
+ * where it stopped. Ranges are split while a task runs, so besides the next row of each range, the checkpoints also
+ * hold each range's end row and the number of ranges; these are stored under the task id with a
+ * {@link GeneralTaskCheckpointer} or any other {@link AbstractTaskCheckpointer}.
+ * <p>
+ * Progress is recorded once each batch of a range has been processed, so a resumed run may process again the last
+ * batch of each range that was in progress when the previous run stopped.
+ */
+public final class RangeCheckpoints {
+    private static final long NUM_RANGES_ID = 0;
+
+    @Nullable private final AbstractTaskCheckpointer checkpointer;
+    @Nullable private final TransactionManager txManager;
+    private final String taskId;
+
+    @GuardedBy("this")
+    private long numRanges = 0;
+
+    private RangeCheckpoints(
+            @Nullable AbstractTaskCheckpointer checkpointer,
+            @Nullable TransactionManager txManager,
+            String taskId) {
+        this.checkpointer = checkpointer;
+        this.txManager = txManager;
+        this.taskId = taskId;
+    }
+
+    /**
+     * Creates checkpoints for the task with the given id. The transaction manager must be the one used by the
+     * checkpointer, and the task id must be unique among the tasks that share the checkpointer.
+     */
+    public static RangeCheckpoints create(
+            AbstractTaskCheckpointer checkpointer,
+            TransactionManager txManager,
+            String taskId) {
+        return new RangeCheckpoints(checkpointer, txManager, taskId);
+    }
+
+    static RangeCheckpoints none() {
+        return new RangeCheckpoints(null, null, "");
+    }
+
+    /**
+     * Returns the ranges that are left to process by id, starting from the given ranges if this task has no
+     * checkpoints yet.
+     */
+    synchronized Map<Long, MutableRange> load(List<MutableRange> initialRanges) {
+        if (checkpointer == null) {
+            Map<Long, MutableRange> ranges = Maps.newLinkedHashMap();
+            initialRanges.forEach(range -> ranges.put(numRanges++, range));
+            return ranges;
+        }
+
+        Map<Long, byte[]> initialCheckpoints = Maps.newHashMap();
+        initialCheckpoints.put(NUM_RANGES_ID, PtBytes.toBytes(initialRanges.size()));
+        for (int rangeId = 0; rangeId < initialRanges.size(); rangeId++) {
+            MutableRange range = initialRanges.get(rangeId);
+            initialCheckpoints.put(startRowId(rangeId), range.getStartRow());
+            initialCheckpoints.put(endRowId(rangeId), range.getEndRow());
+        }
+        // Only written if this task has no checkpoints yet.
+        checkpointer.createCheckpoints(taskId, initialCheckpoints);
+
+        int batchSize = initialRanges.isEmpty() ? 1 : initialRanges.get(0).getBatchSize();
+        Map<Long, MutableRange> ranges = txManager.runTaskWithRetry(tx -> {
+            Map<Long, MutableRange> remaining = Maps.newLinkedHashMap();
+            long storedNumRanges = PtBytes.toLong(checkpointer.getCheckpoint(taskId, NUM_RANGES_ID, tx));
+            for (long rangeId = 0; rangeId < storedNumRanges; rangeId++) {
+                byte[] startRow = checkpointer.getCheckpoint(taskId, startRowId(rangeId), tx);
+                if (startRow != null) {
+                    byte[] endRow = checkpointer.getCheckpoint(taskId, endRowId(rangeId), tx);
+                    remaining.put(rangeId, new MutableRange(
+                            startRow, endRow == null ? PtBytes.EMPTY_BYTE_ARRAY : endRow, batchSize));
+                }
+            }
+            numRanges = storedNumRanges;
+            return remaining;
+        });
+        return ranges;
+    }
+
+    /**
+     * Records that the given range has been processed up to its current start row.
+     */
+    void recordProgress(long rangeId, MutableRange range) {
+        if (checkpointer == null) {
+            return;
+        }
+        byte[] nextRow = range.isComplete() ? PtBytes.EMPTY_BYTE_ARRAY : range.getStartRow();
+        txManager.runTaskWithRetry(tx -> {
+            checkpointer.checkpoint(taskId, startRowId(rangeId), nextRow, tx);
+            return null;
+        });
+    }
+
+    /**
+     * Records that the given range has been split, and returns the id of the range that was split off from it.
+     */
+    synchronized long recordSplit(long rangeId, MutableRange range, MutableRange splitRange) {
+        long splitRangeId = numRanges;
+        if (checkpointer != null) {
+            txManager.runTaskWithRetry(tx -> {
+                checkpointer.checkpoint(taskId, endRowId(rangeId), range.getEndRow(), tx);
+                checkpointer.checkpoint(taskId, startRowId(splitRangeId), splitRange.getStartRow(), tx);
+                // An empty end row is stored as complete, and read back as null.
+                checkpointer.checkpoint(taskId, endRowId(splitRangeId), splitRange.getEndRow(), tx);
+                checkpointer.checkpoint(taskId, NUM_RANGES_ID, PtBytes.toBytes(splitRangeId + 1), tx);
+                return null;
+            });
+        }
+        numRanges = splitRangeId + 1;
+        return splitRangeId;
+    }
+
+    private static long startRowId(long rangeId) {
+        return 2 * rangeId + 1;
+    }
+
+    private static long endRowId(long rangeId) {
+        return 2 * rangeId + 2;
+    }
+}
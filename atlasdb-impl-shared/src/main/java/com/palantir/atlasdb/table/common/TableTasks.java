@@ -16,8 +16,9 @@
 package com.palantir.atlasdb.table.common;
 
 import java.math.BigInteger;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
@@ -35,6 +36,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
 import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
@@ -43,28 +45,42 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.logging.LoggingArgs;
+import com.palantir.atlasdb.table.description.RowNamePartitioner;
+import com.palantir.atlasdb.table.description.SampledRowNamePartitioner;
+import com.palantir.atlasdb.table.description.UniformRowNamePartitioner;
+import com.palantir.atlasdb.table.description.ValueType;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.annotation.Inclusive;
 import com.palantir.common.annotation.Output;
+import com.palantir.common.base.BatchingVisitableView;
 import com.palantir.common.base.BatchingVisitables;
-import com.palantir.common.base.Throwables;
-import com.palantir.common.concurrent.BlockingWorkerPool;
 import com.palantir.lock.LockRefreshToken;
 import com.palantir.logsafe.SafeArg;
-import com.palantir.logsafe.UnsafeArg;
 
 public final class TableTasks {
     private static final Logger log = LoggerFactory.getLogger(TableTasks.class);
+    private static final RowNamePartitioner UNIFORM_PARTITIONER = new UniformRowNamePartitioner(ValueType.BLOB);
 
     private TableTasks() {
         // Utility class
     }
 
-    private interface InterruptibleRangeTask {
-        void execute(MutableRange range) throws InterruptedException;
+    public static void copy(
+            TransactionManager txManager,
+            ExecutorService exec,
+            TableReference srcTable,
+            TableReference dstTable,
+            int batchSize,
+            int threadCount,
+            @Output CopyStats stats) throws InterruptedException {
+        copy(txManager, exec, srcTable, dstTable, batchSize, threadCount, RangeCheckpoints.none(), stats);
     }
 
+    /**
+     * Copies the source table into the destination table, recording progress in the given checkpoints so that the
+     * copy resumes from where it stopped if it is run again with the same checkpoints.
+     */
     public static void copy(
             TransactionManager txManager,
             ExecutorService exec,
@@ -72,9 +88,11 @@ public final class TableTasks {
             TableReference dstTable,
             int batchSize,
             int threadCount,
+            RangeCheckpoints checkpoints,
             @Output CopyStats stats) throws InterruptedException {
-        copyExternal(exec, srcTable, dstTable, batchSize, threadCount, stats, (request, range) ->
-                txManager.runTaskWithRetry(tx -> copyInternal(tx, srcTable, dstTable, request, range)));
+        copyExternal(exec, srcTable, dstTable, batchSize, threadCount, getPartitioner(txManager, srcTable, threadCount),
+                checkpoints, stats, (request, range) ->
+                        txManager.runTaskWithRetry(tx -> copyInternal(tx, srcTable, dstTable, request, range)));
     }
 
     public static void copy(
@@ -97,7 +115,21 @@ public final class TableTasks {
                                     int threadCount,
                                     final CopyStats stats,
                                     final CopyTask task) throws InterruptedException {
-        new InterruptibleRangeExecutor(exec, batchSize, threadCount).executeTask("copy",
+        copyExternal(exec, srcTable, dstTable, batchSize, threadCount, UNIFORM_PARTITIONER, RangeCheckpoints.none(),
+                stats, task);
+    }
+
+    private static void copyExternal(ExecutorService exec,
+                                     TableReference srcTable,
+                                     TableReference dstTable,
+                                     int batchSize,
+                                     int threadCount,
+                                     RowNamePartitioner partitioner,
+                                     RangeCheckpoints checkpoints,
+                                     CopyStats stats,
+                                     CopyTask task) throws InterruptedException {
+        new WorkStealingRangeExecutor(exec, threadCount, checkpoints).executeTask("copy",
+                getRanges(partitioner, threadCount, batchSize),
                 range -> executeCopyTask(srcTable, dstTable, stats, task, range));
     }
 
@@ -177,9 +209,27 @@ public final class TableTasks {
                             int threadCount,
                             @Output DiffStats stats,
                             final DiffVisitor visitor) throws InterruptedException {
+        diff(txManager, exec, plusTable, minusTable, batchSize, threadCount, RangeCheckpoints.none(), stats,
+                visitor);
+    }
+
+    /**
+     * Visits the cells of the plus table that are not in the minus table, recording progress in the given
+     * checkpoints so that the diff resumes from where it stopped if it is run again with the same checkpoints.
+     */
+    public static void diff(final TransactionManager txManager,
+                            ExecutorService exec,
+                            final TableReference plusTable,
+                            final TableReference minusTable,
+                            int batchSize,
+                            int threadCount,
+                            RangeCheckpoints checkpoints,
+                            @Output DiffStats stats,
+                            final DiffVisitor visitor) throws InterruptedException {
         DiffStrategy diffStrategy = txManager.runTaskWithRetry(t ->
                 getDiffStrategy(t, plusTable, minusTable, batchSize));
-        diffExternal(diffStrategy, exec, plusTable, minusTable, batchSize, threadCount, stats,
+        diffExternal(diffStrategy, exec, plusTable, minusTable, batchSize, threadCount,
+                getPartitioner(txManager, plusTable, threadCount), checkpoints, stats,
                 (request, range, strategy) -> txManager.runTaskWithRetry(t ->
                                 diffInternal(t, plusTable, minusTable, request, range, strategy, visitor)));
     }
@@ -208,9 +258,12 @@ public final class TableTasks {
                                      final TableReference minusTable,
                                      final int batchSize,
                                      int threadCount,
+                                     RowNamePartitioner partitioner,
+                                     RangeCheckpoints checkpoints,
                                      final DiffStats stats,
                                      final DiffTask task) throws InterruptedException {
-        new InterruptibleRangeExecutor(exec, batchSize, threadCount).executeTask("diff",
+        new WorkStealingRangeExecutor(exec, threadCount, checkpoints).executeTask("diff",
+                getRanges(partitioner, threadCount, batchSize),
                 range -> executeDiffTask(strategy, plusTable, minusTable, stats, task, range));
     }
 
@@ -393,28 +446,150 @@ public final class TableTasks {
         };
     }
 
+    public static void verify(TransactionManager srcTxManager,
+                              TransactionManager dstTxManager,
+                              ExecutorService exec,
+                              TableReference srcTable,
+                              TableReference dstTable,
+                              int batchSize,
+                              int threadCount,
+                              @Output VerifyStats stats,
+                              MismatchVisitor visitor) throws InterruptedException {
+        verify(srcTxManager, dstTxManager, exec, srcTable, dstTable, batchSize, threadCount,
+                RangeCheckpoints.none(), stats, visitor);
+    }
+
+    /**
+     * Compares the source table with the destination table, possibly on another cluster. Each batch of source rows is
+     * compared with the destination rows in the same range, which are read once per batch; if they differ, both are
+     * passed to the visitor.
+     */
+    public static void verify(TransactionManager srcTxManager,
+                              TransactionManager dstTxManager,
+                              ExecutorService exec,
+                              TableReference srcTable,
+                              TableReference dstTable,
+                              int batchSize,
+                              int threadCount,
+                              RangeCheckpoints checkpoints,
+                              @Output VerifyStats stats,
+                              MismatchVisitor visitor) throws InterruptedException {
+        new WorkStealingRangeExecutor(exec, threadCount, checkpoints).executeTask("verify",
+                getRanges(getPartitioner(srcTxManager, srcTable, threadCount), threadCount, batchSize),
+                range -> verifyInternal(srcTxManager, dstTxManager, srcTable, dstTable, range, stats, visitor));
+    }
+
+    private static void verifyInternal(TransactionManager srcTxManager,
+                                       TransactionManager dstTxManager,
+                                       TableReference srcTable,
+                                       TableReference dstTable,
+                                       MutableRange range,
+                                       VerifyStats stats,
+                                       MismatchVisitor visitor) {
+        RangeRequest request = range.getRangeRequest();
+        // Read with write transactions, in case the tables have SweepStrategy.THOROUGH.
+        List<RowResult<byte[]>> srcRows = srcTxManager.runTaskWithRetry(tx -> BatchingVisitableView.of(
+                tx.getRange(srcTable, request)).limit(range.getBatchSize()).immutableCopy());
+        if (srcRows.size() < range.getBatchSize()) {
+            range.setStartRow(null);
+        } else {
+            byte[] lastRow = srcRows.get(srcRows.size() - 1).getRowName();
+            range.setStartRow(RangeRequests.nextLexicographicName(lastRow));
+        }
+        // The destination rows that belong with this batch are those up to where the next batch starts.
+        RangeRequest batchRequest = range.isComplete() ? request : request.getBuilder()
+                .endRowExclusive(range.getStartRow())
+                .build();
+
+        // The last batch's range runs to the end of the table, so bound the read: a destination with more rows than a
+        // full batch cannot match, and reading one extra row is enough to tell.
+        List<RowResult<byte[]>> dstRows = dstTxManager.runTaskWithRetry(tx -> BatchingVisitableView.of(
+                tx.getRange(dstTable, batchRequest)).limit(range.getBatchSize() + 1).immutableCopy());
+        if (rowsMatch(srcRows, dstRows)) {
+            stats.batchesMatched.incrementAndGet();
+            stats.rowsMatched.addAndGet(srcRows.size());
+            return;
+        }
+
+        stats.batchesMismatched.incrementAndGet();
+        stats.rowsMismatched.addAndGet(srcRows.size());
+        log.info("Found a mismatched batch of {} source rows and {} destination rows between {} and {}.",
+                SafeArg.of("numSrcRows", srcRows.size()),
+                SafeArg.of("numDstRows", dstRows.size()),
+                LoggingArgs.tableRef("srcTable", srcTable),
+                LoggingArgs.tableRef("dstTable", dstTable));
+        visitor.visit(batchRequest, srcRows, dstRows);
+    }
+
+    private static boolean rowsMatch(List<RowResult<byte[]>> srcRows, List<RowResult<byte[]>> dstRows) {
+        if (srcRows.size() != dstRows.size()) {
+            return false;
+        }
+        for (int i = 0; i < srcRows.size(); i++) {
+            if (!rowMatches(srcRows.get(i), dstRows.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean rowMatches(RowResult<byte[]> srcRow, RowResult<byte[]> dstRow) {
+        if (!Arrays.equals(srcRow.getRowName(), dstRow.getRowName())
+                || srcRow.getColumns().size() != dstRow.getColumns().size()) {
+            return false;
+        }
+        // Both rows' columns are sorted the same way, so matching columns are at the same positions.
+        Iterator<Entry<byte[], byte[]>> dstColumns = dstRow.getColumns().entrySet().iterator();
+        for (Entry<byte[], byte[]> srcColumn : srcRow.getColumns().entrySet()) {
+            Entry<byte[], byte[]> dstColumn = dstColumns.next();
+            if (!Arrays.equals(srcColumn.getKey(), dstColumn.getKey())
+                    || !Arrays.equals(srcColumn.getValue(), dstColumn.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static Predicate<RowResult<byte[]>> lessThan(@Inclusive final byte[] max) {
         return bytes -> UnsignedBytes.lexicographicalComparator().compare(bytes.getRowName(), max) <= 0;
     }
 
-    private static Iterable<MutableRange> getRanges(int givenThreadCount, int batchSize) {
-        int threadCount = Math.min(givenThreadCount, 256);
+    /**
+     * Partitions by a sample of the given table, so that the initial ranges hold similar numbers of rows even if the
+     * table's row names are skewed. Falls back to assuming uniformly distributed row names if sampling fails.
+     */
+    private static RowNamePartitioner getPartitioner(TransactionManager txManager,
+                                                     TableReference table,
+                                                     int threadCount) {
+        if (threadCount <= 1) {
+            return UNIFORM_PARTITIONER;
+        }
+        try {
+            return SampledRowNamePartitioner.sample(
+                    txManager.getKeyValueService(), table, txManager.getImmutableTimestamp());
+        } catch (RuntimeException e) {
+            log.warn("Could not sample the rows of {}, so assuming that its row names are uniformly distributed",
+                    LoggingArgs.tableRef(table), e);
+            return UNIFORM_PARTITIONER;
+        }
+    }
 
+    private static List<MutableRange> getRanges(RowNamePartitioner partitioner, int threadCount, int batchSize) {
         Preconditions.checkState(threadCount > 0, "threadCount must be positive");
         if (threadCount == 1) {
             return ImmutableList.of(new MutableRange(new byte[0], new byte[0], batchSize));
         }
 
-        byte step = (byte) (256 / threadCount);
-        byte curr = step;
-        Collection<MutableRange> ranges = Lists.newArrayListWithCapacity(threadCount);
-        ranges.add(new MutableRange(new byte[0], new byte[] {step}, batchSize));
-        for (int i = 1; i < threadCount - 1; i++) {
-            byte next = (byte) (curr + step);
-            ranges.add(new MutableRange(new byte[] {curr}, new byte[] {next}, batchSize));
-            curr = next;
+        List<MutableRange> ranges = Lists.newArrayListWithCapacity(threadCount);
+        byte[] startRow = new byte[0];
+        for (byte[] boundary : Ordering.from(UnsignedBytes.lexicographicalComparator())
+                .sortedCopy(partitioner.getPartitions(threadCount))) {
+            if (UnsignedBytes.lexicographicalComparator().compare(boundary, startRow) > 0) {
+                ranges.add(new MutableRange(startRow, boundary, batchSize));
+                startRow = boundary;
+            }
         }
-        ranges.add(new MutableRange(new byte[] {curr}, new byte[0], batchSize));
+        ranges.add(new MutableRange(startRow, new byte[0], batchSize));
         return ranges;
     }
 
@@ -422,6 +597,31 @@ public final class TableTasks {
         void visit(Transaction transaction, Iterator<Cell> partialDiff);
     }
 
+    public interface MismatchVisitor {
+        /**
+         * Visits a range whose source and destination rows differ. At most one more destination row than the batch
+         * size is read, so if the destination has more rows than that in the range, only the first are passed.
+         */
+        void visit(RangeRequest range, List<RowResult<byte[]>> srcRows, List<RowResult<byte[]>> dstRows);
+    }
+
+    public static class VerifyStats {
+        private final AtomicLong batchesMatched;
+        private final AtomicLong batchesMismatched;
+        private final AtomicLong rowsMatched;
+        private final AtomicLong rowsMismatched;
+
+        public VerifyStats(AtomicLong batchesMatched,
+                AtomicLong batchesMismatched,
+                AtomicLong rowsMatched,
+                AtomicLong rowsMismatched) {
+            this.batchesMatched = batchesMatched;
+            this.batchesMismatched = batchesMismatched;
+            this.rowsMatched = rowsMatched;
+            this.rowsMismatched = rowsMismatched;
+        }
+    }
+
     public static class DiffStats {
         private final AtomicLong rowsOnlyInSource;
         private final AtomicLong rowsPartiallyInCommon;
@@ -482,44 +682,4 @@ public final class TableTasks {
         private long rowsCopied = 0;
         private long cellsCopied = 0;
     }
-
-    private static class InterruptibleRangeExecutor {
-        private final ExecutorService exec;
-        private final int batchSize;
-        private final int threadCount;
-
-        InterruptibleRangeExecutor(ExecutorService exec, int batchSize, int threadCount) {
-            this.exec = exec;
-            this.batchSize = batchSize;
-            this.threadCount = threadCount;
-        }
-
-        void executeTask(String taskName, InterruptibleRangeTask task) throws InterruptedException {
-            BlockingWorkerPool pool = new BlockingWorkerPool(exec, threadCount);
-            for (final MutableRange range : getRanges(threadCount, batchSize)) {
-                if (Thread.currentThread().isInterrupted()) {
-                    log.info("Thread interrupted. Cancelling {} of range {}",
-                            SafeArg.of("taskName", taskName),
-                            UnsafeArg.of("range", range));
-                    return;
-                }
-                pool.submitTask(() -> {
-                    do {
-                        if (Thread.currentThread().isInterrupted()) {
-                            log.info("Thread interrupted. Cancelling {} of range {}",
-                                    SafeArg.of("taskName", taskName),
-                                    UnsafeArg.of("range", range));
-                            break;
-                        }
-                        try {
-                            task.execute(range);
-                        } catch (InterruptedException e) {
-                            throw Throwables.rewrapAndThrowUncheckedException(e);
-                        }
-                    } while (!range.isComplete());
-                });
-            }
-            pool.waitForSubmittedTasks();
-        }
-    }
 }
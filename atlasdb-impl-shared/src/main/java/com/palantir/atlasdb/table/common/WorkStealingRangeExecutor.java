@@ -0,0 +1,215 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.common;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+
+/**
+ * Runs a task over a set of ranges with a fixed number of workers. Whenever a worker runs out of ranges while others
+ * are still busy, the next busy worker to finish a batch splits its range in two and hands the upper half over, so
+ * that a range with many more rows than the others does not leave the remaining workers idle.
+ */
+final class WorkStealingRangeExecutor {
+    private static final Logger log = LoggerFactory.getLogger(WorkStealingRangeExecutor.class);
+
+    private final ExecutorService exec;
+    private final int threadCount;
+    private final RangeCheckpoints checkpoints;
+
+    @GuardedBy("this")
+    private final Deque<RangeState> pendingRanges = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int busyWorkers = 0;
+    @GuardedBy("this")
+    private int idleWorkers = 0;
+    @GuardedBy("this")
+    private boolean stopped = false;
+
+    WorkStealingRangeExecutor(ExecutorService exec, int threadCount, RangeCheckpoints checkpoints) {
+        this.exec = exec;
+        this.threadCount = threadCount;
+        this.checkpoints = checkpoints;
+    }
+
+    interface RangeTask {
+        /**
+         * Processes the next batch of the given range, and moves the start of the range past it.
+         */
+        void execute(MutableRange range) throws InterruptedException;
+    }
+
+    void executeTask(String taskName, List<MutableRange> initialRanges, RangeTask task) throws InterruptedException {
+        Map<Long, MutableRange> ranges = checkpoints.load(initialRanges);
+        synchronized (this) {
+            ranges.forEach((rangeId, range) -> pendingRanges.add(new RangeState(rangeId, range)));
+        }
+        log.info("Starting {} of {} ranges with {} threads",
+                SafeArg.of("taskName", taskName),
+                SafeArg.of("numRanges", ranges.size()),
+                SafeArg.of("threadCount", threadCount));
+
+        List<Future<?>> workers = Lists.newArrayListWithCapacity(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                workers.add(exec.submit(() -> runWorker(taskName, task)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            stop();
+            workers.forEach(worker -> worker.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            stop();
+            awaitWorkers(workers);
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+
+    /**
+     * Waits for the other workers to finish the batch they are on and record their progress, so that the task can be
+     * resumed as soon as this returns without processing those batches again.
+     */
+    private static void awaitWorkers(List<Future<?>> workers) {
+        for (Future<?> worker : workers) {
+            try {
+                Uninterruptibles.getUninterruptibly(worker);
+            } catch (ExecutionException | CancellationException e) {
+                // Only the first failure is rethrown.
+            }
+        }
+    }
+
+    private void runWorker(String taskName, RangeTask task) {
+        RangeState state;
+        while ((state = takeRange()) != null) {
+            try {
+                runRange(taskName, task, state);
+            } catch (Throwable t) {
+                stop();
+                throw Throwables.rewrapAndThrowUncheckedException(t);
+            } finally {
+                finishRange();
+            }
+        }
+    }
+
+    private void runRange(String taskName, RangeTask task, RangeState state) throws InterruptedException {
+        while (!state.range.isComplete()) {
+            if (Thread.currentThread().isInterrupted() || isStopped()) {
+                stop();
+                log.info("Cancelling {} of range {}",
+                        SafeArg.of("taskName", taskName),
+                        UnsafeArg.of("range", state.range));
+                return;
+            }
+            task.execute(state.range);
+            checkpoints.recordProgress(state.rangeId, state.range);
+            if (!state.range.isComplete() && isWorkerIdle()) {
+                splitRange(state);
+            }
+        }
+    }
+
+    private void splitRange(RangeState state) {
+        MutableRange splitRange = state.range.split();
+        if (splitRange == null) {
+            return;
+        }
+        long splitRangeId = checkpoints.recordSplit(state.rangeId, state.range, splitRange);
+        log.debug("Split range {} into {} and {}",
+                SafeArg.of("rangeId", state.rangeId),
+                UnsafeArg.of("range", state.range),
+                UnsafeArg.of("splitRange", splitRange));
+        synchronized (this) {
+            pendingRanges.add(new RangeState(splitRangeId, splitRange));
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the next range to process, waiting for a busy worker to split its range if there are none left.
+     * Returns null once every range is complete, or the task has been stopped.
+     */
+    @Nullable
+    private synchronized RangeState takeRange() {
+        idleWorkers++;
+        try {
+            while (pendingRanges.isEmpty() && busyWorkers > 0 && !stopped) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            idleWorkers--;
+        }
+        if (pendingRanges.isEmpty() || stopped) {
+            notifyAll();
+            return null;
+        }
+        busyWorkers++;
+        return pendingRanges.poll();
+    }
+
+    private synchronized void finishRange() {
+        busyWorkers--;
+        notifyAll();
+    }
+
+    private synchronized boolean isWorkerIdle() {
+        return idleWorkers > 0 && pendingRanges.isEmpty();
+    }
+
+    private synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    private synchronized void stop() {
+        stopped = true;
+        notifyAll();
+    }
+
+    private static final class RangeState {
+        private final long rangeId;
+        private final MutableRange range;
+
+        private RangeState(long rangeId, MutableRange range) {
+            this.rangeId = rangeId;
+            this.range = range;
+        }
+    }
+}
@@ -132,7 +132,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                                    ExecutorService deleteExecutor,
                                    CommitProfileProcessor commitProfileProcessor,
                                    boolean validateLocksOnReads,
-                                   Supplier<TransactionConfig> transactionConfig) {
+                                   Supplier<TransactionConfig> transactionConfig,
+                                   CellReadCache cellReadCache) {
         super(metricsManager,
               keyValueService,
               timelockService,
@@ -155,7 +156,8 @@ public class SerializableTransaction extends SnapshotTransaction {
               deleteExecutor,
               commitProfileProcessor,
               validateLocksOnReads,
-              transactionConfig);
+              transactionConfig,
+              cellReadCache);
     }
 
     @Override
@@ -709,7 +711,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                 deleteExecutor,
                 commitProfileProcessor,
                 validateLocksOnReads,
-                transactionConfig) {
+                transactionConfig,
+                CellReadCache.createWithNoCaching()) {
             @Override
             protected Map<Long, Long> getCommitTimestamps(TableReference tableRef,
                                                           Iterable<Long> startTimestamps,
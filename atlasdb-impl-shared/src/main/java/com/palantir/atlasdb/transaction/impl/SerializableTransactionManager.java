@@ -381,7 +381,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 deleteExecutor,
                 commitProfileProcessor,
                 validateLocksOnReads,
-                transactionConfig);
+                transactionConfig,
+                cellReadCache);
     }
 
     @VisibleForTesting
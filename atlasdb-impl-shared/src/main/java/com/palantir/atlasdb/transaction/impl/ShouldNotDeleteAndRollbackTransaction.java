@@ -102,7 +102,8 @@ public class ShouldNotDeleteAndRollbackTransaction extends SnapshotTransaction {
                 IGNORING_EXECUTOR,
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 true,
-                transactionConfig);
+                transactionConfig,
+                CellReadCache.createWithNoCaching());
     }
 
     @Override
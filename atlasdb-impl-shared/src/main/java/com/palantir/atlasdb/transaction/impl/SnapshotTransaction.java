@@ -218,6 +218,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     protected final TransactionOutcomeMetrics transactionOutcomeMetrics;
     protected final boolean validateLocksOnReads;
     protected final Supplier<TransactionConfig> transactionConfig;
+    protected final CellReadCache cellReadCache;
+    private final ConcurrentMap<TableReference, Pair<Meter, Meter>> cellReadCacheMeters = Maps.newConcurrentMap();
 
     protected volatile boolean hasReads;
 
@@ -249,7 +251,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                ExecutorService deleteExecutor,
                                CommitProfileProcessor commitProfileProcessor,
                                boolean validateLocksOnReads,
-                               Supplier<TransactionConfig> transactionConfig) {
+                               Supplier<TransactionConfig> transactionConfig,
+                               CellReadCache cellReadCache) {
         this.metricsManager = metricsManager;
         this.transactionTimerContext = getTimer("transactionMillis").time();
         this.keyValueService = keyValueService;
@@ -276,6 +279,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         this.transactionOutcomeMetrics = TransactionOutcomeMetrics.create(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
+        this.cellReadCache = cellReadCache;
     }
 
     @Override
@@ -596,6 +600,36 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
      * this will be included here and needs to be filtered out.
      */
     private Map<Cell, byte[]> getFromKeyValueService(TableReference tableRef, Set<Cell> cells) {
+        if (!isCellReadCacheEnabled(tableRef)) {
+            return getFromKeyValueServiceUncached(tableRef, cells);
+        }
+
+        Map<Cell, byte[]> result = Maps.newHashMapWithExpectedSize(cells.size());
+        Set<Cell> uncachedCells = Sets.newHashSet();
+        for (Cell cell : cells) {
+            Optional<byte[]> cachedValue = cellReadCache.get(tableRef, cell, getStartTimestamp());
+            if (cachedValue.isPresent()) {
+                // Deleted and never written cells are cached as the empty value, which callers filter out.
+                result.put(cell, cachedValue.get());
+            } else {
+                uncachedCells.add(cell);
+            }
+        }
+        markCellReadCacheAccesses(tableRef, result.size(), uncachedCells.size());
+        if (!uncachedCells.isEmpty()) {
+            result.putAll(getFromKeyValueServiceAndCache(tableRef, uncachedCells));
+        }
+        return result;
+    }
+
+    private boolean isCellReadCacheEnabled(TableReference tableRef) {
+        // Hidden tables are read outside the transaction protocol, and with IGNORE, swept cells would look absent.
+        return cellReadCache.getPolicy(tableRef) != CellReadCachePolicyManager.Policy.NONE
+                && !AtlasDbConstants.hiddenTables.contains(tableRef)
+                && getReadSentinelBehavior() == TransactionReadSentinelBehavior.THROW_EXCEPTION;
+    }
+
+    private Map<Cell, byte[]> getFromKeyValueServiceUncached(TableReference tableRef, Set<Cell> cells) {
         ImmutableMap.Builder<Cell, byte[]> result = ImmutableMap.builderWithExpectedSize(cells.size());
         Map<Cell, Long> toRead = Cells.constantValueMap(cells, getStartTimestamp());
         Map<Cell, Value> rawResults = keyValueService.get(tableRef, toRead);
@@ -603,6 +637,51 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return result.build();
     }
 
+    /**
+     * Reads the cells like {@link #getFromKeyValueServiceUncached(TableReference, Set)}, and records the version of
+     * each cell that is visible to this transaction, deletions included, in the read cache shared with other
+     * transactions.
+     */
+    private Map<Cell, byte[]> getFromKeyValueServiceAndCache(TableReference tableRef, Set<Cell> cells) {
+        Map<Cell, Long> toRead = Cells.constantValueMap(cells, getStartTimestamp());
+        Map<Cell, Value> rawResults = keyValueService.get(tableRef, toRead);
+        ImmutableMap.Builder<Cell, Value> visibleVersionsBuilder = ImmutableMap.builderWithExpectedSize(cells.size());
+        getWithPostFiltering(tableRef, rawResults, visibleVersionsBuilder, Functions.identity(), true);
+        Map<Cell, Value> visibleVersions = visibleVersionsBuilder.build();
+
+        // Every visible version has committed, so these are served from the timestamp cache.
+        Map<Long, Long> commitTimestamps = getCommitTimestamps(
+                tableRef, getStartTimestampsForValues(visibleVersions.values()), false);
+        Map<Cell, byte[]> result = Maps.newHashMapWithExpectedSize(visibleVersions.size());
+        for (Cell cell : cells) {
+            Value version = visibleVersions.get(cell);
+            if (version == null) {
+                cellReadCache.putNeverWritten(tableRef, cell, getStartTimestamp());
+                continue;
+            }
+            Long commitTimestamp = commitTimestamps.get(version.getTimestamp());
+            if (commitTimestamp != null) {
+                cellReadCache.putVisibleVersion(
+                        tableRef, cell, getStartTimestamp(), commitTimestamp, version.getContents());
+            }
+            if (version.getContents().length != 0) {
+                result.put(cell, version.getContents());
+            }
+        }
+        return result;
+    }
+
+    private void markCellReadCacheAccesses(TableReference tableRef, long hits, long misses) {
+        Pair<Meter, Meter> meters = cellReadCacheMeters.computeIfAbsent(tableRef, table -> {
+            Map<String, String> tags = metricsManager.getTableNameTagFor(table);
+            return Pair.of(
+                    metricsManager.registerOrGetTaggedMeter(SnapshotTransaction.class, "cellReadCacheHits", tags),
+                    metricsManager.registerOrGetTaggedMeter(SnapshotTransaction.class, "cellReadCacheMisses", tags));
+        });
+        meters.getLeft().mark(hits);
+        meters.getRight().mark(misses);
+    }
+
     private static byte[] getNextStartRowName(
             RangeRequest range,
             TokenBackedBasicResultsPage<RowResult<Value>, byte[]> prePostFilter) {
@@ -1017,6 +1096,18 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                           Map<Cell, Value> rawResults,
                                           @Output ImmutableMap.Builder<Cell, T> results,
                                           Function<Value, T> transformer) {
+        getWithPostFiltering(tableRef, rawResults, results, transformer, false);
+    }
+
+    /**
+     * If includeDeletedValues is true, cells whose visible value is a deletion are output with the empty value
+     * rather than left out.
+     */
+    private <T> void getWithPostFiltering(TableReference tableRef,
+                                          Map<Cell, Value> rawResults,
+                                          @Output ImmutableMap.Builder<Cell, T> results,
+                                          Function<Value, T> transformer,
+                                          boolean includeDeletedValues) {
         long bytes = 0;
         for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
             bytes += e.getValue().getContents().length + Cells.getApproxSizeOfCell(e.getKey());
@@ -1052,7 +1143,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         AtomicInteger resultCount = new AtomicInteger();
         while (!remainingResultsToPostfilter.isEmpty()) {
             remainingResultsToPostfilter = getWithPostFilteringInternal(
-                    tableRef, remainingResultsToPostfilter, results, resultCount, transformer);
+                    tableRef, remainingResultsToPostfilter, results, resultCount, transformer, includeDeletedValues);
         }
 
         getMeter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_RETURNED, tableRef).mark(resultCount.get());
@@ -1066,7 +1157,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             Map<Cell, Value> rawResults,
             @Output ImmutableMap.Builder<Cell, T> results,
             @Output AtomicInteger count,
-            Function<Value, T> transformer) {
+            Function<Value, T> transformer,
+            boolean includeDeletedValues) {
         Set<Long> startTimestampsForValues = getStartTimestampsForValues(rawResults.values());
         Map<Long, Long> commitTimestamps = getCommitTimestamps(tableRef, startTimestampsForValues, true);
         Map<Cell, Long> keysToReload = Maps.newHashMapWithExpectedSize(0);
@@ -1112,7 +1204,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                             .mark();
                 } else {
                     // The value has a commit timestamp less than our start timestamp, and is visible and valid.
-                    if (value.getContents().length != 0) {
+                    if (value.getContents().length != 0 || includeDeletedValues) {
                         results.put(key, transformer.apply(value));
                         keysAddedBuilder.add(key);
                     }
@@ -80,6 +80,7 @@ import com.palantir.timestamp.TimestampService;
     final MultiTableSweepQueueWriter sweepQueueWriter;
     final boolean validateLocksOnReads;
     final Supplier<TransactionConfig> transactionConfig;
+    final CellReadCache cellReadCache;
 
     final List<Runnable> closingCallbacks;
     final AtomicBoolean isClosed;
@@ -127,6 +128,7 @@ import com.palantir.timestamp.TimestampService;
         this.commitProfileProcessor = CommitProfileProcessor.createDefault(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
+        this.cellReadCache = CellReadCache.create(keyValueService);
     }
 
     @Override
@@ -242,7 +244,8 @@ import com.palantir.timestamp.TimestampService;
                 deleteExecutor,
                 commitProfileProcessor,
                 validateLocksOnReads,
-                transactionConfig);
+                transactionConfig,
+                cellReadCache);
     }
 
     @Override
@@ -273,7 +276,8 @@ import com.palantir.timestamp.TimestampService;
                 deleteExecutor,
                 commitProfileProcessor,
                 validateLocksOnReads,
-                transactionConfig);
+                transactionConfig,
+                cellReadCache);
         try {
             return runTaskThrowOnConflict(txn -> task.execute(txn, condition),
                     new ReadTransaction(transaction, sweepStrategyManager));
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+
+public class MutableRangeTest {
+    @Test
+    public void splitsUnboundedRangeInHalf() {
+        MutableRange range = new MutableRange(PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY, 10);
+
+        MutableRange upperHalf = range.split();
+
+        assertThat(range.getEndRow()).containsExactly(0x7f);
+        assertThat(upperHalf.getStartRow()).containsExactly(0x7f);
+        assertThat(upperHalf.getEndRow()).isEmpty();
+        assertThat(upperHalf.getBatchSize()).isEqualTo(10);
+    }
+
+    @Test
+    public void splitsBetweenAdjacentRows() {
+        MutableRange range = new MutableRange(new byte[] {0x10}, new byte[] {0x11}, 10);
+
+        MutableRange upperHalf = range.split();
+
+        assertThat(range.getStartRow()).containsExactly(0x10);
+        assertThat(range.getEndRow()).containsExactly(0x10, 0x80);
+        assertThat(upperHalf.getStartRow()).containsExactly(0x10, 0x80);
+        assertThat(upperHalf.getEndRow()).containsExactly(0x11);
+    }
+
+    @Test
+    public void doesNotSplitCompleteOrSingleRowRanges() {
+        MutableRange completeRange = new MutableRange(new byte[] {0x10}, new byte[] {0x11}, 10);
+        completeRange.setStartRow(null);
+        assertThat(completeRange.split()).isNull();
+
+        MutableRange singleRowRange = new MutableRange(new byte[] {0x10}, new byte[] {0x10, 0x00}, 10);
+        assertThat(singleRowRange.split()).isNull();
+        assertThat(singleRowRange.getEndRow()).containsExactly(0x10, 0x00);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+
+public class WorkStealingRangeExecutorTest {
+    private static final int NUM_ROWS = 2000;
+    private static final int BATCH_SIZE = 10;
+
+    private final NavigableSet<byte[]> rows = Sets.newTreeSet(UnsignedBytes.lexicographicalComparator());
+    private final Multiset<Integer> visitedRows = ConcurrentHashMultiset.create();
+    private final Set<String> workerThreads = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void splitsRangesForIdleWorkers() throws InterruptedException {
+        for (int i = 0; i < NUM_ROWS; i++) {
+            rows.add(PtBytes.toBytes((long) i));
+        }
+
+        new WorkStealingRangeExecutor(executor, 4, RangeCheckpoints.none()).executeTask("test",
+                ImmutableList.of(new MutableRange(PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY, BATCH_SIZE)),
+                this::visitBatch);
+
+        assertThat(visitedRows.elementSet()).hasSize(NUM_ROWS);
+        assertThat(visitedRows.entrySet()).allMatch(entry -> entry.getCount() == 1);
+        assertThat(workerThreads).hasSize(4);
+    }
+
+    @Test
+    public void runsAllRangesOnASingleThread() throws InterruptedException {
+        for (int i = 0; i < 256; i++) {
+            rows.add(new byte[] {(byte) i});
+        }
+        List<MutableRange> ranges = ImmutableList.of(
+                new MutableRange(PtBytes.EMPTY_BYTE_ARRAY, new byte[] {(byte) 0x80}, BATCH_SIZE),
+                new MutableRange(new byte[] {(byte) 0x80}, PtBytes.EMPTY_BYTE_ARRAY, BATCH_SIZE));
+
+        new WorkStealingRangeExecutor(MoreExecutors.newDirectExecutorService(), 2, RangeCheckpoints.none())
+                .executeTask("test", ranges, this::visitBatch);
+
+        assertThat(visitedRows.elementSet()).hasSize(256);
+        assertThat(visitedRows.entrySet()).allMatch(entry -> entry.getCount() == 1);
+    }
+
+    private void visitBatch(MutableRange range) {
+        workerThreads.add(Thread.currentThread().getName());
+        byte[] endRow = range.getEndRow();
+        Set<byte[]> remaining = endRow.length == 0
+                ? rows.tailSet(range.getStartRow(), true)
+                : rows.subSet(range.getStartRow(), true, endRow, false);
+        List<byte[]> batch = ImmutableList.copyOf(remaining).subList(0, Math.min(BATCH_SIZE, remaining.size()));
+        batch.forEach(row -> visitedRows.add(row.length == 1 ? row[0] & 0xff : (int) PtBytes.toLong(row)));
+        if (batch.size() < BATCH_SIZE) {
+            range.setStartRow(null);
+        } else {
+            range.setStartRow(RangeRequests.nextLexicographicName(batch.get(batch.size() - 1)));
+        }
+        Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Compares benchmark results against a baseline previously written with {@link PerformanceResults#writeToFile(File)},
+ * so that regressions on hot paths can be caught on a build machine. Benchmarks are matched by name (which includes
+ * the backend and every other parameter), and compared on their median, which is less sensitive than the mean to the
+ * odd slow sample. The CLI runs benchmarks in {@link org.openjdk.jmh.annotations.Mode#SampleTime} mode, so a higher
+ * median is worse. If both runs profiled allocations, the bytes allocated per operation are compared as well.
+ */
+public final class BaselineComparison {
+    private static final double ALLOCATION_SLACK_BYTES = 8;
+
+    private final Map<String, PerformanceResults.PerformanceResult> baseline;
+    private final double regressionThreshold;
+
+    @VisibleForTesting
+    BaselineComparison(List<? extends PerformanceResults.PerformanceResult> baseline, double regressionThreshold) {
+        Preconditions.checkArgument(regressionThreshold >= 0, "The regression threshold must not be negative");
+        this.baseline = baseline.stream().collect(Collectors.toMap(
+                PerformanceResults.PerformanceResult::benchmark,
+                Function.identity(),
+                (first, second) -> {
+                    throw new IllegalArgumentException("The baseline has more than one result for " + first.benchmark()
+                            + "; it may have been written before results were named after all of their parameters");
+                }));
+        this.regressionThreshold = regressionThreshold;
+    }
+
+    /**
+     * @param regressionThreshold the fraction by which a benchmark's median may exceed the baseline's before it is
+     * reported as a regression; 0.1 allows it to be 10% slower.
+     */
+    public static BaselineComparison fromFile(File baselineFile, double regressionThreshold) throws IOException {
+        return new BaselineComparison(PerformanceResults.readFromFile(baselineFile), regressionThreshold);
+    }
+
+    /**
+     * Returns a description of each regression past the threshold. Benchmarks that are not in the
+     * baseline are ignored.
+     */
+    public List<String> findRegressions(PerformanceResults results) {
+        return findRegressions(results.getPerformanceResults());
+    }
+
+    @VisibleForTesting
+    List<String> findRegressions(List<? extends PerformanceResults.PerformanceResult> results) {
+        return results.stream()
+                .filter(result -> baseline.containsKey(result.benchmark()))
+                .flatMap(result -> {
+                    PerformanceResults.PerformanceResult baselineResult = baseline.get(result.benchmark());
+                    return Stream.of(
+                            checkForTimeRegression(baselineResult, result),
+                            checkForAllocationRegression(baselineResult, result));
+                })
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    private Optional<String> checkForTimeRegression(
+            PerformanceResults.PerformanceResult baselineResult,
+            PerformanceResults.PerformanceResult result) {
+        double baselineMedianNanos = medianNanos(baselineResult);
+        double medianNanos = medianNanos(result);
+        if (baselineMedianNanos <= 0 || medianNanos <= baselineMedianNanos * (1 + regressionThreshold)) {
+            return Optional.empty();
+        }
+        return Optional.of(String.format("%s: median went from %.0fns to %.0fns (+%.1f%%)",
+                result.benchmark(),
+                baselineMedianNanos,
+                medianNanos,
+                100 * (medianNanos / baselineMedianNanos - 1)));
+    }
+
+    /**
+     * Allocation is nearly deterministic, so unlike time it is compared even if the baseline allocated nothing; the
+     * slack stops a benchmark that allocates a handful of bytes from failing on rounding.
+     */
+    private Optional<String> checkForAllocationRegression(
+            PerformanceResults.PerformanceResult baselineResult,
+            PerformanceResults.PerformanceResult result) {
+        Double baselineBytes = baselineResult.allocatedBytesPerOp();
+        Double bytes = result.allocatedBytesPerOp();
+        if (baselineBytes == null || bytes == null
+                || bytes <= baselineBytes * (1 + regressionThreshold) + ALLOCATION_SLACK_BYTES) {
+            return Optional.empty();
+        }
+        return Optional.of(String.format("%s: allocation went from %.0f to %.0f bytes per operation",
+                result.benchmark(),
+                baselineBytes,
+                bytes));
+    }
+
+    private static double medianNanos(PerformanceResults.PerformanceResult result) {
+        return result.p50() * result.units().toNanos(1);
+    }
+}
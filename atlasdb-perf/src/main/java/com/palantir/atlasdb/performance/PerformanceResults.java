@@ -29,6 +29,8 @@ import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.immutables.value.Value;
 import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.RunResult;
@@ -36,6 +38,7 @@ import org.openjdk.jmh.util.Multiset;
 import org.openjdk.jmh.util.Statistics;
 import org.openjdk.jmh.util.TreeMultiset;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -46,6 +49,11 @@ import com.palantir.atlasdb.performance.backend.DockerizedDatabaseUri;
 public class PerformanceResults {
     @VisibleForTesting
     static final String KVS_AGNOSTIC_SUFFIX = "N/A";
+    /**
+     * The label of the secondary result the JMH GC profiler reports the bytes allocated per operation under.
+     */
+    @VisibleForTesting
+    static final String ALLOCATION_RESULT_SUFFIX = "gc.alloc.rate.norm";
 
     private final Collection<RunResult> results;
     public static final int DOWNSAMPLE_MAXIMUM_SIZE = 500;
@@ -61,6 +69,17 @@ public class PerformanceResults {
         }
     }
 
+    List<ImmutablePerformanceResult> getPerformanceResults() {
+        return getPerformanceResults(results);
+    }
+
+    /**
+     * Reads results previously written by {@link #writeToFile(File)}.
+     */
+    static List<ImmutablePerformanceResult> readFromFile(File file) throws IOException {
+        return new ObjectMapper().readValue(file, new TypeReference<List<ImmutablePerformanceResult>>() {});
+    }
+
     private static List<ImmutablePerformanceResult> getPerformanceResults(Collection<RunResult> results) {
         long date = System.currentTimeMillis();
         return results.stream().map(rs ->
@@ -75,23 +94,46 @@ public class PerformanceResults {
                         .p50(rs.getPrimaryResult().getStatistics().getPercentile(50.0))
                         .p90(rs.getPrimaryResult().getStatistics().getPercentile(90.0))
                         .p99(rs.getPrimaryResult().getStatistics().getPercentile(99.0))
+                        .allocatedBytesPerOp(getAllocatedBytesPerOp(rs))
                         .build()).collect(Collectors.toList());
     }
 
+    @VisibleForTesting
+    @Nullable
+    static Double getAllocatedBytesPerOp(RunResult result) {
+        // The GC profiler prefixes its labels with a separator character, so only match on the suffix.
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith(ALLOCATION_RESULT_SUFFIX))
+                .map(entry -> entry.getValue().getScore())
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * The name identifies a single run of a benchmark, so it includes every parameter: the backend from the URI
+     * parameter, followed by any other parameters sorted by key, e.g.
+     * {@code CellBenchmarks#compareCells-N/A[nameLength=16]}.
+     */
     @VisibleForTesting
     static String getBenchmarkName(BenchmarkParams params) {
         Optional<String> benchmarkUriSuffix = Optional.ofNullable(params.getParam(BenchmarkParam.URI.getKey()))
                 .map(DockerizedDatabaseUri::fromUriString)
                 .map(uri -> uri.getKeyValueServiceInstrumentation().toString());
-        return formatBenchmarkString(params.getBenchmark(), benchmarkUriSuffix);
+        String otherParams = params.getParamsKeys().stream()
+                .filter(key -> !key.equals(BenchmarkParam.URI.getKey()))
+                .sorted()
+                .map(key -> key + "=" + params.getParam(key))
+                .collect(Collectors.joining(","));
+        return formatBenchmarkString(params.getBenchmark(), benchmarkUriSuffix, otherParams);
     }
 
-    private static String formatBenchmarkString(String benchmark, Optional<String> uriSuffix) {
+    private static String formatBenchmarkString(String benchmark, Optional<String> uriSuffix, String otherParams) {
         String[] benchmarkParts = benchmark.split("\\.");
         String benchmarkSuite = benchmarkParts[benchmarkParts.length - 2];
         String benchmarkName = benchmarkParts[benchmarkParts.length - 1];
 
-        return String.format("%s#%s-%s", benchmarkSuite, benchmarkName, uriSuffix.orElse(KVS_AGNOSTIC_SUFFIX));
+        String name = String.format("%s#%s-%s", benchmarkSuite, benchmarkName, uriSuffix.orElse(KVS_AGNOSTIC_SUFFIX));
+        return otherParams.isEmpty() ? name : String.format("%s[%s]", name, otherParams);
     }
 
     private static BufferedWriter openFileWriter(File file) throws FileNotFoundException {
@@ -174,6 +216,12 @@ public class PerformanceResults {
         public abstract double p50();
         public abstract double p90();
         public abstract double p99();
+
+        /**
+         * Only present if the benchmarks were run with allocation profiling.
+         */
+        @Nullable
+        public abstract Double allocatedBytesPerOp();
     }
 
 }
@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.backend;
+
+import java.net.InetSocketAddress;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableDbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableH2DdlConfig;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+import com.palantir.nexus.db.pool.config.ImmutableH2ConnectionConfig;
+import com.palantir.nexus.db.pool.config.ImmutableMaskedValue;
+
+/**
+ * Runs benchmarks against DbKvs backed by an in-memory H2 database in the benchmark JVM, which exercises the
+ * relational code paths without needing docker.
+ */
+public class H2KeyValueServiceInstrumentation extends KeyValueServiceInstrumentation {
+
+    // Named, so that every pooled connection sees the same database, and kept open until the JVM exits.
+    private static final String URL = "jdbc:h2:mem:atlasdb-perf;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    public H2KeyValueServiceInstrumentation() {
+        super(0, null);
+    }
+
+    @Override
+    public KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr) {
+        return ImmutableDbKeyValueServiceConfig.builder()
+                .ddl(ImmutableH2DdlConfig.builder().build())
+                .connection(ImmutableH2ConnectionConfig.builder()
+                        .url(URL)
+                        .dbLogin("palantir")
+                        .dbPassword(ImmutableMaskedValue.of("palantir"))
+                        .build())
+                .build();
+    }
+
+    @Override
+    public boolean canConnect(InetSocketAddress addr) {
+        return true;
+    }
+
+    @Override
+    public boolean isInProcess() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "H2";
+    }
+}
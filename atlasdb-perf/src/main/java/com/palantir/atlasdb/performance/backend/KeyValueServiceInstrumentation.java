@@ -36,6 +36,8 @@ public abstract class KeyValueServiceInstrumentation {
     static {
         addNewBackendType(new CassandraKeyValueServiceInstrumentation());
         addNewBackendType(new PostgresKeyValueServiceInstrumentation());
+        addNewBackendType(new InMemoryKeyValueServiceInstrumentation());
+        addNewBackendType(new H2KeyValueServiceInstrumentation());
     }
 
     KeyValueServiceInstrumentation(int kvsPort, String dockerComposeFileName) {
@@ -51,6 +53,14 @@ public abstract class KeyValueServiceInstrumentation {
         return kvsPort;
     }
 
+    /**
+     * In-process backends run inside the benchmark JVM, so no docker container is started for them and the address
+     * passed to {@link #getKeyValueServiceConfig(InetSocketAddress)} is ignored.
+     */
+    public boolean isInProcess() {
+        return false;
+    }
+
     public abstract KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr);
     public abstract boolean canConnect(InetSocketAddress addr);
 
@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.AccumulatorStrategies;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.BatchingStrategies;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.ParallelTaskRunner;
+import com.palantir.common.concurrent.BlockingExecutorFactory;
+import com.palantir.common.concurrent.PTExecutors;
+
+/**
+ * Compares running blocking key value service calls on pools of platform threads and on virtual threads, by fanning
+ * a read out into tasks that each block for as long as a round trip to the database, as the Cassandra cell loader and
+ * the DbKvs {@link ParallelTaskRunner} do. On JVMs without virtual threads, VIRTUAL falls back to platform threads.
+ */
+@State(Scope.Benchmark)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 20, timeUnit = TimeUnit.SECONDS)
+public class BlockingExecutorBenchmarks {
+    private static final Logger log = LoggerFactory.getLogger(BlockingExecutorBenchmarks.class);
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public enum ExecutorType {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutorType executorType;
+
+    @Param({"16", "1024"})
+    private int maxConcurrency;
+
+    @Param({"64", "1024"})
+    private int fanOut;
+
+    private ExecutorService executor;
+    private ParallelTaskRunner taskRunner;
+    private List<Integer> batches;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = getFactory().create("blocking-executor-benchmark", maxConcurrency, true);
+        taskRunner = new ParallelTaskRunner(executor, 1);
+        batches = IntStream.range(0, fanOut).boxed().collect(Collectors.toList());
+    }
+
+    private BlockingExecutorFactory getFactory() {
+        if (executorType == ExecutorType.VIRTUAL) {
+            if (PTExecutors.supportsVirtualThreads()) {
+                return BlockingExecutorFactory.virtualThreads();
+            }
+            log.warn("This JVM does not support virtual threads, so platform threads will be used instead");
+        }
+        return BlockingExecutorFactory.platformThreads();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskRunner.close();
+    }
+
+    @Benchmark
+    public int submitAndWaitForAll() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> futures = new ArrayList<>(fanOut);
+        for (Integer batch : batches) {
+            futures.add(executor.submit(() -> blockingRead(batch)));
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> parallelTaskRunner() {
+        return taskRunner.runTask(
+                batches,
+                BatchingStrategies.forList(),
+                AccumulatorStrategies.forMap(),
+                batch -> ImmutableMap.of(batch.get(0), blockingRead(batch.get(0))));
+    }
+
+    private static int blockingRead(int batch) {
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+        return batch;
+    }
+}
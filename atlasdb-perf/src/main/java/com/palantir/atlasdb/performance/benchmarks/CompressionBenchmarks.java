@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.palantir.atlasdb.compress.CompressionUtils;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
+import com.palantir.atlasdb.schema.SweepSchema;
+import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Compares column value compression algorithms on value shapes typical of AtlasDB tables. The compression ratio for
+ * each combination is logged once per trial, since JMH only reports throughput.
+ */
+@State(Scope.Benchmark)
+public class CompressionBenchmarks {
+    private static final Logger log = LoggerFactory.getLogger(CompressionBenchmarks.class);
+    private static final int NUM_VALUES = 1024;
+
+    public enum ValueShape {
+        SMALL_PROTO {
+            @Override
+            List<byte[]> generate(Random random) {
+                return IntStream.range(0, NUM_VALUES)
+                        .mapToObj(unused -> StreamMetadata.newBuilder()
+                                .setStatus(Status.STORED)
+                                .setLength(random.nextInt(10_000_000))
+                                .setHash(ByteString.copyFrom(randomBytes(random, 32)))
+                                .build()
+                                .toByteArray())
+                        .collect(Collectors.toList());
+            }
+        },
+        TABLE_METADATA_PROTO {
+            @Override
+            List<byte[]> generate(Random random) {
+                List<byte[]> metadata = SweepSchema.INSTANCE.getLatestSchema().getAllTablesAndIndexMetadata()
+                        .values()
+                        .stream()
+                        .map(TableMetadata::persistToBytes)
+                        .collect(Collectors.toList());
+                return IntStream.range(0, NUM_VALUES)
+                        .mapToObj(index -> metadata.get(index % metadata.size()))
+                        .collect(Collectors.toList());
+            }
+        },
+        RANDOM_4_KB {
+            @Override
+            List<byte[]> generate(Random random) {
+                return IntStream.range(0, NUM_VALUES)
+                        .mapToObj(unused -> randomBytes(random, 4096))
+                        .collect(Collectors.toList());
+            }
+        };
+
+        abstract List<byte[]> generate(Random random);
+
+        private static byte[] randomBytes(Random random, int length) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            return bytes;
+        }
+    }
+
+    @Param({"SNAPPY", "LZ4", "ZSTD"})
+    private Compression compression;
+
+    @Param({"SMALL_PROTO", "TABLE_METADATA_PROTO", "RANDOM_4_KB"})
+    private ValueShape valueShape;
+
+    private List<byte[]> values;
+    private List<byte[]> compressedValues;
+    private int nextIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        values = ImmutableList.copyOf(valueShape.generate(new Random(0)));
+        compressedValues = values.stream()
+                .map(value -> CompressionUtils.compress(value, compression))
+                .collect(ImmutableList.toImmutableList());
+
+        long uncompressedBytes = values.stream().mapToLong(value -> value.length).sum();
+        long compressedBytes = compressedValues.stream().mapToLong(value -> value.length).sum();
+        log.info("Compression ratio for {} values using {} is {}",
+                SafeArg.of("valueShape", valueShape),
+                SafeArg.of("compression", compression),
+                SafeArg.of("ratio", (double) uncompressedBytes / compressedBytes));
+    }
+
+    @Benchmark
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 20, timeUnit = TimeUnit.SECONDS)
+    public byte[] compress() {
+        return CompressionUtils.compress(values.get(nextIndex()), compression);
+    }
+
+    @Benchmark
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 20, timeUnit = TimeUnit.SECONDS)
+    public byte[] decompress() {
+        return CompressionUtils.decompress(compressedValues.get(nextIndex()), compression);
+    }
+
+    private int nextIndex() {
+        nextIndex = (nextIndex + 1) % NUM_VALUES;
+        return nextIndex;
+    }
+}
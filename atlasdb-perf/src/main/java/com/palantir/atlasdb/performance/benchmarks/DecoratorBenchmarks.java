@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.MetricRegistry;
+import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.atlasdb.util.InstrumentedServices;
+import com.palantir.timestamp.TimestampRange;
+import com.palantir.timestamp.TimestampService;
+
+/**
+ * Measures the per-call overhead of instrumenting a service with a reflective proxy, compared to a decorator
+ * generated at compile time. The underlying service does almost no work, so the difference between the benchmarks
+ * is the cost of the instrumentation itself. These benchmarks do not use the database.
+ */
+@State(Scope.Benchmark)
+public class DecoratorBenchmarks {
+    private static final String SERVICE_NAME = MetricRegistry.name(TimestampService.class);
+
+    private final TimestampService undecorated = new CountingTimestampService();
+    private final TimestampService reflectiveProxy = AtlasDbMetrics.instrument(
+            new MetricRegistry(), TimestampService.class, new CountingTimestampService(), SERVICE_NAME);
+    private final TimestampService generatedDecorator = InstrumentedServices.instrument(
+            new MetricRegistry(), TimestampService.class, new CountingTimestampService(), SERVICE_NAME);
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public long undecorated() {
+        return undecorated.getFreshTimestamp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public long reflectiveProxy() {
+        return reflectiveProxy.getFreshTimestamp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public long generatedDecorator() {
+        return generatedDecorator.getFreshTimestamp();
+    }
+
+    private static final class CountingTimestampService implements TimestampService {
+        private final AtomicLong timestamp = new AtomicLong();
+
+        @Override
+        public long getFreshTimestamp() {
+            return timestamp.incrementAndGet();
+        }
+
+        @Override
+        public TimestampRange getFreshTimestamps(int numTimestampsRequested) {
+            long upperBound = timestamp.addAndGet(numTimestampsRequested);
+            return TimestampRange.createInclusiveRange(upperBound - numTimestampsRequested + 1, upperBound);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.palantir.atlasdb.http.SmileMediaTypes;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Compares the cost of encoding and decoding typical TimeLock and AtlasDB service payloads as JSON and as Smile, the
+ * binary encoding negotiated by AtlasDB clients. Does not need a backend. The encoded size of each payload is logged
+ * once per trial, since JMH only reports throughput.
+ */
+@State(Scope.Benchmark)
+public class WireEncodingBenchmarks {
+    private static final Logger log = LoggerFactory.getLogger(WireEncodingBenchmarks.class);
+
+    public enum Encoding {
+        JSON {
+            @Override
+            ObjectMapper createMapper() {
+                return new ObjectMapper().registerModule(new Jdk8Module());
+            }
+        },
+        SMILE {
+            @Override
+            ObjectMapper createMapper() {
+                return SmileMediaTypes.createSmileMapper();
+            }
+        };
+
+        abstract ObjectMapper createMapper();
+    }
+
+    public enum Payload {
+        LOCK_TOKENS(new TypeReference<Set<LockToken>>() { }) {
+            @Override
+            Object generate(Random random) {
+                return IntStream.range(0, 5_000)
+                        .mapToObj(unused -> LockToken.of(new UUID(random.nextLong(), random.nextLong())))
+                        .collect(Collectors.toSet());
+            }
+        },
+        ROW_VALUES(new TypeReference<Map<String, byte[]>>() { }) {
+            @Override
+            Object generate(Random random) {
+                return IntStream.range(0, 1_000)
+                        .boxed()
+                        .collect(Collectors.toMap(index -> "row" + index, unused -> randomBytes(random, 256)));
+            }
+        },
+        TIMESTAMPS(new TypeReference<List<Long>>() { }) {
+            @Override
+            Object generate(Random random) {
+                return IntStream.range(0, 10_000)
+                        .mapToObj(unused -> random.nextLong() & Long.MAX_VALUE)
+                        .collect(Collectors.toList());
+            }
+        };
+
+        private final TypeReference<?> type;
+
+        Payload(TypeReference<?> type) {
+            this.type = type;
+        }
+
+        abstract Object generate(Random random);
+
+        private static byte[] randomBytes(Random random, int length) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            return bytes;
+        }
+    }
+
+    @Param({"JSON", "SMILE"})
+    private Encoding encoding;
+
+    @Param({"LOCK_TOKENS", "ROW_VALUES", "TIMESTAMPS"})
+    private Payload payload;
+
+    private ObjectMapper mapper;
+    private JavaType type;
+    private Object value;
+    private byte[] encodedValue;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        mapper = encoding.createMapper();
+        type = mapper.getTypeFactory().constructType(payload.type);
+        value = payload.generate(new Random(0));
+        encodedValue = mapper.writerFor(type).writeValueAsBytes(value);
+
+        log.info("{} payload encoded as {} is {} bytes",
+                SafeArg.of("payload", payload),
+                SafeArg.of("encoding", encoding),
+                SafeArg.of("size", encodedValue.length));
+    }
+
+    @Benchmark
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 20, timeUnit = TimeUnit.SECONDS)
+    public byte[] serialize() throws IOException {
+        return mapper.writerFor(type).writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 20, timeUnit = TimeUnit.SECONDS)
+    public Object deserialize() throws IOException {
+        return mapper.readValue(encodedValue, type);
+    }
+}
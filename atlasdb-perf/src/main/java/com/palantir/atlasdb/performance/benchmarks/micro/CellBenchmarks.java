@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+/**
+ * Creating, comparing and hashing cells, and the byte array comparison underneath, which every sorted map of cells
+ * and every range scan merge goes through.
+ */
+@State(Scope.Thread)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+public class CellBenchmarks {
+    @Param({"16", "128"})
+    private int nameLength;
+
+    private byte[][] rowNames;
+    private byte[][] columnNames;
+    private Cell[] cells;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(Inputs.SEED);
+        byte[] rowPrefix = Inputs.randomBytes(random, nameLength / 2);
+        rowNames = new byte[Inputs.NUM_INPUTS][];
+        columnNames = new byte[Inputs.NUM_INPUTS][];
+        cells = new Cell[Inputs.NUM_INPUTS];
+        for (int i = 0; i < Inputs.NUM_INPUTS; i++) {
+            rowNames[i] = Inputs.bytesWithPrefix(random, rowPrefix, nameLength - rowPrefix.length);
+            columnNames[i] = Inputs.randomBytes(random, nameLength);
+            cells[i] = Cell.create(rowNames[i], columnNames[i]);
+        }
+    }
+
+    @Benchmark
+    public Cell createCell() {
+        index = Inputs.next(index);
+        return Cell.create(rowNames[index], columnNames[index]);
+    }
+
+    @Benchmark
+    public int compareCells() {
+        index = Inputs.next(index);
+        return cells[index].compareTo(cells[Inputs.next(index)]);
+    }
+
+    @Benchmark
+    public int compareBytes() {
+        index = Inputs.next(index);
+        return PtBytes.BYTES_COMPARATOR.compare(rowNames[index], rowNames[Inputs.next(index)]);
+    }
+
+    @Benchmark
+    public int hashNewCell() {
+        index = Inputs.next(index);
+        return Cell.create(rowNames[index], columnNames[index]).hashCode();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence;
+import com.palantir.atlasdb.table.description.ColumnValueDescription;
+import com.palantir.atlasdb.table.description.ValueType;
+
+/**
+ * Hydrating column value descriptions, which happens whenever table metadata is loaded, and hydrating values
+ * through a description, which is how untyped (e.g. console and service) reads decode proto columns.
+ */
+@State(Scope.Thread)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+public class ColumnValueDescriptionBenchmarks {
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    private TableMetadataPersistence.ColumnValueDescription persistedValueTypeDescription;
+    private TableMetadataPersistence.ColumnValueDescription persistedProtoDescription;
+    private ColumnValueDescription protoDescription;
+    private byte[][] protoValues;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        persistedValueTypeDescription = ColumnValueDescription.forType(ValueType.VAR_LONG).persistToProto().build();
+        protoDescription = ColumnValueDescription.forProtoMessage(StreamMetadata.class);
+        persistedProtoDescription = protoDescription.persistToProto().build();
+
+        Random random = new Random(Inputs.SEED);
+        protoValues = new byte[Inputs.NUM_INPUTS][];
+        for (int i = 0; i < Inputs.NUM_INPUTS; i++) {
+            protoValues[i] = StreamMetadata.newBuilder()
+                    .setStatus(Status.STORED)
+                    .setLength(random.nextInt(10_000_000))
+                    .setHash(ByteString.copyFrom(Inputs.randomBytes(random, 32)))
+                    .build()
+                    .toByteArray();
+        }
+    }
+
+    @Benchmark
+    public ColumnValueDescription hydrateValueTypeDescription() {
+        return ColumnValueDescription.hydrateFromProto(persistedValueTypeDescription);
+    }
+
+    @Benchmark
+    public ColumnValueDescription hydrateProtoDescription() {
+        return ColumnValueDescription.hydrateFromProto(persistedProtoDescription);
+    }
+
+    @Benchmark
+    public Message hydrateProtoValue() {
+        index = Inputs.next(index);
+        return protoDescription.hydrateProto(classLoader, protoValues[index]);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+
+/**
+ * Var-long encoding, which is used for row components and for the commit timestamps in the transactions table that
+ * every read checks.
+ */
+@State(Scope.Thread)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+public class EncodingBenchmarks {
+    private long[] timestamps;
+    private byte[][] encodedTimestamps;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(Inputs.SEED);
+        timestamps = new long[Inputs.NUM_INPUTS];
+        encodedTimestamps = new byte[Inputs.NUM_INPUTS][];
+        for (int i = 0; i < Inputs.NUM_INPUTS; i++) {
+            // Spread over the range of timestamps that long-lived installations hand out.
+            timestamps[i] = 1L << (20 + random.nextInt(24)) | random.nextInt(1 << 20);
+            encodedTimestamps[i] = EncodingUtils.encodeVarLong(timestamps[i]);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeVarLong() {
+        index = Inputs.next(index);
+        return EncodingUtils.encodeVarLong(timestamps[index]);
+    }
+
+    @Benchmark
+    public long decodeVarLong() {
+        index = Inputs.next(index);
+        return EncodingUtils.decodeVarLong(encodedTimestamps[index]);
+    }
+
+    @Benchmark
+    public byte[] encodeSignedVarLong() {
+        index = Inputs.next(index);
+        return EncodingUtils.encodeSignedVarLong(-timestamps[index]);
+    }
+
+    @Benchmark
+    public byte[] getValueForTimestamp() {
+        index = Inputs.next(index);
+        return TransactionConstants.getValueForTimestamp(timestamps[index]);
+    }
+
+    @Benchmark
+    public long getTimestampForValue() {
+        index = Inputs.next(index);
+        return TransactionConstants.getTimestampForValue(encodedTimestamps[index]);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.ByteString;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.performance.schema.generated.ValueStreamMetadataTable.Metadata;
+import com.palantir.atlasdb.performance.schema.generated.ValueStreamMetadataTable.ValueStreamMetadataRow;
+import com.palantir.atlasdb.performance.schema.generated.ValueStreamMetadataTable.ValueStreamMetadataRowResult;
+import com.palantir.atlasdb.performance.schema.generated.ValueStreamValueTable.ValueStreamValueRow;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
+import com.palantir.atlasdb.schema.generated.SweepPriorityTable.CellsExamined;
+import com.palantir.atlasdb.schema.generated.SweepPriorityTable.SweepPriorityRow;
+import com.palantir.atlasdb.schema.generated.SweepPriorityTable.SweepPriorityRowResult;
+import com.palantir.atlasdb.schema.generated.SweepPriorityTable.WriteCount;
+
+/**
+ * Hydrating the row names and column values of generated tables, which is the last step of every typed read.
+ */
+@State(Scope.Thread)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+public class GeneratedTableBenchmarks {
+    private ValueStreamValueRow[] multiComponentRows;
+    private byte[][] persistedMultiComponentRows;
+    private RowResult<byte[]>[] protoRowResults;
+    private RowResult<byte[]>[] varLongRowResults;
+    private int index;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(Inputs.SEED);
+        multiComponentRows = new ValueStreamValueRow[Inputs.NUM_INPUTS];
+        persistedMultiComponentRows = new byte[Inputs.NUM_INPUTS][];
+        protoRowResults = new RowResult[Inputs.NUM_INPUTS];
+        varLongRowResults = new RowResult[Inputs.NUM_INPUTS];
+        for (int i = 0; i < Inputs.NUM_INPUTS; i++) {
+            multiComponentRows[i] = ValueStreamValueRow.of(random.nextLong() & Long.MAX_VALUE, random.nextInt(1000));
+            persistedMultiComponentRows[i] = multiComponentRows[i].persistToBytes();
+
+            Metadata metadata = Metadata.of(StreamMetadata.newBuilder()
+                    .setStatus(Status.STORED)
+                    .setLength(random.nextInt(10_000_000))
+                    .setHash(ByteString.copyFrom(Inputs.randomBytes(random, 32)))
+                    .build());
+            protoRowResults[i] = RowResult.create(
+                    ValueStreamMetadataRow.of(random.nextLong() & Long.MAX_VALUE).persistToBytes(),
+                    ImmutableSortedMap.<byte[], byte[]>orderedBy(UnsignedBytes.lexicographicalComparator())
+                            .put(metadata.persistColumnName(), metadata.persistValue())
+                            .build());
+
+            WriteCount writeCount = WriteCount.of((long) random.nextInt(1_000_000));
+            CellsExamined cellsExamined = CellsExamined.of((long) random.nextInt(1_000_000));
+            varLongRowResults[i] = RowResult.create(
+                    SweepPriorityRow.of("namespace.table" + i).persistToBytes(),
+                    ImmutableSortedMap.<byte[], byte[]>orderedBy(UnsignedBytes.lexicographicalComparator())
+                            .put(writeCount.persistColumnName(), writeCount.persistValue())
+                            .put(cellsExamined.persistColumnName(), cellsExamined.persistValue())
+                            .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] persistMultiComponentRow() {
+        index = Inputs.next(index);
+        return multiComponentRows[index].persistToBytes();
+    }
+
+    @Benchmark
+    public ValueStreamValueRow hydrateMultiComponentRow() {
+        index = Inputs.next(index);
+        return ValueStreamValueRow.BYTES_HYDRATOR.hydrateFromBytes(persistedMultiComponentRows[index]);
+    }
+
+    @Benchmark
+    public StreamMetadata hydrateProtoColumn() {
+        index = Inputs.next(index);
+        return ValueStreamMetadataRowResult.of(protoRowResults[index]).getMetadata();
+    }
+
+    @Benchmark
+    public long hydrateVarLongColumns() {
+        index = Inputs.next(index);
+        SweepPriorityRowResult rowResult = SweepPriorityRowResult.of(varLongRowResults[index]);
+        return rowResult.getWriteCount() + rowResult.getCellsExamined();
+    }
+
+    @Benchmark
+    public SweepPriorityRow hydrateStringRow() {
+        index = Inputs.next(index);
+        return SweepPriorityRowResult.of(varLongRowResults[index]).getRowName();
+    }
+}
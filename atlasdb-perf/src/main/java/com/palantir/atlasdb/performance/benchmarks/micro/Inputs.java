@@ -0,0 +1,53 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+
+/**
+ * Inputs shared by the microbenchmarks. Each benchmark cycles through a fixed set of inputs generated from a fixed
+ * seed, so that the JIT cannot constant-fold the work away and results are comparable between runs.
+ */
+final class Inputs {
+    static final int NUM_INPUTS = 1024;
+    static final long SEED = 0L;
+
+    private Inputs() {
+        // utility
+    }
+
+    static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Bytes that share a prefix, which is the common case when comparing the row names of a table with a
+     * multi-component row key, and the worst case for a lexicographic comparison.
+     */
+    static byte[] bytesWithPrefix(Random random, byte[] prefix, int suffixLength) {
+        byte[] bytes = new byte[prefix.length + suffixLength];
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        byte[] suffix = randomBytes(random, suffixLength);
+        System.arraycopy(suffix, 0, bytes, prefix.length, suffixLength);
+        return bytes;
+    }
+
+    static int next(int index) {
+        return (index + 1) % NUM_INPUTS;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+
+/**
+ * Building a {@link RowResult}, which validates and copies every column of every row a read returns.
+ */
+@State(Scope.Thread)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+public class RowResultBenchmarks {
+    private static final int NUM_ROWS = 64;
+    private static final int NAME_LENGTH = 24;
+    private static final int VALUE_LENGTH = 64;
+
+    @Param({"1", "16", "256"})
+    private int numColumns;
+
+    private byte[][] rowNames;
+    private SortedMap<byte[], byte[]>[] columns;
+    private int index;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(Inputs.SEED);
+        rowNames = new byte[NUM_ROWS][];
+        columns = new SortedMap[NUM_ROWS];
+        for (int i = 0; i < NUM_ROWS; i++) {
+            rowNames[i] = Inputs.randomBytes(random, NAME_LENGTH);
+            columns[i] = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+            for (int j = 0; j < numColumns; j++) {
+                columns[i].put(Inputs.randomBytes(random, NAME_LENGTH), Inputs.randomBytes(random, VALUE_LENGTH));
+            }
+        }
+    }
+
+    @Benchmark
+    public RowResult<byte[]> createRowResult() {
+        index = (index + 1) % NUM_ROWS;
+        return RowResult.create(rowNames[index], columns[index]);
+    }
+}
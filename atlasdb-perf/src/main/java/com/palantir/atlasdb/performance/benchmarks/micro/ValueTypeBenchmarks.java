@@ -0,0 +1,90 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.micro;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.atlasdb.table.description.ValueType;
+
+/**
+ * Encoding and decoding the value types that row and column components are made of.
+ */
+@State(Scope.Thread)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+public class ValueTypeBenchmarks {
+    private static final int STRING_LENGTH = 24;
+    private static final int BLOB_LENGTH = 32;
+
+    @Param({"VAR_LONG", "FIXED_LONG", "VAR_STRING", "STRING", "SIZED_BLOB", "UUID"})
+    private ValueType valueType;
+
+    private Object[] values;
+    private byte[][] encodedValues;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(Inputs.SEED);
+        values = new Object[Inputs.NUM_INPUTS];
+        encodedValues = new byte[Inputs.NUM_INPUTS][];
+        for (int i = 0; i < Inputs.NUM_INPUTS; i++) {
+            values[i] = randomValue(random);
+            encodedValues[i] = valueType.convertFromJava(values[i]);
+        }
+    }
+
+    private Object randomValue(Random random) {
+        Class<?> javaClass = valueType.getJavaObjectClass();
+        if (javaClass == Long.class) {
+            return random.nextLong() & Long.MAX_VALUE;
+        } else if (javaClass == String.class) {
+            StringBuilder builder = new StringBuilder(STRING_LENGTH);
+            for (int i = 0; i < STRING_LENGTH; i++) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+            return builder.toString();
+        } else if (javaClass == byte[].class) {
+            return Inputs.randomBytes(random, BLOB_LENGTH);
+        } else if (javaClass == UUID.class) {
+            return new UUID(random.nextLong(), random.nextLong());
+        }
+        throw new IllegalArgumentException("Unsupported value type " + valueType);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        index = Inputs.next(index);
+        return valueType.convertFromJava(values[index]);
+    }
+
+    @Benchmark
+    public Object decode() {
+        index = Inputs.next(index);
+        return valueType.convertToJava(encodedValues[index], 0);
+    }
+}
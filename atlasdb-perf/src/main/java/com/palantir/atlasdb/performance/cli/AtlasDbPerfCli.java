@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.performance.cli;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -26,6 +27,7 @@ import javax.inject.Inject;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -36,6 +38,7 @@ import org.reflections.scanners.MethodAnnotationsScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.palantir.atlasdb.performance.BaselineComparison;
 import com.palantir.atlasdb.performance.BenchmarkParam;
 import com.palantir.atlasdb.performance.MinimalReportFormatForTest;
 import com.palantir.atlasdb.performance.PerformanceResults;
@@ -43,6 +46,8 @@ import com.palantir.atlasdb.performance.backend.DatabasesContainer;
 import com.palantir.atlasdb.performance.backend.DockerizedDatabase;
 import com.palantir.atlasdb.performance.backend.DockerizedDatabaseUri;
 import com.palantir.atlasdb.performance.backend.KeyValueServiceInstrumentation;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
 
 import io.airlift.airline.Arguments;
 import io.airlift.airline.Command;
@@ -53,7 +58,8 @@ import io.airlift.airline.SingleCommand;
 /**
  * The Atlas Perf(ormance) CLI is a tool for making and running AtlasDB performance tests.
  *
- * This requires you to have a docker-machine running and configured correctly.
+ * This requires you to have a docker-machine running and configured correctly, unless only the in-process
+ * backends (IN_MEMORY and H2) are used.
  *
  * @author mwakerman, bullman
  */
@@ -68,7 +74,8 @@ public class AtlasDbPerfCli {
     @Arguments(description = "The performance benchmarks to run. Leave blank to run all performance benchmarks.")
     private Set<String> tests;
 
-    @Option(name = {"-b", "--backend"}, description = "Backing KVS stores to use. (e.g. POSTGRES or CASSANDRA)"
+    @Option(name = {"-b", "--backend"}, description = "Backing KVS stores to use. (e.g. POSTGRES, CASSANDRA,"
+            + " or the in-process IN_MEMORY and H2, which need no docker)"
             + " Defaults to all backends if not specified.")
     private Set<String> backends;
 
@@ -84,6 +91,20 @@ public class AtlasDbPerfCli {
                     + "Leave blank to only write results to the console.")
     private String outputFile;
 
+    @Option(name = {"--baseline"},
+            description = "A file of results previously written with --output. The benchmarks are compared against"
+                    + " it, and the CLI fails if any regressed by more than --regression-threshold.")
+    private String baselineFile;
+
+    @Option(name = {"--regression-threshold"},
+            description = "The percentage by which a benchmark's median may exceed the baseline before it is"
+                    + " reported as a regression. Defaults to 10.")
+    private double regressionThresholdPercent = 10.0;
+
+    @Option(name = {"--profile-allocations"},
+            description = "Record the bytes each benchmark allocates per operation, using the JMH GC profiler.")
+    private boolean profileAllocations;
+
     @Option(name = {"--test-run"}, description = "Run a single iteration of the benchmarks for testing purposes.")
     private boolean testRun;
 
@@ -100,21 +121,26 @@ public class AtlasDbPerfCli {
         }
 
         if (hasValidArgs(cli)) {
-            run(cli);
+            if (!run(cli)) {
+                System.exit(1);
+            }
         } else {
             System.exit(1);
         }
     }
 
-    private static void run(AtlasDbPerfCli cli) throws Exception {
+    /**
+     * Returns false if a benchmark regressed against the baseline.
+     */
+    private static boolean run(AtlasDbPerfCli cli) throws Exception {
         if (cli.dbUris != null) {
-            runJmh(cli, getDockerUris(cli));
+            return runJmh(cli, getDockerUris(cli));
         } else {
             Set<String> backends = cli.backends != null
                     ? cli.backends
                     : KeyValueServiceInstrumentation.getBackends();
             try (DatabasesContainer container = startupDatabase(backends)) {
-                runJmh(cli,
+                return runJmh(cli,
                         container.getDockerizedDatabases()
                                 .stream()
                                 .map(DockerizedDatabase::getUri)
@@ -123,7 +149,7 @@ public class AtlasDbPerfCli {
         }
     }
 
-    private static void runJmh(AtlasDbPerfCli cli, List<DockerizedDatabaseUri> uris) throws Exception {
+    private static boolean runJmh(AtlasDbPerfCli cli, List<DockerizedDatabaseUri> uris) throws Exception {
         ChainedOptionsBuilder optBuilder = new OptionsBuilder()
                 .forks(1)
                 .measurementIterations(1)
@@ -135,6 +161,10 @@ public class AtlasDbPerfCli {
                                 .collect(Collectors.toList())
                                 .toArray(new String[uris.size()]));
 
+        if (cli.profileAllocations) {
+            optBuilder.addProfiler(GCProfiler.class);
+        }
+
         if (cli.tests == null) {
             getAllBenchmarks().forEach(b -> optBuilder.include(".*" + b));
         } else {
@@ -142,21 +172,45 @@ public class AtlasDbPerfCli {
         }
 
         if (!cli.testRun) {
-            runCli(cli, optBuilder);
+            return runCli(cli, optBuilder);
         } else {
             runCliInTestMode(optBuilder);
+            return true;
         }
     }
 
-    private static void runCli(AtlasDbPerfCli cli, ChainedOptionsBuilder optBuilder) throws Exception {
+    private static boolean runCli(AtlasDbPerfCli cli, ChainedOptionsBuilder optBuilder) throws Exception {
         optBuilder.warmupIterations(1)
                 .mode(Mode.SampleTime);
 
         Collection<RunResult> results = new Runner(optBuilder.build()).run();
+        PerformanceResults performanceResults = new PerformanceResults(results);
 
         if (cli.outputFile != null) {
-            new PerformanceResults(results).writeToFile(new File(cli.outputFile));
+            performanceResults.writeToFile(new File(cli.outputFile));
+        }
+
+        if (cli.baselineFile != null) {
+            return checkAgainstBaseline(cli, performanceResults);
         }
+        return true;
+    }
+
+    private static boolean checkAgainstBaseline(AtlasDbPerfCli cli, PerformanceResults performanceResults)
+            throws IOException {
+        List<String> regressions = BaselineComparison
+                .fromFile(new File(cli.baselineFile), cli.regressionThresholdPercent / 100)
+                .findRegressions(performanceResults);
+        if (regressions.isEmpty()) {
+            log.info("No benchmark regressed by more than {}% against the baseline.",
+                    SafeArg.of("regressionThresholdPercent", cli.regressionThresholdPercent));
+            return true;
+        }
+        log.error("{} benchmarks regressed by more than {}% against the baseline:\n\t{}",
+                SafeArg.of("numRegressions", regressions.size()),
+                SafeArg.of("regressionThresholdPercent", cli.regressionThresholdPercent),
+                UnsafeArg.of("regressions", String.join("\n\t", regressions)));
+        return false;
     }
 
     private static void runCliInTestMode(ChainedOptionsBuilder optBuilder) throws RunnerException {
@@ -195,6 +249,17 @@ public class AtlasDbPerfCli {
                 }
             });
         }
+        if (cli.baselineFile != null) {
+            if (cli.testRun) {
+                throw new RuntimeException("Cannot compare against a --baseline in a --test-run");
+            }
+            if (!new File(cli.baselineFile).isFile()) {
+                throw new RuntimeException("Baseline file " + cli.baselineFile + " does not exist");
+            }
+        }
+        if (cli.regressionThresholdPercent < 0) {
+            throw new RuntimeException("--regression-threshold must not be negative");
+        }
         if (cli.dbUris != null) {
             try {
                 getDockerUris(cli);
@@ -43,6 +43,7 @@ import com.google.common.io.ByteStreams;
 import com.google.common.io.CountingInputStream;
 import com.google.common.primitives.Ints;
 import com.google.protobuf.ByteString;
+import com.palantir.atlasdb.compress.CompressionUtils;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
@@ -387,6 +388,7 @@ public final class ValueStreamStore extends AbstractPersistentStreamStore {
      * {@link CheckForNull}
      * {@link Collection}
      * {@link Collections2}
+     * {@link CompressionUtils}
      * {@link ConcatenatedInputStream}
      * {@link CountingInputStream}
      * {@link DeleteOnCloseFileInputStream}
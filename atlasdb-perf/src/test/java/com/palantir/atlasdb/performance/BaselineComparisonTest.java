@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class BaselineComparisonTest {
+    private static final String BENCHMARK = "KvsGetRangeBenchmarks#getSingleRange-IN_MEMORY";
+    private static final String OTHER_BENCHMARK = "KvsPutBenchmarks#singleRandomPut-IN_MEMORY";
+    private static final double THRESHOLD = 0.1;
+
+    private final BaselineComparison comparison = new BaselineComparison(
+            ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS)), THRESHOLD);
+
+    @Test
+    public void doesNotReportResultsWithinThreshold() {
+        assertThat(comparison.findRegressions(ImmutableList.of(result(BENCHMARK, 109.0, TimeUnit.MICROSECONDS))))
+                .isEmpty();
+    }
+
+    @Test
+    public void doesNotReportImprovements() {
+        assertThat(comparison.findRegressions(ImmutableList.of(result(BENCHMARK, 50.0, TimeUnit.MICROSECONDS))))
+                .isEmpty();
+    }
+
+    @Test
+    public void reportsResultsPastThreshold() {
+        assertThat(comparison.findRegressions(ImmutableList.of(result(BENCHMARK, 120.0, TimeUnit.MICROSECONDS))))
+                .containsExactly(BENCHMARK + ": median went from 100000ns to 120000ns (+20.0%)");
+    }
+
+    @Test
+    public void comparesResultsInDifferentUnits() {
+        assertThat(comparison.findRegressions(ImmutableList.of(result(BENCHMARK, 0.2, TimeUnit.MILLISECONDS))))
+                .hasSize(1);
+        assertThat(comparison.findRegressions(ImmutableList.of(result(BENCHMARK, 105_000, TimeUnit.NANOSECONDS))))
+                .isEmpty();
+    }
+
+    @Test
+    public void ignoresBenchmarksMissingFromBaseline() {
+        assertThat(comparison.findRegressions(
+                ImmutableList.of(result(OTHER_BENCHMARK, 1_000_000.0, TimeUnit.MICROSECONDS))))
+                .isEmpty();
+    }
+
+    @Test
+    public void reportsAllocationRegressions() {
+        BaselineComparison allocationComparison = new BaselineComparison(
+                ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS, 0.0)), THRESHOLD);
+
+        assertThat(allocationComparison.findRegressions(
+                ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS, 4.0))))
+                .isEmpty();
+        assertThat(allocationComparison.findRegressions(
+                ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS, 32.0))))
+                .containsExactly(BENCHMARK + ": allocation went from 0 to 32 bytes per operation");
+    }
+
+    @Test
+    public void ignoresAllocationIfEitherRunDidNotProfileIt() {
+        BaselineComparison allocationComparison = new BaselineComparison(
+                ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS, 0.0)), THRESHOLD);
+
+        assertThat(allocationComparison.findRegressions(
+                ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS))))
+                .isEmpty();
+        assertThat(comparison.findRegressions(
+                ImmutableList.of(result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS, 1024.0))))
+                .isEmpty();
+    }
+
+    @Test
+    public void comparesEachParameterValueAgainstItsOwnBaseline() {
+        String smallBenchmark = "CellBenchmarks#compareCells-N/A[nameLength=16]";
+        String largeBenchmark = "CellBenchmarks#compareCells-N/A[nameLength=128]";
+        BaselineComparison allocationComparison = new BaselineComparison(ImmutableList.of(
+                result(smallBenchmark, 10.0, TimeUnit.NANOSECONDS, 0.0),
+                result(largeBenchmark, 50.0, TimeUnit.NANOSECONDS, 256.0)), THRESHOLD);
+
+        assertThat(allocationComparison.findRegressions(ImmutableList.of(
+                result(smallBenchmark, 10.0, TimeUnit.NANOSECONDS, 0.0),
+                result(largeBenchmark, 50.0, TimeUnit.NANOSECONDS, 256.0))))
+                .isEmpty();
+        assertThat(allocationComparison.findRegressions(ImmutableList.of(
+                result(smallBenchmark, 10.0, TimeUnit.NANOSECONDS, 256.0),
+                result(largeBenchmark, 50.0, TimeUnit.NANOSECONDS, 256.0))))
+                .containsExactly(smallBenchmark + ": allocation went from 0 to 256 bytes per operation");
+    }
+
+    @Test
+    public void throwsOnBaselineWithDuplicateNames() {
+        assertThatThrownBy(() -> new BaselineComparison(ImmutableList.of(
+                result(BENCHMARK, 100.0, TimeUnit.MICROSECONDS),
+                result(BENCHMARK, 200.0, TimeUnit.MICROSECONDS)), THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(BENCHMARK);
+    }
+
+    @Test
+    public void throwsOnNegativeThreshold() {
+        assertThatThrownBy(() -> new BaselineComparison(ImmutableList.of(), -0.1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PerformanceResults.PerformanceResult result(String benchmark, double p50, TimeUnit units) {
+        return result(benchmark, p50, units, null);
+    }
+
+    private static PerformanceResults.PerformanceResult result(
+            String benchmark,
+            double p50,
+            TimeUnit units,
+            Double allocatedBytesPerOp) {
+        return ImmutablePerformanceResult.builder()
+                .date(0L)
+                .benchmark(benchmark)
+                .samples(1L)
+                .std(0.0)
+                .mean(p50)
+                .units(units)
+                .p50(p50)
+                .p90(p50)
+                .p99(p50)
+                .allocatedBytesPerOp(allocatedBytesPerOp)
+                .build();
+    }
+}
@@ -18,6 +18,7 @@ package com.palantir.atlasdb.performance;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.math3.stat.inference.TestUtils;
 import org.assertj.core.util.Lists;
@@ -30,6 +31,7 @@ import org.openjdk.jmh.runner.WorkloadParams;
 import org.openjdk.jmh.util.MultisetStatistics;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.performance.backend.CassandraKeyValueServiceInstrumentation;
 
 public class PerformanceResultsTest {
@@ -63,11 +65,19 @@ public class PerformanceResultsTest {
         }
     }
 
+    @Test
+    public void canGenerateBenchmarkNameForTestWithoutParameters() {
+        BenchmarkParams params = createBenchmarkParams(FULL_BENCHMARK_NAME, ImmutableMap.of());
+
+        assertThat(PerformanceResults.getBenchmarkName(params)).isEqualTo(FORMATTED_BENCHMARK_NAME_AGNOSTIC);
+    }
+
     @Test
     public void canGenerateBenchmarkNameForTestWithoutKeyValueService() {
         BenchmarkParams params = createBenchmarkParams(FULL_BENCHMARK_NAME, "foo", "bar");
 
-        assertThat(PerformanceResults.getBenchmarkName(params)).isEqualTo(FORMATTED_BENCHMARK_NAME_AGNOSTIC);
+        assertThat(PerformanceResults.getBenchmarkName(params))
+                .isEqualTo(FORMATTED_BENCHMARK_NAME_AGNOSTIC + "[foo=bar]");
     }
 
     @Test
@@ -79,6 +89,27 @@ public class PerformanceResultsTest {
         assertThat(PerformanceResults.getBenchmarkName(params)).isEqualTo(FORMATTED_BENCHMARK_NAME_CASSANDRA);
     }
 
+    @Test
+    public void benchmarkNameIncludesOtherParametersSortedByKey() {
+        BenchmarkParams params = createBenchmarkParams(FULL_BENCHMARK_NAME, ImmutableMap.of(
+                "size", "16",
+                BenchmarkParam.URI.getKey(), DOCKERIZED_CASSANDRA_URI,
+                "order", "random"));
+
+        assertThat(PerformanceResults.getBenchmarkName(params))
+                .isEqualTo(FORMATTED_BENCHMARK_NAME_CASSANDRA + "[order=random,size=16]");
+    }
+
+    @Test
+    public void benchmarksWithDifferentParameterValuesHaveDifferentNames() {
+        String smallName = PerformanceResults.getBenchmarkName(
+                createBenchmarkParams(FULL_BENCHMARK_NAME, "size", "16"));
+        String largeName = PerformanceResults.getBenchmarkName(
+                createBenchmarkParams(FULL_BENCHMARK_NAME, "size", "128"));
+
+        assertThat(smallName).isNotEqualTo(largeName);
+    }
+
     @Test
     public void doesNotDownsampleSmallSample() {
         MultisetStatistics stats = new MultisetStatistics();
@@ -132,9 +163,32 @@ public class PerformanceResultsTest {
         assertThat(TestUtils.homoscedasticTTest(stats, downSampledStats)).isGreaterThan(0.5d);
     }
 
+    @Test
+    public void readsAllocationFromGcProfilerResult() {
+        RunResult runResult = Mockito.mock(RunResult.class);
+        Result allocation = Mockito.mock(Result.class);
+        Mockito.when(allocation.getScore()).thenReturn(48.0);
+        Mockito.when(runResult.getSecondaryResults()).thenReturn(
+                ImmutableMap.of("\u00b7" + PerformanceResults.ALLOCATION_RESULT_SUFFIX, allocation));
+
+        assertThat(PerformanceResults.getAllocatedBytesPerOp(runResult)).isEqualTo(48.0);
+    }
+
+    @Test
+    public void allocationIsAbsentWithoutGcProfiler() {
+        RunResult runResult = Mockito.mock(RunResult.class);
+        Mockito.when(runResult.getSecondaryResults()).thenReturn(ImmutableMap.of());
+
+        assertThat(PerformanceResults.getAllocatedBytesPerOp(runResult)).isNull();
+    }
+
     private static BenchmarkParams createBenchmarkParams(String benchmarkName, String paramKey, String paramValue) {
+        return createBenchmarkParams(benchmarkName, ImmutableMap.of(paramKey, paramValue));
+    }
+
+    private static BenchmarkParams createBenchmarkParams(String benchmarkName, Map<String, String> params) {
         WorkloadParams workloadParams = new WorkloadParams();
-        workloadParams.put(paramKey, paramValue, 0);
+        params.forEach((key, value) -> workloadParams.put(key, value, 0));
 
         // Sorry, JMH API doesn't have a builder. Isolating the badness to just here.
         return new BenchmarkParams(benchmarkName,
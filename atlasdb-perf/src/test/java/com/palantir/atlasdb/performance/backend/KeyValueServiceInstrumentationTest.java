@@ -62,4 +62,20 @@ public class KeyValueServiceInstrumentationTest {
         KeyValueServiceInstrumentation.removeBackendType(mockKeyValueServiceInstrumentation);
     }
 
+    @Test
+    public void inProcessBackendsAreRegistered() {
+        assertThat(KeyValueServiceInstrumentation.forDatabase("IN_MEMORY").isInProcess()).isTrue();
+        assertThat(KeyValueServiceInstrumentation.forDatabase("H2").isInProcess()).isTrue();
+        assertThat(KeyValueServiceInstrumentation.forDatabase("POSTGRES").isInProcess()).isFalse();
+    }
+
+    @Test
+    public void inProcessBackendsDoNotStartDocker() {
+        DockerizedDatabase database = DockerizedDatabase.start(new InMemoryKeyValueServiceInstrumentation());
+
+        assertThat(DockerizedDatabaseUri.fromUriString(database.getUri().toString())
+                .getKeyValueServiceInstrumentation())
+                .isExactlyInstanceOf(InMemoryKeyValueServiceInstrumentation.class);
+        database.close();
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.processors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.palantir.common.proxy.CallDecorator;
+
+public class AutoDecorateTests {
+    private final ChildTestInterface delegate = mock(ChildTestInterface.class);
+    private final RecordingDecorator decorator = new RecordingDecorator(delegate);
+    private final ChildTestInterface decorated = new AutoDecorated_ChildTestInterface(decorator);
+
+    @Test
+    public void generatedClassIsFinalAndPublic() {
+        int modifiers = AutoDecorated_TestInterface.class.getModifiers();
+
+        assertThat(Modifier.isFinal(modifiers), is(true));
+        assertThat(Modifier.isPublic(modifiers), is(true));
+    }
+
+    @Test
+    public void generatedClassImplementsInheritedMethods() {
+        Set<String> generatedMethods = TestingUtils.extractMethods(AutoDecorated_ChildTestInterface.class);
+        Set<String> originalMethods = TestingUtils.extractMethods(TestInterface.class);
+
+        assertThat(generatedMethods, hasItems(originalMethods.toArray(new String[0])));
+    }
+
+    @Test
+    public void forwardsCallsAndReturnValuesToDelegate() {
+        when(delegate.methodWithReturnTypeAndParameters(1)).thenReturn(2);
+
+        assertThat(decorated.methodWithReturnTypeAndParameters(1), is(2));
+        decorated.overloadedMethod(3, 4);
+
+        verify(delegate).methodWithReturnTypeAndParameters(1);
+        verify(delegate).overloadedMethod(3, 4);
+    }
+
+    @Test
+    public void notifiesDecoratorAroundSuccessfulCalls() {
+        decorated.methodOnChildInterface();
+
+        assertThat(decorator.events, contains(
+                "before methodOnChildInterface",
+                "success methodOnChildInterface 0"));
+    }
+
+    @Test
+    public void notifiesDecoratorOfFailuresAndRethrows() {
+        IllegalStateException error = new IllegalStateException();
+        doThrow(error).when(delegate).methodWithNoParameters();
+
+        try {
+            decorated.methodWithNoParameters();
+            fail("Expected the delegate's exception to be rethrown");
+        } catch (IllegalStateException e) {
+            assertThat(e, is(error));
+        }
+        assertThat(decorator.events, contains(
+                "before methodWithNoParameters",
+                "failure methodWithNoParameters 0 " + error));
+    }
+
+    private static final class RecordingDecorator implements CallDecorator<ChildTestInterface> {
+        private final ChildTestInterface delegate;
+        private final List<String> events = new ArrayList<>();
+
+        private RecordingDecorator(ChildTestInterface delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ChildTestInterface delegate() {
+            return delegate;
+        }
+
+        @Override
+        public long beforeCall(String methodName) {
+            events.add("before " + methodName);
+            return events.size() - 1;
+        }
+
+        @Override
+        public void afterSuccess(String methodName, long token) {
+            events.add("success " + methodName + " " + token);
+        }
+
+        @Override
+        public void afterFailure(String methodName, long token, Throwable error) {
+            events.add("failure " + methodName + " " + token + " " + error);
+        }
+    }
+}
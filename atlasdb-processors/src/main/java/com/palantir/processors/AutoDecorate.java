@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.processors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates, for each of the given interfaces, a final class named {@code AutoDecorated_<Interface>} in the package
+ * of the annotated type. The generated class implements the interface by forwarding every call to the delegate of a
+ * {@code com.palantir.common.proxy.CallDecorator}, notifying the decorator before and after each call. This gives
+ * the same hooks as a reflective proxy without the cost of reflection on each call.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface AutoDecorate {
+    /**
+     * The interfaces to generate decorators for. Generic interfaces are not supported.
+     */
+    Class[] typesToDecorate();
+}
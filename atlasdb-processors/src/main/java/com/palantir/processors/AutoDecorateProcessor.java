@@ -0,0 +1,238 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.processors;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+@AutoService(Processor.class)
+public final class AutoDecorateProcessor extends AbstractProcessor {
+    // See AutoDelegateProcessor for why we keep track of registered processors.
+    private static final ConcurrentMap<ProcessingEnvironment, Processor> registeredProcessors =
+            new MapMaker().weakKeys().weakValues().concurrencyLevel(1).initialCapacity(1).makeMap();
+    private static final String PREFIX = "AutoDecorated_";
+    private static final String DECORATOR_FIELD = "decorator";
+    private static final ClassName CALL_DECORATOR = ClassName.get("com.palantir.common.proxy", "CallDecorator");
+
+    // Generated locals are prefixed with $ so that they cannot clash with the names of method parameters.
+    private static final String TOKEN = "$token";
+    private static final String RESULT = "$result";
+    private static final String ERROR = "$error";
+
+    private Types typeUtils;
+    private Elements elementUtils;
+    private Filer filer;
+    private Messager messager;
+    private AtomicBoolean abortProcessing = new AtomicBoolean(false);
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        typeUtils = processingEnv.getTypeUtils();
+        elementUtils = processingEnv.getElementUtils();
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+
+        if (registeredProcessors.putIfAbsent(processingEnv, this) != null) {
+            messager.printMessage(
+                    Diagnostic.Kind.NOTE, "AutoDecorate processor registered twice; disabling duplicate instance");
+            abortProcessing.set(Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return ImmutableSet.of(AutoDecorate.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.RELEASE_8;
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (abortProcessing.get() == Boolean.TRUE) {
+            // Another instance of AutoDecorateProcessor is running in the current processing environment.
+            return false;
+        }
+
+        Set<String> generatedTypes = new HashSet<>();
+        for (Element annotatedElement : roundEnv.getElementsAnnotatedWith(AutoDecorate.class)) {
+            try {
+                validateAnnotatedElement(annotatedElement);
+                PackageElement targetPackage = elementUtils.getPackageOf(annotatedElement);
+                if (targetPackage.isUnnamed()) {
+                    throw new ProcessingException(annotatedElement, "Type %s doesn't have a package",
+                            annotatedElement);
+                }
+
+                AutoDecorate annotation = annotatedElement.getAnnotation(AutoDecorate.class);
+                for (TypeElement typeToDecorate
+                        : ProcessorUtils.extractTypesFromAnnotation(elementUtils, annotation)) {
+                    validateTypeToDecorate(annotatedElement, typeToDecorate);
+                    String generatedType = targetPackage.getQualifiedName() + "." + PREFIX
+                            + typeToDecorate.getSimpleName();
+                    if (generatedTypes.add(generatedType)) {
+                        generateCode(targetPackage, typeToDecorate);
+                    }
+                }
+            } catch (FilerException e) {
+                // Happens when same file is written twice.
+                warn(annotatedElement, e.getMessage());
+            } catch (ProcessingException e) {
+                error(e.getElement(), e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                error(annotatedElement, e.getMessage());
+            }
+        }
+
+        return false;
+    }
+
+    private void validateAnnotatedElement(Element annotatedElement) throws ProcessingException {
+        ElementKind kind = annotatedElement.getKind();
+        if (kind != ElementKind.INTERFACE && kind != ElementKind.CLASS) {
+            throw new ProcessingException(annotatedElement, "Only classes or interfaces can be annotated with @%s",
+                    AutoDecorate.class.getSimpleName());
+        }
+    }
+
+    private void validateTypeToDecorate(Element annotatedElement, TypeElement typeToDecorate)
+            throws ProcessingException {
+        if (typeToDecorate.getKind() != ElementKind.INTERFACE) {
+            throw new ProcessingException(annotatedElement, "Only interfaces can be decorated, but %s is not one",
+                    typeToDecorate);
+        }
+        if (!typeToDecorate.getTypeParameters().isEmpty()) {
+            throw new ProcessingException(annotatedElement, "Generic interface %s cannot be decorated",
+                    typeToDecorate);
+        }
+    }
+
+    private void generateCode(PackageElement targetPackage, TypeElement typeToDecorate) throws IOException {
+        List<TypeElement> superinterfaces = ProcessorUtils.fetchSuperinterfaces(typeUtils, typeToDecorate);
+        TypeToExtend typeToExtend = new TypeToExtend(
+                elementUtils.getPackageOf(typeToDecorate),
+                typeToDecorate,
+                superinterfaces.toArray(new TypeElement[0]));
+
+        TypeName decoratedType = TypeName.get(typeToExtend.getType());
+        TypeName decoratorType = ParameterizedTypeName.get(CALL_DECORATOR, decoratedType);
+
+        TypeSpec.Builder typeBuilder = TypeSpec.classBuilder(PREFIX + typeToExtend.getSimpleName())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(decoratedType)
+                .addField(FieldSpec.builder(decoratorType, DECORATOR_FIELD, Modifier.PRIVATE, Modifier.FINAL)
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(decoratorType, DECORATOR_FIELD)
+                        .addStatement("this.$N = $N", DECORATOR_FIELD, DECORATOR_FIELD)
+                        .build());
+
+        for (ExecutableElement methodElement : typeToExtend.getMethods()) {
+            if (methodElement.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            typeBuilder.addMethod(generateMethod(methodElement));
+        }
+
+        JavaFile
+                .builder(targetPackage.getQualifiedName().toString(), typeBuilder.build())
+                .build()
+                .writeTo(filer);
+    }
+
+    private MethodSpec generateMethod(ExecutableElement methodElement) {
+        String methodName = methodElement.getSimpleName().toString();
+        TypeMirror returnType = methodElement.getReturnType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+
+        String arguments = methodElement.getParameters()
+                .stream()
+                .map(parameter -> parameter.getSimpleName().toString())
+                .collect(Collectors.joining(", "));
+        CodeBlock delegateCall = CodeBlock.of("this.$N.delegate().$N($L)", DECORATOR_FIELD, methodName, arguments);
+
+        MethodSpec.Builder method = MethodSpec.overriding(methodElement)
+                .addStatement("long $N = this.$N.beforeCall($S)", TOKEN, DECORATOR_FIELD, methodName);
+        if (!isVoid) {
+            method.addStatement("$T $N", TypeName.get(returnType), RESULT);
+        }
+        method.beginControlFlow("try");
+        if (isVoid) {
+            method.addStatement("$L", delegateCall);
+        } else {
+            method.addStatement("$N = $L", RESULT, delegateCall);
+        }
+        method.nextControlFlow("catch ($T $N)", Throwable.class, ERROR)
+                .addStatement("this.$N.afterFailure($S, $N, $N)", DECORATOR_FIELD, methodName, TOKEN, ERROR)
+                .addStatement("throw $N", ERROR)
+                .endControlFlow()
+                .addStatement("this.$N.afterSuccess($S, $N)", DECORATOR_FIELD, methodName, TOKEN);
+        if (!isVoid) {
+            method.addStatement("return $N", RESULT);
+        }
+        return method.build();
+    }
+
+    private void warn(Element element, String msg) {
+        messager.printMessage(Diagnostic.Kind.WARNING, msg, element);
+    }
+
+    private void error(Element element, String msg) {
+        messager.printMessage(Diagnostic.Kind.ERROR, msg, element);
+    }
+}
@@ -48,7 +48,6 @@ import javax.tools.Diagnostic;
 import com.google.auto.service.AutoService;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.MapMaker;
-import com.google.common.collect.Sets;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
@@ -164,7 +163,7 @@ public final class AutoDelegateProcessor extends AbstractProcessor {
 
     private List<TypeElement> fetchSuperTypes(TypeElement baseType) {
         if (baseType.getKind() == ElementKind.INTERFACE) {
-            return fetchSuperinterfaces(baseType);
+            return ProcessorUtils.fetchSuperinterfaces(typeUtils, baseType);
         } else {
             return fetchSuperclasses(baseType);
         }
@@ -184,27 +183,6 @@ public final class AutoDelegateProcessor extends AbstractProcessor {
         return superclasses;
     }
 
-    private List<TypeElement> fetchSuperinterfaces(TypeElement baseInterface) {
-        List<TypeMirror> interfacesQueue = new ArrayList<>(baseInterface.getInterfaces());
-        Set<TypeMirror> interfacesSet = Sets.newHashSet(interfacesQueue);
-        List<TypeElement> superinterfaceElements = new ArrayList<>();
-
-        for (int i = 0; i < interfacesQueue.size(); i++) {
-            TypeMirror superinterfaceMirror = interfacesQueue.get(i);
-            TypeElement superinterfaceType = ProcessorUtils.extractType(typeUtils, superinterfaceMirror);
-            superinterfaceElements.add(superinterfaceType);
-
-            List<TypeMirror> newInterfaces = superinterfaceType.getInterfaces()
-                    .stream()
-                    .filter((newInteface) -> !interfacesSet.contains(newInteface))
-                    .collect(Collectors.toList());
-            interfacesSet.addAll(newInterfaces);
-            interfacesQueue.addAll(newInterfaces);
-        }
-
-        return superinterfaceElements;
-    }
-
     private void generateCode(TypeToExtend typeToExtend) throws IOException {
         String newTypeName = PREFIX + typeToExtend.getSimpleName();
         TypeSpec.Builder typeBuilder;
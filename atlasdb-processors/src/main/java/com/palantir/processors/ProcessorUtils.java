@@ -15,17 +15,21 @@
  */
 package com.palantir.processors;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.MirroredTypesException;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
+import com.google.common.collect.Sets;
 import com.squareup.javapoet.ParameterSpec;
 
 final class ProcessorUtils {
@@ -42,6 +46,23 @@ final class ProcessorUtils {
         }
     }
 
+    static List<TypeElement> extractTypesFromAnnotation(Elements elementUtils, AutoDecorate annotation) {
+        try {
+            // Throws a MirroredTypesException if the types are not compiled.
+            Class[] typeClasses = annotation.typesToDecorate();
+            List<TypeElement> types = new ArrayList<>();
+            for (Class typeClass : typeClasses) {
+                types.add(elementUtils.getTypeElement(typeClass.getCanonicalName()));
+            }
+            return types;
+        } catch (MirroredTypesException mte) {
+            return mte.getTypeMirrors()
+                    .stream()
+                    .map(typeMirror -> (TypeElement) ((DeclaredType) typeMirror).asElement())
+                    .collect(Collectors.toList());
+        }
+    }
+
     static TypeElement extractType(Types typeUtils, TypeMirror typeToExtract) {
         try {
             // Throws a MirroredTypeException if the type is not compiled.
@@ -58,4 +79,25 @@ final class ProcessorUtils {
                 .map(ParameterSpec::get)
                 .collect(Collectors.toList());
     }
+
+    static List<TypeElement> fetchSuperinterfaces(Types typeUtils, TypeElement baseInterface) {
+        List<TypeMirror> interfacesQueue = new ArrayList<>(baseInterface.getInterfaces());
+        Set<TypeMirror> interfacesSet = Sets.newHashSet(interfacesQueue);
+        List<TypeElement> superinterfaceElements = new ArrayList<>();
+
+        for (int i = 0; i < interfacesQueue.size(); i++) {
+            TypeMirror superinterfaceMirror = interfacesQueue.get(i);
+            TypeElement superinterfaceType = extractType(typeUtils, superinterfaceMirror);
+            superinterfaceElements.add(superinterfaceType);
+
+            List<TypeMirror> newInterfaces = superinterfaceType.getInterfaces()
+                    .stream()
+                    .filter((newInteface) -> !interfacesSet.contains(newInteface))
+                    .collect(Collectors.toList());
+            interfacesSet.addAll(newInterfaces);
+            interfacesQueue.addAll(newInterfaces);
+        }
+
+        return superinterfaceElements;
+    }
 }
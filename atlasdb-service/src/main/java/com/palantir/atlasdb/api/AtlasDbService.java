@@ -24,12 +24,17 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 
 import com.palantir.atlasdb.table.description.TableMetadata;
 import com.palantir.common.annotation.Idempotent;
 
 @Path("/atlasdb")
 public interface AtlasDbService {
+    /**
+     * Newline-delimited JSON: a stream of JSON values, each on its own line.
+     */
+    String APPLICATION_NDJSON = "application/x-ndjson";
 
     @Idempotent
     @GET
@@ -78,6 +83,20 @@ public interface AtlasDbService {
     RangeToken getRange(@PathParam("token") TransactionToken token,
                         TableRange rangeRequest);
 
+    /**
+     * Streams the rows of the given range as newline-delimited JSON, written as they are read from the transaction.
+     * Each line but the last is a {@link TableRowResult} of at most the range's batch size rows. The last line is
+     * <code>{"next": &lt;range&gt;}</code>, where the range continues the stream if the server stopped early, and
+     * is null if all rows in the range were streamed. A stream without this line was cut short.
+     */
+    @Idempotent
+    @POST
+    @Path("range-stream/{token}")
+    @Produces(APPLICATION_NDJSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    StreamingOutput getRangeStream(@PathParam("token") TransactionToken token,
+                                   TableRange rangeRequest);
+
     @Idempotent
     @POST
     @Path("put/{token}")
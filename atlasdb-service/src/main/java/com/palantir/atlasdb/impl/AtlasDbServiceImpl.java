@@ -15,7 +15,10 @@
  */
 package com.palantir.atlasdb.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,7 +27,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
+import javax.ws.rs.core.StreamingOutput;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -40,7 +46,9 @@ import com.palantir.atlasdb.api.TableRowSelection;
 import com.palantir.atlasdb.api.TransactionToken;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.jackson.AtlasJacksonModule;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence;
@@ -56,6 +64,7 @@ import com.palantir.atlasdb.transaction.api.RuntimeTransactionTask;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionAndImmutableTsLock;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.impl.PreCommitConditions;
 import com.palantir.atlasdb.transaction.impl.TxTask;
 import com.palantir.common.base.BatchingVisitable;
@@ -72,19 +81,35 @@ public class AtlasDbServiceImpl implements AtlasDbService {
             ConflictHandler.SERIALIZABLE,
             TableMetadataPersistence.LogSafety.SAFE);
 
+    // Bounds how long a single stream keeps its read transaction open, and so holds back the immutable timestamp.
+    private static final int DEFAULT_MAX_ROWS_PER_STREAM = 100_000;
+    private static final byte NEWLINE = '\n';
+
     private final KeyValueService kvs;
     private final TransactionManager txManager;
     private final Cache<TransactionToken, TransactionAndImmutableTsLock> transactions =
             CacheBuilder.newBuilder().expireAfterAccess(12, TimeUnit.HOURS).build();
     private final TableMetadataCache metadataCache;
+    private final ObjectMapper streamMapper;
+    private final int maxRowsPerStream;
 
     @Inject
     public AtlasDbServiceImpl(KeyValueService kvs,
             TransactionManager txManager,
             TableMetadataCache metadataCache) {
+        this(kvs, txManager, metadataCache, DEFAULT_MAX_ROWS_PER_STREAM);
+    }
+
+    @VisibleForTesting
+    AtlasDbServiceImpl(KeyValueService kvs,
+            TransactionManager txManager,
+            TableMetadataCache metadataCache,
+            int maxRowsPerStream) {
         this.kvs = kvs;
         this.txManager = txManager;
         this.metadataCache = metadataCache;
+        this.streamMapper = new ObjectMapper().registerModule(new AtlasJacksonModule(metadataCache).createModule());
+        this.maxRowsPerStream = maxRowsPerStream;
     }
 
     @Override
@@ -148,6 +173,47 @@ public class AtlasDbServiceImpl implements AtlasDbService {
         });
     }
 
+    @Override
+    public StreamingOutput getRangeStream(TransactionToken token, TableRange range) {
+        // The rows are read when the response is written, so that each batch is only read once the previous batch
+        // has been written to the client, and slow clients slow down the read rather than buffering on the server.
+        return output -> runReadOnlyWithoutRetry(token, transaction -> {
+            streamRange(transaction, range, output);
+            return null;
+        });
+    }
+
+    private void streamRange(Transaction transaction, TableRange range, OutputStream output) throws IOException {
+        RangeRequest request = RangeRequest.builder()
+                .startRowInclusive(range.getStartRow())
+                .endRowExclusive(range.getEndRow())
+                .batchHint(range.getBatchSize())
+                .retainColumns(range.getColumns())
+                .build();
+        BatchingVisitable<RowResult<byte[]>> visitable = transaction.getRange(getTableRef(range.getTableName()),
+                request);
+
+        int[] rowsStreamed = {0};
+        byte[][] lastRow = {null};
+        boolean exhausted = visitable.batchAccept(range.getBatchSize(), batch -> {
+            writeLine(output, new TableRowResult(range.getTableName(), batch));
+            rowsStreamed[0] += batch.size();
+            lastRow[0] = batch.get(batch.size() - 1).getRowName();
+            return rowsStreamed[0] < maxRowsPerStream;
+        });
+
+        TableRange nextRange = exhausted || RangeRequests.isLastRowName(lastRow[0])
+                ? null
+                : range.withStartRow(RangeRequests.nextLexicographicName(lastRow[0]));
+        writeLine(output, Collections.singletonMap("next", nextRange));
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(streamMapper.writeValueAsBytes(value));
+        output.write(NEWLINE);
+        output.flush();
+    }
+
     @Override
     public void put(TransactionToken token,
             final TableCellVal data) {
@@ -181,6 +247,18 @@ public class AtlasDbServiceImpl implements AtlasDbService {
         }
     }
 
+    // Streams are not retried, since by the time a read fails some of its rows may have been sent already.
+    private <T, E extends Exception> T runReadOnlyWithoutRetry(TransactionToken token, TransactionTask<T, E> task)
+            throws E {
+        if (token.shouldAutoCommit()) {
+            return txManager.runTaskReadOnly(task);
+        } else {
+            Transaction tx = transactions.getIfPresent(token).transaction();
+            Preconditions.checkNotNull(tx, "The given transaction does not exist.");
+            return task.execute(tx);
+        }
+    }
+
     private <T> T runWithRetry(TransactionToken token, RuntimeTransactionTask<T> task) {
         if (token.shouldAutoCommit()) {
             return txManager.runTaskWithRetry(task);
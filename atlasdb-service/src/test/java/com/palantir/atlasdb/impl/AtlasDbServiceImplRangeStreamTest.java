@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.api.TableRange;
+import com.palantir.atlasdb.api.TransactionToken;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.factory.TransactionManagers;
+import com.palantir.atlasdb.jackson.AtlasJacksonModule;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+
+public class AtlasDbServiceImplRangeStreamTest {
+    private static final String TABLE = "test.streamed";
+    private static final int NUM_ROWS = 5;
+    private static final int MAX_ROWS_PER_STREAM = 3;
+
+    private final TransactionManager txManager = TransactionManagers.createInMemory(ImmutableSet.of());
+    private final TableMetadataCache metadataCache = new TableMetadataCache(txManager.getKeyValueService());
+    private final AtlasDbServiceImpl atlasDbService = new AtlasDbServiceImpl(
+            txManager.getKeyValueService(), txManager, metadataCache, MAX_ROWS_PER_STREAM);
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new AtlasJacksonModule(metadataCache).createModule());
+
+    @Before
+    public void setUp() {
+        atlasDbService.createTable(TABLE);
+        txManager.runTaskWithRetry(transaction -> {
+            IntStream.range(0, NUM_ROWS).forEach(index -> transaction.put(
+                    TableReference.createUnsafe(TABLE),
+                    ImmutableMap.of(Cell.create(PtBytes.toBytes("row" + index), PtBytes.toBytes("col")),
+                            PtBytes.toBytes("value" + index))));
+            return null;
+        });
+    }
+
+    @Test
+    public void streamsRowsInBatchesAndEndsWithContinuation() throws IOException {
+        List<JsonNode> lines = stream(new TableRange(TABLE, new byte[0], new byte[0], ImmutableList.of(), 2));
+
+        assertThat(lines).hasSize(3);
+        assertThat(rowNames(lines.get(0))).containsExactly("row0", "row1");
+        assertThat(rowNames(lines.get(1))).containsExactly("row2", "row3");
+
+        JsonNode next = lines.get(2).get("next");
+        assertThat(next.isNull()).isFalse();
+        TableRange nextRange = mapper.treeToValue(next, TableRange.class);
+        assertThat(rowNames(stream(nextRange).get(0))).containsExactly("row4");
+    }
+
+    @Test
+    public void endsWithNullContinuationOnceRangeIsExhausted() throws IOException {
+        List<JsonNode> lines = stream(new TableRange(
+                TABLE, PtBytes.toBytes("row3"), new byte[0], ImmutableList.of(), 2));
+
+        assertThat(lines).hasSize(2);
+        assertThat(rowNames(lines.get(0))).containsExactly("row3", "row4");
+        assertThat(lines.get(1).get("next").isNull()).isTrue();
+    }
+
+    private List<JsonNode> stream(TableRange range) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        atlasDbService.getRangeStream(TransactionToken.autoCommit(), range).write(output);
+
+        String body = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        ImmutableList.Builder<JsonNode> lines = ImmutableList.builder();
+        for (String line : Splitter.on('\n').omitEmptyStrings().split(body)) {
+            lines.add(mapper.readTree(line));
+        }
+        return lines.build();
+    }
+
+    private static List<String> rowNames(JsonNode rowResult) {
+        return ImmutableList.copyOf(rowResult.get("data")).stream()
+                .map(row -> row.get("row").get("row").asText())
+                .collect(Collectors.toList());
+    }
+}
@@ -120,7 +120,8 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 true,
-                () -> ImmutableTransactionConfig.builder().build()) {
+                () -> ImmutableTransactionConfig.builder().build(),
+                CellReadCache.createWithNoCaching()) {
             @Override
             protected Map<Cell, byte[]> transformGetsForTesting(Map<Cell, byte[]> map) {
                 return Maps.transformValues(map, input -> input.clone());
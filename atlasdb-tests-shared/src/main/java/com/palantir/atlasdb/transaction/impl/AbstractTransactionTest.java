@@ -130,7 +130,8 @@ public abstract class AbstractTransactionTest extends TransactionTestSetup {
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 true,
-                () -> TRANSACTION_CONFIG);
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.createWithNoCaching());
     }
 
     @Test
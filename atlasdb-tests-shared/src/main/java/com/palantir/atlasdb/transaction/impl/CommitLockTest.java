@@ -183,7 +183,8 @@ public class CommitLockTest extends TransactionTestSetup {
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 true,
-                () -> TRANSACTION_CONFIG) {
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.createWithNoCaching()) {
             @Override
             protected Map<Cell, byte[]> transformGetsForTesting(Map<Cell, byte[]> map) {
                 return Maps.transformValues(map, input -> input.clone());
@@ -150,7 +150,8 @@ public class TestTransactionManagerImpl extends SerializableTransactionManager i
                 deleteExecutor,
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 validateLocksOnReads,
-                () -> TRANSACTION_CONFIG);
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.createWithNoCaching());
     }
 
     @Override
@@ -16,9 +16,16 @@
 package com.palantir.atlasdb.keyvalue.impl;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -27,20 +34,32 @@ import org.junit.Test;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.cleaner.api.Cleaner;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.schema.GeneralTaskCheckpointer;
 import com.palantir.atlasdb.sweep.queue.MultiTableSweepQueueWriter;
+import com.palantir.atlasdb.table.common.RangeCheckpoints;
 import com.palantir.atlasdb.table.common.TableTasks;
+import com.palantir.atlasdb.table.common.TableTasks.CopyStats;
 import com.palantir.atlasdb.table.common.TableTasks.DiffStats;
+import com.palantir.atlasdb.table.common.TableTasks.VerifyStats;
 import com.palantir.atlasdb.transaction.api.AtlasDbConstraintCheckingMode;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.impl.AbstractTransactionTest;
@@ -61,29 +80,34 @@ import com.palantir.timestamp.InMemoryTimestampService;
 public class TableTasksTest {
     private MetricsManager metricsManager;
     private KeyValueService kvs;
+    private InMemoryTimestampService tsService;
     private LockServiceImpl lockService;
     private TransactionManager txManager;
 
     @Before
     public void setup() {
         kvs = new InMemoryKeyValueService(true);
-        InMemoryTimestampService tsService = new InMemoryTimestampService();
-        LockClient lockClient = LockClient.of("sweep client");
+        tsService = new InMemoryTimestampService();
         lockService = LockServiceImpl.create(LockServerOptions.builder().isStandaloneServer(false).build());
-        TransactionService txService = TransactionServices.createTransactionService(kvs);
+        metricsManager = MetricsManagers.createForTests();
+        txManager = createTransactionManager(kvs);
+    }
+
+    private TransactionManager createTransactionManager(KeyValueService keyValueService) {
+        LockClient lockClient = LockClient.of("sweep client");
+        TransactionService txService = TransactionServices.createTransactionService(keyValueService);
         Supplier<AtlasDbConstraintCheckingMode> constraints = Suppliers.ofInstance(
                 AtlasDbConstraintCheckingMode.NO_CONSTRAINT_CHECKING);
-        ConflictDetectionManager cdm = ConflictDetectionManagers.createWithoutWarmingCache(kvs);
-        SweepStrategyManager ssm = SweepStrategyManagers.createDefault(kvs);
+        ConflictDetectionManager cdm = ConflictDetectionManagers.createWithoutWarmingCache(keyValueService);
+        SweepStrategyManager ssm = SweepStrategyManagers.createDefault(keyValueService);
         Cleaner cleaner = new NoOpCleaner();
-        metricsManager = MetricsManagers.createForTests();
-        TransactionManager transactionManager = SerializableTransactionManager.createForTest(
+        return SerializableTransactionManager.createForTest(
                 metricsManager,
-                kvs, tsService, tsService, lockClient, lockService, txService, constraints, cdm, ssm, cleaner,
+                keyValueService, tsService, tsService, lockClient, lockService, txService, constraints, cdm, ssm,
+                cleaner,
                 AbstractTransactionTest.GET_RANGES_THREAD_POOL_SIZE,
                 AbstractTransactionTest.DEFAULT_GET_RANGES_CONCURRENCY,
                 MultiTableSweepQueueWriter.NO_OP);
-        txManager = transactionManager;
     }
 
     @After
@@ -171,4 +195,195 @@ public class TableTasksTest {
         Assert.assertEquals(partialRows, rowsPartiallyInCommon.get());
         Assert.assertEquals(keys1.keySet().size(), rowsVisited.get());
     }
+
+    @Test
+    public void testCopyTaskResumesFromCheckpoints() throws InterruptedException {
+        TableReference srcTable = TableReference.createWithEmptyNamespace("src");
+        TableReference dstTable = TableReference.createWithEmptyNamespace("dst");
+        createTableWithRows(srcTable, 100, -1);
+        kvs.createTable(dstTable, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        TransactionServices.createTransactionService(kvs).putUnlessExists(1, 1);
+        GeneralTaskCheckpointer checkpointer = new GeneralTaskCheckpointer(
+                TableReference.create(Namespace.DEFAULT_NAMESPACE, "checkpoint"), kvs, txManager);
+
+        AtomicLong rowsCopied = new AtomicLong();
+        TableTasks.copy(txManager, MoreExecutors.newDirectExecutorService(), srcTable, dstTable, 10, 4,
+                RangeCheckpoints.create(checkpointer, txManager, "copy"),
+                new CopyStats(rowsCopied, new AtomicLong()));
+        Assert.assertEquals(100, rowsCopied.get());
+        Assert.assertEquals(100, countRows(dstTable));
+
+        AtomicLong rowsCopiedAfterResuming = new AtomicLong();
+        TableTasks.copy(txManager, MoreExecutors.newDirectExecutorService(), srcTable, dstTable, 10, 4,
+                RangeCheckpoints.create(checkpointer, txManager, "copy"),
+                new CopyStats(rowsCopiedAfterResuming, new AtomicLong()));
+        Assert.assertEquals(0, rowsCopiedAfterResuming.get());
+    }
+
+    @Test
+    public void testCopyTaskStoppedAfterASplitResumesWithoutCopyingRowsTwice() throws InterruptedException {
+        TableReference srcTable = TableReference.createWithEmptyNamespace("src");
+        TableReference dstTable = TableReference.createWithEmptyNamespace("dst");
+        createTableWithRows(srcTable, 100, -1);
+        kvs.createTable(dstTable, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        TransactionServices.createTransactionService(kvs).putUnlessExists(1, 1);
+        GeneralTaskCheckpointer checkpointer = new GeneralTaskCheckpointer(
+                TableReference.create(Namespace.DEFAULT_NAMESPACE, "checkpoint"), kvs, txManager);
+        StopAfterSplitKeyValueService stoppingKvs = new StopAfterSplitKeyValueService(kvs, dstTable);
+        TransactionManager stoppingTxManager = createTransactionManager(stoppingKvs);
+        ExecutorService exec = Executors.newCachedThreadPool();
+        try {
+            AtomicLong rowsCopied = new AtomicLong();
+            try {
+                TableTasks.copy(stoppingTxManager, exec, srcTable, dstTable, 10, 2,
+                        RangeCheckpoints.create(checkpointer, txManager, "copy"),
+                        new CopyStats(rowsCopied, new AtomicLong()));
+                Assert.fail("The copy should have stopped once a range was split");
+            } catch (RuntimeException e) {
+                Assert.assertTrue(stoppingKvs.hasStopped());
+            }
+            Assert.assertTrue(rowsCopied.get() < 100);
+
+            stoppingKvs.allowWrites();
+            AtomicLong rowsCopiedAfterResuming = new AtomicLong();
+            TableTasks.copy(stoppingTxManager, exec, srcTable, dstTable, 10, 2,
+                    RangeCheckpoints.create(checkpointer, txManager, "copy"),
+                    new CopyStats(rowsCopiedAfterResuming, new AtomicLong()));
+
+            Assert.assertEquals(100, rowsCopied.get() + rowsCopiedAfterResuming.get());
+            Assert.assertEquals(100, stoppingKvs.getRowsWritten().elementSet().size());
+            Assert.assertTrue(stoppingKvs.getRowsWritten().entrySet().stream().allMatch(row -> row.getCount() == 1));
+            Assert.assertEquals(100, countRows(dstTable));
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVerifyTaskOnlyVisitsMismatchedBatches() throws InterruptedException {
+        TableReference srcTable = TableReference.createWithEmptyNamespace("src");
+        TableReference dstTable = TableReference.createWithEmptyNamespace("dst");
+        createTableWithRows(srcTable, 100, -1);
+        createTableWithRows(dstTable, 100, 42);
+        TransactionServices.createTransactionService(kvs).putUnlessExists(1, 1);
+
+        AtomicLong batchesMatched = new AtomicLong();
+        AtomicLong batchesMismatched = new AtomicLong();
+        AtomicLong rowsMatched = new AtomicLong();
+        AtomicLong rowsMismatched = new AtomicLong();
+        List<RangeRequest> mismatchedRanges = Lists.newArrayList();
+        TableTasks.verify(txManager, txManager, MoreExecutors.newDirectExecutorService(), srcTable, dstTable, 10, 1,
+                new VerifyStats(batchesMatched, batchesMismatched, rowsMatched, rowsMismatched),
+                (range, srcRows, dstRows) -> {
+                    mismatchedRanges.add(range);
+                    Assert.assertEquals(10, srcRows.size());
+                    Assert.assertEquals(10, dstRows.size());
+                });
+
+        Assert.assertEquals(1, batchesMismatched.get());
+        Assert.assertEquals(10, rowsMismatched.get());
+        Assert.assertEquals(90, rowsMatched.get());
+        Assert.assertEquals(1, mismatchedRanges.size());
+        Assert.assertTrue(mismatchedRanges.get(0).inRange(new byte[] {42}));
+    }
+
+    @Test
+    public void testVerifyTaskReadsABoundedNumberOfExtraDestinationRows() throws InterruptedException {
+        TableReference srcTable = TableReference.createWithEmptyNamespace("src");
+        TableReference dstTable = TableReference.createWithEmptyNamespace("dst");
+        createTableWithRows(srcTable, 5, -1);
+        createTableWithRows(dstTable, 100, -1);
+        TransactionServices.createTransactionService(kvs).putUnlessExists(1, 1);
+
+        AtomicLong batchesMismatched = new AtomicLong();
+        List<Integer> numDstRowsVisited = Lists.newArrayList();
+        TableTasks.verify(txManager, txManager, MoreExecutors.newDirectExecutorService(), srcTable, dstTable, 10, 1,
+                new VerifyStats(new AtomicLong(), batchesMismatched, new AtomicLong(), new AtomicLong()),
+                (range, srcRows, dstRows) -> numDstRowsVisited.add(dstRows.size()));
+
+        Assert.assertEquals(1, batchesMismatched.get());
+        Assert.assertEquals(ImmutableList.of(11), numDstRowsVisited);
+    }
+
+    private void createTableWithRows(TableReference table, int numRows, int rowWithDifferentValue) {
+        kvs.createTable(table, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        for (int row = 0; row < numRows; row++) {
+            byte[] value = {(byte) (row == rowWithDifferentValue ? 1 : 0)};
+            kvs.put(table, ImmutableMap.of(Cell.create(new byte[] {(byte) row}, new byte[] {0}), value), 1);
+        }
+    }
+
+    private long countRows(TableReference table) {
+        return txManager.runTaskReadOnly(tx -> {
+            List<RowResult<byte[]>> rows = Lists.newArrayList();
+            tx.getRange(table, RangeRequest.all()).batchAccept(100, batch -> rows.addAll(batch));
+            return (long) rows.size();
+        });
+    }
+
+    /**
+     * Fails writes to a table once a range has been split and the split off range is being copied. The worker that
+     * starts from the first row copies quickly and the others slowly, so that the first worker runs out of rows while
+     * the others still have some left, and so one of their ranges is split for it. The worker copying the split off
+     * range is recognised by it writing rows past those the other worker started from.
+     */
+    private static final class StopAfterSplitKeyValueService extends ForwardingKeyValueService {
+        private final KeyValueService delegate;
+        private final TableReference table;
+        private final Map<Thread, Integer> firstRowWrittenByThread = new ConcurrentHashMap<>();
+        private final Multiset<Integer> rowsWritten = ConcurrentHashMultiset.create();
+        private volatile boolean stopWritesAfterSplit = true;
+        private volatile boolean stopped = false;
+
+        private StopAfterSplitKeyValueService(KeyValueService delegate, TableReference table) {
+            this.delegate = delegate;
+            this.table = table;
+        }
+
+        @Override
+        protected KeyValueService delegate() {
+            return delegate;
+        }
+
+        @Override
+        public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+            Map<Cell, byte[]> values = valuesByTable.get(table);
+            if (values == null || values.isEmpty()) {
+                super.multiPut(valuesByTable, timestamp);
+                return;
+            }
+            List<Integer> rows = values.keySet().stream().map(cell -> cell.getRowName()[0] & 0xff).sorted()
+                    .collect(Collectors.toList());
+            if (stopWritesAfterSplit) {
+                beforeWrite(rows);
+            }
+            super.multiPut(valuesByTable, timestamp);
+            rowsWritten.addAll(rows);
+        }
+
+        private void beforeWrite(List<Integer> rows) {
+            int firstRow = firstRowWrittenByThread.computeIfAbsent(Thread.currentThread(), unused -> rows.get(0));
+            boolean isCopyingSplitRange = firstRowWrittenByThread.values().stream()
+                    .anyMatch(otherFirstRow -> otherFirstRow > firstRow && rows.get(rows.size() - 1) >= otherFirstRow);
+            if (stopped || isCopyingSplitRange) {
+                stopped = true;
+                throw new IllegalStateException("write failed");
+            }
+            if (firstRow > 0) {
+                Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        boolean hasStopped() {
+            return stopped;
+        }
+
+        void allowWrites() {
+            stopWritesAfterSplit = false;
+        }
+
+        Multiset<Integer> getRowsWritten() {
+            return rowsWritten;
+        }
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.schema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.AtlasDbTestCase;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
+import com.palantir.common.base.ClosableIterator;
+
+public class KvsRangeMigratorTest extends AtlasDbTestCase {
+    private static final TableReference SOURCE_TABLE = TableReference.createFromFullyQualifiedName("test.source");
+    private static final TableReference DESTINATION_TABLE =
+            TableReference.createFromFullyQualifiedName("test.destination");
+    private static final TableReference CHECKPOINT_TABLE =
+            TableReference.createFromFullyQualifiedName("test.checkpoints");
+    private static final byte[] COLUMN = PtBytes.toBytes("c");
+    private static final long RANGE_ID = 0L;
+    private static final long MIGRATION_TIMESTAMP = 1L;
+
+    // Batches are cut once they hold 5 MB, so rows of 1 MB are copied in batches of 5, 5 and 2 rows.
+    private static final int VALUE_SIZE = 1024 * 1024;
+    private static final int ROWS_PER_BATCH = 5;
+    private static final int NUM_ROWS = 12;
+
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+    private GeneralTaskCheckpointer checkpointer;
+
+    @Before
+    public void createTablesAndCheckpoints() {
+        keyValueService.createTable(SOURCE_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        keyValueService.createTable(DESTINATION_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        txManager.runTaskWithRetry(txn -> {
+            for (int i = 0; i < NUM_ROWS; i++) {
+                txn.put(SOURCE_TABLE, ImmutableMap.of(cell(i), value(i)));
+            }
+            return null;
+        });
+
+        checkpointer = new GeneralTaskCheckpointer(CHECKPOINT_TABLE, keyValueService, txManager);
+        checkpointer.createCheckpoints(SOURCE_TABLE.getQualifiedName(), ImmutableMap.of(RANGE_ID, new byte[0]));
+    }
+
+    @After
+    public void shutDownWriteExecutor() {
+        writeExecutor.shutdownNow();
+    }
+
+    @Test
+    public void pipelinedMigrationCopiesEveryRowInSeveralBatches() {
+        KvsRangeMigrator migrator = createMigrator(keyValueService);
+
+        migrator.migrateRange(RangeRequest.all(), RANGE_ID);
+
+        assertDestinationContainsRows(NUM_ROWS);
+        assertThat(migrator.getCellsWritten()).isEqualTo(NUM_ROWS);
+        assertThat(getCheckpoint()).isNull();
+    }
+
+    @Test
+    public void failedWriteLeavesTheCheckpointAfterTheLastWrittenBatch() {
+        KvsRangeMigrator migrator = createMigrator(new FailingKeyValueService(keyValueService, 2));
+
+        assertThatThrownBy(() -> migrator.migrateRange(RangeRequest.all(), RANGE_ID))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("write failed");
+
+        assertDestinationContainsRows(ROWS_PER_BATCH);
+        assertThat(getCheckpoint()).isEqualTo(RangeRequests.nextLexicographicName(row(ROWS_PER_BATCH - 1)));
+    }
+
+    @Test
+    public void resumedMigrationCopiesOnlyTheRowsAfterTheCheckpoint() {
+        KvsRangeMigrator failingMigrator = createMigrator(new FailingKeyValueService(keyValueService, 2));
+        assertThatThrownBy(() -> failingMigrator.migrateRange(RangeRequest.all(), RANGE_ID))
+                .isInstanceOf(IllegalStateException.class);
+
+        KvsRangeMigrator resumedMigrator = createMigrator(keyValueService);
+        resumedMigrator.migrateRange(RangeRequest.all(), RANGE_ID);
+
+        assertDestinationContainsRows(NUM_ROWS);
+        assertThat(resumedMigrator.getCellsWritten()).isEqualTo(NUM_ROWS - ROWS_PER_BATCH);
+        assertThat(getCheckpoint()).isNull();
+    }
+
+    @Test
+    public void completedRangeIsNotCopiedAgain() {
+        createMigrator(keyValueService).migrateRange(RangeRequest.all(), RANGE_ID);
+
+        KvsRangeMigrator secondMigrator = createMigrator(keyValueService);
+        secondMigrator.migrateRange(RangeRequest.all(), RANGE_ID);
+
+        assertThat(secondMigrator.getCellsWritten()).isZero();
+    }
+
+    private KvsRangeMigrator createMigrator(KeyValueService writeKvs) {
+        return new KvsRangeMigratorBuilder()
+                .srcTable(SOURCE_TABLE)
+                .destTable(DESTINATION_TABLE)
+                .txManager(txManager)
+                .writeKvs(writeKvs)
+                .migrationTimestamp(MIGRATION_TIMESTAMP)
+                .checkpointer(checkpointer)
+                .writeExecutor(writeExecutor)
+                .build();
+    }
+
+    private byte[] getCheckpoint() {
+        return txManager.runTaskReadOnly(
+                txn -> checkpointer.getCheckpoint(SOURCE_TABLE.getQualifiedName(), RANGE_ID, txn));
+    }
+
+    private void assertDestinationContainsRows(int numRows) {
+        Map<byte[], byte[]> valuesByRow = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        try (ClosableIterator<RowResult<Value>> rows =
+                keyValueService.getRange(DESTINATION_TABLE, RangeRequest.all(), Long.MAX_VALUE)) {
+            rows.forEachRemaining(row -> valuesByRow.put(row.getRowName(), row.getColumns().get(COLUMN).getContents()));
+        }
+
+        assertThat(valuesByRow).hasSize(numRows);
+        for (int i = 0; i < numRows; i++) {
+            assertThat(valuesByRow.get(row(i))).isEqualTo(value(i));
+        }
+    }
+
+    private static Cell cell(int index) {
+        return Cell.create(row(index), COLUMN);
+    }
+
+    private static byte[] row(int index) {
+        return PtBytes.toBytes(String.format("row%02d", index));
+    }
+
+    private static byte[] value(int index) {
+        byte[] value = new byte[VALUE_SIZE];
+        Arrays.fill(value, (byte) index);
+        return value;
+    }
+
+    private static final class FailingKeyValueService extends ForwardingKeyValueService {
+        private final KeyValueService delegate;
+        private final int failingPut;
+        private final AtomicInteger puts = new AtomicInteger();
+
+        private FailingKeyValueService(KeyValueService delegate, int failingPut) {
+            this.delegate = delegate;
+            this.failingPut = failingPut;
+        }
+
+        @Override
+        protected KeyValueService delegate() {
+            return delegate;
+        }
+
+        @Override
+        public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp) {
+            if (puts.incrementAndGet() == failingPut) {
+                throw new IllegalStateException("write failed");
+            }
+            super.put(tableRef, values, timestamp);
+        }
+    }
+}
@@ -67,6 +67,9 @@ import com.palantir.atlasdb.protos.generated.StreamPersistence;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
 import com.palantir.atlasdb.schema.stream.generated.DeletingStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.KeyValueTable;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestCompressedBlocksStreamStore;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestCompressedBlocksStreamValueTable;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestCompressedBlocksStreamValueTable.StreamTestCompressedBlocksStreamValueRow;
 import com.palantir.atlasdb.schema.stream.generated.StreamTestMaxMemStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.StreamTestStreamHashAidxTable;
 import com.palantir.atlasdb.schema.stream.generated.StreamTestStreamMetadataTable;
@@ -101,6 +104,7 @@ public class StreamTest extends AtlasDbTestCase {
     private boolean useStoreWithHashedComponents;
     private PersistentStreamStore compressedStore;
     private PersistentStreamStore maxMemStore;
+    private PersistentStreamStore compressedBlocksStore;
 
     @Parameters
     public static Collection<Object[]> data() {
@@ -128,6 +132,7 @@ public class StreamTest extends AtlasDbTestCase {
 
         compressedStore = StreamTestWithHashStreamStore.of(txManager, StreamTestTableFactory.of());
         maxMemStore = StreamTestMaxMemStreamStore.of(txManager, StreamTestTableFactory.of());
+        compressedBlocksStore = StreamTestCompressedBlocksStreamStore.of(txManager, StreamTestTableFactory.of());
     }
 
     @Test
@@ -302,6 +307,84 @@ public class StreamTest extends AtlasDbTestCase {
         storeAndCheckByteStreams(maxMemStore, getIncompressibleBytes(20_000_000));
     }
 
+    @Test
+    public void loadStreamRangeSpanningSeveralBlocks_defaultStream() throws IOException {
+        verifyLoadStreamRanges(defaultStore, getIncompressibleBytes(5_000_000));
+    }
+
+    @Test
+    public void loadStreamRangeSpanningSeveralBlocks_compressedStream() throws IOException {
+        verifyLoadStreamRanges(compressedStore, getCompressibleBytes(5_000_000));
+    }
+
+    @Test
+    public void testStoreEmptyByteStream_compressedBlocks() throws IOException {
+        storeAndCheckByteStreams(compressedBlocksStore, getIncompressibleBytes(0));
+    }
+
+    @Test
+    public void testStoreByteStreamFiveMegaBytes_compressedBlocks_compressible() throws IOException {
+        storeAndCheckByteStreams(compressedBlocksStore, getCompressibleBytes(5_000_000));
+    }
+
+    @Test
+    public void testStoreByteStreamFiveMegaBytes_compressedBlocks_incompressible() throws IOException {
+        storeAndCheckByteStreams(compressedBlocksStore, getIncompressibleBytes(5_000_000));
+    }
+
+    @Test
+    public void loadStreamRangeSpanningSeveralBlocks_compressedBlocks() throws IOException {
+        verifyLoadStreamRanges(compressedBlocksStore, getCompressibleBytes(5_000_000));
+    }
+
+    @Test
+    public void compressedBlocksKeepTheirPositionInTheStream() throws IOException {
+        int blockSize = StreamTestCompressedBlocksStreamStore.BLOCK_SIZE_IN_BYTES;
+        long id = storeStream(compressedBlocksStore, getCompressibleBytes(3 * blockSize), PtBytes.toBytes("ref"));
+
+        Map<StreamTestCompressedBlocksStreamValueRow, byte[]> blocks = txManager.runTaskReadOnly(t -> {
+            StreamTestCompressedBlocksStreamValueTable table = StreamTestTableFactory.of()
+                    .getStreamTestCompressedBlocksStreamValueTable(t);
+            return table.getValues(ImmutableSet.of(
+                    StreamTestCompressedBlocksStreamValueRow.of(id, 0L),
+                    StreamTestCompressedBlocksStreamValueRow.of(id, 1L),
+                    StreamTestCompressedBlocksStreamValueRow.of(id, 2L)));
+        });
+
+        assertEquals(3, blocks.size());
+        for (byte[] storedBlock : blocks.values()) {
+            assertTrue(storedBlock.length < blockSize / 10);
+        }
+    }
+
+    @Test
+    public void loadStreamRangeOfEmptyStream() throws IOException {
+        long id = storeStream(defaultStore, new byte[0], PtBytes.toBytes("ref"));
+        verifyLoadStreamRange(defaultStore, id, new byte[0], 0, 10);
+    }
+
+    private void verifyLoadStreamRanges(PersistentStreamStore store, byte[] bytesToStore) throws IOException {
+        long id = storeStream(store, bytesToStore, PtBytes.toBytes("ref"));
+        int blockSize = StreamTestStreamStore.BLOCK_SIZE_IN_BYTES;
+
+        verifyLoadStreamRange(store, id, bytesToStore, 0, 100);
+        verifyLoadStreamRange(store, id, bytesToStore, blockSize - 50, 100);
+        verifyLoadStreamRange(store, id, bytesToStore, blockSize, blockSize);
+        verifyLoadStreamRange(store, id, bytesToStore, 2 * blockSize + 17, 2 * blockSize);
+        verifyLoadStreamRange(store, id, bytesToStore, bytesToStore.length - 10, 100);
+        verifyLoadStreamRange(store, id, bytesToStore, bytesToStore.length, 100);
+        verifyLoadStreamRange(store, id, bytesToStore, bytesToStore.length + 100, 100);
+        verifyLoadStreamRange(store, id, bytesToStore, 10, 0);
+    }
+
+    private void verifyLoadStreamRange(PersistentStreamStore store, long id, byte[] bytesToStore, int offset,
+            int length) throws IOException {
+        int start = Math.min(offset, bytesToStore.length);
+        int end = Math.min(offset + length, bytesToStore.length);
+        InputStream stream = txManager.runTaskThrowOnConflict(t -> store.loadStreamRange(t, id, offset, length));
+        assertStreamHasBytes(stream, Arrays.copyOfRange(bytesToStore, start, end));
+    }
+
     private long storeAndCheckByteStreams(PersistentStreamStore store, byte[] bytesToStore) throws IOException {
         byte[] reference = PtBytes.toBytes("ref");
 
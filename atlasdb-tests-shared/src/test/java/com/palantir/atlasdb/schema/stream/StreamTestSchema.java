@@ -77,6 +77,14 @@ public class StreamTestSchema implements AtlasSchema {
                     .inMemoryThreshold(StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD)
                     .build());
 
+        schema.addStreamStoreDefinition(
+                new StreamStoreDefinitionBuilder(
+                        "stream_test_compressed_blocks",
+                        "stream_test_compressed_blocks",
+                        ValueType.VAR_LONG)
+                    .compressBlocksInClient()
+                    .build());
+
         return schema;
     }
 
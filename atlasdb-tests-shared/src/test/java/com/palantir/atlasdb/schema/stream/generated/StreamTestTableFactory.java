@@ -46,6 +46,26 @@ public final class StreamTestTableFactory {
         return KeyValueTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
     }
 
+    public StreamTestCompressedBlocksStreamHashAidxTable getStreamTestCompressedBlocksStreamHashAidxTable(Transaction t,
+            StreamTestCompressedBlocksStreamHashAidxTable.StreamTestCompressedBlocksStreamHashAidxTrigger... triggers) {
+        return StreamTestCompressedBlocksStreamHashAidxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestCompressedBlocksStreamIdxTable getStreamTestCompressedBlocksStreamIdxTable(Transaction t,
+            StreamTestCompressedBlocksStreamIdxTable.StreamTestCompressedBlocksStreamIdxTrigger... triggers) {
+        return StreamTestCompressedBlocksStreamIdxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestCompressedBlocksStreamMetadataTable getStreamTestCompressedBlocksStreamMetadataTable(Transaction t,
+            StreamTestCompressedBlocksStreamMetadataTable.StreamTestCompressedBlocksStreamMetadataTrigger... triggers) {
+        return StreamTestCompressedBlocksStreamMetadataTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestCompressedBlocksStreamValueTable getStreamTestCompressedBlocksStreamValueTable(Transaction t,
+            StreamTestCompressedBlocksStreamValueTable.StreamTestCompressedBlocksStreamValueTrigger... triggers) {
+        return StreamTestCompressedBlocksStreamValueTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
     public StreamTestMaxMemStreamHashAidxTable getStreamTestMaxMemStreamHashAidxTable(Transaction t,
             StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxTrigger... triggers) {
         return StreamTestMaxMemStreamHashAidxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
@@ -126,7 +146,7 @@ public final class StreamTestTableFactory {
         return TestHashComponentsStreamValueTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
     }
 
-    public interface SharedTriggers extends KeyValueTable.KeyValueTrigger, StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxTrigger, StreamTestMaxMemStreamIdxTable.StreamTestMaxMemStreamIdxTrigger, StreamTestMaxMemStreamMetadataTable.StreamTestMaxMemStreamMetadataTrigger, StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueTrigger, StreamTestStreamHashAidxTable.StreamTestStreamHashAidxTrigger, StreamTestStreamIdxTable.StreamTestStreamIdxTrigger, StreamTestStreamMetadataTable.StreamTestStreamMetadataTrigger, StreamTestStreamValueTable.StreamTestStreamValueTrigger, StreamTestWithHashStreamHashAidxTable.StreamTestWithHashStreamHashAidxTrigger, StreamTestWithHashStreamIdxTable.StreamTestWithHashStreamIdxTrigger, StreamTestWithHashStreamMetadataTable.StreamTestWithHashStreamMetadataTrigger, StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueTrigger, TestHashComponentsStreamHashAidxTable.TestHashComponentsStreamHashAidxTrigger, TestHashComponentsStreamIdxTable.TestHashComponentsStreamIdxTrigger, TestHashComponentsStreamMetadataTable.TestHashComponentsStreamMetadataTrigger, TestHashComponentsStreamValueTable.TestHashComponentsStreamValueTrigger {
+    public interface SharedTriggers extends KeyValueTable.KeyValueTrigger, StreamTestCompressedBlocksStreamHashAidxTable.StreamTestCompressedBlocksStreamHashAidxTrigger, StreamTestCompressedBlocksStreamIdxTable.StreamTestCompressedBlocksStreamIdxTrigger, StreamTestCompressedBlocksStreamMetadataTable.StreamTestCompressedBlocksStreamMetadataTrigger, StreamTestCompressedBlocksStreamValueTable.StreamTestCompressedBlocksStreamValueTrigger, StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxTrigger, StreamTestMaxMemStreamIdxTable.StreamTestMaxMemStreamIdxTrigger, StreamTestMaxMemStreamMetadataTable.StreamTestMaxMemStreamMetadataTrigger, StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueTrigger, StreamTestStreamHashAidxTable.StreamTestStreamHashAidxTrigger, StreamTestStreamIdxTable.StreamTestStreamIdxTrigger, StreamTestStreamMetadataTable.StreamTestStreamMetadataTrigger, StreamTestStreamValueTable.StreamTestStreamValueTrigger, StreamTestWithHashStreamHashAidxTable.StreamTestWithHashStreamHashAidxTrigger, StreamTestWithHashStreamIdxTable.StreamTestWithHashStreamIdxTrigger, StreamTestWithHashStreamMetadataTable.StreamTestWithHashStreamMetadataTrigger, StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueTrigger, TestHashComponentsStreamHashAidxTable.TestHashComponentsStreamHashAidxTrigger, TestHashComponentsStreamIdxTable.TestHashComponentsStreamIdxTrigger, TestHashComponentsStreamMetadataTable.TestHashComponentsStreamMetadataTrigger, TestHashComponentsStreamValueTable.TestHashComponentsStreamValueTrigger {
     }
 
     public abstract static class NullSharedTriggers implements SharedTriggers {
@@ -135,6 +155,26 @@ public final class StreamTestTableFactory {
             // do nothing
         }
 
+        @Override
+        public void putStreamTestCompressedBlocksStreamHashAidx(Multimap<StreamTestCompressedBlocksStreamHashAidxTable.StreamTestCompressedBlocksStreamHashAidxRow, ? extends StreamTestCompressedBlocksStreamHashAidxTable.StreamTestCompressedBlocksStreamHashAidxColumnValue> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestCompressedBlocksStreamIdx(Multimap<StreamTestCompressedBlocksStreamIdxTable.StreamTestCompressedBlocksStreamIdxRow, ? extends StreamTestCompressedBlocksStreamIdxTable.StreamTestCompressedBlocksStreamIdxColumnValue> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestCompressedBlocksStreamMetadata(Multimap<StreamTestCompressedBlocksStreamMetadataTable.StreamTestCompressedBlocksStreamMetadataRow, ? extends StreamTestCompressedBlocksStreamMetadataTable.StreamTestCompressedBlocksStreamMetadataNamedColumnValue<?>> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestCompressedBlocksStreamValue(Multimap<StreamTestCompressedBlocksStreamValueTable.StreamTestCompressedBlocksStreamValueRow, ? extends StreamTestCompressedBlocksStreamValueTable.StreamTestCompressedBlocksStreamValueNamedColumnValue<?>> newRows) {
+            // do nothing
+        }
+
         @Override
         public void putStreamTestMaxMemStreamHashAidx(Multimap<StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxRow, ? extends StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxColumnValue> newRows) {
             // do nothing
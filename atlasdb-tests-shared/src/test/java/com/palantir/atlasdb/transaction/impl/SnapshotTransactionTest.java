@@ -25,10 +25,12 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -115,6 +117,7 @@ import com.palantir.atlasdb.transaction.api.TransactionFailedNonRetriableExcepti
 import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
 import com.palantir.atlasdb.transaction.api.TransactionLockTimeoutException;
 import com.palantir.atlasdb.transaction.api.TransactionLockTimeoutNonRetriableException;
+import com.palantir.atlasdb.transaction.api.TransactionSerializableConflictException;
 import com.palantir.atlasdb.transaction.api.TransactionReadSentinelBehavior;
 import com.palantir.atlasdb.transaction.impl.logging.CommitProfileProcessor;
 import com.palantir.atlasdb.transaction.impl.metrics.TransactionOutcomeMetrics;
@@ -209,8 +212,12 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
     static final TableReference TABLE2 = TableReference.createFromFullyQualifiedName("default.table2");
 
     static final TableReference TABLE_SWEPT_THOROUGH = TableReference.createFromFullyQualifiedName("default.table2");
+    static final TableReference HOT_TABLE = TableReference.createFromFullyQualifiedName("default.hot_table");
+    static final TableReference NEGATIVE_LOOKUPS_TABLE =
+            TableReference.createFromFullyQualifiedName("default.negative_lookups_table");
 
     private static final Cell TEST_CELL = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
+    private static final Cell OTHER_CELL = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("column1"));
 
     @Override
     @Before
@@ -300,7 +307,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 true,
-                () -> TRANSACTION_CONFIG);
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.createWithNoCaching());
         try {
             snapshot.get(TABLE, ImmutableSet.of(cell));
             fail();
@@ -367,7 +375,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 true,
-                () -> TRANSACTION_CONFIG);
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.createWithNoCaching());
         snapshot.delete(TABLE, ImmutableSet.of(cell));
         snapshot.commit();
 
@@ -1158,6 +1167,182 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         assertThatExceptionOfType(TransactionLockTimeoutException.class).isThrownBy(() -> transaction.commit());
     }
 
+    @Test
+    public void cachesReadsOfHotTablesWithinTransaction() {
+        keyValueService.createTable(HOT_TABLE, getTableMetadataForCellReadCaching(CachePriority.HOT, false));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        SnapshotTransaction transaction = getCellReadCachingTransaction();
+        Assert.assertArrayEquals(PtBytes.toBytes("value"),
+                transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+        Assert.assertArrayEquals(PtBytes.toBytes("value"),
+                transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+        Assert.assertArrayEquals(PtBytes.toBytes("value"),
+                transaction.getIgnoringLocalWrites(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+
+        verify(keyValueService, times(1)).get(eq(HOT_TABLE), any());
+    }
+
+    @Test
+    public void cachesAbsentCellsOfNegativeLookupTablesWithinTransaction() {
+        keyValueService.createTable(
+                NEGATIVE_LOOKUPS_TABLE, getTableMetadataForCellReadCaching(CachePriority.WARM, true));
+        writeCells(NEGATIVE_LOOKUPS_TABLE, ImmutableMap.of(OTHER_CELL, PtBytes.toBytes("value")));
+
+        SnapshotTransaction transaction = getCellReadCachingTransaction();
+        assertTrue(transaction.get(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(TEST_CELL)).isEmpty());
+        assertTrue(transaction.get(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(TEST_CELL)).isEmpty());
+        verify(keyValueService, times(1)).get(eq(NEGATIVE_LOOKUPS_TABLE), any());
+
+        // Present cells are only cached for hot tables.
+        transaction.get(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(OTHER_CELL));
+        transaction.get(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(OTHER_CELL));
+        verify(keyValueService, times(3)).get(eq(NEGATIVE_LOOKUPS_TABLE), any());
+    }
+
+    @Test
+    public void sharesCachedReadsWithTransactionsThatStartedEarlier() {
+        keyValueService.createTable(HOT_TABLE, getTableMetadataForCellReadCaching(CachePriority.HOT, false));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        CellReadCache cellReadCache = CellReadCache.create(keyValueService);
+        SnapshotTransaction earlierTransaction = getCellReadCachingTransaction(cellReadCache);
+        SnapshotTransaction laterTransaction = getCellReadCachingTransaction(cellReadCache);
+        laterTransaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL, OTHER_CELL));
+        Map<Cell, byte[]> earlierRead = earlierTransaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL, OTHER_CELL));
+
+        Assert.assertArrayEquals(PtBytes.toBytes("value"), earlierRead.get(TEST_CELL));
+        assertFalse(earlierRead.containsKey(OTHER_CELL));
+        verify(keyValueService, times(1)).get(eq(HOT_TABLE), any());
+    }
+
+    @Test
+    public void doesNotServeCachedReadsToTransactionsThatStartedLater() {
+        keyValueService.createTable(HOT_TABLE, getTableMetadataForCellReadCaching(CachePriority.HOT, false));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        CellReadCache cellReadCache = CellReadCache.create(keyValueService);
+        getCellReadCachingTransaction(cellReadCache).get(HOT_TABLE, ImmutableSet.of(TEST_CELL));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("changed")));
+
+        Assert.assertArrayEquals(PtBytes.toBytes("changed"), getCellReadCachingTransaction(cellReadCache)
+                .get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+        verify(keyValueService, times(2)).get(eq(HOT_TABLE), any());
+    }
+
+    @Test
+    public void doesNotServeCachedDeletionsToTransactionsThatStartedBeforeTheDelete() {
+        keyValueService.createTable(
+                NEGATIVE_LOOKUPS_TABLE, getTableMetadataForCellReadCaching(CachePriority.WARM, true));
+        writeCells(NEGATIVE_LOOKUPS_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        CellReadCache cellReadCache = CellReadCache.create(keyValueService);
+        SnapshotTransaction transactionBeforeDelete = getCellReadCachingTransaction(cellReadCache);
+        Transaction deleteTransaction = txManager.createNewTransaction();
+        deleteTransaction.delete(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(TEST_CELL));
+        deleteTransaction.commit();
+        SnapshotTransaction transactionAfterDelete = getCellReadCachingTransaction(cellReadCache);
+
+        assertTrue(transactionAfterDelete.get(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(TEST_CELL)).isEmpty());
+        Assert.assertArrayEquals(PtBytes.toBytes("value"), transactionBeforeDelete
+                .get(NEGATIVE_LOOKUPS_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+        verify(keyValueService, times(2)).get(eq(NEGATIVE_LOOKUPS_TABLE), any());
+    }
+
+    @Test
+    public void doesNotCacheReadsOfTablesWithoutCachingMetadata() {
+        writeCells(TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        SnapshotTransaction transaction = getCellReadCachingTransaction();
+        transaction.get(TABLE, ImmutableSet.of(TEST_CELL, OTHER_CELL));
+        transaction.get(TABLE, ImmutableSet.of(TEST_CELL, OTHER_CELL));
+
+        verify(keyValueService, times(2)).get(eq(TABLE), any());
+    }
+
+    @Test
+    public void localWritesTakePrecedenceOverCachedReads() {
+        keyValueService.createTable(HOT_TABLE, getTableMetadataForCellReadCaching(CachePriority.HOT, false));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        SnapshotTransaction transaction = getCellReadCachingTransaction();
+        transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL, OTHER_CELL));
+
+        transaction.put(HOT_TABLE, ImmutableMap.of(
+                TEST_CELL, PtBytes.toBytes("local"),
+                OTHER_CELL, PtBytes.toBytes("other")));
+        Map<Cell, byte[]> afterPut = transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL, OTHER_CELL));
+        Assert.assertArrayEquals(PtBytes.toBytes("local"), afterPut.get(TEST_CELL));
+        Assert.assertArrayEquals(PtBytes.toBytes("other"), afterPut.get(OTHER_CELL));
+        Assert.assertArrayEquals(PtBytes.toBytes("value"),
+                transaction.getIgnoringLocalWrites(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+
+        transaction.delete(HOT_TABLE, ImmutableSet.of(TEST_CELL));
+        assertTrue(transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).isEmpty());
+
+        verify(keyValueService, times(1)).get(eq(HOT_TABLE), any());
+    }
+
+    @Test
+    public void cachedValuesAreNotSharedWithCallers() {
+        keyValueService.createTable(HOT_TABLE, getTableMetadataForCellReadCaching(CachePriority.HOT, false));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        SnapshotTransaction transaction = getCellReadCachingTransaction();
+        transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL)[0] = 'x';
+        transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL)[1] = 'x';
+
+        Assert.assertArrayEquals(PtBytes.toBytes("value"),
+                transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+    }
+
+    @Test
+    public void serializableReadsAreVerifiedAgainstTheKeyValueServiceRatherThanTheCache() {
+        keyValueService.createTable(HOT_TABLE, getTableMetadataForCellReadCaching(CachePriority.HOT, false));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        LockImmutableTimestampResponse res =
+                timelockService.lockImmutableTimestamp(IdentifiedTimeLockRequest.create());
+        long transactionTs = timelockService.getFreshTimestamp();
+        SerializableTransaction transaction = new SerializableTransaction(
+                metricsManager,
+                keyValueService,
+                timelockService,
+                transactionService,
+                NoOpCleaner.INSTANCE,
+                () -> transactionTs,
+                TestConflictDetectionManagers.createWithStaticConflictDetection(
+                        ImmutableMap.of(HOT_TABLE, ConflictHandler.SERIALIZABLE)),
+                SweepStrategyManagers.createDefault(keyValueService),
+                res.getImmutableTimestamp(),
+                Optional.of(res.getLock()),
+                PreCommitConditions.NO_OP,
+                AtlasDbConstraintCheckingMode.NO_CONSTRAINT_CHECKING,
+                null,
+                TransactionReadSentinelBehavior.THROW_EXCEPTION,
+                false,
+                timestampCache,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                MultiTableSweepQueueWriter.NO_OP,
+                MoreExecutors.newDirectExecutorService(),
+                CommitProfileProcessor.createNonLogging(metricsManager),
+                true,
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.create(keyValueService));
+
+        transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL));
+        writeCells(HOT_TABLE, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("changed")));
+        Assert.assertArrayEquals(PtBytes.toBytes("value"),
+                transaction.get(HOT_TABLE, ImmutableSet.of(TEST_CELL)).get(TEST_CELL));
+        transaction.put(HOT_TABLE, ImmutableMap.of(OTHER_CELL, PtBytes.toBytes("other")));
+
+        assertThatExceptionOfType(TransactionSerializableConflictException.class).isThrownBy(transaction::commit);
+
+        timelockService.unlock(Collections.singleton(res.getLock()));
+    }
+
     private SnapshotTransaction getSnapshotTransactionWith(
             TimelockService timelockService,
             Supplier<Long> startTs,
@@ -1201,7 +1386,41 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
                 validateLocksOnReads,
-                () -> TRANSACTION_CONFIG);
+                () -> TRANSACTION_CONFIG,
+                CellReadCache.createWithNoCaching());
+    }
+
+    private SnapshotTransaction getCellReadCachingTransaction() {
+        return getCellReadCachingTransaction(CellReadCache.create(keyValueService));
+    }
+
+    private SnapshotTransaction getCellReadCachingTransaction(CellReadCache cellReadCache) {
+        long transactionTs = timestampService.getFreshTimestamp();
+        return new SnapshotTransaction(
+                metricsManager,
+                keyValueService,
+                new LegacyTimelockService(timestampService, lockService, lockClient),
+                transactionService,
+                NoOpCleaner.INSTANCE,
+                () -> transactionTs,
+                ConflictDetectionManagers.create(keyValueService),
+                SweepStrategyManagers.createDefault(keyValueService),
+                transactionTs,
+                Optional.empty(),
+                PreCommitConditions.NO_OP,
+                AtlasDbConstraintCheckingMode.NO_CONSTRAINT_CHECKING,
+                null,
+                TransactionReadSentinelBehavior.THROW_EXCEPTION,
+                false,
+                timestampCache,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                MultiTableSweepQueueWriter.NO_OP,
+                MoreExecutors.newDirectExecutorService(),
+                CommitProfileProcessor.createNonLogging(metricsManager),
+                true,
+                () -> TRANSACTION_CONFIG,
+                cellReadCache);
     }
 
     private void writeCells(TableReference table, ImmutableMap<Cell, byte[]> cellsToWrite) {
@@ -1229,6 +1448,19 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 false);
     }
 
+    private byte[] getTableMetadataForCellReadCaching(CachePriority cachePriority, boolean negativeLookups) {
+        return new TableMetadata(
+                new NameMetadataDescription(),
+                new ColumnMetadataDescription(),
+                ConflictHandler.RETRY_ON_WRITE_WRITE,
+                cachePriority,
+                false,
+                0,
+                negativeLookups,
+                SweepStrategy.CONSERVATIVE,
+                false).persistToBytes();
+    }
+
     private HeldLocksToken getExpiredHeldLocksToken() {
         ImmutableSortedMap.Builder<LockDescriptor, LockMode> builder = ImmutableSortedMap.naturalOrder();
         builder.put(
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the executors that blocking work, such as key value service reads and writes, runs on. Use
+ * {@link PTExecutors#newBlockingExecutor(String, int, boolean)} to create such an executor with the factory
+ * configured for this JVM.
+ */
+public interface BlockingExecutorFactory {
+    /**
+     * Creates an executor that runs at most maxConcurrency tasks at once, and queues any further tasks.
+     *
+     * @param name the prefix for the names of the executor's threads
+     * @param maxConcurrency the maximum number of tasks to run at once, or {@link Integer#MAX_VALUE} for no limit
+     * @param isDaemon whether platform threads should be daemon threads (virtual threads always are)
+     */
+    ExecutorService create(String name, int maxConcurrency, boolean isDaemon);
+
+    /**
+     * Runs tasks on a pool of platform threads, of which there are at most maxConcurrency. Idle threads are
+     * stopped after a minute. Call sites that need different pool settings can pass their own pool to
+     * {@link PTExecutors#newBlockingExecutor(String, int, boolean, java.util.function.Supplier)}, which is used in
+     * place of this one.
+     */
+    static BlockingExecutorFactory platformThreads() {
+        return PlatformThreadExecutorFactory.INSTANCE;
+    }
+
+    /**
+     * Runs each task on a new virtual thread, and limits how many run at once with a semaphore rather than a pool
+     * size, so that queued tasks hold no platform threads. The returned executors are
+     * {@link ConcurrencyLimitedExecutorService}s.
+     *
+     * @throws UnsupportedOperationException if this JVM does not support virtual threads (Java 21 and later do)
+     */
+    static BlockingExecutorFactory virtualThreads() {
+        if (!VirtualThreads.isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        return (name, maxConcurrency, isDaemon) ->
+                new ConcurrencyLimitedExecutorService(VirtualThreads.newThreadPerTaskExecutor(name), maxConcurrency);
+    }
+}
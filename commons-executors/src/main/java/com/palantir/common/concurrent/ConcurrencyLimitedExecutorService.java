@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Runs at most a fixed number of tasks at once on a delegate executor that starts a thread for every task, such as
+ * an executor of virtual threads. Tasks over the limit wait for a permit on their own thread, so that waiting tasks
+ * are cheap when their threads are.
+ */
+public final class ConcurrencyLimitedExecutorService extends AbstractForwardingExecutorService {
+    private final ExecutorService delegate;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final AtomicInteger numWaitingTasks = new AtomicInteger();
+    private final AtomicInteger numActiveTasks = new AtomicInteger();
+    private final AtomicLong numCompletedTasks = new AtomicLong();
+    private final AtomicBoolean isShutdownNow = new AtomicBoolean();
+
+    public ConcurrencyLimitedExecutorService(ExecutorService delegate, int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    protected ExecutorService delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(() -> runWithPermit(command));
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        // Set before the delegate interrupts anything, so that a waiting task handed the permit of an interrupted
+        // running task still sees that it should not run.
+        isShutdownNow.set(true);
+        return super.shutdownNow();
+    }
+
+    private void runWithPermit(Runnable command) {
+        numWaitingTasks.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(command);
+            return;
+        } finally {
+            numWaitingTasks.decrementAndGet();
+        }
+
+        if (isShutdownNow.get()) {
+            permits.release();
+            cancel(command);
+            return;
+        }
+
+        numActiveTasks.incrementAndGet();
+        try {
+            command.run();
+        } finally {
+            numActiveTasks.decrementAndGet();
+            numCompletedTasks.incrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Cancels a task that will not be run because the executor is being shut down, rather than leave its future
+     * incomplete.
+     */
+    private static void cancel(Runnable command) {
+        if (command instanceof Future<?>) {
+            ((Future<?>) command).cancel(false);
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * The number of tasks that have been submitted but are waiting for one of the running tasks to finish.
+     */
+    public int getNumWaitingTasks() {
+        return numWaitingTasks.get();
+    }
+
+    public int getNumActiveTasks() {
+        return numActiveTasks.get();
+    }
+
+    public long getNumCompletedTasks() {
+        return numCompletedTasks.get();
+    }
+}
@@ -36,6 +36,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +69,14 @@ public final class PTExecutors {
 
     private static final RejectedExecutionHandler defaultHandler = new AbortPolicy();
 
+    /**
+     * When this system property is true and the JVM supports virtual threads, {@link #newBlockingExecutor} runs tasks
+     * on virtual threads by default.
+     */
+    public static final String USE_VIRTUAL_THREADS_PROPERTY = "atlasdb.executors.useVirtualThreads";
+
+    private static volatile BlockingExecutorFactory blockingExecutorFactory = createDefaultBlockingExecutorFactory();
+
     /**
      * Creates a thread pool that creates new threads as needed, but will reuse previously
      * constructed threads when they are available. These pools will typically improve the
@@ -451,6 +460,73 @@ public final class PTExecutors {
         return ret;
     }
 
+    /**
+     * Creates an executor for blocking work, such as key value service reads and writes, that runs at most
+     * maxConcurrency tasks at once. The executor runs tasks on platform threads, or on virtual threads if the
+     * {@value #USE_VIRTUAL_THREADS_PROPERTY} system property is true and the JVM supports them, or as configured by
+     * {@link #setBlockingExecutorFactory(BlockingExecutorFactory)}.
+     *
+     * @param maxConcurrency the maximum number of tasks to run at once, or {@link Integer#MAX_VALUE} for no limit
+     */
+    public static ExecutorService newBlockingExecutor(String name, int maxConcurrency, boolean isDaemon) {
+        return blockingExecutorFactory.create(name, maxConcurrency, isDaemon);
+    }
+
+    /**
+     * Like {@link #newBlockingExecutor(String, int, boolean)}, but when tasks would run on platform threads, returns
+     * the pool created by platformThreadPool instead of a {@link BlockingExecutorFactory#platformThreads()} one. This
+     * lets call sites that tune their pool, such as its keep-alive time, keep those settings.
+     */
+    public static ExecutorService newBlockingExecutor(
+            String name,
+            int maxConcurrency,
+            boolean isDaemon,
+            Supplier<? extends ExecutorService> platformThreadPool) {
+        BlockingExecutorFactory factory = blockingExecutorFactory;
+        if (factory instanceof PlatformThreadExecutorFactory) {
+            return platformThreadPool.get();
+        }
+        return factory.create(name, maxConcurrency, isDaemon);
+    }
+
+    /**
+     * Sets the factory used by {@link #newBlockingExecutor(String, int, boolean)}. Executors that have already been
+     * created are not affected.
+     */
+    public static void setBlockingExecutorFactory(BlockingExecutorFactory factory) {
+        blockingExecutorFactory = Preconditions.checkNotNull(factory, "factory");
+    }
+
+    public static boolean supportsVirtualThreads() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Returns the number of tasks that have been submitted to the given executor but have not yet started, if the
+     * executor was created by this class, and 0 otherwise.
+     */
+    public static int getNumQueuedTasks(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getQueue().size();
+        }
+        if (executor instanceof ConcurrencyLimitedExecutorService) {
+            return ((ConcurrencyLimitedExecutorService) executor).getNumWaitingTasks();
+        }
+        return 0;
+    }
+
+    private static BlockingExecutorFactory createDefaultBlockingExecutorFactory() {
+        if (!Boolean.getBoolean(USE_VIRTUAL_THREADS_PROPERTY)) {
+            return BlockingExecutorFactory.platformThreads();
+        }
+        if (!VirtualThreads.isSupported()) {
+            log.warn(USE_VIRTUAL_THREADS_PROPERTY + " is set, but this JVM does not support virtual threads,"
+                    + " so platform threads will be used");
+            return BlockingExecutorFactory.platformThreads();
+        }
+        return BlockingExecutorFactory.virtualThreads();
+    }
+
     /**
      * Wraps the given {@code ExecutorService} so that {@link ExecutorInheritableThreadLocal}
      * variables are propagated through.
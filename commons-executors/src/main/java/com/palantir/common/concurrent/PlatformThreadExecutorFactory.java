@@ -0,0 +1,43 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The factory returned by {@link BlockingExecutorFactory#platformThreads()}. It is a singleton so that
+ * {@link PTExecutors} can tell when executors should run on platform threads.
+ */
+final class PlatformThreadExecutorFactory implements BlockingExecutorFactory {
+    static final PlatformThreadExecutorFactory INSTANCE = new PlatformThreadExecutorFactory();
+
+    private PlatformThreadExecutorFactory() {
+        // singleton
+    }
+
+    @Override
+    public ExecutorService create(String name, int maxConcurrency, boolean isDaemon) {
+        NamedThreadFactory threadFactory = new NamedThreadFactory(name, isDaemon);
+        if (maxConcurrency == Integer.MAX_VALUE) {
+            return PTExecutors.newCachedThreadPool(threadFactory);
+        }
+        ThreadPoolExecutor executor = PTExecutors.newFixedThreadPool(maxConcurrency, threadFactory);
+        executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+        return executor;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates virtual threads on JVMs that support them (Java 21 and later). AtlasDB is compiled for Java 8, so the
+ * virtual thread API is looked up reflectively.
+ */
+final class VirtualThreads {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method BUILDER_NAME = findMethod("java.lang.Thread$Builder", "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = findMethod("java.lang.Thread$Builder", "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+            findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    private static final boolean SUPPORTED = checkSupported();
+
+    private VirtualThreads() {
+        // Utility class
+    }
+
+    static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread named with the given prefix.
+     *
+     * @throws UnsupportedOperationException if this JVM does not support virtual threads
+     */
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        return (ExecutorService) invoke(NEW_THREAD_PER_TASK_EXECUTOR, null, newThreadFactory(prefix));
+    }
+
+    private static ThreadFactory newThreadFactory(String prefix) {
+        Object builder = invoke(OF_VIRTUAL, null);
+        builder = invoke(BUILDER_NAME, builder, prefix + "-", 0L);
+        return (ThreadFactory) invoke(BUILDER_FACTORY, builder);
+    }
+
+    private static boolean checkSupported() {
+        if (OF_VIRTUAL == null || BUILDER_NAME == null || BUILDER_FACTORY == null
+                || NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            return false;
+        }
+        try {
+            // Virtual threads are a preview feature on Java 19 and 20, where this throws unless previews are enabled.
+            newThreadFactory("virtual-thread-check");
+            return true;
+        } catch (RuntimeException e) {
+            log.info("Virtual threads are not available on this JVM", e);
+            return false;
+        }
+    }
+
+    private static Method findMethod(String className, String name, Class<?>... parameterTypes) {
+        try {
+            return findMethod(Class.forName(className), name, parameterTypes);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class ConcurrencyLimitedExecutorServiceTest {
+    private final ConcurrencyLimitedExecutorService executor =
+            new ConcurrencyLimitedExecutorService(Executors.newCachedThreadPool(), 2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void runsAtMostMaxConcurrencyTasksAtOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                release.await();
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+
+        waitUntil(() -> executor.getNumActiveTasks() == 2 && executor.getNumWaitingTasks() == 8);
+        assertEquals(8, PTExecutors.getNumQueuedTasks(executor));
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2, maxRunning.get());
+        waitUntil(() -> executor.getNumCompletedTasks() == 10);
+    }
+
+    @Test
+    public void cancelsWaitingTasksOnShutdownNow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> {
+                release.await();
+                return null;
+            });
+        }
+        waitUntil(() -> executor.getNumActiveTasks() == 2);
+        Future<?> waiting = executor.submit(() -> { });
+        waitUntil(() -> executor.getNumWaitingTasks() == 1);
+
+        executor.shutdownNow();
+
+        waitUntil(waiting::isDone);
+        assertTrue(waiting.isCancelled());
+    }
+
+    @Test
+    public void platformThreadFactoryCreatesThreadPools() {
+        ExecutorService platform = BlockingExecutorFactory.platformThreads().create("test", 4, true);
+        try {
+            assertTrue(platform instanceof ThreadPoolExecutor);
+            assertEquals(4, ((ThreadPoolExecutor) platform).getMaximumPoolSize());
+        } finally {
+            platform.shutdown();
+        }
+    }
+
+    @Test
+    public void virtualThreadFactoryRunsTasksOnNewThreads() throws Exception {
+        Assume.assumeTrue(PTExecutors.supportsVirtualThreads());
+        ExecutorService virtual = BlockingExecutorFactory.virtualThreads().create("test", 4, false);
+        try {
+            String threadName = virtual.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+            assertTrue(threadName.startsWith("test-"));
+        } finally {
+            virtual.shutdown();
+        }
+    }
+
+    private static void waitUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.isTrue()) {
+            assertTrue("Timed out waiting for condition", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isTrue();
+    }
+}
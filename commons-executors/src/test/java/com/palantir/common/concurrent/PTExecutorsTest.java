@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PTExecutorsTest {
+    private final ExecutorService callSitePool = Executors.newSingleThreadExecutor();
+    private final ExecutorService factoryExecutor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        PTExecutors.setBlockingExecutorFactory(BlockingExecutorFactory.platformThreads());
+        callSitePool.shutdownNow();
+        factoryExecutor.shutdownNow();
+    }
+
+    @Test
+    public void blockingExecutorUsesTheCallSitePoolOnPlatformThreads() {
+        PTExecutors.setBlockingExecutorFactory(BlockingExecutorFactory.platformThreads());
+
+        assertSame(callSitePool, PTExecutors.newBlockingExecutor("test", 4, true, () -> callSitePool));
+    }
+
+    @Test
+    public void blockingExecutorUsesTheConfiguredFactoryOtherwise() {
+        PTExecutors.setBlockingExecutorFactory((name, maxConcurrency, isDaemon) -> factoryExecutor);
+        AtomicBoolean createdCallSitePool = new AtomicBoolean();
+
+        ExecutorService executor = PTExecutors.newBlockingExecutor("test", 4, true, () -> {
+            createdCallSitePool.set(true);
+            return callSitePool;
+        });
+
+        assertSame(factoryExecutor, executor);
+        assertFalse(createdCallSitePool.get());
+    }
+}
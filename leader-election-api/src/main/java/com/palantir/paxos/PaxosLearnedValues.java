@@ -0,0 +1,78 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.palantir.common.annotation.Immutable;
+
+/**
+ * A batch of learned values, returned by {@link PaxosLearner#getLearnedValuesBatch(long, int)} to catch up a
+ * lagging learner.
+ */
+@Immutable
+public class PaxosLearnedValues implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final ImmutableList<PaxosValue> values;
+    final long truncationPoint;
+
+    public PaxosLearnedValues(@JsonProperty("values") List<PaxosValue> values,
+                              @JsonProperty("truncationPoint") long truncationPoint) {
+        this.values = ImmutableList.copyOf(values);
+        this.truncationPoint = truncationPoint;
+    }
+
+    /**
+     * The learned values, in increasing order of round.
+     */
+    public List<PaxosValue> getValues() {
+        return values;
+    }
+
+    /**
+     * The greatest round that was skipped because it has been superseded by the returned values. Every learned value
+     * for a round after this one, up to the greatest round the learner knows about, is included.
+     */
+    public long getTruncationPoint() {
+        return truncationPoint;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        PaxosLearnedValues that = (PaxosLearnedValues) other;
+        return truncationPoint == that.truncationPoint && values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * values.hashCode() + Long.hashCode(truncationPoint);
+    }
+
+    @Override
+    public String toString() {
+        return "PaxosLearnedValues{values=" + values + ", truncationPoint=" + truncationPoint + "}";
+    }
+}
@@ -20,17 +20,22 @@ import java.util.Collection;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
 import com.palantir.common.annotation.Inclusive;
 
 @Path("/learner")
 public interface PaxosLearner {
+    int DEFAULT_MAX_LEARNED_VALUES = 100;
+    String DEFAULT_MAX_LEARNED_VALUES_STRING =
+            DEFAULT_MAX_LEARNED_VALUES + ""; // can't use valueOf/toString because we need a compile time constant!
 
     /**
      * Learn given value for the seq-th round.
@@ -43,6 +48,16 @@ public interface PaxosLearner {
     @Consumes(MediaType.APPLICATION_JSON)
     void learn(@PathParam("seq") long seq, PaxosValue val);
 
+    /**
+     * Learn all of the given values, each for its own round, persisting them as a single batch.
+     *
+     * @param values values to learn
+     */
+    @POST
+    @Path("learn-batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    void learnAll(Collection<PaxosValue> values);
+
     /**
      * Returns learned value or null if non-exists.
      */
@@ -73,4 +88,25 @@ public interface PaxosLearner {
     @Produces(MediaType.APPLICATION_JSON)
     Collection<PaxosValue> getLearnedValuesSince(@PathParam("seq") @Inclusive long seq);
 
+    /**
+     * Returns the learned values for rounds since the seq-th round (inclusive), for catching up a lagging learner in
+     * a single request. If more than maxValues rounds are known since the seq-th round, only the latest maxValues
+     * rounds are returned, because a lagging learner only needs the most recent values; the skipped rounds are
+     * reported by the truncation point.
+     *
+     * If maxValues is unspecified (e.g. in a remote request), at most {@link #DEFAULT_MAX_LEARNED_VALUES} rounds are
+     * returned.
+     *
+     * @param seq lower round cutoff for returned values
+     * @param maxValues the greatest number of rounds to return, which must be positive
+     * @return the learned values for up to maxValues of the latest rounds since the seq-th round
+     */
+    @Nonnull
+    @GET
+    @Path("learned-values-batch/{seq:.+}")
+    @Produces(MediaType.APPLICATION_JSON)
+    PaxosLearnedValues getLearnedValuesBatch(
+            @PathParam("seq") @Inclusive long seq,
+            @QueryParam("maxValues") @DefaultValue(DEFAULT_MAX_LEARNED_VALUES_STRING) int maxValues);
+
 }
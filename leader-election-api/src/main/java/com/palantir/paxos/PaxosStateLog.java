@@ -16,6 +16,7 @@
 package com.palantir.paxos;
 
 import java.io.IOException;
+import java.util.SortedMap;
 
 import com.palantir.common.persist.Persistable;
 
@@ -33,6 +34,16 @@ public interface PaxosStateLog<V extends Persistable & Versionable> {
      */
     void writeRound(long seq, V round);
 
+    /**
+     * Persists the given rounds to disk. Implementations may write the rounds together, so that they are made
+     * durable at a lower cost than writing each round on its own.
+     *
+     * @param rounds the rounds to write, keyed by sequence number
+     */
+    default void writeBatch(SortedMap<Long, V> rounds) {
+        rounds.forEach(this::writeRound);
+    }
+
     /**
      * Retrieves the round corresponding to the given sequence from disk.
      *
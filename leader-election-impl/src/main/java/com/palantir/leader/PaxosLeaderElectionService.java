@@ -16,12 +16,15 @@
 package com.palantir.leader;
 
 import java.util.AbstractMap;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
@@ -30,6 +33,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -50,7 +54,9 @@ import com.google.common.net.HostAndPort;
 import com.palantir.common.base.Throwables;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.paxos.CoalescingPaxosLatestRoundVerifier;
+import com.palantir.paxos.LeasingPaxosLatestRoundVerifier;
 import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosLatestRoundVerifier;
 import com.palantir.paxos.PaxosLatestRoundVerifierImpl;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosProposer;
@@ -68,8 +74,14 @@ import com.palantir.paxos.PaxosValue;
 public class PaxosLeaderElectionService implements PingableLeader, LeaderElectionService {
     private static final Logger log = LoggerFactory.getLogger(PaxosLeaderElectionService.class);
 
+    /**
+     * The greatest number of rounds learned from each peer when catching up. Only the latest rounds are needed to
+     * find the current leader, so a node that is further behind than this skips the older rounds.
+     */
+    private static final int MAX_VALUES_PER_CATCH_UP = PaxosLearner.DEFAULT_MAX_LEARNED_VALUES;
+
     private final ReentrantLock lock;
-    private final CoalescingPaxosLatestRoundVerifier latestRoundVerifier;
+    private final PaxosLatestRoundVerifier latestRoundVerifier;
 
     final PaxosProposer proposer;
     final PaxosLearner knowledge;
@@ -87,6 +99,7 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
     final ConcurrentMap<String, PingableLeader> uuidToServiceCache = Maps.newConcurrentMap();
 
     private final PaxosLeaderElectionEventRecorder eventRecorder;
+    private final Predicate<RuntimeException> isUnsupportedEndpoint;
 
     /**
      * @deprecated Use PaxosLeaderElectionServiceBuilder instead.
@@ -104,7 +117,8 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
                                       Supplier<Boolean> onlyLogOnQuorumFailure) {
         this(proposer, knowledge, otherPotentialLeadersToHosts, acceptors, learners, executor,
                 updatePollingWaitInMs, randomWaitBeforeProposingLeadership, leaderPingResponseWaitMs,
-                PaxosLeaderElectionEventRecorder.NO_OP, onlyLogOnQuorumFailure);
+                PaxosLeaderElectionEventRecorder.NO_OP, onlyLogOnQuorumFailure, 0L,
+                PaxosLeaderElectionServiceBuilder.DEFAULT_UNSUPPORTED_ENDPOINT_PREDICATE);
     }
 
     PaxosLeaderElectionService(PaxosProposer proposer,
@@ -117,7 +131,9 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
             long randomWaitBeforeProposingLeadership,
             long leaderPingResponseWaitMs,
             PaxosLeaderElectionEventRecorder eventRecorder,
-            Supplier<Boolean> onlyLogOnQuorumFailure) {
+            Supplier<Boolean> onlyLogOnQuorumFailure,
+            long leaderLeaseMs,
+            Predicate<RuntimeException> isUnsupportedEndpoint) {
         this.proposer = proposer;
         this.knowledge = knowledge;
         // XXX This map uses something that may be proxied as a key! Be very careful if making a new map from this.
@@ -130,9 +146,20 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
         this.leaderPingResponseWaitMs = leaderPingResponseWaitMs;
         lock = new ReentrantLock();
         this.eventRecorder = eventRecorder;
-        this.latestRoundVerifier = new CoalescingPaxosLatestRoundVerifier(
+        this.isUnsupportedEndpoint = isUnsupportedEndpoint;
+        this.latestRoundVerifier = createLatestRoundVerifier(
                 new PaxosLatestRoundVerifierImpl(acceptors, proposer.getQuorumSize(), executor,
-                        onlyLogOnQuorumFailure));
+                        onlyLogOnQuorumFailure),
+                leaderLeaseMs);
+    }
+
+    private static PaxosLatestRoundVerifier createLatestRoundVerifier(
+            PaxosLatestRoundVerifier verifier,
+            long leaderLeaseMs) {
+        if (leaderLeaseMs > 0) {
+            return new LeasingPaxosLatestRoundVerifier(verifier, leaderLeaseMs);
+        }
+        return new CoalescingPaxosLatestRoundVerifier(verifier);
     }
 
     @Override
@@ -468,7 +495,8 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
     }
 
     /**
-     * Queries all other learners for unknown learned values.
+     * Queries all other learners for unknown learned values. Each learner is asked for a bounded batch of the
+     * latest values in a single request, and the values are learned locally in a single batched write.
      *
      * @returns true if new state was learned, otherwise false
      */
@@ -481,8 +509,7 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
                     @Override
                     @Nullable
                     public PaxosUpdate apply(@Nullable PaxosLearner learner) {
-                        return new PaxosUpdate(
-                                ImmutableList.copyOf(learner.getLearnedValuesSince(nextToLearnSeq)));
+                        return new PaxosUpdate(ImmutableList.copyOf(getLearnedValuesSince(learner, nextToLearnSeq)));
                     }
                 },
                 proposer.getQuorumSize(),
@@ -490,19 +517,35 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
                 PaxosQuorumChecker.DEFAULT_REMOTE_REQUESTS_TIMEOUT_IN_SECONDS);
 
         // learn the state accumulated from peers
-        boolean learned = false;
+        long latestRoundLearned = latestRoundLearnedLocally();
+        SortedMap<Long, PaxosValue> valuesToLearn = new TreeMap<>();
         for (PaxosUpdate update : updates) {
             ImmutableCollection<PaxosValue> values = update.getValues();
             for (PaxosValue value : values) {
-                PaxosValue currentLearnedValue = knowledge.getLearnedValue(value.getRound());
-                if (currentLearnedValue == null) {
-                    knowledge.learn(value.getRound(), value);
-                    learned = true;
+                if (value.getRound() > latestRoundLearned) {
+                    valuesToLearn.putIfAbsent(value.getRound(), value);
                 }
             }
         }
 
-        return learned;
+        if (valuesToLearn.isEmpty()) {
+            return false;
+        }
+        knowledge.learnAll(valuesToLearn.values());
+        return true;
+    }
+
+    private Collection<PaxosValue> getLearnedValuesSince(PaxosLearner learner, long seq) {
+        try {
+            return learner.getLearnedValuesBatch(seq, MAX_VALUES_PER_CATCH_UP).getValues();
+        } catch (RuntimeException e) {
+            if (!isUnsupportedEndpoint.test(e)) {
+                throw e;
+            }
+            // Learners on older versions do not support batches, so we fall back to asking for every value.
+            log.debug("A learner does not support batches of learned values, so asking for all values instead", e);
+            return learner.getLearnedValuesSince(seq);
+        }
     }
 
     @Value.Immutable
@@ -18,8 +18,12 @@ package com.palantir.leader;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import javax.ws.rs.NotFoundException;
+
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.net.HostAndPort;
 import com.palantir.paxos.PaxosAcceptor;
@@ -28,6 +32,9 @@ import com.palantir.paxos.PaxosProposer;
 
 @SuppressWarnings("HiddenField")
 public class PaxosLeaderElectionServiceBuilder {
+    static final Predicate<RuntimeException> DEFAULT_UNSUPPORTED_ENDPOINT_PREDICATE =
+            e -> Throwables.getCausalChain(e).stream().anyMatch(cause -> cause instanceof NotFoundException);
+
     private PaxosProposer proposer;
     private PaxosLearner knowledge;
     private Map<PingableLeader, HostAndPort> potentialLeadersToHosts;
@@ -39,6 +46,8 @@ public class PaxosLeaderElectionServiceBuilder {
     private long leaderPingResponseWaitMs;
     private PaxosLeaderElectionEventRecorder eventRecorder = PaxosLeaderElectionEventRecorder.NO_OP;
     private Supplier<Boolean> onlyLogOnQuorumFailure = () -> true;
+    private long leaderLeaseMs = 0L;
+    private Predicate<RuntimeException> isUnsupportedEndpoint = DEFAULT_UNSUPPORTED_ENDPOINT_PREDICATE;
 
     public PaxosLeaderElectionServiceBuilder proposer(PaxosProposer proposer) {
         this.proposer = proposer;
@@ -100,6 +109,26 @@ public class PaxosLeaderElectionServiceBuilder {
         return this;
     }
 
+    /**
+     * If positive, once a quorum confirms that this node is the leader, it is trusted to remain the leader for this
+     * long without checking with the acceptors again. Every acceptor must have been created with at least this lease
+     * duration; see {@link com.palantir.paxos.PaxosAcceptorImpl#newAcceptor(String, long)}.
+     */
+    public PaxosLeaderElectionServiceBuilder leaderLeaseMs(long leaderLeaseMs) {
+        this.leaderLeaseMs = leaderLeaseMs;
+        return this;
+    }
+
+    /**
+     * Decides whether an exception from a remote learner means that it does not support an endpoint, for example
+     * because it returned a 404, in which case an older endpoint is used instead. By default, this looks for a
+     * {@link NotFoundException}.
+     */
+    public PaxosLeaderElectionServiceBuilder isUnsupportedEndpoint(Predicate<RuntimeException> isUnsupportedEndpoint) {
+        this.isUnsupportedEndpoint = isUnsupportedEndpoint;
+        return this;
+    }
+
     public PaxosLeaderElectionService build() {
         return new PaxosLeaderElectionService(
                 proposer,
@@ -112,6 +141,8 @@ public class PaxosLeaderElectionServiceBuilder {
                 randomWaitBeforeProposingLeadershipMs,
                 leaderPingResponseWaitMs,
                 eventRecorder,
-                onlyLogOnQuorumFailure);
+                onlyLogOnQuorumFailure,
+                leaderLeaseMs,
+                isUnsupportedEndpoint);
     }
 }
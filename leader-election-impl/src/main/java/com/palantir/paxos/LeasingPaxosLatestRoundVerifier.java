@@ -0,0 +1,95 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * A verifier that, once a quorum has agreed that a round is the latest, treats that round as the latest for a fixed
+ * lease period without asking the acceptors again. Verifications that are needed are coalesced as in
+ * {@link CoalescingPaxosLatestRoundVerifier}.
+ *
+ * The lease is measured from just before the verification requests are sent. This is only safe when the acceptors
+ * promise, on answering {@link PaxosAcceptor#getLatestSequencePreparedOrAccepted()}, not to prepare any later round
+ * for at least the lease period; see {@link PaxosAcceptorImpl#newAcceptor(String, long)}.
+ */
+public class LeasingPaxosLatestRoundVerifier implements PaxosLatestRoundVerifier {
+    private final long leaseDurationNanos;
+    private final LongSupplier clock;
+    private final PaxosLatestRoundVerifier coalescingVerifier;
+    private final AtomicReference<Lease> lease = new AtomicReference<>(Lease.NONE);
+
+    public LeasingPaxosLatestRoundVerifier(PaxosLatestRoundVerifier delegate, long leaseDurationMs) {
+        this(delegate, leaseDurationMs, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    LeasingPaxosLatestRoundVerifier(PaxosLatestRoundVerifier delegate, long leaseDurationMs, LongSupplier clock) {
+        Preconditions.checkArgument(leaseDurationMs > 0, "Lease duration must be positive");
+        this.leaseDurationNanos = TimeUnit.MILLISECONDS.toNanos(leaseDurationMs);
+        this.clock = clock;
+        this.coalescingVerifier = new CoalescingPaxosLatestRoundVerifier(
+                round -> verifyAndExtendLease(delegate, round));
+    }
+
+    @Override
+    public PaxosQuorumStatus isLatestRound(long round) {
+        if (lease.get().isValidFor(round, clock.getAsLong())) {
+            return PaxosQuorumStatus.QUORUM_AGREED;
+        }
+        return coalescingVerifier.isLatestRound(round);
+    }
+
+    private PaxosQuorumStatus verifyAndExtendLease(PaxosLatestRoundVerifier delegate, long round) {
+        long verificationStartNanos = clock.getAsLong();
+        PaxosQuorumStatus status = delegate.isLatestRound(round);
+        if (status == PaxosQuorumStatus.QUORUM_AGREED) {
+            Lease newLease = new Lease(round, verificationStartNanos + leaseDurationNanos);
+            lease.accumulateAndGet(newLease, Lease::later);
+        } else {
+            lease.set(Lease.NONE);
+        }
+        return status;
+    }
+
+    private static final class Lease {
+        private static final Lease NONE = new Lease(PaxosAcceptor.NO_LOG_ENTRY, Long.MIN_VALUE);
+
+        private final long round;
+        private final long expiryNanos;
+
+        private Lease(long round, long expiryNanos) {
+            this.round = round;
+            this.expiryNanos = expiryNanos;
+        }
+
+        boolean isValidFor(long requestedRound, long nowNanos) {
+            return this != NONE && round == requestedRound && nowNanos - expiryNanos < 0;
+        }
+
+        Lease later(Lease other) {
+            if (round != other.round) {
+                return other;
+            }
+            return expiryNanos - other.expiryNanos >= 0 ? this : other;
+        }
+    }
+}
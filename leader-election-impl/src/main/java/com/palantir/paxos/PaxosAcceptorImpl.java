@@ -17,37 +17,84 @@ package com.palantir.paxos;
 
 import java.io.IOException;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.palantir.logsafe.SafeArg;
 
 public final class PaxosAcceptorImpl implements PaxosAcceptor {
     private static final Logger logger = LoggerFactory.getLogger(PaxosAcceptorImpl.class);
+    private static final long LEASE_PROMISE_DRIFT_ALLOWANCE_PERCENT = 110;
 
     public static PaxosAcceptor newAcceptor(String logDir) {
+        return newAcceptor(logDir, 0L);
+    }
+
+    /**
+     * Creates an acceptor that supports leader leases of the given duration (zero disables them). Whenever the
+     * acceptor reports its latest sequence, it promises not to prepare any later sequence for the lease duration plus
+     * an allowance for clock drift. The same promise is made on startup, because promises are not persisted.
+     */
+    public static PaxosAcceptor newAcceptor(String logDir, long leaderLeaseMs) {
+        return newAcceptor(logDir, leaderLeaseMs, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    static PaxosAcceptor newAcceptor(String logDir, long leaderLeaseMs, LongSupplier clock) {
+        Preconditions.checkArgument(leaderLeaseMs >= 0, "Leader lease duration cannot be negative");
         PaxosStateLog<PaxosAcceptorState> log = new PaxosStateLogImpl<PaxosAcceptorState>(logDir);
         return new PaxosAcceptorImpl(
                 new ConcurrentSkipListMap<Long, PaxosAcceptorState>(),
                 log,
-                log.getGreatestLogEntry());
+                log.getGreatestLogEntry(),
+                TimeUnit.MILLISECONDS.toNanos(leaderLeaseMs) * LEASE_PROMISE_DRIFT_ALLOWANCE_PERCENT / 100,
+                clock);
     }
 
     final ConcurrentSkipListMap<Long, PaxosAcceptorState> state;
     final PaxosStateLog<PaxosAcceptorState> log;
     final long greatestInLogAtStartup;
 
+    private final long leasePromiseNanos;
+    private final LongSupplier clock;
+    private LeasePromise leasePromise;
+
     private PaxosAcceptorImpl(ConcurrentSkipListMap<Long, PaxosAcceptorState> state,
                               PaxosStateLog<PaxosAcceptorState> log,
-                              long greatestInLogAtStartup) {
+                              long greatestInLogAtStartup,
+                              long leasePromiseNanos,
+                              LongSupplier clock) {
         this.state = state;
         this.log = log;
         this.greatestInLogAtStartup = greatestInLogAtStartup;
+        this.leasePromiseNanos = leasePromiseNanos;
+        this.clock = clock;
+        this.leasePromise = new LeasePromise(greatestInLogAtStartup, clock.getAsLong() + leasePromiseNanos);
     }
 
     @Override
     public PaxosPromise prepare(long seq, PaxosProposalId pid) {
+        if (leasePromiseNanos == 0) {
+            return prepareIgnoringLeases(seq, pid);
+        }
+        // Synchronized with getLatestSequencePreparedOrAccepted, so that a sequence cannot be prepared between
+        // reporting the latest sequence and promising not to prepare later ones.
+        synchronized (this) {
+            if (isWithinLeasePromise(seq)) {
+                logger.debug("Rejecting prepare for sequence {} as it is within a leader lease",
+                        SafeArg.of("sequence", seq));
+                return PaxosPromise.reject(pid);
+            }
+            return prepareIgnoringLeases(seq, pid);
+        }
+    }
+
+    private PaxosPromise prepareIgnoringLeases(long seq, PaxosProposalId pid) {
         try {
             checkLogIfNeeded(seq);
         } catch (Exception e) {
@@ -115,6 +162,17 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
 
     @Override
     public long getLatestSequencePreparedOrAccepted() {
+        if (leasePromiseNanos == 0) {
+            return latestSequence();
+        }
+        synchronized (this) {
+            long latestSequence = latestSequence();
+            leasePromise = new LeasePromise(latestSequence, clock.getAsLong() + leasePromiseNanos);
+            return latestSequence;
+        }
+    }
+
+    private long latestSequence() {
         if (state.isEmpty()) {
             return greatestInLogAtStartup;
         } else {
@@ -122,6 +180,11 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
         }
     }
 
+    private boolean isWithinLeasePromise(long seq) {
+        LeasePromise promise = leasePromise;
+        return seq > promise.latestSequence && clock.getAsLong() - promise.expiryNanos < 0;
+    }
+
     private void checkLogIfNeeded(long seq) throws TruncatedStateLogException, IOException {
         if (state.containsKey(seq)) {
             return;
@@ -140,4 +203,13 @@ public final class PaxosAcceptorImpl implements PaxosAcceptor {
         }
     }
 
+    private static final class LeasePromise {
+        private final long latestSequence;
+        private final long expiryNanos;
+
+        private LeasePromise(long latestSequence, long expiryNanos) {
+            this.latestSequence = latestSequence;
+            this.expiryNanos = expiryNanos;
+        }
+    }
 }
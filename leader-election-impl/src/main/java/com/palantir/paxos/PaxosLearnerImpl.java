@@ -18,12 +18,17 @@ package com.palantir.paxos;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
+import javax.ws.rs.BadRequestException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
 import com.palantir.leader.PaxosKnowledgeEventRecorder;
 import com.palantir.logsafe.SafeArg;
 
@@ -68,6 +73,17 @@ public final class PaxosLearnerImpl implements PaxosLearner {
         eventRecorder.recordRound(val);
     }
 
+    @Override
+    public void learnAll(Collection<PaxosValue> values) {
+        SortedMap<Long, PaxosValue> rounds = new TreeMap<>();
+        for (PaxosValue value : values) {
+            rounds.put(value.getRound(), value);
+        }
+        state.putAll(rounds);
+        log.writeBatch(rounds);
+        rounds.values().forEach(eventRecorder::recordRound);
+    }
+
     @Override
     public PaxosValue getLearnedValue(long seq) {
         try {
@@ -105,6 +121,28 @@ public final class PaxosLearnerImpl implements PaxosLearner {
         return values;
     }
 
+    @Override
+    public PaxosLearnedValues getLearnedValuesBatch(long seq, int maxValues) {
+        if (maxValues <= 0) {
+            throw new BadRequestException("maxValues must be positive, but was " + maxValues);
+        }
+        PaxosValue greatestLearnedValue = getGreatestLearnedValue();
+        if (greatestLearnedValue == null || greatestLearnedValue.getRound() < seq) {
+            return new PaxosLearnedValues(ImmutableList.of(), seq - 1);
+        }
+
+        long greatestSeq = greatestLearnedValue.getRound();
+        long firstSeq = Math.max(seq, greatestSeq - maxValues + 1);
+        List<PaxosValue> values = new ArrayList<>();
+        for (long i = firstSeq; i <= greatestSeq; i++) {
+            PaxosValue value = getLearnedValue(i);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return new PaxosLearnedValues(values, firstSeq - 1);
+    }
+
     @Override
     public PaxosValue getGreatestLearnedValue() {
         if (!state.isEmpty()) {
@@ -27,6 +27,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.SortedMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
@@ -36,6 +37,8 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.protobuf.ByteString;
@@ -54,6 +57,7 @@ public class PaxosStateLogImpl<V extends Persistable & Versionable> implements P
     private final Map<Long, Long> seqToVersionMap = Maps.newHashMap();
 
     private static final String TMP_FILE_SUFFIX = ".tmp";
+    private static final int MAX_FILES_PER_BATCH = 128;
     private static final Logger log = LoggerFactory.getLogger(PaxosStateLogImpl.class);
 
     private static Predicate<File> nameIsALongPredicate() {
@@ -99,53 +103,75 @@ public class PaxosStateLogImpl<V extends Persistable & Versionable> implements P
 
     @Override
     public void writeRound(long seq, V round) {
+        writeBatch(ImmutableSortedMap.of(seq, round));
+    }
+
+    @Override
+    public void writeBatch(SortedMap<Long, V> rounds) {
         lock.lock();
         try {
             // reject old state
-            Long latestVersion = seqToVersionMap.get(seq);
-            if (latestVersion != null && round.getVersion() < latestVersion) {
-                return;
-            }
+            Map<Long, V> toWrite = Maps.filterEntries(rounds, entry -> !isStale(entry.getKey(), entry.getValue()));
 
             // do write
-            writeRoundInternal(seq, round);
+            for (List<Map.Entry<Long, V>> batch : Iterables.partition(toWrite.entrySet(), MAX_FILES_PER_BATCH)) {
+                writeRoundsInternal(batch);
+            }
         } finally {
             lock.unlock();
         }
     }
 
-    private void writeRoundInternal(long seq, V round) {
-        String name = getFilenameFromSeq(seq);
-        File tmpFile = new File(path, name + TMP_FILE_SUFFIX);
-
-        // compute checksum hash
-        byte[] bytes = round.persistToBytes();
-        byte[] hash = Sha256Hash.computeHash(bytes).getBytes();
-        PaxosPersistence.PaxosHeader header = PaxosPersistence.PaxosHeader.newBuilder().setChecksum(
-                ByteString.copyFrom(hash)).build();
+    private boolean isStale(long seq, V round) {
+        Long latestVersion = seqToVersionMap.get(seq);
+        return latestVersion != null && round.getVersion() < latestVersion;
+    }
 
-        FileOutputStream fileOut = null;
+    private void writeRoundsInternal(List<Map.Entry<Long, V>> rounds) {
+        List<FileOutputStream> tmpFiles = Lists.newArrayListWithCapacity(rounds.size());
         try {
-            fileOut = new FileOutputStream(tmpFile);
-            header.writeDelimitedTo(fileOut);
-            CodedOutputStream out = CodedOutputStream.newInstance(fileOut);
-            out.writeBytesNoTag(ByteString.copyFrom(bytes));
-            out.flush();
-            fileOut.getFD().sync();
-            fileOut.close();
+            for (Map.Entry<Long, V> round : rounds) {
+                FileOutputStream fileOut = new FileOutputStream(getTmpFile(round.getKey()));
+                tmpFiles.add(fileOut);
+                writeRoundTo(fileOut, round.getValue());
+            }
+            // Only sync once every round has been written, so that the file system can flush them together.
+            for (FileOutputStream fileOut : tmpFiles) {
+                fileOut.getFD().sync();
+                fileOut.close();
+            }
         } catch (IOException e) {
             log.error("problem writing paxos state", e);
             throw Throwables.throwUncheckedException(e);
         } finally {
-            IOUtils.closeQuietly(fileOut);
+            tmpFiles.forEach(IOUtils::closeQuietly);
+        }
+
+        for (Map.Entry<Long, V> round : rounds) {
+            // overwrite file with tmp
+            File file = new File(path, getFilenameFromSeq(round.getKey()));
+            getTmpFile(round.getKey()).renameTo(file);
+
+            // update version
+            seqToVersionMap.put(round.getKey(), round.getValue().getVersion());
         }
+    }
+
+    private File getTmpFile(long seq) {
+        return new File(path, getFilenameFromSeq(seq) + TMP_FILE_SUFFIX);
+    }
 
-        // overwrite file with tmp
-        File file = new File(path, name);
-        tmpFile.renameTo(file);
+    private static void writeRoundTo(FileOutputStream fileOut, Persistable round) throws IOException {
+        // compute checksum hash
+        byte[] bytes = round.persistToBytes();
+        byte[] hash = Sha256Hash.computeHash(bytes).getBytes();
+        PaxosPersistence.PaxosHeader header = PaxosPersistence.PaxosHeader.newBuilder().setChecksum(
+                ByteString.copyFrom(hash)).build();
 
-        // update version
-        seqToVersionMap.put(seq, round.getVersion());
+        header.writeDelimitedTo(fileOut);
+        CodedOutputStream out = CodedOutputStream.newInstance(fileOut);
+        out.writeBytesNoTag(ByteString.copyFrom(bytes));
+        out.flush();
     }
 
     @Override
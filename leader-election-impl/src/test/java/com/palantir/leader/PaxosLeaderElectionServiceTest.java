@@ -16,19 +16,50 @@
 package com.palantir.leader;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import javax.ws.rs.NotFoundException;
+
+import org.junit.After;
 import org.junit.Test;
+import org.mockito.ArgumentMatcher;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HostAndPort;
+import com.palantir.paxos.PaxosLearnedValues;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosProposer;
+import com.palantir.paxos.PaxosValue;
 
 public class PaxosLeaderElectionServiceTest {
+    private static final PaxosValue VALUE_5 = value(5);
+    private static final PaxosValue VALUE_7 = value(7);
+    private static final PaxosValue VALUE_8 = value(8);
+    private static final PaxosValue VALUE_9 = value(9);
+
+    private final PaxosLearner knowledge = mock(PaxosLearner.class);
+    private final PaxosLearner peer1 = mock(PaxosLearner.class);
+    private final PaxosLearner peer2 = mock(PaxosLearner.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
     @Test
     public void weAreOneOfThePotentialLeaders() throws Exception {
         PingableLeader other = mock(PingableLeader.class);
@@ -49,4 +80,84 @@ public class PaxosLeaderElectionServiceTest {
         assertThat(service.getPotentialLeaders()).containsExactlyInAnyOrder(other, service);
     }
 
+    @Test
+    public void catchesUpFromABoundedBatchOfEachPeer() {
+        when(knowledge.getGreatestLearnedValue()).thenReturn(VALUE_5);
+        when(peer1.getLearnedValuesBatch(6, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenReturn(new PaxosLearnedValues(ImmutableList.of(VALUE_7, VALUE_8), 5));
+        when(peer2.getLearnedValuesBatch(6, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenReturn(new PaxosLearnedValues(ImmutableList.of(VALUE_8, VALUE_9), 7));
+
+        assertThat(createServiceWithPeers().updateLearnedStateFromPeers(Optional.of(VALUE_5))).isTrue();
+
+        verify(knowledge).learnAll(argThat(valuesInOrder(VALUE_7, VALUE_8, VALUE_9)));
+        verify(peer1, never()).getLearnedValuesSince(anyLong());
+        verify(peer2, never()).getLearnedValuesSince(anyLong());
+    }
+
+    @Test
+    public void learnsNothingIfPeersKnowNoLaterRounds() {
+        when(knowledge.getGreatestLearnedValue()).thenReturn(VALUE_9);
+        when(peer1.getLearnedValuesBatch(10, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenReturn(new PaxosLearnedValues(ImmutableList.of(), 9));
+        when(peer2.getLearnedValuesBatch(10, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenReturn(new PaxosLearnedValues(ImmutableList.of(), 9));
+
+        assertThat(createServiceWithPeers().updateLearnedStateFromPeers(Optional.of(VALUE_9))).isFalse();
+
+        verify(knowledge, never()).learnAll(any());
+    }
+
+    @Test
+    public void fallsBackToAllLearnedValuesIfAPeerDoesNotSupportBatches() {
+        when(knowledge.getGreatestLearnedValue()).thenReturn(VALUE_5);
+        when(peer1.getLearnedValuesBatch(6, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenThrow(new NotFoundException());
+        when(peer1.getLearnedValuesSince(6)).thenReturn(ImmutableList.of(VALUE_7));
+        when(peer2.getLearnedValuesBatch(6, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenReturn(new PaxosLearnedValues(ImmutableList.of(VALUE_8), 7));
+
+        assertThat(createServiceWithPeers().updateLearnedStateFromPeers(Optional.of(VALUE_5))).isTrue();
+
+        verify(knowledge).learnAll(argThat(valuesInOrder(VALUE_7, VALUE_8)));
+    }
+
+    @Test
+    public void doesNotFallBackToAllLearnedValuesOnOtherFailures() {
+        when(knowledge.getGreatestLearnedValue()).thenReturn(VALUE_5);
+        when(peer1.getLearnedValuesBatch(6, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenThrow(new IllegalStateException("the peer is overloaded"));
+        when(peer2.getLearnedValuesBatch(6, PaxosLearner.DEFAULT_MAX_LEARNED_VALUES))
+                .thenReturn(new PaxosLearnedValues(ImmutableList.of(VALUE_8), 7));
+
+        createServiceWithPeers().updateLearnedStateFromPeers(Optional.of(VALUE_5));
+
+        verify(peer1, never()).getLearnedValuesSince(anyLong());
+    }
+
+    private PaxosLeaderElectionService createServiceWithPeers() {
+        PaxosProposer proposer = mock(PaxosProposer.class);
+        when(proposer.getQuorumSize()).thenReturn(2);
+        return new PaxosLeaderElectionServiceBuilder()
+                .proposer(proposer)
+                .knowledge(knowledge)
+                .potentialLeadersToHosts(ImmutableMap.of())
+                .acceptors(ImmutableList.of())
+                .learners(ImmutableList.of(peer1, peer2))
+                .executor(executor)
+                .pingRateMs(0L)
+                .randomWaitBeforeProposingLeadershipMs(0L)
+                .leaderPingResponseWaitMs(0L)
+                .build();
+    }
+
+    private static ArgumentMatcher<Collection<PaxosValue>> valuesInOrder(PaxosValue... values) {
+        List<PaxosValue> expected = ImmutableList.copyOf(values);
+        return actual -> ImmutableList.copyOf(actual).equals(expected);
+    }
+
+    private static PaxosValue value(long round) {
+        return new PaxosValue("leader", round, null);
+    }
+
 }
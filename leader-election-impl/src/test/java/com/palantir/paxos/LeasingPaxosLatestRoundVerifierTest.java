@@ -0,0 +1,98 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class LeasingPaxosLatestRoundVerifierTest {
+    private static final long ROUND_ONE = 1L;
+    private static final long ROUND_TWO = 2L;
+    private static final long LEASE_MS = 100L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PaxosLatestRoundVerifier delegate = mock(PaxosLatestRoundVerifier.class);
+    private final LeasingPaxosLatestRoundVerifier verifier =
+            new LeasingPaxosLatestRoundVerifier(delegate, LEASE_MS, clock::get);
+
+    @Test
+    public void doesNotAskQuorumAgainWithinLease() {
+        when(delegate.isLatestRound(ROUND_ONE)).thenReturn(PaxosQuorumStatus.QUORUM_AGREED);
+
+        assertThat(verifier.isLatestRound(ROUND_ONE)).isEqualTo(PaxosQuorumStatus.QUORUM_AGREED);
+        advanceMillis(LEASE_MS - 1);
+        assertThat(verifier.isLatestRound(ROUND_ONE)).isEqualTo(PaxosQuorumStatus.QUORUM_AGREED);
+
+        verify(delegate, times(1)).isLatestRound(ROUND_ONE);
+    }
+
+    @Test
+    public void asksQuorumAgainOnceLeaseExpires() {
+        when(delegate.isLatestRound(ROUND_ONE)).thenReturn(PaxosQuorumStatus.QUORUM_AGREED);
+
+        verifier.isLatestRound(ROUND_ONE);
+        advanceMillis(LEASE_MS);
+        verifier.isLatestRound(ROUND_ONE);
+
+        verify(delegate, times(2)).isLatestRound(ROUND_ONE);
+    }
+
+    @Test
+    public void leaseDoesNotApplyToOtherRounds() {
+        when(delegate.isLatestRound(ROUND_ONE)).thenReturn(PaxosQuorumStatus.QUORUM_AGREED);
+        when(delegate.isLatestRound(ROUND_TWO)).thenReturn(PaxosQuorumStatus.SOME_DISAGREED);
+
+        verifier.isLatestRound(ROUND_ONE);
+
+        assertThat(verifier.isLatestRound(ROUND_TWO)).isEqualTo(PaxosQuorumStatus.SOME_DISAGREED);
+    }
+
+    @Test
+    public void doesNotGrantLeaseWithoutQuorum() {
+        when(delegate.isLatestRound(ROUND_ONE)).thenReturn(PaxosQuorumStatus.NO_QUORUM);
+
+        assertThat(verifier.isLatestRound(ROUND_ONE)).isEqualTo(PaxosQuorumStatus.NO_QUORUM);
+        assertThat(verifier.isLatestRound(ROUND_ONE)).isEqualTo(PaxosQuorumStatus.NO_QUORUM);
+
+        verify(delegate, times(2)).isLatestRound(ROUND_ONE);
+    }
+
+    @Test
+    public void leaseStartsWhenVerificationStarts() {
+        when(delegate.isLatestRound(ROUND_ONE)).thenAnswer(invocation -> {
+            advanceMillis(LEASE_MS / 2);
+            return PaxosQuorumStatus.QUORUM_AGREED;
+        });
+
+        verifier.isLatestRound(ROUND_ONE);
+        advanceMillis(LEASE_MS / 2);
+        verifier.isLatestRound(ROUND_ONE);
+
+        verify(delegate, times(2)).isLatestRound(ROUND_ONE);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
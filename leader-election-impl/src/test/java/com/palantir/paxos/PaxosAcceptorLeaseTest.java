@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PaxosAcceptorLeaseTest {
+    private static final long LEASE_MS = 100L;
+    private static final PaxosProposalId PROPOSAL_ID = new PaxosProposalId(1L, "proposer");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong clock = new AtomicLong();
+    private PaxosAcceptor acceptor;
+
+    @Before
+    public void setUp() {
+        acceptor = PaxosAcceptorImpl.newAcceptor(folder.getRoot().getPath(), LEASE_MS, clock::get);
+    }
+
+    @Test
+    public void rejectsLaterSequencesOnStartupUntilLeaseExpires() {
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isFalse();
+
+        advanceMillis(2 * LEASE_MS);
+
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void rejectsLaterSequencesAfterReportingLatestSequence() {
+        advanceMillis(2 * LEASE_MS);
+        acceptor.prepare(0L, PROPOSAL_ID);
+
+        assertThat(acceptor.getLatestSequencePreparedOrAccepted()).isEqualTo(0L);
+        advanceMillis(LEASE_MS);
+
+        assertThat(acceptor.prepare(1L, PROPOSAL_ID).isSuccessful()).isFalse();
+        assertThat(acceptor.prepare(0L, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void acceptsLaterSequencesOnceLeasePromiseExpires() {
+        advanceMillis(2 * LEASE_MS);
+        acceptor.getLatestSequencePreparedOrAccepted();
+
+        advanceMillis(2 * LEASE_MS);
+
+        assertThat(acceptor.prepare(1L, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    @Test
+    public void acceptorsWithoutLeasesNeverReject() {
+        PaxosAcceptor acceptorWithoutLeases = PaxosAcceptorImpl.newAcceptor(folder.getRoot().getPath() + "/other");
+        acceptorWithoutLeases.getLatestSequencePreparedOrAccepted();
+
+        assertThat(acceptorWithoutLeases.prepare(1L, PROPOSAL_ID).isSuccessful()).isTrue();
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+public class PaxosLearnerImplTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String LEADER_ID = "foo";
+
+    private String logDir;
+    private PaxosLearner learner;
+
+    @Before
+    public void setUp() throws IOException {
+        logDir = temporaryFolder.newFolder().getPath();
+        learner = PaxosLearnerImpl.newLearner(logDir);
+    }
+
+    @Test
+    public void batchIsEmptyIfNothingLearned() {
+        PaxosLearnedValues batch = learner.getLearnedValuesBatch(0L, 10);
+
+        assertThat(batch.getValues()).isEmpty();
+        assertThat(batch.getTruncationPoint()).isEqualTo(-1L);
+    }
+
+    @Test
+    public void batchContainsAllValuesSinceSequenceIfFewerThanMax() {
+        List<PaxosValue> values = valuesForRounds(0L, 5L);
+        values.forEach(value -> learner.learn(value.getRound(), value));
+
+        PaxosLearnedValues batch = learner.getLearnedValuesBatch(2L, 10);
+
+        assertThat(batch.getValues()).containsExactlyElementsOf(values.subList(2, 5));
+        assertThat(batch.getTruncationPoint()).isEqualTo(1L);
+    }
+
+    @Test
+    public void batchContainsOnlyLatestValuesIfMoreThanMax() {
+        List<PaxosValue> values = valuesForRounds(0L, 10L);
+        values.forEach(value -> learner.learn(value.getRound(), value));
+
+        PaxosLearnedValues batch = learner.getLearnedValuesBatch(0L, 3);
+
+        assertThat(batch.getValues()).containsExactlyElementsOf(values.subList(7, 10));
+        assertThat(batch.getTruncationPoint()).isEqualTo(6L);
+    }
+
+    @Test
+    public void learnAllLearnsEveryValue() {
+        List<PaxosValue> values = valuesForRounds(3L, 8L);
+        learner.learnAll(ImmutableList.copyOf(values).reverse());
+
+        assertThat(learner.getGreatestLearnedValue()).isEqualTo(values.get(4));
+        values.forEach(value -> assertThat(learner.getLearnedValue(value.getRound())).isEqualTo(value));
+    }
+
+    @Test
+    public void learnAllPersistsEveryValue() {
+        List<PaxosValue> values = valuesForRounds(3L, 8L);
+        learner.learnAll(values);
+
+        PaxosLearner restartedLearner = PaxosLearnerImpl.newLearner(logDir);
+        assertThat(restartedLearner.getGreatestLearnedValue()).isEqualTo(values.get(4));
+        values.forEach(value -> assertThat(restartedLearner.getLearnedValue(value.getRound())).isEqualTo(value));
+    }
+
+    private static List<PaxosValue> valuesForRounds(long startInclusive, long endExclusive) {
+        return LongStream.range(startInclusive, endExclusive)
+                .mapToObj(round -> new PaxosValue(LEADER_ID, round, new byte[] {(byte) round}))
+                .collect(Collectors.toList());
+    }
+}
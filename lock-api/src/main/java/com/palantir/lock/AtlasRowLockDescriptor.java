@@ -15,6 +15,7 @@
  */
 package com.palantir.lock;
 
+import java.util.Arrays;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import com.google.common.base.Preconditions;
@@ -42,4 +43,14 @@ public final class AtlasRowLockDescriptor {
         System.arraycopy(rowName, 0, bytes, tableBytes.length + 1, rowName.length);
         return new LockDescriptor(bytes);
     }
+
+    /**
+     * Returns a {@code LockDescriptor} that is a prefix of the row and cell lock descriptors of the given table, and
+     * of no other table.
+     */
+    public static LockDescriptor tablePrefix(String tableName) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(tableName));
+        byte[] tableBytes = tableName.getBytes();
+        return new LockDescriptor(Arrays.copyOf(tableBytes, tableBytes.length + 1));
+    }
 }
@@ -76,6 +76,21 @@ public class LockDescriptor implements Comparable<LockDescriptor>, Serializable
         return bytes.clone();
     }
 
+    /**
+     * Returns whether the bytes of this descriptor start with the bytes of the given descriptor.
+     */
+    public boolean startsWith(LockDescriptor prefix) {
+        if (prefix.bytes.length > bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.bytes.length; i++) {
+            if (bytes[i] != prefix.bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -117,6 +117,19 @@ public class LockServerOptions implements Serializable {
         return 10000L;
     }
 
+    /**
+     * Returns <code>true</code> if lock token and grant IDs should be drawn from a
+     * cryptographically secure random number generator. Token IDs act as capabilities for
+     * the locks they hold, so this should only be disabled if every client of the lock
+     * server is trusted, in which case IDs are generated considerably faster. The default
+     * value is <code>true</code>.
+     */
+    @JsonProperty("useSecureRandomTokenIds")
+    @Value.Default
+    public boolean useSecureRandomTokenIds() {
+        return true;
+    }
+
     @Override
     public boolean equals(@Nullable Object obj) {
         if (this == obj) {
@@ -133,7 +146,8 @@ public class LockServerOptions implements Serializable {
                 && Objects.equal(getMaxNormalLockAge(), other.getMaxNormalLockAge())
                 && Objects.equal(getRandomBitCount(), other.getRandomBitCount())
                 && Objects.equal(getLockStateLoggerDir(), other.getLockStateLoggerDir())
-                && Objects.equal(slowLogTriggerMillis(), other.slowLogTriggerMillis());
+                && Objects.equal(slowLogTriggerMillis(), other.slowLogTriggerMillis())
+                && Objects.equal(useSecureRandomTokenIds(), other.useSecureRandomTokenIds());
     }
 
     @Override
@@ -145,7 +159,8 @@ public class LockServerOptions implements Serializable {
                 getMaxNormalLockAge(),
                 getRandomBitCount(),
                 getLockStateLoggerDir(),
-                slowLogTriggerMillis());
+                slowLogTriggerMillis(),
+                useSecureRandomTokenIds());
     }
 
     @Override
@@ -159,6 +174,7 @@ public class LockServerOptions implements Serializable {
                 .add("randomBitCount", getRandomBitCount())
                 .add("lockStateLoggerDir", getLockStateLoggerDir())
                 .add("slowLogTriggerMillis", slowLogTriggerMillis())
+                .add("useSecureRandomTokenIds", useSecureRandomTokenIds())
                 .toString();
     }
 
@@ -193,6 +209,8 @@ public class LockServerOptions implements Serializable {
         private final int randomBitCount;
         private final String lockStateLoggerDir;
         private final long slowLogTriggerMillis;
+        // Absent when deserializing options from older servers, which always used secure random IDs.
+        @Nullable private final Boolean useSecureRandomTokenIds;
 
         SerializationProxy(LockServerOptions lockServerOptions) {
             isStandaloneServer = lockServerOptions.isStandaloneServer();
@@ -207,6 +225,7 @@ public class LockServerOptions implements Serializable {
             randomBitCount = lockServerOptions.getRandomBitCount();
             lockStateLoggerDir = lockServerOptions.getLockStateLoggerDir();
             slowLogTriggerMillis = lockServerOptions.slowLogTriggerMillis();
+            useSecureRandomTokenIds = lockServerOptions.useSecureRandomTokenIds();
         }
 
         @JsonCreator
@@ -217,7 +236,8 @@ public class LockServerOptions implements Serializable {
                 @JsonProperty("maxNormalLockAge") SimpleTimeDuration maxNormalLockAge,
                 @JsonProperty("randomBitCount") int randomBitCount,
                 @JsonProperty("lockStateLoggerDir") String lockStateLoggerDir,
-                @JsonProperty("slowLogTriggerMillis") long slowLogTriggerMillis) {
+                @JsonProperty("slowLogTriggerMillis") long slowLogTriggerMillis,
+                @JsonProperty("useSecureRandomTokenIds") @Nullable Boolean useSecureRandomTokenIds) {
             this.isStandaloneServer = isStandaloneServer;
             this.maxAllowedLockTimeout = maxAllowedLockTimeout;
             this.maxAllowedClockDrift = maxAllowedClockDrift;
@@ -226,6 +246,7 @@ public class LockServerOptions implements Serializable {
             this.randomBitCount = randomBitCount;
             this.lockStateLoggerDir = lockStateLoggerDir;
             this.slowLogTriggerMillis = slowLogTriggerMillis;
+            this.useSecureRandomTokenIds = useSecureRandomTokenIds;
         }
 
         public LockServerOptions build() {
@@ -242,6 +263,7 @@ public class LockServerOptions implements Serializable {
                     .randomBitCount(randomBitCount)
                     .lockStateLoggerDir(lockStateLoggerDir)
                     .slowLogTriggerMillis(slowLogTriggerMillis)
+                    .useSecureRandomTokenIds(!Boolean.FALSE.equals(useSecureRandomTokenIds))
                     .build();
         }
     }
@@ -16,7 +16,9 @@
 package com.palantir.lock.client;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -25,35 +27,92 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.palantir.lock.v2.ImmutableLockSessionRequest;
+import com.palantir.lock.v2.LockSessionResponse;
+import com.palantir.lock.v2.LockSessionService;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.TimelockService;
+import com.palantir.logsafe.SafeArg;
 
 public class LockRefresher implements AutoCloseable {
 
     private final Logger log = LoggerFactory.getLogger(LockRefresher.class);
 
+    /**
+     * When refreshing a lock session, the next refresh is scheduled after this fraction of the remaining lease, so
+     * that a couple of failed refreshes can be retried before the lease expires.
+     */
+    private static final int SESSION_REFRESHES_PER_LEASE = 3;
+
     private final ScheduledExecutorService executor;
     private final TimelockService timelockService;
+    private final Optional<LockSessionService> lockSessionService;
+    private final long refreshIntervalMillis;
     private final Set<LockToken> tokensToRefresh = Sets.newConcurrentHashSet();
+    private final Set<LockToken> tokensInSession = Sets.newConcurrentHashSet();
+
+    // Only accessed from the session refresh task, which never runs concurrently with itself.
+    private UUID sessionId = UUID.randomUUID();
+    private boolean isSessionOpen = false;
 
     public LockRefresher(
             ScheduledExecutorService executor,
             TimelockService timelockService,
             long refreshIntervalMillis) {
+        this(executor, timelockService, refreshIntervalMillis, refreshIntervalMillis);
+    }
+
+    LockRefresher(
+            ScheduledExecutorService executor,
+            TimelockService timelockService,
+            long refreshIntervalMillis,
+            long initialDelayMillis) {
+        this(executor, timelockService, Optional.empty(), refreshIntervalMillis);
+
+        scheduleRefresh(refreshIntervalMillis, initialDelayMillis);
+    }
+
+    private LockRefresher(
+            ScheduledExecutorService executor,
+            TimelockService timelockService,
+            Optional<LockSessionService> lockSessionService,
+            long refreshIntervalMillis) {
         this.executor = executor;
         this.timelockService = timelockService;
+        this.lockSessionService = lockSessionService;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
 
-        scheduleRefresh(refreshIntervalMillis);
+    /**
+     * Creates a refresher that keeps locks alive by adding them to a lock session, and refreshing the session at a
+     * rate determined by the lease the server returns. If the session cannot be refreshed, the locks are refreshed
+     * individually and the session refresh is retried after the given interval.
+     */
+    public static LockRefresher createWithLockSessions(
+            ScheduledExecutorService executor,
+            TimelockService timelockService,
+            LockSessionService lockSessionService,
+            long retryIntervalMillis) {
+        LockRefresher refresher = new LockRefresher(
+                executor, timelockService, Optional.of(lockSessionService), retryIntervalMillis);
+        refresher.scheduleSessionRefresh(retryIntervalMillis);
+        return refresher;
     }
 
-    private void scheduleRefresh(long refreshIntervalMillis) {
+    private void scheduleRefresh(long refreshIntervalMillis, long initialDelayMillis) {
         executor.scheduleAtFixedRate(
                 this::refreshLocks,
-                refreshIntervalMillis,
+                initialDelayMillis,
                 refreshIntervalMillis,
                 TimeUnit.MILLISECONDS);
     }
 
+    private void scheduleSessionRefresh(long delayMillis) {
+        if (!executor.isShutdown()) {
+            executor.schedule(this::refreshSession, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void refreshLocks() {
         try {
             Set<LockToken> toRefresh = ImmutableSet.copyOf(tokensToRefresh);
@@ -68,12 +127,65 @@ public class LockRefresher implements AutoCloseable {
         }
     }
 
+    private void refreshSession() {
+        long nextDelayMillis = refreshIntervalMillis;
+        try {
+            nextDelayMillis = refreshSessionAndGetNextDelay();
+        } catch (Throwable error) {
+            log.warn("Error while refreshing lock session. Refreshing locks individually, and trying again on"
+                    + " next iteration", error);
+            refreshLocks();
+        } finally {
+            scheduleSessionRefresh(nextDelayMillis);
+        }
+    }
+
+    private long refreshSessionAndGetNextDelay() {
+        if (tokensToRefresh.isEmpty()) {
+            // Nothing is held in the session, so let its lease lapse and open a new one when it is next needed.
+            resetSession();
+            return refreshIntervalMillis;
+        }
+
+        Set<LockToken> toAdd = ImmutableSet.copyOf(Sets.difference(tokensToRefresh, tokensInSession));
+        long startTimeMillis = System.currentTimeMillis();
+        LockSessionResponse response = lockSessionService.get().refreshLockSession(
+                ImmutableLockSessionRequest.builder()
+                        .sessionId(sessionId)
+                        .openSession(!isSessionOpen)
+                        .tokensToAdd(toAdd)
+                        .build());
+
+        if (!response.sessionValid()) {
+            log.info("Lock session expired on the server, so the {} locks in it are no longer held",
+                    SafeArg.of("numLocks", tokensInSession.size()));
+            tokensToRefresh.removeAll(tokensInSession);
+            resetSession();
+            // Locks that were not yet in the session may still be held, so put them into a new session straight away.
+            return 0L;
+        }
+
+        isSessionOpen = true;
+        tokensToRefresh.removeAll(Sets.difference(toAdd, response.addedTokens()));
+        tokensInSession.addAll(Sets.intersection(response.addedTokens(), tokensToRefresh));
+
+        long remainingLeaseMillis = response.leaseMillis() - (System.currentTimeMillis() - startTimeMillis);
+        return Math.max(0L, remainingLeaseMillis / SESSION_REFRESHES_PER_LEASE);
+    }
+
+    private void resetSession() {
+        tokensInSession.clear();
+        sessionId = UUID.randomUUID();
+        isSessionOpen = false;
+    }
+
     public void registerLock(LockToken token) {
         tokensToRefresh.add(token);
     }
 
     public void unregisterLocks(Collection<LockToken> tokens) {
         tokensToRefresh.removeAll(tokens);
+        tokensInSession.removeAll(tokens);
     }
 
     @Override
@@ -0,0 +1,407 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.lock.v2.AutoDelegate_TimelockService;
+import com.palantir.lock.v2.ImmutableNamespaceTimelockRequest;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.MultiNamespaceTimelockService;
+import com.palantir.lock.v2.NamespaceLockOperation;
+import com.palantir.lock.v2.NamespaceTimelockRequest;
+import com.palantir.lock.v2.NamespaceTimelockResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.timestamp.TimestampRange;
+
+/**
+ * Merges fresh timestamp, lock refresh and unlock requests for several namespaces of the same TimeLock cluster, and
+ * sends all requests made within a short window to the server as a single {@link MultiNamespaceTimelockService}
+ * call. Each namespace's requests are routed through the batcher by wrapping its {@link TimelockService} with
+ * {@link #forNamespace(String, TimelockService)}; a {@link TimeLockClient} for each namespace can be created with
+ * {@link TimeLockClient#createWithMultiNamespaceBatching(String, TimelockService, MultiNamespaceTimelockBatcher)}.
+ */
+public final class MultiNamespaceTimelockBatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MultiNamespaceTimelockBatcher.class);
+
+    private static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final MultiNamespaceTimelockService multiNamespaceService;
+    private final ScheduledExecutorService executor;
+    private final long batchWindowMillis;
+    private final long requestTimeoutMillis;
+    private final long creationTimeMillis;
+
+    @GuardedBy("this")
+    private Map<String, PendingRequests> pendingRequests = new HashMap<>();
+    @GuardedBy("this")
+    private boolean batchScheduled = false;
+    @GuardedBy("this")
+    private boolean closed = false;
+
+    @VisibleForTesting
+    MultiNamespaceTimelockBatcher(
+            MultiNamespaceTimelockService multiNamespaceService,
+            ScheduledExecutorService executor,
+            long batchWindowMillis,
+            long requestTimeoutMillis) {
+        this.multiNamespaceService = multiNamespaceService;
+        this.executor = executor;
+        this.batchWindowMillis = batchWindowMillis;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.creationTimeMillis = System.currentTimeMillis();
+    }
+
+    public static MultiNamespaceTimelockBatcher create(
+            MultiNamespaceTimelockService multiNamespaceService,
+            long batchWindowMillis) {
+        return create(multiNamespaceService, batchWindowMillis, DEFAULT_REQUEST_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a batcher whose callers give up with a {@link TimeoutException} (wrapped in a runtime exception) if
+     * their request has not completed requestTimeoutMillis after it was made.
+     */
+    public static MultiNamespaceTimelockBatcher create(
+            MultiNamespaceTimelockService multiNamespaceService,
+            long batchWindowMillis,
+            long requestTimeoutMillis) {
+        return new MultiNamespaceTimelockBatcher(
+                multiNamespaceService,
+                PTExecutors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                        .setNameFormat(MultiNamespaceTimelockBatcher.class.getSimpleName() + "-%d")
+                        .setDaemon(true)
+                        .build()),
+                batchWindowMillis,
+                requestTimeoutMillis);
+    }
+
+    /**
+     * Returns a {@link TimelockService} for the given namespace that sends fresh timestamp, lock refresh and unlock
+     * requests through this batcher, and all other requests to the delegate.
+     */
+    public TimelockService forNamespace(String namespace, TimelockService delegate) {
+        return new BatchingTimelockService(namespace, delegate);
+    }
+
+    /**
+     * The delay before the first of a series of periodic tasks that run every intervalMillis, such that the tasks
+     * of every namespace using this batcher run at the same time and so can share a batch.
+     */
+    long getAlignedInitialDelayMillis(long intervalMillis) {
+        long elapsedMillis = System.currentTimeMillis() - creationTimeMillis;
+        return intervalMillis - Math.floorMod(elapsedMillis, intervalMillis);
+    }
+
+    private <T> T submit(String namespace, Function<PendingRequests, CompletableFuture<T>> enqueue) {
+        CompletableFuture<T> result;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("This batcher has been closed");
+            }
+            result = enqueue.apply(pendingRequests.computeIfAbsent(namespace, unused -> new PendingRequests()));
+            scheduleBatchIfNeeded();
+        }
+
+        try {
+            return result.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw Throwables.throwUncheckedException(e);
+        } catch (ExecutionException e) {
+            throw Throwables.throwUncheckedException(e.getCause());
+        } catch (TimeoutException e) {
+            // Cancelled requests are left out of any batch that has not been sent yet.
+            result.cancel(false);
+            throw Throwables.throwUncheckedException(new TimeoutException(String.format(
+                    "Batched TimeLock request did not complete within %s ms", requestTimeoutMillis)));
+        }
+    }
+
+    @GuardedBy("this")
+    private void scheduleBatchIfNeeded() {
+        if (!batchScheduled) {
+            batchScheduled = true;
+            executor.schedule(this::runBatch, batchWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @VisibleForTesting
+    void runBatch() {
+        Map<String, PendingRequests> batch;
+        synchronized (this) {
+            batch = pendingRequests;
+            pendingRequests = new HashMap<>();
+            batchScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, NamespaceTimelockResponse> responses;
+        try {
+            responses = multiNamespaceService.runBatch(ImmutableMap.copyOf(
+                    Maps.transformValues(batch, PendingRequests::toRequest)));
+        } catch (Throwable t) {
+            batch.values().forEach(requests -> requests.fail(t));
+            return;
+        }
+
+        batch.forEach((namespace, requests) -> {
+            NamespaceTimelockResponse response = responses.get(namespace);
+            if (response == null) {
+                requests.fail(new IllegalStateException("TimeLock returned no response for namespace " + namespace));
+            } else if (response.error().isPresent()) {
+                requests.fail(new IllegalStateException(String.format(
+                        "TimeLock failed to run the batched requests for namespace %s: %s",
+                        namespace,
+                        response.error().get())));
+            } else {
+                List<FreshTimestampsRequest> unserved = requests.complete(response);
+                if (!unserved.isEmpty()) {
+                    requeue(namespace, unserved);
+                }
+            }
+        });
+    }
+
+    private synchronized void requeue(String namespace, List<FreshTimestampsRequest> unserved) {
+        if (closed) {
+            unserved.forEach(request -> request.result.completeExceptionally(
+                    new IllegalStateException("This batcher has been closed")));
+            return;
+        }
+        log.debug("TimeLock returned fewer timestamps than requested for {} requests; requesting them again",
+                SafeArg.of("numRequests", unserved.size()));
+        pendingRequests.computeIfAbsent(namespace, unused -> new PendingRequests()).timestampRequests.addAll(unserved);
+        scheduleBatchIfNeeded();
+    }
+
+    @VisibleForTesting
+    synchronized int getNumPendingRequests() {
+        return pendingRequests.values().stream()
+                .mapToInt(requests -> requests.timestampRequests.size() + requests.lockRequests.size())
+                .sum();
+    }
+
+    /**
+     * Stops sending batches, and fails the requests that are waiting for the next batch. A batch that is already being
+     * sent still completes its requests.
+     */
+    @Override
+    public void close() {
+        Map<String, PendingRequests> abandoned;
+        synchronized (this) {
+            closed = true;
+            abandoned = pendingRequests;
+            pendingRequests = new HashMap<>();
+        }
+        executor.shutdown();
+        IllegalStateException closedException = new IllegalStateException("This batcher has been closed");
+        abandoned.values().forEach(requests -> requests.fail(closedException));
+    }
+
+    private final class BatchingTimelockService implements AutoDelegate_TimelockService {
+        private final String namespace;
+        private final TimelockService delegate;
+
+        private BatchingTimelockService(String namespace, TimelockService delegate) {
+            this.namespace = namespace;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TimelockService delegate() {
+            return delegate;
+        }
+
+        @Override
+        public long getFreshTimestamp() {
+            return getFreshTimestamps(1).getLowerBound();
+        }
+
+        @Override
+        public TimestampRange getFreshTimestamps(int numTimestampsRequested) {
+            if (numTimestampsRequested <= 0) {
+                return delegate.getFreshTimestamps(numTimestampsRequested);
+            }
+            return submit(namespace, requests -> {
+                FreshTimestampsRequest request = new FreshTimestampsRequest(numTimestampsRequested);
+                requests.timestampRequests.add(request);
+                return request.result;
+            });
+        }
+
+        @Override
+        public Set<LockToken> refreshLockLeases(Set<LockToken> tokens) {
+            return submitLockRequest(NamespaceLockOperation.Type.REFRESH, tokens);
+        }
+
+        @Override
+        public Set<LockToken> unlock(Set<LockToken> tokens) {
+            return submitLockRequest(NamespaceLockOperation.Type.UNLOCK, tokens);
+        }
+
+        private Set<LockToken> submitLockRequest(NamespaceLockOperation.Type type, Set<LockToken> tokens) {
+            return submit(namespace, requests -> {
+                TokensRequest request = new TokensRequest(type, tokens);
+                requests.lockRequests.add(request);
+                return request.result;
+            });
+        }
+
+        @Override
+        public void tryUnlock(Set<LockToken> tokens) {
+            unlock(tokens);
+        }
+    }
+
+    private static final class PendingRequests {
+        private final List<FreshTimestampsRequest> timestampRequests = new ArrayList<>();
+        private final List<TokensRequest> lockRequests = new ArrayList<>();
+        // The lock requests sent as each lock operation, set by toRequest.
+        private final List<List<TokensRequest>> lockOperationRequests = new ArrayList<>();
+
+        /**
+         * Builds the request to send for this namespace, leaving out requests whose callers have given up. Lock
+         * requests are sent in the order they were made; consecutive requests of the same type share an operation.
+         */
+        NamespaceTimelockRequest toRequest() {
+            long numFreshTimestamps = timestampRequests.stream()
+                    .filter(request -> !request.result.isDone())
+                    .mapToLong(request -> request.numTimestamps)
+                    .sum();
+            ImmutableNamespaceTimelockRequest.Builder request = ImmutableNamespaceTimelockRequest.builder()
+                    .numFreshTimestamps((int) Math.min(numFreshTimestamps, Integer.MAX_VALUE));
+
+            lockOperationRequests.clear();
+            List<TokensRequest> currentOperation = new ArrayList<>();
+            for (TokensRequest lockRequest : lockRequests) {
+                if (lockRequest.result.isDone()) {
+                    continue;
+                }
+                if (!currentOperation.isEmpty() && currentOperation.get(0).type != lockRequest.type) {
+                    lockOperationRequests.add(currentOperation);
+                    currentOperation = new ArrayList<>();
+                }
+                currentOperation.add(lockRequest);
+            }
+            if (!currentOperation.isEmpty()) {
+                lockOperationRequests.add(currentOperation);
+            }
+            lockOperationRequests.forEach(operation -> request.addLockOperations(NamespaceLockOperation.of(
+                    operation.get(0).type, TokensRequest.union(operation))));
+            return request.build();
+        }
+
+        /**
+         * Completes the requests from the server's response, splitting the fresh timestamps between the requests in
+         * order. Returns the timestamp requests that could not be given any timestamps, because the server returned
+         * fewer than were asked for.
+         */
+        List<FreshTimestampsRequest> complete(NamespaceTimelockResponse response) {
+            List<FreshTimestampsRequest> unserved = new ArrayList<>();
+            long nextTimestamp = response.freshTimestamps().map(TimestampRange::getLowerBound).orElse(1L);
+            long upperBound = response.freshTimestamps().map(TimestampRange::getUpperBound).orElse(0L);
+            for (FreshTimestampsRequest request : timestampRequests) {
+                if (request.result.isDone()) {
+                    continue;
+                }
+                if (nextTimestamp > upperBound) {
+                    unserved.add(request);
+                } else {
+                    long requestUpperBound = Math.min(upperBound, nextTimestamp + request.numTimestamps - 1);
+                    request.result.complete(TimestampRange.createInclusiveRange(nextTimestamp, requestUpperBound));
+                    nextTimestamp = requestUpperBound + 1;
+                }
+            }
+            if (response.lockOperationResults().size() != lockOperationRequests.size()) {
+                IllegalStateException error = new IllegalStateException(String.format(
+                        "TimeLock returned %s lock operation results for %s lock operations",
+                        response.lockOperationResults().size(),
+                        lockOperationRequests.size()));
+                lockRequests.forEach(request -> request.result.completeExceptionally(error));
+            } else {
+                for (int i = 0; i < lockOperationRequests.size(); i++) {
+                    Set<LockToken> successfulTokens = response.lockOperationResults().get(i);
+                    lockOperationRequests.get(i).forEach(request -> request.completeFrom(successfulTokens));
+                }
+            }
+            return unserved;
+        }
+
+        void fail(Throwable error) {
+            timestampRequests.forEach(request -> request.result.completeExceptionally(error));
+            lockRequests.forEach(request -> request.result.completeExceptionally(error));
+        }
+    }
+
+    private static final class FreshTimestampsRequest {
+        private final int numTimestamps;
+        private final CompletableFuture<TimestampRange> result = new CompletableFuture<>();
+
+        private FreshTimestampsRequest(int numTimestamps) {
+            this.numTimestamps = numTimestamps;
+        }
+    }
+
+    private static final class TokensRequest {
+        private final NamespaceLockOperation.Type type;
+        private final Set<LockToken> tokens;
+        private final CompletableFuture<Set<LockToken>> result = new CompletableFuture<>();
+
+        private TokensRequest(NamespaceLockOperation.Type type, Set<LockToken> tokens) {
+            this.type = type;
+            this.tokens = tokens;
+        }
+
+        void completeFrom(Set<LockToken> successfulTokens) {
+            result.complete(ImmutableSet.copyOf(Sets.intersection(tokens, successfulTokens)));
+        }
+
+        static Set<LockToken> union(List<TokensRequest> requests) {
+            Set<LockToken> union = new HashSet<>();
+            requests.forEach(request -> union.addAll(request.tokens));
+            return union;
+        }
+    }
+}
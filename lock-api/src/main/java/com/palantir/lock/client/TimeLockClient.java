@@ -31,6 +31,7 @@ import com.palantir.lock.v2.IdentifiedTimeLockRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
+import com.palantir.lock.v2.LockSessionService;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.TimelockService;
@@ -56,6 +57,43 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return new TimeLockClient(timelockService, createLockRefresher(timelockService), timelockService::unlock);
     }
 
+    /**
+     * Creates a client whose fresh timestamp, lock refresh and unlock requests are merged with those of other
+     * namespaces using the same batcher. Lock refreshes of all such clients are scheduled at the same time, so that
+     * they share a batch.
+     */
+    public static TimeLockClient createWithMultiNamespaceBatching(
+            String namespace,
+            TimelockService timelockService,
+            MultiNamespaceTimelockBatcher batcher) {
+        TimelockService batchingService = batcher.forNamespace(namespace, timelockService);
+        ExecutorService asyncUnlockExecutor = createSingleThreadScheduledExecutor("async-unlock");
+        AsyncTimeLockUnlocker asyncUnlocker = new AsyncTimeLockUnlocker(batchingService, asyncUnlockExecutor);
+        LockRefresher lockRefresher = new LockRefresher(
+                createSingleThreadScheduledExecutor("refresh"),
+                batchingService,
+                REFRESH_INTERVAL_MILLIS,
+                batcher.getAlignedInitialDelayMillis(REFRESH_INTERVAL_MILLIS));
+        return new TimeLockClient(batchingService, lockRefresher, asyncUnlocker);
+    }
+
+    /**
+     * Creates a client that keeps its locks alive through a lock session, so that each refresh request only carries
+     * the locks acquired since the previous one, and refreshes are scheduled from the lease returned by the server.
+     */
+    public static TimeLockClient createWithLockSessions(
+            TimelockService timelockService,
+            LockSessionService lockSessionService) {
+        ExecutorService asyncUnlockExecutor = createSingleThreadScheduledExecutor("async-unlock");
+        AsyncTimeLockUnlocker asyncUnlocker = new AsyncTimeLockUnlocker(timelockService, asyncUnlockExecutor);
+        LockRefresher lockRefresher = LockRefresher.createWithLockSessions(
+                createSingleThreadScheduledExecutor("refresh"),
+                timelockService,
+                lockSessionService,
+                REFRESH_INTERVAL_MILLIS);
+        return new TimeLockClient(timelockService, lockRefresher, asyncUnlocker);
+    }
+
     @VisibleForTesting
     TimeLockClient(TimelockService delegate, LockRefresher lockRefresher, TimeLockUnlocker unlocker) {
         this.delegate = delegate;
@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@Value.Immutable
+@JsonSerialize(as = ImmutableLockSessionRequest.class)
+@JsonDeserialize(as = ImmutableLockSessionRequest.class)
+public interface LockSessionRequest {
+    UUID sessionId();
+
+    /**
+     * Whether the session should be opened if the server does not know about it. Clients should only set this the
+     * first time they refresh a session; a refresh of a session the server has forgotten, because its lease expired
+     * or leadership changed, must fail so that the client learns that the locks in the session were lost.
+     */
+    @Value.Default
+    default boolean openSession() {
+        return false;
+    }
+
+    /**
+     * Locks to move into the session. Only locks that are still held are added.
+     */
+    Set<LockToken> tokensToAdd();
+}
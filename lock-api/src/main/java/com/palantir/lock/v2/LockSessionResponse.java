@@ -0,0 +1,51 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.Set;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@Value.Immutable
+@JsonSerialize(as = ImmutableLockSessionResponse.class)
+@JsonDeserialize(as = ImmutableLockSessionResponse.class)
+public interface LockSessionResponse {
+    /**
+     * Whether the session was refreshed. If false, the session's lease has expired and every lock that had joined
+     * the session has been released.
+     */
+    boolean sessionValid();
+
+    /**
+     * The requested locks that joined the session. Requested locks missing from this set are no longer held.
+     */
+    Set<LockToken> addedTokens();
+
+    /**
+     * The length of the session lease, starting from when the server handled the request.
+     */
+    @Value.Default
+    default long leaseMillis() {
+        return 0L;
+    }
+
+    static LockSessionResponse invalid() {
+        return ImmutableLockSessionResponse.builder().sessionValid(false).build();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Keeps lock leases alive in groups. A lock session holds a single lease on the server, and every lock that has
+ * joined the session is kept alive by that lease, so that a client holding many locks can keep all of them alive
+ * with one small request rather than sending every token on every refresh.
+ */
+@Path("/timelock")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface LockSessionService {
+    /**
+     * Refreshes the lease of a lock session, opening it first if requested, and then moves the given locks into the
+     * session. Once a lock has joined a session it is kept alive only by the session's lease, and is released when
+     * the session's lease expires.
+     *
+     * @param request the session to refresh, and the locks to add to it
+     * @return whether the session is still valid, which of the locks were added, and the length of the session lease
+     */
+    @POST
+    @Path("refresh-lock-session")
+    LockSessionResponse refreshLockSession(LockSessionRequest request);
+}
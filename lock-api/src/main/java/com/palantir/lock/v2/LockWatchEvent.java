@@ -0,0 +1,51 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.Set;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.lock.LockDescriptor;
+
+@Value.Immutable
+@JsonSerialize(as = ImmutableLockWatchEvent.class)
+@JsonDeserialize(as = ImmutableLockWatchEvent.class)
+public interface LockWatchEvent {
+    enum Type {
+        LOCKED,
+        UNLOCKED
+    }
+
+    @Value.Parameter
+    long version();
+
+    @Value.Parameter
+    Type type();
+
+    /**
+     * The descriptors of the lock request that match a watched prefix. Descriptors of the same request that do not
+     * match any watched prefix are omitted.
+     */
+    @Value.Parameter
+    Set<LockDescriptor> lockDescriptors();
+
+    static LockWatchEvent of(long version, Type type, Set<LockDescriptor> lockDescriptors) {
+        return ImmutableLockWatchEvent.of(version, type, lockDescriptors);
+    }
+}
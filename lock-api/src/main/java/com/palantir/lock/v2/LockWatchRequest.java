@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.lock.LockDescriptor;
+
+@Value.Immutable
+@JsonSerialize(as = ImmutableLockWatchRequest.class)
+@JsonDeserialize(as = ImmutableLockWatchRequest.class)
+public interface LockWatchRequest {
+    /**
+     * The lock descriptor prefixes to watch, for example {@link com.palantir.lock.AtlasRowLockDescriptor#tablePrefix}
+     * to watch the row and cell locks of a table. A prefix is watched from the first request that names it, until no
+     * request has named it for a while.
+     */
+    Set<LockDescriptor> descriptorPrefixes();
+
+    /**
+     * The version returned by the previous request, or empty if this is the first request.
+     */
+    Optional<LockWatchVersion> lastKnownVersion();
+}
@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.List;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@Value.Immutable
+@JsonSerialize(as = ImmutableLockWatchResponse.class)
+@JsonDeserialize(as = ImmutableLockWatchResponse.class)
+public interface LockWatchResponse {
+    /**
+     * The version to send as the last known version of the next request.
+     */
+    LockWatchVersion currentVersion();
+
+    /**
+     * Whether the events are every change to the watched locks since the last known version. If false, the server
+     * cannot tell which locks changed, for example because the last known version is from before a leader election
+     * or too old, and the client must assume that any watched lock may have changed.
+     */
+    boolean isComplete();
+
+    /**
+     * The lock and unlock events of watched locks since the last known version, in version order. Always empty if
+     * the response is not complete.
+     */
+    List<LockWatchEvent> events();
+}
@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Lets clients follow the locks taken and released on ranges of lock descriptors, so that they can cache data
+ * across transactions and invalidate only the entries whose locks have changed.
+ */
+@Path("/timelock")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface LockWatchService {
+    /**
+     * Returns the lock and unlock events of locks matching the requested prefixes since the last known version, and
+     * starts watching any prefixes that are not yet watched.
+     *
+     * @param request the prefixes to watch, and the version returned by the previous request
+     * @return the events since the last known version, and the version to use in the next request
+     */
+    @POST
+    @Path("lock-watch-events")
+    LockWatchResponse getLockWatchEvents(LockWatchRequest request);
+}
@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.UUID;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A position in the log of lock watch events of a TimeLock server. Versions are only comparable between positions
+ * with the same log id; the log id changes whenever the server's lock state is lost, for example on leader election.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableLockWatchVersion.class)
+@JsonDeserialize(as = ImmutableLockWatchVersion.class)
+public interface LockWatchVersion {
+    @Value.Parameter
+    UUID logId();
+
+    @Value.Parameter
+    long version();
+
+    static LockWatchVersion of(UUID logId, long version) {
+        return ImmutableLockWatchVersion.of(logId, version);
+    }
+}
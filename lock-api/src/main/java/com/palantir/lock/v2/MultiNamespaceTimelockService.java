@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.Map;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Runs timestamp, lock refresh and unlock operations for many namespaces of a TimeLock server in a single request.
+ * Namespaces may only contain the characters allowed in TimeLock client names, so this path cannot clash with any
+ * namespace's own endpoints.
+ */
+@Path("/.multi-namespace/timelock")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface MultiNamespaceTimelockService {
+    /**
+     * Runs the operations for each namespace, with different namespaces handled concurrently.
+     *
+     * @param requests the operations to run, keyed by namespace
+     * @return the results of the operations, keyed by namespace
+     */
+    @POST
+    @Path("batch")
+    Map<String, NamespaceTimelockResponse> runBatch(Map<String, NamespaceTimelockRequest> requests);
+}
@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.List;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * The operations to run against a single namespace as part of a {@link MultiNamespaceTimelockService} batch.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableNamespaceTimelockRequest.class)
+@JsonDeserialize(as = ImmutableNamespaceTimelockRequest.class)
+public interface NamespaceTimelockRequest {
+    /**
+     * The number of fresh timestamps to get, or zero if none are needed.
+     */
+    @Value.Default
+    default int numFreshTimestamps() {
+        return 0;
+    }
+
+    /**
+     * The lock refreshes and unlocks to run, in the order they should run in.
+     */
+    List<NamespaceLockOperation> lockOperations();
+}
@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.v2;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.timestamp.TimestampRange;
+
+@Value.Immutable
+@JsonSerialize(as = ImmutableNamespaceTimelockResponse.class)
+@JsonDeserialize(as = ImmutableNamespaceTimelockResponse.class)
+public interface NamespaceTimelockResponse {
+    /**
+     * The fresh timestamps, present if and only if the request asked for some.
+     */
+    Optional<TimestampRange> freshTimestamps();
+
+    /**
+     * The tokens that each of the request's lock operations refreshed or unlocked, in the same order as the
+     * operations.
+     */
+    List<Set<LockToken>> lockOperationResults();
+
+    /**
+     * Why the operations for this namespace failed, if they did. Operations that ran before the failure may still
+     * have taken effect, and the other fields should be ignored.
+     */
+    Optional<String> error();
+}
@@ -15,8 +15,10 @@
  */
 package com.palantir.lock.client;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -27,14 +29,21 @@ import java.util.concurrent.TimeUnit;
 
 import org.jmock.lib.concurrent.DeterministicScheduler;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.v2.ImmutableLockSessionRequest;
+import com.palantir.lock.v2.ImmutableLockSessionResponse;
+import com.palantir.lock.v2.LockSessionRequest;
+import com.palantir.lock.v2.LockSessionResponse;
+import com.palantir.lock.v2.LockSessionService;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.TimelockService;
 
 public class LockRefresherTest {
 
     private static final long REFRESH_INTERVAL_MILLIS = 1234L;
+    private static final long LEASE_MILLIS = 30_000L;
 
     private static final LockToken TOKEN_1 = LockToken.of(UUID.randomUUID());
     private static final LockToken TOKEN_2 = LockToken.of(UUID.randomUUID());
@@ -44,6 +53,11 @@ public class LockRefresherTest {
     private final TimelockService timelock = mock(TimelockService.class);
     private final LockRefresher refresher = new LockRefresher(executor, timelock, REFRESH_INTERVAL_MILLIS);
 
+    private final DeterministicScheduler sessionExecutor = new DeterministicScheduler();
+    private final LockSessionService lockSessions = mock(LockSessionService.class);
+    private final LockRefresher sessionRefresher = LockRefresher.createWithLockSessions(
+            sessionExecutor, timelock, lockSessions, REFRESH_INTERVAL_MILLIS);
+
     @Test
     public void continuesRefreshingLocksThatAreReturned() {
         when(timelock.refreshLockLeases(TOKENS)).thenReturn(TOKENS);
@@ -99,8 +113,91 @@ public class LockRefresherTest {
         verify(timelock, times(2)).refreshLockLeases(ImmutableSet.of(TOKEN_1));
     }
 
+    @Test
+    public void addsLocksToSessionOnlyOnce() {
+        when(lockSessions.refreshLockSession(any())).thenReturn(validSession(TOKEN_1), validSession());
+        sessionRefresher.registerLock(TOKEN_1);
+
+        tick(sessionExecutor);
+        sessionExecutor.tick(LEASE_MILLIS / 3, TimeUnit.MILLISECONDS);
+
+        ArgumentCaptor<LockSessionRequest> requests = ArgumentCaptor.forClass(LockSessionRequest.class);
+        verify(lockSessions, times(2)).refreshLockSession(requests.capture());
+        LockSessionRequest openRequest = requests.getAllValues().get(0);
+        assertThat(openRequest.openSession()).isTrue();
+        assertThat(openRequest.tokensToAdd()).containsExactly(TOKEN_1);
+        assertThat(requests.getAllValues().get(1)).isEqualTo(ImmutableLockSessionRequest.builder()
+                .sessionId(openRequest.sessionId())
+                .build());
+        verify(timelock, never()).refreshLockLeases(any());
+    }
+
+    @Test
+    public void schedulesSessionRefreshFromLease() {
+        when(lockSessions.refreshLockSession(any())).thenReturn(validSession(TOKEN_1));
+        sessionRefresher.registerLock(TOKEN_1);
+
+        tick(sessionExecutor);
+        sessionExecutor.tick(LEASE_MILLIS / 3 - 1_000, TimeUnit.MILLISECONDS);
+        verify(lockSessions).refreshLockSession(any());
+
+        sessionExecutor.tick(1_000, TimeUnit.MILLISECONDS);
+        verify(lockSessions, times(2)).refreshLockSession(any());
+    }
+
+    @Test
+    public void dropsLocksInSessionAndOpensNewSessionIfSessionExpired() {
+        when(lockSessions.refreshLockSession(any()))
+                .thenReturn(validSession(TOKEN_1), LockSessionResponse.invalid(), validSession(TOKEN_2));
+        sessionRefresher.registerLock(TOKEN_1);
+        tick(sessionExecutor);
+        sessionRefresher.registerLock(TOKEN_2);
+
+        sessionExecutor.tick(LEASE_MILLIS / 3, TimeUnit.MILLISECONDS);
+        sessionExecutor.tick(1, TimeUnit.MILLISECONDS);
+
+        ArgumentCaptor<LockSessionRequest> requests = ArgumentCaptor.forClass(LockSessionRequest.class);
+        verify(lockSessions, times(3)).refreshLockSession(requests.capture());
+        LockSessionRequest reopenRequest = requests.getAllValues().get(2);
+        assertThat(reopenRequest.openSession()).isTrue();
+        assertThat(reopenRequest.sessionId()).isNotEqualTo(requests.getAllValues().get(0).sessionId());
+        assertThat(reopenRequest.tokensToAdd()).containsExactly(TOKEN_2);
+    }
+
+    @Test
+    public void refreshesLocksIndividuallyIfSessionRefreshFails() {
+        when(lockSessions.refreshLockSession(any())).thenThrow(new RuntimeException("test"));
+        when(timelock.refreshLockLeases(TOKENS)).thenReturn(TOKENS);
+        sessionRefresher.registerLock(TOKEN_1);
+        sessionRefresher.registerLock(TOKEN_2);
+
+        tick(sessionExecutor);
+        tick(sessionExecutor);
+        verify(lockSessions, times(2)).refreshLockSession(any());
+        verify(timelock, times(2)).refreshLockLeases(TOKENS);
+    }
+
+    @Test
+    public void doesNotRefreshSessionIfThereAreNoLocks() {
+        tick(sessionExecutor);
+
+        verifyNoMoreInteractions(lockSessions);
+    }
+
+    private static LockSessionResponse validSession(LockToken... addedTokens) {
+        return ImmutableLockSessionResponse.builder()
+                .sessionValid(true)
+                .addAddedTokens(addedTokens)
+                .leaseMillis(LEASE_MILLIS)
+                .build();
+    }
+
     private void tick() {
-        executor.tick(REFRESH_INTERVAL_MILLIS + 1, TimeUnit.MILLISECONDS);
+        tick(executor);
+    }
+
+    private static void tick(DeterministicScheduler scheduler) {
+        scheduler.tick(REFRESH_INTERVAL_MILLIS + 1, TimeUnit.MILLISECONDS);
     }
 
 }
@@ -0,0 +1,269 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.awaitility.Awaitility;
+import org.jmock.lib.concurrent.DeterministicScheduler;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.v2.ImmutableNamespaceTimelockRequest;
+import com.palantir.lock.v2.ImmutableNamespaceTimelockResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.MultiNamespaceTimelockService;
+import com.palantir.lock.v2.NamespaceLockOperation;
+import com.palantir.lock.v2.NamespaceTimelockRequest;
+import com.palantir.lock.v2.NamespaceTimelockResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+public class MultiNamespaceTimelockBatcherTest {
+    private static final long REQUEST_TIMEOUT_MILLIS = 5_000L;
+    private static final String NAMESPACE_1 = "tom";
+    private static final String NAMESPACE_2 = "jerry";
+    private static final LockToken TOKEN_1 = LockToken.of(UUID.randomUUID());
+    private static final LockToken TOKEN_2 = LockToken.of(UUID.randomUUID());
+    private static final NamespaceTimelockResponse EMPTY_RESPONSE =
+            ImmutableNamespaceTimelockResponse.builder().build();
+
+    private final DeterministicScheduler scheduler = new DeterministicScheduler();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final MultiNamespaceTimelockService remote = mock(MultiNamespaceTimelockService.class);
+    private final MultiNamespaceTimelockBatcher batcher =
+            new MultiNamespaceTimelockBatcher(remote, scheduler, 10L, REQUEST_TIMEOUT_MILLIS);
+    private final TimelockService namespace1 = batcher.forNamespace(NAMESPACE_1, mock(TimelockService.class));
+    private final TimelockService namespace2 = batcher.forNamespace(NAMESPACE_2, mock(TimelockService.class));
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void sendsRequestsForSeveralNamespacesInOneBatch() throws Exception {
+        Map<String, NamespaceTimelockRequest> expectedBatch = ImmutableMap.of(
+                NAMESPACE_1, lockRequest(refresh(TOKEN_1)),
+                NAMESPACE_2, lockRequest(unlock(TOKEN_2)));
+        when(remote.runBatch(expectedBatch)).thenReturn(ImmutableMap.of(
+                NAMESPACE_1, lockResponse(ImmutableSet.of(TOKEN_1)),
+                NAMESPACE_2, lockResponse(ImmutableSet.of(TOKEN_2))));
+
+        Future<?> refresh = callers.submit(() -> namespace1.refreshLockLeases(ImmutableSet.of(TOKEN_1)));
+        Future<?> unlock = callers.submit(() -> namespace2.unlock(ImmutableSet.of(TOKEN_2)));
+        runBatchOnceRequestsArePending(2);
+
+        assertThat(refresh.get()).isEqualTo(ImmutableSet.of(TOKEN_1));
+        assertThat(unlock.get()).isEqualTo(ImmutableSet.of(TOKEN_2));
+        verify(remote).runBatch(expectedBatch);
+        verifyNoMoreInteractions(remote);
+    }
+
+    @Test
+    public void sendsLockRequestsInTheOrderTheyWereMade() throws Exception {
+        Map<String, NamespaceTimelockRequest> expectedBatch = ImmutableMap.of(NAMESPACE_1, lockRequest(
+                refresh(TOKEN_1, TOKEN_2),
+                unlock(TOKEN_1),
+                refresh(TOKEN_2)));
+        when(remote.runBatch(expectedBatch)).thenReturn(ImmutableMap.of(NAMESPACE_1, lockResponse(
+                ImmutableSet.of(TOKEN_1, TOKEN_2),
+                ImmutableSet.of(TOKEN_1),
+                ImmutableSet.of())));
+
+        Future<Set<LockToken>> firstRefresh = callers.submit(() -> namespace1.refreshLockLeases(
+                ImmutableSet.of(TOKEN_1)));
+        awaitPendingRequests(1);
+        Future<Set<LockToken>> secondRefresh = callers.submit(() -> namespace1.refreshLockLeases(
+                ImmutableSet.of(TOKEN_2)));
+        awaitPendingRequests(2);
+        Future<Set<LockToken>> unlock = callers.submit(() -> namespace1.unlock(ImmutableSet.of(TOKEN_1)));
+        awaitPendingRequests(3);
+        Future<Set<LockToken>> lastRefresh = callers.submit(() -> namespace1.refreshLockLeases(
+                ImmutableSet.of(TOKEN_2)));
+        runBatchOnceRequestsArePending(4);
+
+        assertThat(firstRefresh.get()).containsExactly(TOKEN_1);
+        assertThat(secondRefresh.get()).containsExactly(TOKEN_2);
+        assertThat(unlock.get()).containsExactly(TOKEN_1);
+        assertThat(lastRefresh.get()).isEmpty();
+        verify(remote).runBatch(expectedBatch);
+    }
+
+    @Test
+    public void splitsFreshTimestampsBetweenRequestsForTheSameNamespace() throws Exception {
+        when(remote.runBatch(ImmutableMap.of(
+                NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder().numFreshTimestamps(3).build())))
+                .thenReturn(ImmutableMap.of(NAMESPACE_1, ImmutableNamespaceTimelockResponse.builder()
+                        .freshTimestamps(TimestampRange.createInclusiveRange(10, 12))
+                        .build()));
+
+        Future<TimestampRange> single = callers.submit(() -> namespace1.getFreshTimestamps(1));
+        awaitPendingRequests(1);
+        Future<TimestampRange> pair = callers.submit(() -> namespace1.getFreshTimestamps(2));
+        runBatchOnceRequestsArePending(2);
+
+        assertThat(single.get().getLowerBound()).isEqualTo(10L);
+        assertThat(single.get().getUpperBound()).isEqualTo(10L);
+        assertThat(pair.get().getLowerBound()).isEqualTo(11L);
+        assertThat(pair.get().getUpperBound()).isEqualTo(12L);
+    }
+
+    @Test
+    public void requestsTimestampsAgainIfServerReturnsTooFew() throws Exception {
+        when(remote.runBatch(any())).thenReturn(
+                ImmutableMap.of(NAMESPACE_1, ImmutableNamespaceTimelockResponse.builder()
+                        .freshTimestamps(TimestampRange.createInclusiveRange(10, 10))
+                        .build()),
+                ImmutableMap.of(NAMESPACE_1, ImmutableNamespaceTimelockResponse.builder()
+                        .freshTimestamps(TimestampRange.createInclusiveRange(11, 11))
+                        .build()));
+
+        Future<Long> first = callers.submit(namespace1::getFreshTimestamp);
+        Future<Long> second = callers.submit(namespace1::getFreshTimestamp);
+        runBatchOnceRequestsArePending(2);
+        runBatchOnceRequestsArePending(1);
+
+        assertThat(ImmutableSet.of(first.get(), second.get())).containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    public void propagatesFailuresToEveryRequestInTheBatch() {
+        RuntimeException failure = new RuntimeException("timelock is down");
+        when(remote.runBatch(any())).thenThrow(failure);
+
+        Future<?> refresh = callers.submit(() -> namespace1.refreshLockLeases(ImmutableSet.of(TOKEN_1)));
+        Future<?> timestamp = callers.submit(namespace2::getFreshTimestamp);
+        runBatchOnceRequestsArePending(2);
+
+        assertThatThrownBy(refresh::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThatThrownBy(timestamp::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+    }
+
+    @Test
+    public void failsRequestsForNamespacesMissingFromTheResponse() {
+        when(remote.runBatch(any())).thenReturn(ImmutableMap.of(NAMESPACE_2, EMPTY_RESPONSE));
+
+        Future<?> refresh = callers.submit(() -> namespace1.refreshLockLeases(ImmutableSet.of(TOKEN_1)));
+        runBatchOnceRequestsArePending(1);
+
+        assertThatThrownBy(refresh::get).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void failsOnlyTheRequestsOfNamespacesWithAnError() throws Exception {
+        when(remote.runBatch(any())).thenReturn(ImmutableMap.of(
+                NAMESPACE_1, ImmutableNamespaceTimelockResponse.builder().error("RuntimeException: oops").build(),
+                NAMESPACE_2, lockResponse(ImmutableSet.of(TOKEN_2))));
+
+        Future<?> failed = callers.submit(() -> namespace1.refreshLockLeases(ImmutableSet.of(TOKEN_1)));
+        Future<?> refreshed = callers.submit(() -> namespace2.refreshLockLeases(ImmutableSet.of(TOKEN_2)));
+        runBatchOnceRequestsArePending(2);
+
+        assertThatThrownBy(failed::get).hasCauseInstanceOf(IllegalStateException.class).hasMessageContaining("oops");
+        assertThat(refreshed.get()).isEqualTo(ImmutableSet.of(TOKEN_2));
+    }
+
+    @Test
+    public void failsPendingRequestsOnClose() {
+        // DeterministicScheduler does not support shutdown, so use a real executor that never gets to send the batch
+        MultiNamespaceTimelockBatcher closingBatcher = new MultiNamespaceTimelockBatcher(remote,
+                Executors.newSingleThreadScheduledExecutor(), TimeUnit.HOURS.toMillis(1), REQUEST_TIMEOUT_MILLIS);
+        TimelockService closingNamespace = closingBatcher.forNamespace(NAMESPACE_1, mock(TimelockService.class));
+        Future<?> refresh = callers.submit(() -> closingNamespace.refreshLockLeases(ImmutableSet.of(TOKEN_1)));
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> closingBatcher.getNumPendingRequests() == 1);
+
+        closingBatcher.close();
+
+        assertThatThrownBy(refresh::get).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(closingNamespace::getFreshTimestamp).isInstanceOf(IllegalStateException.class);
+        verifyNoMoreInteractions(remote);
+    }
+
+    @Test
+    public void requestsTimeOutIfTheBatchDoesNotComplete() {
+        MultiNamespaceTimelockBatcher impatientBatcher =
+                new MultiNamespaceTimelockBatcher(remote, scheduler, 10L, 100L);
+        TimelockService impatientNamespace = impatientBatcher.forNamespace(NAMESPACE_1, mock(TimelockService.class));
+
+        assertThatThrownBy(impatientNamespace::getFreshTimestamp).hasCauseInstanceOf(TimeoutException.class);
+
+        when(remote.runBatch(any())).thenReturn(ImmutableMap.of(NAMESPACE_1, EMPTY_RESPONSE));
+        scheduler.tick(10, TimeUnit.MILLISECONDS);
+        verify(remote).runBatch(ImmutableMap.of(NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder().build()));
+        assertThat(impatientBatcher.getNumPendingRequests()).isZero();
+    }
+
+    @Test
+    public void leavesLockRequestsThatTimedOutOutOfTheBatch() {
+        MultiNamespaceTimelockBatcher impatientBatcher =
+                new MultiNamespaceTimelockBatcher(remote, scheduler, 10L, 100L);
+        TimelockService impatientNamespace = impatientBatcher.forNamespace(NAMESPACE_1, mock(TimelockService.class));
+
+        assertThatThrownBy(() -> impatientNamespace.unlock(ImmutableSet.of(TOKEN_1)))
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        when(remote.runBatch(any())).thenReturn(ImmutableMap.of(NAMESPACE_1, EMPTY_RESPONSE));
+        scheduler.tick(10, TimeUnit.MILLISECONDS);
+        verify(remote).runBatch(ImmutableMap.of(NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder().build()));
+    }
+
+    private static NamespaceLockOperation refresh(LockToken... tokens) {
+        return NamespaceLockOperation.of(NamespaceLockOperation.Type.REFRESH, ImmutableSet.copyOf(tokens));
+    }
+
+    private static NamespaceLockOperation unlock(LockToken... tokens) {
+        return NamespaceLockOperation.of(NamespaceLockOperation.Type.UNLOCK, ImmutableSet.copyOf(tokens));
+    }
+
+    private static NamespaceTimelockRequest lockRequest(NamespaceLockOperation... operations) {
+        return ImmutableNamespaceTimelockRequest.builder().addLockOperations(operations).build();
+    }
+
+    @SafeVarargs
+    private static NamespaceTimelockResponse lockResponse(Set<LockToken>... results) {
+        return ImmutableNamespaceTimelockResponse.builder().addLockOperationResults(results).build();
+    }
+
+    private void awaitPendingRequests(int numRequests) {
+        Awaitility.await()
+                .atMost(5, TimeUnit.SECONDS)
+                .until(() -> batcher.getNumPendingRequests() == numRequests);
+    }
+
+    private void runBatchOnceRequestsArePending(int numRequests) {
+        awaitPendingRequests(numRequests);
+        scheduler.tick(10, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import com.palantir.lock.LockClient;
+
+/**
+ * A set multimap keyed by lock client, which unlike a synchronized multimap does not serialize updates for different
+ * clients behind a single monitor. Empty value sets are removed, so that clients which come and go do not leak.
+ */
+@ThreadSafe
+final class ConcurrentLockClientMultimap<V> {
+    private final ConcurrentMap<LockClient, Set<V>> valuesByClient = new ConcurrentHashMap<>();
+
+    void put(LockClient client, V value) {
+        valuesByClient.compute(client, (unused, values) -> {
+            Set<V> newValues = values == null ? Sets.newConcurrentHashSet() : values;
+            newValues.add(value);
+            return newValues;
+        });
+    }
+
+    void remove(LockClient client, V value) {
+        valuesByClient.computeIfPresent(client, (unused, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    /** Returns a weakly consistent, unmodifiable view of the values currently associated with the client. */
+    Set<V> get(LockClient client) {
+        Set<V> values = valuesByClient.get(client);
+        return values == null ? Collections.emptySet() : Collections.unmodifiableSet(values);
+    }
+
+    int size() {
+        return valuesByClient.values().stream().mapToInt(Set::size).sum();
+    }
+
+    SetMultimap<LockClient, V> snapshot() {
+        ImmutableSetMultimap.Builder<LockClient, V> snapshot = ImmutableSetMultimap.builder();
+        valuesByClient.forEach(snapshot::putAll);
+        return snapshot.build();
+    }
+}
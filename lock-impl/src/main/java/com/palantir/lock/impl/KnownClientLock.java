@@ -15,6 +15,7 @@
  */
 package com.palantir.lock.impl;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
@@ -60,6 +61,14 @@ public interface KnownClientLock {
      */
     @Nullable LockClient tryLock(long time, TimeUnit unit) throws InterruptedException;
 
+    /**
+     * Acquires the lock without blocking the current thread. The returned future
+     * completes once the lock has been acquired; requests made this way are
+     * granted in the order they were made, ahead of any blocked threads.
+     * Cancelling the future before it completes abandons the request.
+     */
+    CompletableFuture<Void> lockAsync();
+
     /**
      * Changes the state of this lock so that it is held by {@code newClient}
      * instead of by the registered client. Note that the registered
@@ -15,6 +15,7 @@
  */
 package com.palantir.lock.impl;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -130,6 +131,11 @@ public class LockServerLock implements ClientAwareReadWriteLock {
             return client;
         }
 
+        @Override
+        public CompletableFuture<Void> lockAsync() {
+            return sync.acquireAsync(clientIndex, true);
+        }
+
         @Override
         public void changeOwner(LockClient newOwner) {
             sync.changeOwnerShared(clientIndex, newOwner);
@@ -137,7 +143,7 @@ public class LockServerLock implements ClientAwareReadWriteLock {
 
         @Override
         public void unlock() {
-            sync.releaseShared(clientIndex);
+            sync.unlockShared(clientIndex);
         }
 
         @Override
@@ -212,6 +218,11 @@ public class LockServerLock implements ClientAwareReadWriteLock {
             return client;
         }
 
+        @Override
+        public CompletableFuture<Void> lockAsync() {
+            return sync.acquireAsync(clientIndex, false);
+        }
+
         @Override
         public void changeOwner(LockClient newOwner) {
             sync.changeOwner(clientIndex, newOwner);
@@ -219,7 +230,7 @@ public class LockServerLock implements ClientAwareReadWriteLock {
 
         @Override
         public void unlock() {
-            sync.release(clientIndex);
+            sync.unlock(clientIndex);
         }
 
         @Override
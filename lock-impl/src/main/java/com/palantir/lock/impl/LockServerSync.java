@@ -15,7 +15,13 @@
  */
 package com.palantir.lock.impl;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
@@ -38,6 +44,12 @@ class LockServerSync extends AbstractQueuedSynchronizer {
     private @GuardedBy("this") int writeLockHolder = 0;
     private @GuardedBy("this") TIntIntMap readLockHolders;
 
+    /**
+     * Requests that are waiting for this lock without holding a thread. These are granted in FIFO order whenever the
+     * lock is released, and take precedence over threads parked in the synchronizer's queue.
+     */
+    private final @GuardedBy("this") Deque<AsyncWaiter> asyncWaiters = new ArrayDeque<>();
+
     public LockServerSync(LockClientIndices clients) {
         this.clients = Preconditions.checkNotNull(clients);
     }
@@ -57,6 +69,11 @@ class LockServerSync extends AbstractQueuedSynchronizer {
 
     @Override
     protected synchronized boolean tryAcquire(int clientIndex) {
+        return tryAcquire(clientIndex, hasBlockedPredecessors());
+    }
+
+    @GuardedBy("this")
+    private boolean tryAcquire(int clientIndex, boolean hasBlockedPredecessors) {
         if (frozen) {
             return false;
         }
@@ -65,7 +82,7 @@ class LockServerSync extends AbstractQueuedSynchronizer {
             setState(writeCount + 1);
             return true;
         }
-        if (hasBlockedPredecessors()) {
+        if (hasBlockedPredecessors) {
             return false;
         }
         if (writeCount == 0 && !isReadLockHeld()) {
@@ -98,11 +115,16 @@ class LockServerSync extends AbstractQueuedSynchronizer {
 
     @Override
     protected synchronized int tryAcquireShared(int clientIndex) {
+        return tryAcquireShared(clientIndex, hasBlockedPredecessors());
+    }
+
+    @GuardedBy("this")
+    private int tryAcquireShared(int clientIndex, boolean hasBlockedPredecessors) {
         if (frozen) {
             return -1;
         }
         int writeCount = getState();
-        if (writeCount == 0 && !holdsReadLock(clientIndex) && hasBlockedPredecessors()) {
+        if (writeCount == 0 && !holdsReadLock(clientIndex) && hasBlockedPredecessors) {
             return -1;
         }
         if (writeCount > 0 && !holdsWriteLock(clientIndex)) {
@@ -122,7 +144,12 @@ class LockServerSync extends AbstractQueuedSynchronizer {
         return false;
     }
 
-    synchronized void unlockAndFreeze(int clientIndex) {
+    void unlockAndFreeze(int clientIndex) {
+        releaseAndFreeze(clientIndex);
+        grantAsyncWaiters();
+    }
+
+    private synchronized void releaseAndFreeze(int clientIndex) {
         if (isAnonymous(clientIndex)) {
             throw LockServerLock.throwIllegalMonitorStateException(
                     "anonymous clients cannot call unlockAndFreeze()");
@@ -137,6 +164,115 @@ class LockServerSync extends AbstractQueuedSynchronizer {
         }
     }
 
+    /** Releases the write lock, and then grants the lock to any async waiters that can now acquire it. */
+    void unlock(int clientIndex) {
+        release(clientIndex);
+        grantAsyncWaiters();
+    }
+
+    /** Releases the read lock, and then grants the lock to any async waiters that can now acquire it. */
+    void unlockShared(int clientIndex) {
+        releaseShared(clientIndex);
+        grantAsyncWaiters();
+    }
+
+    /**
+     * Acquires the lock without blocking the calling thread. If the lock can be acquired immediately, the returned
+     * future is already complete; otherwise the request is queued, and the future completes once a release grants it
+     * the lock. Cancelling the future before then removes the request from the queue.
+     */
+    CompletableFuture<Void> acquireAsync(int clientIndex, boolean shared) {
+        AsyncWaiter waiter = new AsyncWaiter(clientIndex, shared);
+        synchronized (this) {
+            // Async requests only queue behind each other, so they can never wait on a parked thread that is itself
+            // waiting for them to be granted.
+            if (tryAcquireFor(waiter, !asyncWaiters.isEmpty())) {
+                return CompletableFuture.completedFuture(null);
+            }
+            asyncWaiters.addLast(waiter);
+        }
+        waiter.future.whenComplete((unused, error) -> {
+            if (error != null) {
+                removeAsyncWaiter(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    private void removeAsyncWaiter(AsyncWaiter waiter) {
+        boolean removed;
+        Thread firstQueuedThread = null;
+        synchronized (this) {
+            removed = asyncWaiters.remove(waiter);
+            if (removed && asyncWaiters.isEmpty()) {
+                firstQueuedThread = getFirstQueuedThread();
+            }
+        }
+        // The waiters and threads behind this one may have been held back only by it.
+        if (firstQueuedThread != null) {
+            LockSupport.unpark(firstQueuedThread);
+        }
+        if (removed) {
+            grantAsyncWaiters();
+        }
+    }
+
+    private void grantAsyncWaiters() {
+        List<AsyncWaiter> granted = new ArrayList<>();
+        List<AsyncWaiter> failed = new ArrayList<>();
+        Thread firstQueuedThread = null;
+        synchronized (this) {
+            if (asyncWaiters.isEmpty()) {
+                return;
+            }
+            while (!asyncWaiters.isEmpty()) {
+                AsyncWaiter waiter = asyncWaiters.peekFirst();
+                if (waiter.future.isDone()) {
+                    asyncWaiters.removeFirst();
+                    continue;
+                }
+                try {
+                    if (!tryAcquireFor(waiter, false)) {
+                        break;
+                    }
+                    granted.add(waiter);
+                } catch (IllegalMonitorStateException e) {
+                    waiter.error = e;
+                    failed.add(waiter);
+                }
+                asyncWaiters.removeFirst();
+            }
+            if (asyncWaiters.isEmpty()) {
+                firstQueuedThread = getFirstQueuedThread();
+            }
+        }
+        if (firstQueuedThread != null) {
+            // A parked thread may have given up on the lock only because async waiters were ahead of it.
+            LockSupport.unpark(firstQueuedThread);
+        }
+        // Futures are completed outside the monitor, as their callbacks may go on to acquire other locks.
+        for (AsyncWaiter waiter : failed) {
+            waiter.future.completeExceptionally(waiter.error);
+        }
+        for (AsyncWaiter waiter : granted) {
+            if (!waiter.future.complete(null)) {
+                // The waiter was cancelled after we granted it the lock, so nobody else will release it.
+                if (waiter.shared) {
+                    unlockShared(waiter.clientIndex);
+                } else {
+                    unlock(waiter.clientIndex);
+                }
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean tryAcquireFor(AsyncWaiter waiter, boolean hasBlockedPredecessors) {
+        return waiter.shared
+                ? tryAcquireShared(waiter.clientIndex, hasBlockedPredecessors) > 0
+                : tryAcquire(waiter.clientIndex, hasBlockedPredecessors);
+    }
+
     synchronized void changeOwnerShared(int oldClient, LockClient newClient) {
         int newIndex = clients.toIndex(newClient);
         if (oldClient == newIndex) {
@@ -224,7 +360,11 @@ class LockServerSync extends AbstractQueuedSynchronizer {
     // future invocations of hasQueuedThreads() and hasQueuedPredecessors() to return true, when in fact there are no
     // queued threads. This causes us to spin indefinitely in LockServerLock#tryLock.
     // To get around this, we use getFirstQueuedThread(), which is not vulnerable to this bug.
+    @GuardedBy("this")
     private boolean hasBlockedPredecessors() {
+        if (!asyncWaiters.isEmpty()) {
+            return true;
+        }
         Thread queuedThread = getFirstQueuedThread();
         return queuedThread != null && queuedThread != Thread.currentThread();
     }
@@ -241,6 +381,7 @@ class LockServerSync extends AbstractQueuedSynchronizer {
                 .add("writeClient", writeLockHolder == 0 ? null : clients.fromIndex(writeLockHolder))
                 .add("readClients", clients.fromIndices(getReadClients()))
                 .add("queuedThreads", getQueueLength())
+                .add("asyncWaiters", asyncWaiters.size())
                 .add("isFrozen", frozen)
                 .toString();
     }
@@ -282,4 +423,16 @@ class LockServerSync extends AbstractQueuedSynchronizer {
         }
         return Ints.asList(readLockHolders.keys()); // (authorized)
     }
+
+    private static final class AsyncWaiter {
+        private final int clientIndex;
+        private final boolean shared;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private IllegalMonitorStateException error;
+
+        private AsyncWaiter(int clientIndex, boolean shared) {
+            this.clientIndex = clientIndex;
+            this.shared = shared;
+        }
+    }
 }
@@ -28,12 +28,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -56,7 +63,6 @@ import com.google.common.base.Supplier;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
@@ -67,7 +73,6 @@ import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
-import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import com.google.common.collect.TreeMultiset;
 import com.palantir.common.base.Throwables;
@@ -110,8 +115,8 @@ import com.palantir.util.JMXUtils;
  * @author jtamer
  */
 @ThreadSafe
-public final class LockServiceImpl
-        implements LockService, CloseableRemoteLockService, CloseableLockService, RemoteLockService, LockServiceImplMBean {
+public final class LockServiceImpl implements LockService, NonBlockingLockService, CloseableRemoteLockService,
+        CloseableLockService, RemoteLockService, LockServiceImplMBean {
 
     private static final Logger log = LoggerFactory.getLogger(LockServiceImpl.class);
     private static final Logger requestLogger = LoggerFactory.getLogger("lock.request");
@@ -128,9 +133,13 @@ public final class LockServiceImpl
     @VisibleForTesting
     static final long DEBUG_SLOW_LOG_TRIGGER_MILLIS = 100;
 
-    /** Executor for the reaper threads. */
-    private final ExecutorService executor = PTExecutors.newCachedThreadPool(
-            new NamedThreadFactory(LockServiceImpl.class.getName(), true));
+    /** Executor for the reaper threads, and for the next steps of lock requests waiting without a thread. */
+    private final ExecutorService executor = PTExecutors.newBlockingExecutor(
+            LockServiceImpl.class.getName(), Integer.MAX_VALUE, true);
+
+    /** Times out the lock requests that are waiting for their locks without holding a thread. */
+    private final ScheduledThreadPoolExecutor asyncTimeoutExecutor = PTExecutors.newScheduledThreadPool(1,
+            new NamedThreadFactory(LockServiceImpl.class.getName() + "-timeouts", true));
 
     private static final Function<HeldLocksToken, String> TOKEN_TO_ID =
             from -> from.getTokenId().toString(Character.MAX_RADIX);
@@ -168,6 +177,7 @@ public final class LockServiceImpl
     private final SecureRandomPool randomPool = new SecureRandomPool(SECURE_RANDOM_ALGORITHM, SECURE_RANDOM_POOL_SIZE);
 
     private final boolean isStandaloneServer;
+    private final boolean useSecureRandomTokenIds;
     private final long slowLogTriggerMillis;
     private final SimpleTimeDuration maxAllowedLockTimeout;
     private final SimpleTimeDuration maxAllowedClockDrift;
@@ -205,15 +215,19 @@ public final class LockServiceImpl
             new PriorityBlockingQueue<HeldLocksGrant>(1, ExpiringToken.COMPARATOR);
 
     /** The mapping from lock client to the set of tokens held by that client. */
-    private final SetMultimap<LockClient, HeldLocksToken> lockClientMultimap =
-            Multimaps.synchronizedSetMultimap(HashMultimap.<LockClient, HeldLocksToken>create());
+    private final ConcurrentLockClientMultimap<HeldLocksToken> lockClientMultimap =
+            new ConcurrentLockClientMultimap<>();
 
-    private final SetMultimap<LockClient, LockRequest> outstandingLockRequestMultimap =
-        Multimaps.synchronizedSetMultimap(HashMultimap.<LockClient, LockRequest>create());
+    private final ConcurrentLockClientMultimap<LockRequest> outstandingLockRequestMultimap =
+            new ConcurrentLockClientMultimap<>();
 
     private final Set<Thread> indefinitelyBlockingThreads =
             Sets.newConcurrentHashSet();
 
+    /** The requests from {@link #lockWithFullLockResponseAsync} that are still waiting for their locks. */
+    private final Set<AsyncLockRequest> outstandingAsyncLockRequests =
+            Sets.newConcurrentHashSet();
+
     private final Multimap<LockClient, Long> versionIdMap = Multimaps.synchronizedMultimap(
             Multimaps.newMultimap(Maps.<LockClient, Collection<Long>>newHashMap(), () -> TreeMultiset.create()));
 
@@ -242,12 +256,14 @@ public final class LockServiceImpl
         Preconditions.checkNotNull(options);
         this.callOnClose = callOnClose;
         isStandaloneServer = options.isStandaloneServer();
+        useSecureRandomTokenIds = options.useSecureRandomTokenIds();
         maxAllowedLockTimeout = SimpleTimeDuration.of(options.getMaxAllowedLockTimeout());
         maxAllowedClockDrift = SimpleTimeDuration.of(options.getMaxAllowedClockDrift());
         maxNormalLockAge = SimpleTimeDuration.of(options.getMaxNormalLockAge());
         lockStateLoggerDir = options.getLockStateLoggerDir();
 
         slowLogTriggerMillis = options.slowLogTriggerMillis();
+        asyncTimeoutExecutor.setRemoveOnCancelPolicy(true);
         executor.execute(() -> {
             Thread.currentThread().setName("Held Locks Token Reaper");
             reapLocks(lockTokenReaperQueue, heldLocksTokenMap);
@@ -263,7 +279,7 @@ public final class LockServiceImpl
             LockCollection<? extends ClientAwareReadWriteLock> heldLocksMap, TimeDuration lockTimeout,
             @Nullable Long versionId, String requestThread) {
         while (true) {
-            BigInteger tokenId = new BigInteger(RANDOM_BIT_COUNT, randomPool.getSecureRandom());
+            BigInteger tokenId = createRandomId();
             long expirationDateMs = currentTimeMillis() + lockTimeout.toMillis();
             HeldLocksToken token = new HeldLocksToken(tokenId, client, currentTimeMillis(),
                     expirationDateMs, lockDescriptorMap, lockTimeout, versionId, requestThread);
@@ -283,11 +299,16 @@ public final class LockServiceImpl
         }
     }
 
+    private BigInteger createRandomId() {
+        Random random = useSecureRandomTokenIds ? randomPool.getSecureRandom() : ThreadLocalRandom.current();
+        return new BigInteger(RANDOM_BIT_COUNT, random);
+    }
+
     private HeldLocksGrant createHeldLocksGrant(SortedLockCollection<LockDescriptor> lockDescriptorMap,
             LockCollection<? extends ClientAwareReadWriteLock> heldLocksMap, TimeDuration lockTimeout,
             @Nullable Long versionId) {
         while (true) {
-            BigInteger grantId = new BigInteger(RANDOM_BIT_COUNT, randomPool.getSecureRandom());
+            BigInteger grantId = createRandomId();
             long expirationDateMs = currentTimeMillis() + lockTimeout.toMillis();
             HeldLocksGrant grant = new HeldLocksGrant(grantId, System.currentTimeMillis(),
                     expirationDateMs, lockDescriptorMap, lockTimeout, versionId);
@@ -321,18 +342,10 @@ public final class LockServiceImpl
     @Override
     // We're concerned about sanitizing logs at the info level and above. This method just logs at debug and info.
     public LockResponse lockWithFullLockResponse(LockClient client, LockRequest request) throws InterruptedException {
-        Preconditions.checkNotNull(client);
-        Preconditions.checkArgument(!client.equals(INTERNAL_LOCK_GRANT_CLIENT));
-        Preconditions.checkArgument(request.getLockTimeout().compareTo(maxAllowedLockTimeout) <= 0,
-                "Requested lock timeout (%s) is greater than maximum allowed lock timeout (%s)",
-                request.getLockTimeout(), maxAllowedLockTimeout);
+        checkLockRequest(client, request);
 
         long startTime = System.currentTimeMillis();
-        if (requestLogger.isDebugEnabled()) {
-            requestLogger.debug("LockServiceImpl processing lock request {} for requesting thread {}",
-                    UnsafeArg.of("lockRequest", request),
-                    SafeArg.of("requestingThread", request.getCreatingThreadName()));
-        }
+        logLockRequest(request);
         Map<ClientAwareReadWriteLock, LockMode> locks = Maps.newLinkedHashMap();
         if (isShutDown.get()) {
             throw new ServiceNotAvailableException("This lock server is shut down.");
@@ -355,72 +368,124 @@ public final class LockServiceImpl
             tryLocks(client, request, request.getBlockingMode(), deadline,
                     request.getLockGroupBehavior(), locks, failedLocks);
 
-            if (request.getBlockingMode() == BlockingMode.BLOCK_INDEFINITELY_THEN_RELEASE) {
-                if (log.isTraceEnabled()) {
-                    logNullResponse(client, request, null);
-                }
-                if (requestLogger.isDebugEnabled()) {
-                    requestLogger.debug("Timed out requesting {} for requesting thread {} after {} ms",
-                            UnsafeArg.of("request", request),
-                            SafeArg.of("threadName", request.getCreatingThreadName()),
-                            SafeArg.of("timeoutMillis", System.currentTimeMillis() - startTime));
-                }
-                return new LockResponse(failedLocks);
+            LockResponse response = createLockResponse(client, request, locks, failedLocks, startTime);
+            if (response.getToken() != null && Thread.interrupted()) {
+                throw new InterruptedException("Interrupted while locking.");
             }
+            return response;
+        } finally {
+            outstandingLockRequestMultimap.remove(client, request);
+            indefinitelyBlockingThreads.remove(Thread.currentThread());
+            releaseLocks(client, locks);
+        }
+    }
 
-            if (locks.isEmpty() || ((request.getLockGroupBehavior() == LOCK_ALL_OR_NONE)
-                    && (locks.size() < request.getLockDescriptors().size()))) {
-                if (log.isTraceEnabled()) {
-                    logNullResponse(client, request, null);
-                }
-                if (requestLogger.isDebugEnabled()) {
-                    requestLogger.debug("Failed to acquire all locks for {} for requesting thread {} after {} ms",
-                            UnsafeArg.of("request", request),
-                            SafeArg.of("threadName", request.getCreatingThreadName()),
-                            SafeArg.of("waitMillis", System.currentTimeMillis() - startTime));
-                }
-                if (requestLogger.isTraceEnabled()) {
-                    logLockAcquisitionFailure(failedLocks);
-                }
-                return new LockResponse(null, failedLocks);
-            }
+    /**
+     * Acquires locks as {@link #lockWithFullLockResponse(LockClient, LockRequest)} does, but waits for each lock by
+     * queueing on it rather than by parking the calling thread. Once the request's locks are granted, or its
+     * blocking duration elapses, the rest of the request runs on a lock server thread and completes the returned
+     * future; shutting down the lock server fails any requests that are still waiting. Cancelling the returned future
+     * aborts the request and releases any locks it has acquired.
+     */
+    @Override
+    public CompletableFuture<LockResponse> lockWithFullLockResponseAsync(LockClient client, LockRequest request) {
+        checkLockRequest(client, request);
 
-            Builder<LockDescriptor, LockMode> lockDescriptorMap = ImmutableSortedMap.naturalOrder();
-            for (Entry<ClientAwareReadWriteLock, LockMode> entry : locks.entrySet()) {
-                lockDescriptorMap.put(entry.getKey().getDescriptor(), entry.getValue());
+        logLockRequest(request);
+        if (isShutDown.get()) {
+            throw new ServiceNotAvailableException("This lock server is shut down.");
+        }
+        AsyncLockRequest asyncLockRequest = new AsyncLockRequest(client, request);
+        asyncLockRequest.start();
+        return asyncLockRequest.result;
+    }
+
+    private void checkLockRequest(LockClient client, LockRequest request) {
+        Preconditions.checkNotNull(client);
+        Preconditions.checkArgument(!client.equals(INTERNAL_LOCK_GRANT_CLIENT));
+        Preconditions.checkArgument(request.getLockTimeout().compareTo(maxAllowedLockTimeout) <= 0,
+                "Requested lock timeout (%s) is greater than maximum allowed lock timeout (%s)",
+                request.getLockTimeout(), maxAllowedLockTimeout);
+    }
+
+    private void logLockRequest(LockRequest request) {
+        if (requestLogger.isDebugEnabled()) {
+            requestLogger.debug("LockServiceImpl processing lock request {} for requesting thread {}",
+                    UnsafeArg.of("lockRequest", request),
+                    SafeArg.of("requestingThread", request.getCreatingThreadName()));
+        }
+    }
+
+    /**
+     * Creates the response to a lock request once it has finished trying to acquire its locks. If the request was
+     * successful, the locks it acquired are handed over to a new token and removed from {@code locks}; otherwise
+     * they are left there for the caller to release.
+     */
+    private LockResponse createLockResponse(LockClient client, LockRequest request,
+            Map<ClientAwareReadWriteLock, LockMode> locks, Map<LockDescriptor, LockClient> failedLocks,
+            long startTime) {
+        if (request.getBlockingMode() == BlockingMode.BLOCK_INDEFINITELY_THEN_RELEASE) {
+            if (log.isTraceEnabled()) {
+                logNullResponse(client, request, null);
             }
-            if (request.getVersionId() != null) {
-                versionIdMap.put(client, request.getVersionId());
+            if (requestLogger.isDebugEnabled()) {
+                requestLogger.debug("Timed out requesting {} for requesting thread {} after {} ms",
+                        UnsafeArg.of("request", request),
+                        SafeArg.of("threadName", request.getCreatingThreadName()),
+                        SafeArg.of("timeoutMillis", System.currentTimeMillis() - startTime));
             }
-            HeldLocksToken token = createHeldLocksToken(client, LockCollections.of(lockDescriptorMap.build()), LockCollections.of(locks),
-                    request.getLockTimeout(), request.getVersionId(), request.getCreatingThreadName());
-            locks.clear();
+            return new LockResponse(failedLocks);
+        }
+
+        if (locks.isEmpty() || ((request.getLockGroupBehavior() == LOCK_ALL_OR_NONE)
+                && (locks.size() < request.getLockDescriptors().size()))) {
             if (log.isTraceEnabled()) {
-                logNullResponse(client, request, token);
-            }
-            if (Thread.interrupted()) {
-                throw new InterruptedException("Interrupted while locking.");
+                logNullResponse(client, request, null);
             }
             if (requestLogger.isDebugEnabled()) {
-                requestLogger.debug("Successfully acquired locks {} for requesting thread {} after {} ms",
+                requestLogger.debug("Failed to acquire all locks for {} for requesting thread {} after {} ms",
                         UnsafeArg.of("request", request),
                         SafeArg.of("threadName", request.getCreatingThreadName()),
                         SafeArg.of("waitMillis", System.currentTimeMillis() - startTime));
             }
-            return new LockResponse(token, failedLocks);
-        } finally {
-            outstandingLockRequestMultimap.remove(client, request);
-            indefinitelyBlockingThreads.remove(Thread.currentThread());
-            try {
-                for (Entry<ClientAwareReadWriteLock, LockMode> entry : locks.entrySet()) {
-                    entry.getKey().get(client, entry.getValue()).unlock();
-                }
-            } catch (Throwable e) { // (authorized)
-                log.error("Internal lock server error: state has been corrupted!!",
-                        UnsafeArg.of("exception", e),
-                        SafeArg.of("stacktrace", e.getStackTrace()));
-                throw Throwables.throwUncheckedException(e);
+            if (requestLogger.isTraceEnabled()) {
+                logLockAcquisitionFailure(failedLocks);
+            }
+            return new LockResponse(null, failedLocks);
+        }
+
+        Builder<LockDescriptor, LockMode> lockDescriptorMap = ImmutableSortedMap.naturalOrder();
+        for (Entry<ClientAwareReadWriteLock, LockMode> entry : locks.entrySet()) {
+            lockDescriptorMap.put(entry.getKey().getDescriptor(), entry.getValue());
+        }
+        if (request.getVersionId() != null) {
+            versionIdMap.put(client, request.getVersionId());
+        }
+        HeldLocksToken token = createHeldLocksToken(client, LockCollections.of(lockDescriptorMap.build()), LockCollections.of(locks),
+                request.getLockTimeout(), request.getVersionId(), request.getCreatingThreadName());
+        locks.clear();
+        if (log.isTraceEnabled()) {
+            logNullResponse(client, request, token);
+        }
+        if (requestLogger.isDebugEnabled()) {
+            requestLogger.debug("Successfully acquired locks {} for requesting thread {} after {} ms",
+                    UnsafeArg.of("request", request),
+                    SafeArg.of("threadName", request.getCreatingThreadName()),
+                    SafeArg.of("waitMillis", System.currentTimeMillis() - startTime));
+        }
+        return new LockResponse(token, failedLocks);
+    }
+
+    private void releaseLocks(LockClient client, Map<ClientAwareReadWriteLock, LockMode> locks) {
+        try {
+            for (Entry<ClientAwareReadWriteLock, LockMode> entry : locks.entrySet()) {
+                entry.getKey().get(client, entry.getValue()).unlock();
             }
+        } catch (Throwable e) { // (authorized)
+            log.error("Internal lock server error: state has been corrupted!!",
+                    UnsafeArg.of("exception", e),
+                    SafeArg.of("stacktrace", e.getStackTrace()));
+            throw Throwables.throwUncheckedException(e);
         }
     }
 
@@ -649,12 +714,10 @@ public final class LockServiceImpl
             throw new IllegalArgumentException("Illegal client!");
         }
         ImmutableSet.Builder<HeldLocksToken> tokens = ImmutableSet.builder();
-        synchronized (lockClientMultimap) {
-            for (HeldLocksToken token : lockClientMultimap.get(client)) {
-                @Nullable HeldLocks<HeldLocksToken> heldLocks = heldLocksTokenMap.get(token);
-                if ((heldLocks != null) && !isFrozen(heldLocks.locks.getKeys())) {
-                    tokens.add(token);
-                }
+        for (HeldLocksToken token : lockClientMultimap.get(client)) {
+            @Nullable HeldLocks<HeldLocksToken> heldLocks = heldLocksTokenMap.get(token);
+            if ((heldLocks != null) && !isFrozen(heldLocks.locks.getKeys())) {
+                tokens.add(token);
             }
         }
         ImmutableSet<HeldLocksToken> tokenSet = tokens.build();
@@ -1032,7 +1095,7 @@ public final class LockServiceImpl
     private void logAllHeldAndOutstandingLocks() throws IOException {
         LockServiceStateLogger lockServiceStateLogger = new LockServiceStateLogger(
                 heldLocksTokenMap,
-                outstandingLockRequestMultimap,
+                outstandingLockRequestMultimap.snapshot(),
                 descriptorToLockMap.asMap(),
                 lockStateLoggerDir);
         lockServiceStateLogger.logLocks();
@@ -1061,11 +1124,19 @@ public final class LockServiceImpl
     public void close() {
         if (isShutDown.compareAndSet(false, true)) {
             executor.shutdownNow();
+            asyncTimeoutExecutor.shutdownNow();
             wakeIndefiniteBlockers();
+            abortAsyncLockRequests();
             callOnClose.run();
         }
     }
 
+    private void abortAsyncLockRequests() {
+        for (AsyncLockRequest request : outstandingAsyncLockRequests) {
+            request.abort();
+        }
+    }
+
     private void wakeIndefiniteBlockers() {
         for (Thread blocked : indefinitelyBlockingThreads) {
             blocked.interrupt();
@@ -1101,4 +1172,196 @@ public final class LockServiceImpl
         }
     }
 
+    /**
+     * A lock request that waits for its locks without holding a thread. As in {@link #tryLocks}, locks are acquired
+     * one at a time in the order of the request; whenever a lock cannot be acquired straight away, the request queues
+     * on it and continues once it is granted. Only one step of a request runs at a time, and each step happens after
+     * the one before it, so apart from the flags used to time out or abort a waiting request, its state is only ever
+     * accessed by one thread at a time.
+     */
+    private final class AsyncLockRequest {
+        private final LockClient client;
+        private final LockRequest request;
+        private final long startTime = System.currentTimeMillis();
+        @Nullable private final Long deadline;
+        private final Iterator<Entry<LockDescriptor, LockMode>> remainingLocks;
+        private final Map<ClientAwareReadWriteLock, LockMode> locks = Maps.newLinkedHashMap();
+        private final Map<LockDescriptor, LockClient> failedLocks = Maps.newHashMap();
+        private final CompletableFuture<LockResponse> result = new CompletableFuture<>();
+
+        @Nullable private ScheduledFuture<?> timeout;
+        @Nullable private volatile CompletableFuture<Void> pendingLock;
+        private volatile boolean timedOut = false;
+        private volatile boolean aborted = false;
+
+        AsyncLockRequest(LockClient client, LockRequest request) {
+            this.client = client;
+            this.request = request;
+            this.deadline = request.getBlockingMode() == BLOCK_UNTIL_TIMEOUT
+                    ? System.nanoTime() + request.getBlockingDuration().toNanos()
+                    : null;
+            this.remainingLocks = request.getLockDescriptors().entries().iterator();
+        }
+
+        void start() {
+            result.whenComplete((unused, error) -> {
+                if (result.isCancelled()) {
+                    abort();
+                }
+            });
+            outstandingLockRequestMultimap.put(client, request);
+            outstandingAsyncLockRequests.add(this);
+            try {
+                if (request.getBlockingMode() == DO_NOT_BLOCK) {
+                    tryLocks(client, request, DO_NOT_BLOCK, null, request.getLockGroupBehavior(), locks,
+                            failedLocks);
+                    finish();
+                    return;
+                }
+                if (deadline != null) {
+                    if (request.getLockGroupBehavior() == LOCK_AS_MANY_AS_POSSIBLE) {
+                        tryLocks(client, request, DO_NOT_BLOCK, null, LOCK_AS_MANY_AS_POSSIBLE, locks,
+                                failedLocks);
+                    }
+                    timeout = asyncTimeoutExecutor.schedule(
+                            this::timeOut, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                acquireRemainingLocks();
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private void acquireRemainingLocks() {
+            while (remainingLocks.hasNext()) {
+                if (aborted || isShutDown.get()) {
+                    fail(new ServiceNotAvailableException("This lock server is shut down."));
+                    return;
+                }
+                Entry<LockDescriptor, LockMode> entry = remainingLocks.next();
+                if (request.getBlockingMode() == BlockingMode.BLOCK_INDEFINITELY_THEN_RELEASE
+                        && !descriptorToLockMap.asMap().containsKey(entry.getKey())) {
+                    continue;
+                }
+                ClientAwareReadWriteLock lock = descriptorToLockMap.getUnchecked(entry.getKey());
+                if (locks.containsKey(lock)) {
+                    // We already acquired this one without blocking.
+                    continue;
+                }
+                KnownClientLock knownClientLock = lock.get(client, entry.getValue());
+                @Nullable LockClient currentHolder = knownClientLock.tryLock();
+                if (currentHolder == null) {
+                    locks.put(lock, entry.getValue());
+                } else if (timedOut || isPastDeadline()) {
+                    failedLocks.put(entry.getKey(), currentHolder);
+                    if (request.getLockGroupBehavior() == LOCK_ALL_OR_NONE) {
+                        break;
+                    }
+                } else {
+                    awaitLock(lock, entry, knownClientLock, currentHolder);
+                    return;
+                }
+            }
+            finish();
+        }
+
+        private boolean isPastDeadline() {
+            return deadline != null && System.nanoTime() - deadline >= 0;
+        }
+
+        private void awaitLock(ClientAwareReadWriteLock lock, Entry<LockDescriptor, LockMode> entry,
+                KnownClientLock knownClientLock, LockClient currentHolder) {
+            long waitStartTime = System.currentTimeMillis();
+            CompletableFuture<Void> acquired = knownClientLock.lockAsync();
+            pendingLock = acquired;
+            if (timedOut || aborted) {
+                // We may have started waiting after the timeout or shutdown looked for a pending lock to cancel.
+                acquired.cancel(false);
+            }
+            acquired.whenComplete((unused, error) -> runNextStep(() -> {
+                if (log.isDebugEnabled() || isSlowLogEnabled()) {
+                    logSlowLockAcquisition(entry.getKey().toString(), error == null ? null : currentHolder,
+                            System.currentTimeMillis() - waitStartTime);
+                }
+                if (error == null) {
+                    locks.put(lock, entry.getValue());
+                } else if (error instanceof CancellationException && !aborted) {
+                    failedLocks.put(entry.getKey(), currentHolder);
+                    if (request.getLockGroupBehavior() == LOCK_ALL_OR_NONE) {
+                        finish();
+                        return;
+                    }
+                } else {
+                    fail(error);
+                    return;
+                }
+                acquireRemainingLocks();
+            }));
+        }
+
+        /**
+         * Runs the next step of this request on a lock server thread, rather than on the thread that released the
+         * lock we were waiting for.
+         */
+        private void runNextStep(Runnable step) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        step.run();
+                    } catch (Throwable t) {
+                        fail(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                fail(new ServiceNotAvailableException("This lock server is shut down."));
+            }
+        }
+
+        private void timeOut() {
+            timedOut = true;
+            cancelPendingLock();
+        }
+
+        void abort() {
+            aborted = true;
+            cancelPendingLock();
+        }
+
+        private void cancelPendingLock() {
+            CompletableFuture<Void> lock = pendingLock;
+            if (lock != null) {
+                lock.cancel(false);
+            }
+        }
+
+        private void finish() {
+            LockResponse response = createLockResponse(client, request, locks, failedLocks, startTime);
+            cleanUp();
+            if (!result.complete(response) && response.getLockRefreshToken() != null) {
+                // The request was cancelled while it was being granted, so nobody will use these locks.
+                unlock(response.getLockRefreshToken());
+            }
+        }
+
+        private void fail(Throwable error) {
+            try {
+                cleanUp();
+            } finally {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private void cleanUp() {
+            outstandingLockRequestMultimap.remove(client, request);
+            outstandingAsyncLockRequests.remove(this);
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            try {
+                releaseLocks(client, locks);
+            } finally {
+                locks.clear();
+            }
+        }
+    }
 }
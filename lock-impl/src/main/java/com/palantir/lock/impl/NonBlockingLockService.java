@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockResponse;
+import com.palantir.lock.LockService;
+
+/**
+ * A {@link LockService} that can also wait for locks without holding a thread, so that a server exposing it can
+ * suspend blocking lock requests instead of parking a request thread for each of them.
+ */
+public interface NonBlockingLockService extends LockService {
+    /**
+     * Behaves as {@link #lockWithFullLockResponse(LockClient, LockRequest)}, except that the returned future completes
+     * once the request has been granted, has timed out, or has failed, and no thread is blocked in the meantime.
+     * Cancelling the returned future gives up on the request, releasing any locks it has acquired.
+     */
+    CompletableFuture<LockResponse> lockWithFullLockResponseAsync(LockClient client, LockRequest request);
+}
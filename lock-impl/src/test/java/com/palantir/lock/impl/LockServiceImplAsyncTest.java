@@ -0,0 +1,203 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.palantir.common.remoting.ServiceNotAvailableException;
+import com.palantir.lock.HeldLocksToken;
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.LockMode;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockResponse;
+import com.palantir.lock.LockServerOptions;
+import com.palantir.lock.SimpleTimeDuration;
+import com.palantir.lock.StringLockDescriptor;
+
+public class LockServiceImplAsyncTest {
+    private static final LockClient CLIENT_1 = LockClient.of("client1");
+    private static final LockClient CLIENT_2 = LockClient.of("client2");
+    private static final LockClient CLIENT_3 = LockClient.of("client3");
+    private static final LockDescriptor LOCK_1 = StringLockDescriptor.of("lock1");
+    private static final LockDescriptor LOCK_2 = StringLockDescriptor.of("lock2");
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final LockServiceImpl lockService = LockServiceImpl.create(LockServerOptions.builder()
+            .isStandaloneServer(false)
+            .build());
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        lockService.close();
+    }
+
+    @Test
+    public void grantsFreeLocksImmediately() throws Exception {
+        CompletableFuture<LockResponse> response =
+                lockService.lockWithFullLockResponseAsync(CLIENT_1, writeLockRequest(LOCK_1).build());
+
+        assertThat(response).isDone();
+        assertThat(response.get().success()).isTrue();
+        assertThat(response.get().getToken().getLockDescriptors()).containsExactly(LOCK_1);
+    }
+
+    @Test
+    public void grantsLockOnceItIsReleased() throws Exception {
+        HeldLocksToken heldByOtherClient = lock(CLIENT_1, writeLockRequest(LOCK_1).build());
+
+        CompletableFuture<LockResponse> response =
+                lockService.lockWithFullLockResponseAsync(CLIENT_2, writeLockRequest(LOCK_1).build());
+        assertThat(response).isNotDone();
+
+        lockService.unlock(heldByOtherClient);
+        assertThat(getWithTimeout(response).getToken().getClient()).isEqualTo(CLIENT_2);
+    }
+
+    @Test
+    public void acquiresSeveralLocksInTurn() throws Exception {
+        HeldLocksToken lock1 = lock(CLIENT_1, writeLockRequest(LOCK_1).build());
+        HeldLocksToken lock2 = lock(CLIENT_3, writeLockRequest(LOCK_2).build());
+
+        CompletableFuture<LockResponse> response = lockService.lockWithFullLockResponseAsync(CLIENT_2,
+                LockRequest.builder(ImmutableSortedMap.of(LOCK_1, LockMode.WRITE, LOCK_2, LockMode.WRITE)).build());
+        lockService.unlock(lock1);
+        assertThat(response).isNotDone();
+
+        lockService.unlock(lock2);
+        assertThat(getWithTimeout(response).getToken().getLockDescriptors()).containsExactly(LOCK_1, LOCK_2);
+    }
+
+    @Test
+    public void timesOutIfLockIsNotReleased() throws Exception {
+        lock(CLIENT_1, writeLockRequest(LOCK_1).build());
+
+        CompletableFuture<LockResponse> response = lockService.lockWithFullLockResponseAsync(CLIENT_2,
+                writeLockRequest(LOCK_1).blockForAtMost(SimpleTimeDuration.of(100, TimeUnit.MILLISECONDS)).build());
+
+        LockResponse lockResponse = getWithTimeout(response);
+        assertThat(lockResponse.success()).isFalse();
+        assertThat(lockResponse.getLockHolders()).containsEntry(LOCK_1, CLIENT_1);
+        assertThat(lock(CLIENT_3, writeLockRequest(LOCK_2).doNotBlock().build())).isNotNull();
+    }
+
+    @Test
+    public void lockAndReleaseDoesNotHoldLocks() throws Exception {
+        HeldLocksToken heldByOtherClient = lock(CLIENT_1, writeLockRequest(LOCK_1).build());
+
+        CompletableFuture<LockResponse> response = lockService.lockWithFullLockResponseAsync(CLIENT_2,
+                writeLockRequest(LOCK_1).lockAndRelease().build());
+        lockService.unlock(heldByOtherClient);
+
+        assertThat(getWithTimeout(response).getToken()).isNull();
+        assertThat(lock(CLIENT_3, writeLockRequest(LOCK_1).doNotBlock().build())).isNotNull();
+    }
+
+    @Test
+    public void asyncRequestsAndBlockedThreadsAreBothGranted() throws Exception {
+        HeldLocksToken heldByOtherClient = lock(CLIENT_1, writeLockRequest(LOCK_1).build());
+
+        CompletableFuture<LockResponse> asyncResponse =
+                lockService.lockWithFullLockResponseAsync(CLIENT_2, writeLockRequest(LOCK_1).build());
+        Future<HeldLocksToken> blockingResponse = executor.submit(
+                () -> lock(CLIENT_3, writeLockRequest(LOCK_1).build()));
+
+        lockService.unlock(heldByOtherClient);
+        HeldLocksToken asyncToken = getWithTimeout(asyncResponse).getToken();
+        assertThat(asyncToken.getClient()).isEqualTo(CLIENT_2);
+
+        lockService.unlock(asyncToken);
+        assertThat(blockingResponse.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getClient()).isEqualTo(CLIENT_3);
+    }
+
+    @Test
+    public void cancellingARequestReleasesItsLocksAndStopsWaiting() throws Exception {
+        HeldLocksToken heldByOtherClient = lock(CLIENT_1, writeLockRequest(LOCK_2).build());
+        CompletableFuture<LockResponse> response = lockService.lockWithFullLockResponseAsync(CLIENT_2,
+                LockRequest.builder(ImmutableSortedMap.of(LOCK_1, LockMode.WRITE, LOCK_2, LockMode.WRITE)).build());
+        assertThat(response).isNotDone();
+
+        assertThat(response.cancel(false)).isTrue();
+
+        assertThat(lock(CLIENT_3, writeLockRequest(LOCK_1)
+                .blockForAtMost(SimpleTimeDuration.of(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .build())).isNotNull();
+        lockService.unlock(heldByOtherClient);
+        assertThat(lock(CLIENT_3, writeLockRequest(LOCK_2).doNotBlock().build())).isNotNull();
+        assertThat(lockService.getTokens(CLIENT_2)).isEmpty();
+    }
+
+    @Test
+    public void closingTheServiceFailsWaitingRequests() {
+        lock(CLIENT_1, writeLockRequest(LOCK_1).build());
+        CompletableFuture<LockResponse> response =
+                lockService.lockWithFullLockResponseAsync(CLIENT_2, writeLockRequest(LOCK_1).build());
+
+        lockService.close();
+
+        assertThatThrownBy(() -> getWithTimeout(response))
+                .hasCauseInstanceOf(ServiceNotAvailableException.class);
+    }
+
+    @Test
+    public void canUseNonSecureRandomTokenIds() throws Exception {
+        LockServiceImpl fastIdLockService = LockServiceImpl.create(LockServerOptions.builder()
+                .isStandaloneServer(false)
+                .useSecureRandomTokenIds(false)
+                .build());
+        try {
+            HeldLocksToken token = fastIdLockService.lockWithFullLockResponse(
+                    CLIENT_1, writeLockRequest(LOCK_1).build()).getToken();
+            assertThat(fastIdLockService.getTokens(CLIENT_1)).containsExactly(token);
+            assertThat(fastIdLockService.unlock(token)).isTrue();
+        } finally {
+            fastIdLockService.close();
+        }
+    }
+
+    private HeldLocksToken lock(LockClient client, LockRequest request) {
+        try {
+            return lockService.lockWithFullLockResponse(client, request).getToken();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static LockRequest.Builder writeLockRequest(LockDescriptor descriptor) {
+        return LockRequest.builder(ImmutableSortedMap.of(descriptor, LockMode.WRITE));
+    }
+
+    private static LockResponse getWithTimeout(CompletableFuture<LockResponse> response)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return response.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -80,6 +80,7 @@ public class LockServiceSerDeTest {
         LockServerOptions lockServerOptions = LockServerOptions.builder()
                 .isStandaloneServer(false)
                 .slowLogTriggerMillis(10L)
+                .useSecureRandomTokenIds(false)
                 .build();
         ObjectMapper mapper = new ObjectMapper();
         String serializedForm = mapper.writeValueAsString(lockServerOptions);
@@ -87,6 +88,7 @@ public class LockServiceSerDeTest {
         assertEquals(lockServerOptions, deserialzedlockServerOptions);
         assertEquals(false, deserialzedlockServerOptions.isStandaloneServer());
         assertEquals(10L, deserialzedlockServerOptions.slowLogTriggerMillis());
+        assertEquals(false, deserialzedlockServerOptions.useSecureRandomTokenIds());
     }
 
     @Test
@@ -35,6 +35,8 @@ public class AtlasDbQosClient implements QosClient {
     private final QosRateLimiters rateLimiters;
     private final QosMetrics metrics;
     private final Ticker ticker;
+    private final EstimateCorrector readEstimates = new EstimateCorrector();
+    private final EstimateCorrector writeEstimates = new EstimateCorrector();
 
     public static AtlasDbQosClient create(MetricsManager metrics, QosRateLimiters rateLimiters) {
         return new AtlasDbQosClient(rateLimiters, new QosMetrics(metrics), Ticker.systemTicker());
@@ -49,27 +51,29 @@ public class AtlasDbQosClient implements QosClient {
 
     @Override
     public <T, E extends Exception> T executeRead(Query<T, E> query, QueryWeigher<T> weigher) throws E {
-        return execute(query, weigher, rateLimiters.read(), Optional.of(metrics::recordReadEstimate),
+        return execute(query, weigher, rateLimiters.read(), readEstimates, Optional.of(metrics::recordReadEstimate),
                 metrics::recordRead);
     }
 
     @Override
     public <T, E extends Exception> T executeWrite(Query<T, E> query, QueryWeigher<T> weigher) throws E {
-        return execute(query, weigher, rateLimiters.write(), Optional.empty(), metrics::recordWrite);
+        return execute(query, weigher, rateLimiters.write(), writeEstimates, Optional.empty(), metrics::recordWrite);
     }
 
     private <T, E extends Exception> T execute(
             Query<T, E> query,
             QueryWeigher<T> weigher,
             QosRateLimiter rateLimiter,
+            EstimateCorrector estimateCorrector,
             Optional<Consumer<QueryWeight>> estimatedWeightMetric,
             Consumer<QueryWeight> weightMetric) throws E {
         QueryWeight estimatedWeight = weigher.estimate();
         estimatedWeightMetric.ifPresent(metric -> metric.accept(estimatedWeight));
+        long reservedBytes = estimateCorrector.correct(estimatedWeight.numBytes());
 
         try {
-            if (estimatedWeight.numBytes() > 0) {
-                Duration waitTime = rateLimiter.consumeWithBackoff(estimatedWeight.numBytes());
+            if (reservedBytes > 0) {
+                Duration waitTime = rateLimiter.consumeWithBackoff(reservedBytes);
                 metrics.recordBackoffMicros(TimeUnit.NANOSECONDS.toMicros(waitTime.toNanos()));
             }
         } catch (QosException.Throttle ex) {
@@ -89,7 +93,8 @@ public class AtlasDbQosClient implements QosClient {
             throw ex;
         } finally {
             weightMetric.accept(actualWeight);
-            rateLimiter.recordAdjustment(actualWeight.numBytes() - estimatedWeight.numBytes());
+            estimateCorrector.recordActual(estimatedWeight.numBytes(), actualWeight.numBytes());
+            rateLimiter.recordAdjustment(actualWeight.numBytes() - reservedBytes);
         }
     }
 
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.qos.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Corrects the weights that query weighers estimate before a query runs, using the weights they report once queries
+ * have run. Keeps a moving average of the ratio of actual to estimated weight, so that systematically wrong estimates
+ * (for example, a fixed number of bytes per row) reserve about the right number of units up front, rather than being
+ * fixed up afterwards.
+ */
+final class EstimateCorrector {
+    @VisibleForTesting
+    static final double MIN_RATIO = 1.0 / 16;
+    @VisibleForTesting
+    static final double MAX_RATIO = 16;
+    private static final double SMOOTHING_FACTOR = 0.2;
+
+    // The ratio is a double, stored as its bits so that it can be updated without locking.
+    private final AtomicLong ratioBits = new AtomicLong(Double.doubleToLongBits(1.0));
+
+    long correct(long estimatedUnits) {
+        if (estimatedUnits <= 0) {
+            return estimatedUnits;
+        }
+        return Math.max(1, Math.round(estimatedUnits * getRatio()));
+    }
+
+    void recordActual(long estimatedUnits, long actualUnits) {
+        if (estimatedUnits <= 0) {
+            return;
+        }
+        double observedRatio = Math.min(MAX_RATIO, Math.max(MIN_RATIO, actualUnits / (double) estimatedUnits));
+        ratioBits.getAndUpdate(bits -> Double.doubleToLongBits(
+                (1 - SMOOTHING_FACTOR) * Double.longBitsToDouble(bits) + SMOOTHING_FACTOR * observedRatio));
+    }
+
+    @VisibleForTesting
+    double getRatio() {
+        return Double.longBitsToDouble(ratioBits.get());
+    }
+}
@@ -16,7 +16,6 @@
 package com.palantir.atlasdb.qos.ratelimit;
 
 import java.time.Duration;
-import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -26,9 +25,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.math.LongMath;
-import com.palantir.atlasdb.qos.ratelimit.guava.RateLimiter;
-import com.palantir.atlasdb.qos.ratelimit.guava.SmoothRateLimiter;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.remoting.api.errors.QosException;
 
@@ -37,8 +35,10 @@ import com.palantir.remoting.api.errors.QosException;
  * throughput in terms of units per second, but allows for bursts in excess of the maximum that follow periods of low
  * inactivity.
  * <p>
- * Rate limiting is achieved by sleeping prior to performing a request, or in extreme cases, throwing rate limiting
- * exceptions.
+ * Token accounting is lock-free.
+ * <p>
+ * Rate limiting is achieved by delaying a request by sleeping prior to performing it, or in extreme cases, throwing
+ * rate limiting exceptions.
  */
 public class QosRateLimiter implements AutoCloseable {
 
@@ -55,11 +55,11 @@ public class QosRateLimiter implements AutoCloseable {
     private final Supplier<Long> maxBackoffTimeMillis;
     private final String rateLimiterName;
     private final Supplier<Long> unitsPerSecond;
-    private final RateLimiter.SleepingStopwatch stopwatch;
+    private final SleepingStopwatch stopwatch;
     private final ScheduledExecutorService executorService;
     private final ScheduledFuture<?> scheduledFuture;
 
-    private volatile RateLimiter rateLimiter;
+    private volatile TokenBucket bucket;
     private volatile long currentRate;
     private final long defaultRate;
 
@@ -69,12 +69,12 @@ public class QosRateLimiter implements AutoCloseable {
             String rateLimiterType,
             ScheduledExecutorService executorService,
             long defaultRate) {
-        return new QosRateLimiter(RateLimiter.SleepingStopwatch.createFromSystemTimer(), maxBackoffTimeMillis,
+        return new QosRateLimiter(SleepingStopwatch.createFromSystemTimer(), maxBackoffTimeMillis,
                 unitsPerSecond, rateLimiterType, executorService, defaultRate);
     }
 
     @VisibleForTesting
-    QosRateLimiter(RateLimiter.SleepingStopwatch stopwatch,
+    QosRateLimiter(SleepingStopwatch stopwatch,
             Supplier<Long> maxBackoffTimeMillis,
             Supplier<Long> unitsPerSecond,
             String rateLimiterName,
@@ -111,21 +111,17 @@ public class QosRateLimiter implements AutoCloseable {
      * @return the amount of time slept for, if any
      */
     public Duration consumeWithBackoff(long estimatedNumUnits) {
-        Optional<Duration> waitTime = rateLimiter.tryAcquire(
-                estimatedNumUnits,
-                maxBackoffTimeMillis.get(),
-                TimeUnit.MILLISECONDS);
-
-        if (!waitTime.isPresent()) {
-            throw QosException.throttle();
-        }
-
-        return waitTime.get();
+        Preconditions.checkArgument(estimatedNumUnits > 0,
+                "Requested units (%s) must be positive", estimatedNumUnits);
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxBackoffTimeMillis.get());
+        long waitNanos = bucket.tryReserve(estimatedNumUnits, stopwatch.readNanos(), maxWaitNanos)
+                .orElseThrow(QosException::throttle);
+        stopwatch.sleepNanosUninterruptibly(waitNanos);
+        return Duration.ofNanos(waitNanos);
     }
 
     /**
-     * The RateLimiter's rate requires a lock acquisition to read, and is returned as a double. To avoid
-     * overhead and double comparisons, we maintain the current rate ourselves.
+     * To avoid recreating the bucket on every update, we keep track of the current rate ourselves.
      */
     private void updateRateIfNeeded() {
         long updatedRate = getUpdatedRate();
@@ -152,15 +148,13 @@ public class QosRateLimiter implements AutoCloseable {
     }
 
     /**
-     * Guava's RateLimiter has strange behavior around updating the rate. Namely, if you set the rate very small and ask
-     * for a large number of permits, you will end up having to wait until that small rate is satisfied before acquiring
-     * more, even if you update the rate to something very large. So, we just create a new rate limiter if the rate
-     * changes.
+     * As with Guava's RateLimiter, if the rate were changed in place, callers that asked for a large number of
+     * units at a very small rate would hold up others until that small rate was satisfied, even after the rate was
+     * updated to something very large. So, we just create a new bucket if the rate changes.
      */
     private synchronized void createRateLimiterAtomically(long rate) {
         currentRate = rate;
-        rateLimiter = new SmoothRateLimiter.SmoothBursty(stopwatch, MAX_BURST_SECONDS);
-        rateLimiter.setRate(currentRate);
+        bucket = new TokenBucket(rate, MAX_BURST_SECONDS, stopwatch.readNanos());
 
         log.info("Units per second set to {} for rate limiter {}",
                 SafeArg.of("unitsPerSecond", currentRate),
@@ -173,10 +167,12 @@ public class QosRateLimiter implements AutoCloseable {
      * positive (if the original estimate was too small) or negative (if the original estimate was too large).
      */
     public void recordAdjustment(long adjustmentUnits) {
+        TokenBucket current = bucket;
+        long nowNanos = stopwatch.readNanos();
         if (adjustmentUnits > 0) {
-            rateLimiter.steal(adjustmentUnits);
+            current.reserve(adjustmentUnits, nowNanos);
         } else if (adjustmentUnits < 0) {
-            rateLimiter.returnPermits(safeNegative(adjustmentUnits));
+            current.release(safeNegative(adjustmentUnits), nowNanos);
         }
     }
 
@@ -187,5 +183,4 @@ public class QosRateLimiter implements AutoCloseable {
             return Long.MAX_VALUE;
         }
     }
-
 }
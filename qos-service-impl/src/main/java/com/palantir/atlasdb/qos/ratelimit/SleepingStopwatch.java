@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.qos.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * The source of time for {@link QosRateLimiter}, which tests can replace to control time.
+ */
+@VisibleForTesting
+abstract class SleepingStopwatch {
+    abstract long readNanos();
+
+    abstract void sleepNanosUninterruptibly(long nanos);
+
+    static SleepingStopwatch createFromSystemTimer() {
+        return new SleepingStopwatch() {
+            private final Stopwatch stopwatch = Stopwatch.createStarted();
+
+            @Override
+            long readNanos() {
+                return stopwatch.elapsed(TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            void sleepNanosUninterruptibly(long nanos) {
+                if (nanos > 0) {
+                    Uninterruptibles.sleepUninterruptibly(nanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+}
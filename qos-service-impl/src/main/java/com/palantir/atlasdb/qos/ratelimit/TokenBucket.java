@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.qos.ratelimit;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.google.common.math.LongMath;
+
+/**
+ * A lock-free token bucket with the same semantics as Guava's bursty {@code RateLimiter}: a caller never waits
+ * for its own permits, only for permits reserved by earlier callers, and up to {@code maxBurstSeconds} of unused
+ * permits may be stored while the bucket is idle.
+ * <p>
+ * The whole state is a single timestamp: the time at which all permits reserved so far will have been paid for. A
+ * timestamp in the past means that permits have been stored since then, capped at the maximum burst.
+ */
+final class TokenBucket {
+    private final double nanosPerUnit;
+    private final long maxBurstNanos;
+    private final AtomicLong paidUpToNanos;
+
+    TokenBucket(double unitsPerSecond, long maxBurstSeconds, long nowNanos) {
+        Preconditions.checkArgument(unitsPerSecond > 0, "Rate must be positive, but was %s", unitsPerSecond);
+        this.nanosPerUnit = TimeUnit.SECONDS.toNanos(1) / unitsPerSecond;
+        this.maxBurstNanos = TimeUnit.SECONDS.toNanos(maxBurstSeconds);
+        this.paidUpToNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Reserves the given units unless the caller would have to wait longer than maxWaitNanos before using them. The
+     * check and the reservation are a single atomic update, so concurrent callers cannot together push the wait past
+     * maxWaitNanos.
+     *
+     * @return the time the caller has to wait before using the units, or empty if none were reserved
+     */
+    OptionalLong tryReserve(long units, long nowNanos, long maxWaitNanos) {
+        long costNanos = costNanos(units);
+        while (true) {
+            long paidUpTo = paidUpToNanos.get();
+            long cappedPaidUpTo = withBurstCap(paidUpTo, nowNanos);
+            long waitNanos = Math.max(0, cappedPaidUpTo - nowNanos);
+            if (waitNanos > maxWaitNanos) {
+                return OptionalLong.empty();
+            }
+            if (paidUpToNanos.compareAndSet(paidUpTo, LongMath.saturatedAdd(cappedPaidUpTo, costNanos))) {
+                return OptionalLong.of(waitNanos);
+            }
+        }
+    }
+
+    /**
+     * Reserves the given units, and returns the time the caller has to wait before using them.
+     */
+    long reserve(long units, long nowNanos) {
+        long costNanos = costNanos(units);
+        long previous = paidUpToNanos.getAndUpdate(
+                paidUpTo -> LongMath.saturatedAdd(withBurstCap(paidUpTo, nowNanos), costNanos));
+        return Math.max(0, withBurstCap(previous, nowNanos) - nowNanos);
+    }
+
+    /**
+     * Returns units that were reserved but not used, making them available to future callers.
+     */
+    void release(long units, long nowNanos) {
+        long costNanos = costNanos(units);
+        paidUpToNanos.updateAndGet(
+                paidUpTo -> withBurstCap(LongMath.saturatedSubtract(paidUpTo, costNanos), nowNanos));
+    }
+
+    private long withBurstCap(long paidUpTo, long nowNanos) {
+        return Math.max(paidUpTo, nowNanos - maxBurstNanos);
+    }
+
+    private long costNanos(long units) {
+        double costNanos = units * nanosPerUnit;
+        return costNanos >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) costNanos;
+    }
+}
@@ -15,11 +15,13 @@
  */
 package com.palantir.atlasdb.qos.client;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -31,6 +33,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.ArgumentCaptor;
 
 import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
@@ -107,6 +110,21 @@ public final class AtlasDbQosClientTest {
         verifyNoMoreInteractions(readLimiter, writeLimiter);
     }
 
+    @Test
+    public void correctsLaterEstimatesUsingActualWeights() {
+        qosClient.executeRead(() -> "foo", weigher);
+        qosClient.executeRead(() -> "foo", weigher);
+
+        ArgumentCaptor<Long> consumedUnits = ArgumentCaptor.forClass(Long.class);
+        verify(readLimiter, times(2)).consumeWithBackoff(consumedUnits.capture());
+        assertThat(consumedUnits.getAllValues().get(0)).isEqualTo(ESTIMATED_BYTES);
+        if (actualBytes > ESTIMATED_BYTES) {
+            assertThat(consumedUnits.getAllValues().get(1)).isGreaterThan(ESTIMATED_BYTES);
+        } else {
+            assertThat(consumedUnits.getAllValues().get(1)).isLessThan(ESTIMATED_BYTES);
+        }
+    }
+
     @Test
     public void recordsReadMetrics() throws TestCheckedException {
         qosClient.executeRead(() -> "foo", weigher);
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.qos.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class EstimateCorrectorTest {
+    private final EstimateCorrector corrector = new EstimateCorrector();
+
+    @Test
+    public void doesNotCorrectEstimatesInitially() {
+        assertThat(corrector.correct(100)).isEqualTo(100);
+    }
+
+    @Test
+    public void convergesTowardsRatioOfActualToEstimatedWeight() {
+        for (int i = 0; i < 100; i++) {
+            corrector.recordActual(100, 300);
+        }
+
+        assertThat(corrector.correct(100)).isEqualTo(300);
+    }
+
+    @Test
+    public void boundsTheCorrection() {
+        for (int i = 0; i < 100; i++) {
+            corrector.recordActual(1, Long.MAX_VALUE);
+        }
+
+        assertThat(corrector.getRatio()).isLessThanOrEqualTo(EstimateCorrector.MAX_RATIO);
+    }
+
+    @Test
+    public void neverCorrectsPositiveEstimatesToZero() {
+        for (int i = 0; i < 100; i++) {
+            corrector.recordActual(100, 0);
+        }
+
+        assertThat(corrector.correct(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void ignoresZeroEstimates() {
+        corrector.recordActual(0, 100);
+
+        assertThat(corrector.correct(0)).isEqualTo(0);
+        assertThat(corrector.getRatio()).isEqualTo(1.0);
+    }
+}
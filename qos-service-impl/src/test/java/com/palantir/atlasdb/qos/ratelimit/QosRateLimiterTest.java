@@ -28,7 +28,6 @@ import org.jmock.lib.concurrent.DeterministicScheduler;
 import org.junit.Before;
 import org.junit.Test;
 
-import com.palantir.atlasdb.qos.ratelimit.guava.RateLimiter;
 import com.palantir.remoting.api.errors.QosException;
 
 public class QosRateLimiterTest {
@@ -36,7 +35,7 @@ public class QosRateLimiterTest {
     private static final long START_TIME_NANOS = 0L;
     private static final Supplier<Long> MAX_BACKOFF_TIME_MILLIS = () -> 10_000L;
 
-    private RateLimiter.SleepingStopwatch stopwatch = mock(RateLimiter.SleepingStopwatch.class);
+    private SleepingStopwatch stopwatch = mock(SleepingStopwatch.class);
     private Supplier<Long> currentRate = mock(Supplier.class);
     private QosRateLimiter limiter;
     private DeterministicScheduler deterministicExecutor = new DeterministicScheduler();
@@ -246,6 +245,18 @@ public class QosRateLimiterTest {
         assertThat(limiter.consumeWithBackoff(20)).isGreaterThan(Duration.ZERO);
     }
 
+    @Test
+    public void throttledRequestsDoNotReserveUnits() {
+        limiter.consumeWithBackoff(100);
+        limiter.consumeWithBackoff(50);
+
+        assertThatThrownBy(() -> limiter.consumeWithBackoff(1_000)).isInstanceOf(QosException.Throttle.class);
+        assertThatThrownBy(() -> limiter.consumeWithBackoff(1_000)).isInstanceOf(QosException.Throttle.class);
+
+        tickMillis(5_000);
+        assertThat(limiter.consumeWithBackoff(10)).isEqualTo(Duration.ofSeconds(10));
+    }
+
     private void tickMillis(long millis) {
         long now = stopwatch.readNanos();
         when(stopwatch.readNanos()).thenReturn(now + TimeUnit.MILLISECONDS.toNanos(millis));
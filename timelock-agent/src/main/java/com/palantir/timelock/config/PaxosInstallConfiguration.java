@@ -44,6 +44,33 @@ public interface PaxosInstallConfiguration {
     @JsonProperty("is-new-service")
     boolean isNewService();
 
+    /**
+     * If positive, the leader answers requests for this long after a quorum last confirmed its leadership, without
+     * checking with the other nodes on every request. Leader elections are delayed by up to this long in exchange.
+     * This must be the same on every node of the cluster.
+     */
+    @JsonProperty("leader-lease-ms")
+    @Value.Default
+    default long leaderLeaseMs() {
+        return 0L;
+    }
+
+    /**
+     * If true, the timestamp bounds of all clients are stored in a single Paxos log, and bounds that need to be
+     * stored at the same time are agreed in a single round. Existing clients' bounds are read from their own logs
+     * the first time they are used. This cannot be turned off again once enabled, as the per-client logs are no
+     * longer updated.
+     *
+     * A client's own log is fenced when its bound first moves to the multiplexed log, and nodes without this setting
+     * refuse to serve timestamps for fenced clients. While this is being enabled on one node at a time, such clients
+     * cannot get timestamps while a node without this setting is the leader.
+     */
+    @JsonProperty("multiplex-timestamp-bounds")
+    @Value.Default
+    default boolean multiplexTimestampBounds() {
+        return false;
+    }
+
     @Value.Check
     default void check() {
         if (isNewService() && dataDirectory().isDirectory()) {
@@ -63,6 +90,9 @@ public interface PaxosInstallConfiguration {
                             + "operation, please be careful and make sure that you have appropriate approvals.");
         }
 
+        Preconditions.checkArgument(leaderLeaseMs() >= 0,
+                "Leader lease duration cannot be negative; found '%s'.", leaderLeaseMs());
+
         Preconditions.checkArgument(dataDirectory().mkdirs() || dataDirectory().isDirectory(),
                 "Could not create paxos data directory %s", dataDirectory());
     }
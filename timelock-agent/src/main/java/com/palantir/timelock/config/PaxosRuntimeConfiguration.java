@@ -50,6 +50,17 @@ public interface PaxosRuntimeConfiguration {
         return true;
     }
 
+    /**
+     * If true, timestamp services extend their persisted upper limit in the background before it is exhausted,
+     * instead of blocking timestamp requests while the new limit is agreed. Read when a client's timestamp
+     * service is created.
+     */
+    @JsonProperty("background-timestamp-allocation")
+    @Value.Default
+    default boolean backgroundTimestampAllocation() {
+        return false;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkArgument(pingRateMs() > 0,
@@ -42,6 +42,7 @@ import com.palantir.atlasdb.util.AtlasDbMetrics;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.lock.LockService;
+import com.palantir.lock.impl.NonBlockingLockService;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.tritium.metrics.registry.MetricName;
 import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
@@ -79,13 +80,21 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
         asyncOrLegacyTimelockService = AsyncOrLegacyTimelockService.createFromAsyncTimelock(
                 new AsyncTimelockResource(lockLog, asyncTimelockService));
 
-        LockService lockService = instrumentInLeadershipProxy(
-                metricsManager.getTaggedRegistry(),
-                LockService.class,
+        Supplier<LockService> lockServiceSupplier =
                 asyncLockConfiguration.disableLegacySafetyChecksWarningPotentialDataCorruption()
                         ? rawLockServiceSupplier
-                        : JavaSuppliers.compose(NonTransactionalLockService::new, rawLockServiceSupplier),
-                client);
+                        : JavaSuppliers.compose(NonTransactionalLockService::new, rawLockServiceSupplier);
+        LockService lockService = asyncLockConfiguration.useNonBlockingLegacyLockService()
+                ? instrumentInLeadershipProxy(
+                        metricsManager.getTaggedRegistry(),
+                        NonBlockingLockService.class,
+                        JavaSuppliers.compose(NonBlockingLockService.class::cast, lockServiceSupplier),
+                        client)
+                : instrumentInLeadershipProxy(
+                        metricsManager.getTaggedRegistry(),
+                        LockService.class,
+                        lockServiceSupplier,
+                        client);
 
         leadershipCreator.executeWhenLostLeadership(() ->
                 metricsManager.deregisterTaggedMetrics(withTagIsCurrentSuspectedLeader(true)));
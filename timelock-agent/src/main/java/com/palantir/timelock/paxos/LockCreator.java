@@ -15,6 +15,7 @@
  */
 package com.palantir.timelock.paxos;
 
+import java.util.Optional;
 import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 
@@ -29,18 +30,33 @@ import com.palantir.timelock.config.TimeLockRuntimeConfiguration;
 public class LockCreator {
     private final Supplier<TimeLockRuntimeConfiguration> runtime;
     private final TimeLockDeprecatedConfiguration deprecated;
+    private final boolean useNonBlockingLockService;
 
     private static Semaphore sharedThreadPool = new Semaphore(-1);
 
     public LockCreator(Supplier<TimeLockRuntimeConfiguration> runtime, TimeLockDeprecatedConfiguration deprecated) {
+        this(runtime, deprecated, false);
+    }
+
+    public LockCreator(
+            Supplier<TimeLockRuntimeConfiguration> runtime,
+            TimeLockDeprecatedConfiguration deprecated,
+            boolean useNonBlockingLockService) {
         this.runtime = runtime;
         this.deprecated = deprecated;
+        this.useNonBlockingLockService = useNonBlockingLockService;
     }
 
     public CloseableLockService createThreadPoolingLockService() {
         // TODO (jkong): Live reload slow lock timeout, plus clients (issue #2342)
         // TODO (?????): Rewrite ThreadPooled to cope with live reload, and/or remove ThreadPooled (if using Async)
         TimeLockRuntimeConfiguration timeLockRuntimeConfiguration = runtime.get();
+        if (useNonBlockingLockService) {
+            // Blocked requests do not hold threads, so the thread pool is not needed; instead of the time limiter,
+            // NonBlockingLockResource times out suspended requests (see getSuspendedLockRequestTimeLimitMillis).
+            return createRawLockService(timeLockRuntimeConfiguration.slowLockLogTriggerMillis());
+        }
+
         CloseableLockService lockServiceNotUsingThreadPooling = createTimeLimitedLockService(
                 timeLockRuntimeConfiguration.slowLockLogTriggerMillis());
 
@@ -66,12 +82,19 @@ public class LockCreator {
         return new ThreadPooledLockService(lockServiceNotUsingThreadPooling, localThreadPoolSize, sharedThreadPool);
     }
 
-    private CloseableLockService createTimeLimitedLockService(long slowLogTriggerMillis) {
-        LockServerOptions lockServerOptions = LockServerOptions.builder()
-                .slowLogTriggerMillis(slowLogTriggerMillis)
-                .build();
+    /**
+     * The time limit that the resource serving a non-blocking lock service should apply to suspended requests, if the
+     * time limiter is configured; lock services that block threads are wrapped in the time limiter instead.
+     */
+    public Optional<Long> getSuspendedLockRequestTimeLimitMillis() {
+        if (useNonBlockingLockService && deprecated.useLockTimeLimiter()) {
+            return Optional.of(deprecated.blockingTimeoutInMs());
+        }
+        return Optional.empty();
+    }
 
-        LockServiceImpl rawLockService = LockServiceImpl.create(lockServerOptions);
+    private CloseableLockService createTimeLimitedLockService(long slowLogTriggerMillis) {
+        LockServiceImpl rawLockService = createRawLockService(slowLogTriggerMillis);
 
         if (deprecated.useLockTimeLimiter()) {
             return BlockingTimeLimitedLockService.create(
@@ -80,4 +103,11 @@ public class LockCreator {
         }
         return rawLockService;
     }
+
+    private static LockServiceImpl createRawLockService(long slowLogTriggerMillis) {
+        LockServerOptions lockServerOptions = LockServerOptions.builder()
+                .slowLogTriggerMillis(slowLogTriggerMillis)
+                .build();
+        return LockServiceImpl.create(lockServerOptions);
+    }
 }
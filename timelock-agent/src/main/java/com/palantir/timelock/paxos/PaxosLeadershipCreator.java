@@ -113,6 +113,7 @@ public class PaxosLeadershipCreator {
                 .quorumSize(PaxosRemotingUtils.getQuorumSize(PaxosRemotingUtils.getClusterAddresses(install)))
                 .leaderPingResponseWaitMs(paxosRuntimeConfiguration.pingRateMs())
                 .randomWaitBeforeProposingLeadershipMs(paxosRuntimeConfiguration.pingRateMs())
+                .leaderLeaseMs(install.paxos().leaderLeaseMs())
                 .build();
     }
 
@@ -25,7 +25,9 @@ import java.util.function.Supplier;
 import javax.net.ssl.SSLSocketFactory;
 
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.atlasdb.config.LeaderConfig;
 import com.palantir.atlasdb.factory.Leaders;
@@ -33,9 +35,12 @@ import com.palantir.atlasdb.timelock.paxos.DelegatingManagedTimestampService;
 import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
 import com.palantir.atlasdb.timelock.paxos.PaxosResource;
 import com.palantir.atlasdb.timelock.paxos.PaxosSynchronizer;
+import com.palantir.atlasdb.timelock.paxos.PaxosTimeLockConstants;
 import com.palantir.atlasdb.timelock.paxos.PaxosTimeLockUriUtils;
+import com.palantir.atlasdb.timelock.paxos.PaxosTimestampBoundMultiplexer;
 import com.palantir.atlasdb.timelock.paxos.PaxosTimestampBoundStore;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosLearner;
@@ -47,25 +52,75 @@ import com.palantir.timestamp.PersistentTimestampServiceImpl;
 import com.palantir.timestamp.TimestampBoundStore;
 
 public class PaxosTimestampCreator implements TimestampCreator {
+    private final MetricsManager metricsManager;
     private final MetricRegistry metricRegistry;
     private final PaxosResource paxosResource;
     private final Set<String> remoteServers;
     private final Optional<SSLSocketFactory> optionalSecurity;
     private final Supplier<PaxosRuntimeConfiguration> paxosRuntime;
+    private final Optional<Supplier<PaxosTimestampBoundMultiplexer>> multiplexer;
 
-    public PaxosTimestampCreator(MetricRegistry metricRegistry, PaxosResource paxosResource,
+    public PaxosTimestampCreator(MetricsManager metricsManager, PaxosResource paxosResource,
             Set<String> remoteServers,
             Optional<SSLSocketFactory> optionalSecurity,
-            Supplier<PaxosRuntimeConfiguration> paxosRuntime) {
-        this.metricRegistry = metricRegistry;
+            Supplier<PaxosRuntimeConfiguration> paxosRuntime,
+            boolean multiplexTimestampBounds) {
+        this.metricsManager = metricsManager;
+        this.metricRegistry = metricsManager.getRegistry();
         this.paxosResource = paxosResource;
         this.remoteServers = remoteServers;
         this.optionalSecurity = optionalSecurity;
         this.paxosRuntime = paxosRuntime;
+        this.multiplexer = multiplexTimestampBounds
+                ? Optional.of(Suppliers.memoize(this::createMultiplexer)::get)
+                : Optional.empty();
     }
 
     @Override
     public Supplier<ManagedTimestampService> createTimestampService(String client, LeaderConfig unused) {
+        if (multiplexer.isPresent()) {
+            // Only clients that had a log of their own before multiplexing need it to be read and fenced; we avoid
+            // creating logs, proxies and consensus threads for every new client.
+            Supplier<Optional<PaxosTimestampBoundStore>> previousBoundStore = Suppliers.memoize(
+                    () -> paxosResource.hasLogs(client)
+                            ? Optional.of(createPaxosTimestampBoundStore(client).get())
+                            : Optional.<PaxosTimestampBoundStore>empty())::get;
+            return () -> createManagedPaxosTimestampService(
+                    client,
+                    instrument(TimestampBoundStore.class,
+                            multiplexer.get().get().forNamespace(client, previousBoundStore),
+                            client));
+        }
+
+        Supplier<PaxosTimestampBoundStore> boundStoreSupplier = createPaxosTimestampBoundStore(client);
+        return () -> createManagedPaxosTimestampService(
+                client,
+                instrument(TimestampBoundStore.class, boundStoreSupplier.get(), client));
+    }
+
+    private Supplier<PaxosTimestampBoundStore> createPaxosTimestampBoundStore(String client) {
+        PaxosComponents components = createPaxosComponents(client);
+
+        // TODO (jkong): live reload ping
+        return () -> new PaxosTimestampBoundStore(
+                components.proposer,
+                components.ourLearner,
+                ImmutableList.copyOf(components.acceptors),
+                ImmutableList.copyOf(components.learners),
+                paxosRuntime.get().maximumWaitBeforeProposalMs());
+    }
+
+    private PaxosTimestampBoundMultiplexer createMultiplexer() {
+        PaxosComponents components = createPaxosComponents(PaxosTimeLockConstants.MULTIPLEXED_TIMESTAMP_NAMESPACE);
+        return new PaxosTimestampBoundMultiplexer(
+                components.proposer,
+                components.ourLearner,
+                ImmutableList.copyOf(components.acceptors),
+                ImmutableList.copyOf(components.learners),
+                () -> paxosRuntime.get().maximumWaitBeforeProposalMs());
+    }
+
+    private PaxosComponents createPaxosComponents(String client) {
         ExecutorService executor = PTExecutors.newCachedThreadPool(new ThreadFactoryBuilder()
                 .setNameFormat("atlas-consensus-" + client + "-%d")
                 .setDaemon(true)
@@ -101,24 +156,14 @@ public class PaxosTimestampCreator implements TimestampCreator {
 
         PaxosSynchronizer.synchronizeLearner(ourLearner, learners);
 
-        return () -> createManagedPaxosTimestampService(proposer, client, acceptors, learners);
+        return new PaxosComponents(proposer, ourLearner, acceptors, learners);
     }
 
-    private ManagedTimestampService createManagedPaxosTimestampService(
-            PaxosProposer proposer,
-            String client,
-            List<PaxosAcceptor> acceptors,
-            List<PaxosLearner> learners) {
-        // TODO (jkong): live reload ping
-        TimestampBoundStore boundStore = instrument(TimestampBoundStore.class,
-                new PaxosTimestampBoundStore(
-                        proposer,
-                        paxosResource.getPaxosLearner(client),
-                        ImmutableList.copyOf(acceptors),
-                        ImmutableList.copyOf(learners),
-                        paxosRuntime.get().maximumWaitBeforeProposalMs()),
-                client);
-        PersistentTimestampService persistentTimestampService = PersistentTimestampServiceImpl.create(boundStore);
+    private ManagedTimestampService createManagedPaxosTimestampService(String client, TimestampBoundStore boundStore) {
+        PersistentTimestampService persistentTimestampService = paxosRuntime.get().backgroundTimestampAllocation()
+                ? PersistentTimestampServiceImpl.createWithBackgroundAllocation(
+                        boundStore, metricsManager, ImmutableMap.of("client", client))
+                : PersistentTimestampServiceImpl.create(boundStore);
         return new DelegatingManagedTimestampService(persistentTimestampService, persistentTimestampService);
     }
 
@@ -126,4 +171,21 @@ public class PaxosTimestampCreator implements TimestampCreator {
         // TODO(nziebart): tag with the client name, when tritium supports it
         return AtlasDbMetrics.instrument(metricRegistry, serviceClass, service, MetricRegistry.name(serviceClass));
     }
+
+    private static final class PaxosComponents {
+        private final PaxosProposer proposer;
+        private final PaxosLearner ourLearner;
+        private final List<PaxosAcceptor> acceptors;
+        private final List<PaxosLearner> learners;
+
+        private PaxosComponents(PaxosProposer proposer,
+                PaxosLearner ourLearner,
+                List<PaxosAcceptor> acceptors,
+                List<PaxosLearner> learners) {
+            this.proposer = proposer;
+            this.ourLearner = ourLearner;
+            this.acceptors = acceptors;
+            this.learners = learners;
+        }
+    }
 }
@@ -19,10 +19,12 @@ import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-import com.codahale.metrics.MetricRegistry;
 import com.palantir.atlasdb.config.ImmutableLeaderConfig;
 import com.palantir.atlasdb.http.BlockingTimeoutExceptionMapper;
 import com.palantir.atlasdb.http.NotCurrentLeaderExceptionMapper;
+import com.palantir.atlasdb.http.SmileMessageBodyWriter;
+import com.palantir.atlasdb.http.SmileResponseFilter;
+import com.palantir.atlasdb.timelock.MultiNamespaceTimelockResource;
 import com.palantir.atlasdb.timelock.TimeLockResource;
 import com.palantir.atlasdb.timelock.TimeLockServices;
 import com.palantir.atlasdb.timelock.TooManyRequestsExceptionMapper;
@@ -83,8 +85,9 @@ public class TimeLockAgent {
         this.paxosResource = PaxosResource.create(metricsManager.getRegistry(),
                 install.paxos().dataDirectory().toString());
         this.leadershipCreator = new PaxosLeadershipCreator(this.metricsManager, install, runtime, registrar);
-        this.lockCreator = new LockCreator(runtime, deprecated);
-        this.timestampCreator = getTimestampCreator(metricsManager.getRegistry());
+        this.lockCreator = new LockCreator(runtime, deprecated,
+                install.asyncLock().useAsyncLockService() && install.asyncLock().useNonBlockingLegacyLockService());
+        this.timestampCreator = getTimestampCreator();
         LockLog lockLog = new LockLog(metricsManager.getRegistry(),
                 JavaSuppliers.compose(TimeLockRuntimeConfiguration::slowLockLogTriggerMillis, runtime));
         this.timelockCreator = install.asyncLock().useAsyncLockService()
@@ -92,10 +95,10 @@ public class TimeLockAgent {
                 : new LegacyTimeLockServicesCreator(metricsManager.getRegistry(), leadershipCreator);
     }
 
-    private TimestampCreator getTimestampCreator(MetricRegistry metrics) {
+    private TimestampCreator getTimestampCreator() {
         TsBoundPersisterConfiguration timestampBoundPersistence = install.timestampBoundPersistence();
         if (PaxosTsBoundPersisterConfiguration.class.isInstance(timestampBoundPersistence)) {
-            return getPaxosTimestampCreator(metrics);
+            return getPaxosTimestampCreator();
         } else if (DatabaseTsBoundPersisterConfiguration.class.isInstance(timestampBoundPersistence)) {
             return new DbBoundTimestampCreator(
                     ((DatabaseTsBoundPersisterConfiguration) timestampBoundPersistence)
@@ -105,16 +108,18 @@ public class TimeLockAgent {
                 timestampBoundPersistence.getClass()));
     }
 
-    private PaxosTimestampCreator getPaxosTimestampCreator(MetricRegistry metrics) {
-        return new PaxosTimestampCreator(metrics, paxosResource,
+    private PaxosTimestampCreator getPaxosTimestampCreator() {
+        return new PaxosTimestampCreator(metricsManager, paxosResource,
                 PaxosRemotingUtils.getRemoteServerPaths(install),
                 PaxosRemotingUtils.getSslConfigurationOptional(install).map(SslSocketFactories::createSslSocketFactory),
-                JavaSuppliers.compose(TimeLockRuntimeConfiguration::paxos, runtime));
+                JavaSuppliers.compose(TimeLockRuntimeConfiguration::paxos, runtime),
+                install.paxos().multiplexTimestampBounds());
     }
 
     private void createAndRegisterResources() {
         registerPaxosResource();
         registerExceptionMappers();
+        registerSmileEncoding();
         leadershipCreator.registerLeaderElectionService();
 
         // Finally, register the health check, and endpoints associated with the clients.
@@ -122,8 +127,10 @@ public class TimeLockAgent {
         resource = TimeLockResource.create(
                 metricsManager,
                 this::createInvalidatingTimeLockServices,
-                JavaSuppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime));
+                JavaSuppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime),
+                lockCreator.getSuspendedLockRequestTimeLimitMillis());
         registrar.accept(resource);
+        registrar.accept(new MultiNamespaceTimelockResource(resource));
 
         ClockSkewMonitorCreator.create(metricsManager, install, registrar).registerClockServices();
     }
@@ -170,6 +177,11 @@ public class TimeLockAgent {
         registrar.accept(new TooManyRequestsExceptionMapper());
     }
 
+    private void registerSmileEncoding() {
+        registrar.accept(new SmileResponseFilter());
+        registrar.accept(new SmileMessageBodyWriter());
+    }
+
     /**
      * Creates timestamp and lock services for the given client. It is expected that for each client there should
      * only be (up to) one active timestamp service, and one active lock service at any time.
@@ -32,7 +32,11 @@ import com.palantir.lock.v2.IdentifiedTimeLockRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
+import com.palantir.lock.v2.LockSessionRequest;
+import com.palantir.lock.v2.LockSessionResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.LockWatchRequest;
+import com.palantir.lock.v2.LockWatchResponse;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -121,6 +125,18 @@ public class AsyncTimelockResource {
         return timelock.refreshLockLeases(tokens);
     }
 
+    @POST
+    @Path("refresh-lock-session")
+    public LockSessionResponse refreshLockSession(LockSessionRequest request) {
+        return timelock.refreshLockSession(request);
+    }
+
+    @POST
+    @Path("lock-watch-events")
+    public LockWatchResponse getLockWatchEvents(LockWatchRequest request) {
+        return timelock.getLockWatchEvents(request);
+    }
+
     @POST
     @Path("unlock")
     public Set<LockToken> unlock(Set<LockToken> tokens) {
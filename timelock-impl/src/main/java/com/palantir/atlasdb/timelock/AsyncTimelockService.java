@@ -23,7 +23,11 @@ import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
 import com.palantir.lock.v2.IdentifiedTimeLockRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
+import com.palantir.lock.v2.LockSessionRequest;
+import com.palantir.lock.v2.LockSessionResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.LockWatchRequest;
+import com.palantir.lock.v2.LockWatchResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 
 public interface AsyncTimelockService extends ManagedTimestampService, Closeable {
@@ -34,6 +38,10 @@ public interface AsyncTimelockService extends ManagedTimestampService, Closeable
 
     Set<LockToken> refreshLockLeases(Set<LockToken> tokens);
 
+    LockSessionResponse refreshLockSession(LockSessionRequest request);
+
+    LockWatchResponse getLockWatchEvents(LockWatchRequest request);
+
     AsyncResult<Void> waitForLocks(WaitForLocksRequest request);
 
     AsyncResult<LockToken> lock(LockRequest request);
@@ -15,17 +15,24 @@
  */
 package com.palantir.atlasdb.timelock;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Set;
 
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.AsyncResult;
+import com.palantir.atlasdb.timelock.lock.LeaseExpirationTimer;
 import com.palantir.atlasdb.timelock.lock.TimeLimit;
 import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
 import com.palantir.lock.v2.IdentifiedTimeLockRequest;
+import com.palantir.lock.v2.ImmutableLockSessionResponse;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
+import com.palantir.lock.v2.LockSessionRequest;
+import com.palantir.lock.v2.LockSessionResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.LockWatchRequest;
+import com.palantir.lock.v2.LockWatchResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.timestamp.TimestampRange;
 
@@ -92,6 +99,22 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return lockService.refresh(tokens);
     }
 
+    @Override
+    public LockSessionResponse refreshLockSession(LockSessionRequest request) {
+        return lockService.refreshSession(request.sessionId(), request.openSession(), request.tokensToAdd())
+                .map(addedTokens -> (LockSessionResponse) ImmutableLockSessionResponse.builder()
+                        .sessionValid(true)
+                        .addedTokens(addedTokens)
+                        .leaseMillis(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS)
+                        .build())
+                .orElseGet(LockSessionResponse::invalid);
+    }
+
+    @Override
+    public LockWatchResponse getLockWatchEvents(LockWatchRequest request) {
+        return lockService.getLockWatchEvents(request);
+    }
+
     @Override
     public Set<LockToken> unlock(Set<LockToken> tokens) {
         return lockService.unlock(tokens);
@@ -115,5 +138,8 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
     @Override
     public void close() throws IOException {
         lockService.close();
+        if (timestampService instanceof Closeable) {
+            ((Closeable) timestampService).close();
+        }
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.timelock.util.AsyncOrLegacyTimelockService;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.lock.v2.ImmutableNamespaceTimelockResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.MultiNamespaceTimelockService;
+import com.palantir.lock.v2.NamespaceLockOperation;
+import com.palantir.lock.v2.NamespaceTimelockRequest;
+import com.palantir.lock.v2.NamespaceTimelockResponse;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.timestamp.TimestampRange;
+
+public class MultiNamespaceTimelockResource implements MultiNamespaceTimelockService {
+    private static final Logger log = LoggerFactory.getLogger(MultiNamespaceTimelockResource.class);
+
+    // Must match the namespaces accepted by TimeLockResource's path.
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile("[a-zA-Z0-9_-]+");
+
+    // Once this many namespaces are being handled, further namespaces run on the request thread instead.
+    private static final int MAX_CONCURRENT_NAMESPACES = 64;
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final TimeLockResource timeLockResource;
+    private final ExecutorService executor = PTExecutors.newThreadPoolExecutor(
+            0,
+            MAX_CONCURRENT_NAMESPACES,
+            THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new NamedThreadFactory("multi-namespace-timelock", true),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    public MultiNamespaceTimelockResource(TimeLockResource timeLockResource) {
+        this.timeLockResource = timeLockResource;
+    }
+
+    /**
+     * Failures are reported per namespace in {@link NamespaceTimelockResponse#error()}, so that one namespace cannot
+     * fail the batch for the others. The exception is {@link NotCurrentLeaderException}: leadership is shared by every
+     * namespace, so it fails the whole batch and the client can retry it against another node.
+     */
+    @Override
+    public Map<String, NamespaceTimelockResponse> runBatch(Map<String, NamespaceTimelockRequest> requests) {
+        Map<String, CompletableFuture<NamespaceTimelockResponse>> futures = requests.entrySet().stream()
+                .collect(ImmutableMap.toImmutableMap(
+                        Map.Entry::getKey,
+                        entry -> CompletableFuture.supplyAsync(
+                                () -> runForNamespace(entry.getKey(), entry.getValue()), executor)));
+
+        try {
+            return ImmutableMap.copyOf(Maps.transformValues(futures, CompletableFuture::join));
+        } catch (CompletionException e) {
+            throw Throwables.throwUncheckedException(e.getCause());
+        }
+    }
+
+    private NamespaceTimelockResponse runForNamespace(String namespace, NamespaceTimelockRequest request) {
+        if (!NAMESPACE_PATTERN.matcher(namespace).matches()) {
+            return ImmutableNamespaceTimelockResponse.builder()
+                    .error(String.format("Invalid namespace '%s'", namespace))
+                    .build();
+        }
+        try {
+            return runForValidNamespace(namespace, request);
+        } catch (NotCurrentLeaderException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Failed to run the batched requests for client {}", SafeArg.of("client", namespace), e);
+            return ImmutableNamespaceTimelockResponse.builder()
+                    .error(e.getClass().getSimpleName() + ": " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private NamespaceTimelockResponse runForValidNamespace(String namespace, NamespaceTimelockRequest request) {
+        NamespacedTimelock timelock = new NamespacedTimelock(
+                timeLockResource.getOrCreateServices(namespace).getTimelockService());
+        ImmutableNamespaceTimelockResponse.Builder response = ImmutableNamespaceTimelockResponse.builder();
+        for (NamespaceLockOperation operation : request.lockOperations()) {
+            response.addLockOperationResults(timelock.run(operation));
+        }
+        if (request.numFreshTimestamps() > 0) {
+            response.freshTimestamps(timelock.getFreshTimestamps(request.numFreshTimestamps()));
+        }
+        return response.build();
+    }
+
+    private static final class NamespacedTimelock {
+        private final AsyncOrLegacyTimelockService services;
+
+        private NamespacedTimelock(AsyncOrLegacyTimelockService services) {
+            this.services = services;
+        }
+
+        Set<LockToken> run(NamespaceLockOperation operation) {
+            switch (operation.type()) {
+                case REFRESH:
+                    return refreshLockLeases(operation.tokens());
+                case UNLOCK:
+                    return unlock(operation.tokens());
+                default:
+                    throw new IllegalArgumentException("Unknown lock operation type " + operation.type());
+            }
+        }
+
+        Set<LockToken> unlock(Set<LockToken> tokens) {
+            return services.getAsyncTimelockResource().isPresent()
+                    ? services.getAsyncTimelockResource().get().unlock(tokens)
+                    : services.getLegacyTimelockService().get().unlock(tokens);
+        }
+
+        Set<LockToken> refreshLockLeases(Set<LockToken> tokens) {
+            return services.getAsyncTimelockResource().isPresent()
+                    ? services.getAsyncTimelockResource().get().refreshLockLeases(tokens)
+                    : services.getLegacyTimelockService().get().refreshLockLeases(tokens);
+        }
+
+        TimestampRange getFreshTimestamps(int numTimestamps) {
+            return services.getAsyncTimelockResource().isPresent()
+                    ? services.getAsyncTimelockResource().get().getFreshTimestamps(numTimestamps)
+                    : services.getLegacyTimelockService().get().getFreshTimestamps(numTimestamps);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.palantir.lock.HeldLocksGrant;
+import com.palantir.lock.HeldLocksToken;
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockGroupBehavior;
+import com.palantir.lock.LockRefreshToken;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockResponse;
+import com.palantir.lock.LockServerOptions;
+import com.palantir.lock.SimpleHeldLocksToken;
+import com.palantir.lock.impl.NonBlockingLockService;
+import com.palantir.lock.remoting.BlockingTimeoutException;
+import com.palantir.logsafe.Safe;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+
+/**
+ * Exposes the legacy lock service at the same paths as {@link com.palantir.lock.LockService}, but suspends the
+ * requests that acquire locks until they complete, so that blocked lock requests do not hold a server thread.
+ * <p>
+ * If a blocking time limit is given, this takes the place of
+ * {@link com.palantir.atlasdb.timelock.lock.BlockingTimeLimitedLockService}: requests that are still suspended once
+ * it has elapsed are given up on, and fail with a {@link BlockingTimeoutException}.
+ */
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+public class NonBlockingLockResource {
+    private static final Logger log = LoggerFactory.getLogger(NonBlockingLockResource.class);
+
+    private final NonBlockingLockService lockService;
+    private final Optional<Long> blockingTimeLimitMillis;
+
+    public NonBlockingLockResource(NonBlockingLockService lockService) {
+        this(lockService, Optional.empty());
+    }
+
+    public NonBlockingLockResource(NonBlockingLockService lockService, Optional<Long> blockingTimeLimitMillis) {
+        this.lockService = lockService;
+        this.blockingTimeLimitMillis = blockingTimeLimitMillis;
+    }
+
+    @POST
+    @Path("lock/{client: .*}")
+    public void lock(@Suspended final AsyncResponse response, @Safe @PathParam("client") String client,
+            LockRequest request) {
+        Preconditions.checkArgument(request.getLockGroupBehavior() == LockGroupBehavior.LOCK_ALL_OR_NONE,
+                "lock() only supports LockGroupBehavior.LOCK_ALL_OR_NONE. Consider using lockAndGetHeldLocks().");
+        resumeWhenLocked(response, "lock", LockClient.of(client), request,
+                result -> result.success() ? result.getLockRefreshToken() : null);
+    }
+
+    @POST
+    @Path("try-lock/{client: .*}")
+    public void lockAndGetHeldLocks(@Suspended final AsyncResponse response, @Safe @PathParam("client") String client,
+            LockRequest request) {
+        resumeWhenLocked(response, "lockAndGetHeldLocks", LockClient.of(client), request, LockResponse::getToken);
+    }
+
+    @POST
+    @Path("lock-with-full-response/{client: .*}")
+    public void lockWithFullLockResponse(@Suspended final AsyncResponse response,
+            @Safe @PathParam("client") LockClient client, LockRequest request) {
+        resumeWhenLocked(response, "lockWithFullLockResponse", client, request, Function.identity());
+    }
+
+    private void resumeWhenLocked(AsyncResponse response, String method, LockClient client, LockRequest request,
+            Function<LockResponse, Object> toResult) {
+        CompletableFuture<LockResponse> result = lockService.lockWithFullLockResponseAsync(client, request);
+        blockingTimeLimitMillis.ifPresent(timeLimitMillis -> {
+            response.setTimeoutHandler(timedOutResponse -> {
+                timedOutResponse.resume(logAndCreateTimeoutException(timeLimitMillis, method, client, request));
+                // If the request was granted just now, its locks are released below once it fails to resume.
+                result.cancel(false);
+            });
+            response.setTimeout(timeLimitMillis, TimeUnit.MILLISECONDS);
+        });
+        result.whenComplete((lockResponse, error) -> {
+            if (error != null) {
+                response.resume(error);
+            } else if (!response.resume(toResult.apply(lockResponse)) && lockResponse.getLockRefreshToken() != null) {
+                // The response was resumed by something else, so the client will never see these locks.
+                lockService.unlock(lockResponse.getLockRefreshToken());
+            }
+        });
+    }
+
+    private static BlockingTimeoutException logAndCreateTimeoutException(long timeLimitMillis, String method,
+            LockClient client, LockRequest request) {
+        String logMessage = "Lock service timed out after {} milliseconds when servicing {} for client \"{}\"";
+        log.info(logMessage,
+                SafeArg.of("timeoutDurationMillis", timeLimitMillis),
+                SafeArg.of("method", method),
+                SafeArg.of("client", client.getClientId()),
+                UnsafeArg.of("lockRequest", request));
+        return new BlockingTimeoutException(String.format(logMessage.replace("{}", "%s"),
+                timeLimitMillis, method, client.getClientId()));
+    }
+
+    @POST
+    @Path("unlock")
+    public boolean unlock(LockRefreshToken token) {
+        return lockService.unlock(token);
+    }
+
+    @POST
+    @Path("refresh-lock-tokens")
+    public Set<LockRefreshToken> refreshLockRefreshTokens(Iterable<LockRefreshToken> tokens) {
+        return lockService.refreshLockRefreshTokens(tokens);
+    }
+
+    @POST
+    @Path("min-locked-in-version/{client: .*}")
+    @Nullable
+    public Long getMinLockedInVersionId(@Safe @PathParam("client") String client) {
+        return lockService.getMinLockedInVersionId(client);
+    }
+
+    @POST
+    @Path("current-time-millis")
+    public long currentTimeMillis() {
+        return lockService.currentTimeMillis();
+    }
+
+    @POST
+    @Path("log-current-state")
+    public void logCurrentState() {
+        lockService.logCurrentState();
+    }
+
+    @POST
+    @Path("unlock-deprecated")
+    @SuppressWarnings("deprecation") // Still served for old clients, as LockService does.
+    public boolean unlock(HeldLocksToken token) {
+        return lockService.unlock(token);
+    }
+
+    @POST
+    @Path("unlock-simple")
+    public boolean unlockSimple(SimpleHeldLocksToken token) {
+        return lockService.unlockSimple(token);
+    }
+
+    @POST
+    @Path("unlock-and-freeze")
+    public boolean unlockAndFreeze(HeldLocksToken token) {
+        return lockService.unlockAndFreeze(token);
+    }
+
+    @POST
+    @Path("get-tokens/{client: .*}")
+    public Set<HeldLocksToken> getTokens(@Safe @PathParam("client") LockClient client) {
+        return lockService.getTokens(client);
+    }
+
+    @POST
+    @Path("refresh-tokens")
+    @SuppressWarnings("deprecation") // Still served for old clients, as LockService does.
+    public Set<HeldLocksToken> refreshTokens(Iterable<HeldLocksToken> tokens) {
+        return lockService.refreshTokens(tokens);
+    }
+
+    @POST
+    @Path("refresh-grant")
+    @Nullable
+    public HeldLocksGrant refreshGrant(HeldLocksGrant grant) {
+        return lockService.refreshGrant(grant);
+    }
+
+    @POST
+    @Path("refresh-grant-id")
+    @Nullable
+    public HeldLocksGrant refreshGrant(BigInteger grantId) {
+        return lockService.refreshGrant(grantId);
+    }
+
+    @POST
+    @Path("convert-to-grant")
+    public HeldLocksGrant convertToGrant(HeldLocksToken token) {
+        return lockService.convertToGrant(token);
+    }
+
+    @POST
+    @Path("use-grant/{client: .*}")
+    public HeldLocksToken useGrant(@Safe @PathParam("client") LockClient client, HeldLocksGrant grant) {
+        return lockService.useGrant(client, grant);
+    }
+
+    @POST
+    @Path("use-grant-id/{client: .*}")
+    public HeldLocksToken useGrant(@Safe @PathParam("client") LockClient client, BigInteger grantId) {
+        return lockService.useGrant(client, grantId);
+    }
+
+    @POST
+    @Path("min-locked-in-version-id")
+    @Nullable
+    @SuppressWarnings("deprecation") // Still served for old clients, as LockService does.
+    public Long getMinLockedInVersionId() {
+        return lockService.getMinLockedInVersionId();
+    }
+
+    @POST
+    @Path("min-locked-in-version-id-for-client/{client: .*}")
+    public Long getMinLockedInVersionId(@Safe @PathParam("client") LockClient client) {
+        return lockService.getMinLockedInVersionId(client);
+    }
+
+    @POST
+    @Path("lock-server-options")
+    public LockServerOptions getLockServerOptions() {
+        return lockService.getLockServerOptions();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.timelock;
 
+import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -31,6 +32,7 @@ import com.google.common.collect.Maps;
 import com.palantir.atlasdb.timelock.paxos.PaxosTimeLockConstants;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.lock.LockService;
+import com.palantir.lock.impl.NonBlockingLockService;
 import com.palantir.logsafe.Safe;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.timestamp.TimestampManagementService;
@@ -48,25 +50,44 @@ public class TimeLockResource {
     private final Function<String, TimeLockServices>  clientServicesFactory;
     private final ConcurrentMap<String, TimeLockServices> servicesByNamespace = Maps.newConcurrentMap();
     private final Supplier<Integer> maxNumberOfClients;
+    private final Optional<Long> legacyLockBlockingTimeLimitMillis;
 
     private TimeLockResource(
             Function<String, TimeLockServices> clientServicesFactory,
-            Supplier<Integer> maxNumberOfClients) {
+            Supplier<Integer> maxNumberOfClients,
+            Optional<Long> legacyLockBlockingTimeLimitMillis) {
         this.clientServicesFactory = clientServicesFactory;
         this.maxNumberOfClients = maxNumberOfClients;
+        this.legacyLockBlockingTimeLimitMillis = legacyLockBlockingTimeLimitMillis;
     }
 
     public static TimeLockResource create(MetricsManager metricsManager,
             Function<String, TimeLockServices> clientServicesFactory,
             Supplier<Integer> maxNumberOfClients) {
-        TimeLockResource resource = new TimeLockResource(clientServicesFactory, maxNumberOfClients);
+        return create(metricsManager, clientServicesFactory, maxNumberOfClients, Optional.empty());
+    }
+
+    /**
+     * @param legacyLockBlockingTimeLimitMillis how long a blocking request to a legacy lock service that waits
+     * without holding a thread may stay suspended; legacy lock services that block threads must limit this themselves.
+     */
+    public static TimeLockResource create(MetricsManager metricsManager,
+            Function<String, TimeLockServices> clientServicesFactory,
+            Supplier<Integer> maxNumberOfClients,
+            Optional<Long> legacyLockBlockingTimeLimitMillis) {
+        TimeLockResource resource = new TimeLockResource(
+                clientServicesFactory, maxNumberOfClients, legacyLockBlockingTimeLimitMillis);
         registerClientCapacityMetrics(resource, metricsManager);
         return resource;
     }
 
     @Path("/lock")
-    public LockService getLockService(@Safe @PathParam("namespace") String namespace) {
-        return getOrCreateServices(namespace).getLockService();
+    public Object getLockService(@Safe @PathParam("namespace") String namespace) {
+        LockService lockService = getOrCreateServices(namespace).getLockService();
+        if (lockService instanceof NonBlockingLockService) {
+            return new NonBlockingLockResource((NonBlockingLockService) lockService, legacyLockBlockingTimeLimitMillis);
+        }
+        return lockService;
     }
 
     @Path("/timestamp")
@@ -102,6 +123,9 @@ public class TimeLockResource {
                 "The client name '%s' is reserved for the leader election service, and may not be "
                         + "used.",
                 PaxosTimeLockConstants.LEADER_ELECTION_NAMESPACE);
+        Preconditions.checkArgument(!namespace.equals(PaxosTimeLockConstants.MULTIPLEXED_TIMESTAMP_NAMESPACE),
+                "The client name '%s' is reserved for multiplexed timestamp bounds, and may not be used.",
+                PaxosTimeLockConstants.MULTIPLEXED_TIMESTAMP_NAMESPACE);
 
         if (getNumberOfActiveClients() >= getMaxNumberOfClients()) {
             log.error(
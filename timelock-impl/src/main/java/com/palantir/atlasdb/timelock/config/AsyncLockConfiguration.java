@@ -50,4 +50,15 @@ public abstract class AsyncLockConfiguration {
     public boolean disableLegacySafetyChecksWarningPotentialDataCorruption() {
         return false;
     }
+
+    /**
+     * If enabled AND the async lock service is being used, blocking requests to the legacy lock service wait for
+     * their locks without holding a server thread, rather than parking a thread until they are granted or time out.
+     * The limits on the number of threads and on the blocking duration of legacy lock requests do not apply in this
+     * mode, as blocked requests no longer use up threads.
+     */
+    @Value.Default
+    public boolean useNonBlockingLegacyLockService() {
+        return false;
+    }
 }
@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.LockWatchRequest;
+import com.palantir.lock.v2.LockWatchResponse;
 
 public class AsyncLockService implements Closeable {
 
@@ -39,6 +41,8 @@ public class AsyncLockService implements Closeable {
     private final HeldLocksCollection heldLocks;
     private final AwaitedLocksCollection awaitedLocks;
     private final ImmutableTimestampTracker immutableTsTracker;
+    private final LockSessions lockSessions;
+    private final CoalescingLockWaiter lockWaiter;
 
     public static AsyncLockService createDefault(
             LockLog lockLog,
@@ -60,12 +64,26 @@ public class AsyncLockService implements Closeable {
             HeldLocksCollection heldLocks,
             AwaitedLocksCollection awaitedLocks,
             ScheduledExecutorService reaperExecutor) {
+        this(locks, immutableTimestampTracker, acquirer, heldLocks, awaitedLocks,
+                new LockSessions(System::currentTimeMillis), reaperExecutor);
+    }
+
+    public AsyncLockService(
+            LockCollection locks,
+            ImmutableTimestampTracker immutableTimestampTracker,
+            LockAcquirer acquirer,
+            HeldLocksCollection heldLocks,
+            AwaitedLocksCollection awaitedLocks,
+            LockSessions lockSessions,
+            ScheduledExecutorService reaperExecutor) {
         this.locks = locks;
         this.immutableTsTracker = immutableTimestampTracker;
         this.lockAcquirer = acquirer;
         this.heldLocks = heldLocks;
         this.awaitedLocks = awaitedLocks;
+        this.lockSessions = lockSessions;
         this.reaperExecutor = reaperExecutor;
+        this.lockWaiter = new CoalescingLockWaiter(acquirer, reaperExecutor, System::currentTimeMillis);
 
         scheduleExpiredLockReaper();
     }
@@ -73,7 +91,10 @@ public class AsyncLockService implements Closeable {
     private void scheduleExpiredLockReaper() {
         reaperExecutor.scheduleAtFixedRate(() -> {
             try {
+                // Locks first, so that sessions are only forgotten once the locks in them have been released.
                 heldLocks.removeExpired();
+                lockSessions.removeExpired();
+                heldLocks.getLockWatches().removeExpiredWatches();
             } catch (Throwable t) {
                 log.warn("Error while removing expired lock requests. Trying again on next iteration.", t);
             }
@@ -95,7 +116,7 @@ public class AsyncLockService implements Closeable {
     public AsyncResult<Void> waitForLocks(UUID requestId, Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
         return awaitedLocks.getExistingOrAwait(
                 requestId,
-                () -> awaitLocks(requestId, lockDescriptors, timeout));
+                () -> awaitLocks(lockDescriptors, timeout));
     }
 
     public Optional<Long> getImmutableTimestamp() {
@@ -108,10 +129,9 @@ public class AsyncLockService implements Closeable {
         return lockAcquirer.acquireLocks(requestId, orderedLocks, timeout);
     }
 
-    private AsyncResult<Void> awaitLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
-            TimeLimit timeout) {
+    private AsyncResult<Void> awaitLocks(Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
         OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
-        return lockAcquirer.waitForLocks(requestId, orderedLocks, timeout);
+        return lockWaiter.waitForLocks(orderedLocks, timeout);
     }
 
     private AsyncResult<HeldLocks> acquireImmutableTimestampLock(UUID requestId, long timestamp) {
@@ -135,6 +155,25 @@ public class AsyncLockService implements Closeable {
         return heldLocks.refresh(tokens);
     }
 
+    /**
+     * Refreshes the given lock session, opening it if requested, and moves the given locks into it. Returns the
+     * locks that joined the session, or empty if the session does not exist or its lease has expired.
+     */
+    public Optional<Set<LockToken>> refreshSession(UUID sessionId, boolean openIfAbsent, Set<LockToken> tokensToAdd) {
+        return lockSessions.refresh(sessionId, openIfAbsent)
+                .map(session -> tokensToAdd.isEmpty()
+                        ? ImmutableSet.<LockToken>of()
+                        : heldLocks.joinSession(tokensToAdd, session));
+    }
+
+    /**
+     * Returns the lock and unlock events of locks matching the requested prefixes, and starts watching the requested
+     * prefixes if they are not already watched.
+     */
+    public LockWatchResponse getLockWatchEvents(LockWatchRequest request) {
+        return heldLocks.getLockWatches().getEvents(request);
+    }
+
     /**
      * Shuts down the lock service, and fails any outstanding requests with a {@link
      * com.palantir.leader.NotCurrentLeaderException}.
@@ -85,6 +85,13 @@ public class AsyncResult<T> {
                 "This result is already completed");
     }
 
+    /**
+     * Marks this result as timed out, if it has not already completed.
+     */
+    public void timeoutIfNotCompleted() {
+        future.completeExceptionally(new TimeoutException());
+    }
+
     /** Returns whether this result has failed. Use {@link #getError} to retrieve the associated exception. */
     public boolean isFailed() {
         return future.isCompletedExceptionally() && !isTimedOut();
@@ -161,6 +168,14 @@ public class AsyncResult<T> {
         return new AsyncResult<U>(future.thenApply(mapper));
     }
 
+    /**
+     * @return an AsyncResult that completes in the same way as this instance, but that can be failed or timed out
+     * independently of this instance, for example with {@link #timeoutIfNotCompleted()}.
+     */
+    public AsyncResult<T> fork() {
+        return new AsyncResult<>(future.thenApply(Function.identity()));
+    }
+
     public void onError(Consumer<Throwable> errorHandler) {
         future.exceptionally(error -> {
             if (!isTimeout(error)) {
@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.palantir.common.time.Clock;
+
+/**
+ * Serves concurrent waitForLocks requests for the same lock from a single wait on that lock, rather than queueing
+ * every request on the lock. A request joins a wait that is already in progress if that wait will not time out
+ * before the request does; the request is then timed out on its own deadline, without affecting the shared wait.
+ * <p>
+ * Only requests for a single lock are coalesced. A chain of waits on several locks moves past each lock once it is
+ * free, and that lock may be locked again before the chain completes, so a request joining the chain part-way
+ * would be told that a lock is free when it is not.
+ */
+public class CoalescingLockWaiter {
+
+    private final LockAcquirer lockAcquirer;
+    private final ScheduledExecutorService timeoutExecutor;
+    private final Clock clock;
+
+    @VisibleForTesting
+    final ConcurrentMap<OrderedLocks, SharedWait> waitsByLocks = Maps.newConcurrentMap();
+
+    public CoalescingLockWaiter(LockAcquirer lockAcquirer, ScheduledExecutorService timeoutExecutor, Clock clock) {
+        this.lockAcquirer = lockAcquirer;
+        this.timeoutExecutor = timeoutExecutor;
+        this.clock = clock;
+    }
+
+    public AsyncResult<Void> waitForLocks(OrderedLocks locks, TimeLimit timeout) {
+        if (locks.get().size() != 1) {
+            return lockAcquirer.waitForLocks(UUID.randomUUID(), locks, timeout);
+        }
+
+        long deadlineMillis = clock.getTimeMillis() + timeout.getTimeMillis();
+        SharedWait sharedWait = waitsByLocks.get(locks);
+        if (sharedWait == null || !sharedWait.canBeJoinedBy(deadlineMillis)) {
+            return startSharedWait(locks, timeout, deadlineMillis).result;
+        }
+
+        AsyncResult<Void> result = sharedWait.result.fork();
+        if (!result.isComplete()) {
+            ScheduledFuture<?> timeoutTask = timeoutExecutor.schedule(
+                    result::timeoutIfNotCompleted, timeout.getTimeMillis(), TimeUnit.MILLISECONDS);
+            result.onComplete(() -> timeoutTask.cancel(false));
+        }
+        return result;
+    }
+
+    private SharedWait startSharedWait(OrderedLocks locks, TimeLimit timeout, long deadlineMillis) {
+        // The chain is started outside of any map operation: completing it can run callbacks while holding the
+        // monitor of a lock, and those must never block on the map.
+        SharedWait sharedWait = new SharedWait(
+                lockAcquirer.waitForLocks(UUID.randomUUID(), locks, timeout),
+                deadlineMillis);
+        if (!sharedWait.result.isComplete()) {
+            waitsByLocks.put(locks, sharedWait);
+            sharedWait.result.onCompleteAsync(() -> waitsByLocks.remove(locks, sharedWait));
+        }
+        return sharedWait;
+    }
+
+    @VisibleForTesting
+    static final class SharedWait {
+        private final AsyncResult<Void> result;
+        private final long deadlineMillis;
+
+        private SharedWait(AsyncResult<Void> result, long deadlineMillis) {
+            this.result = result;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        boolean canBeJoinedBy(long requestDeadlineMillis) {
+            return !result.isComplete() && deadlineMillis >= requestDeadlineMillis;
+        }
+    }
+
+}
@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +35,8 @@ public class HeldLocks {
 
     @GuardedBy("this")
     private boolean isUnlocked = false;
+    @GuardedBy("this")
+    private Optional<LockSession> session = Optional.empty();
 
     public HeldLocks(LockLog lockLog, Collection<AsyncLock> acquiredLocks, UUID requestId) {
         this(lockLog, acquiredLocks, requestId, new LeaseExpirationTimer(System::currentTimeMillis));
@@ -53,7 +56,7 @@ public class HeldLocks {
      * unlocked as a result of calling this method).
      */
     public synchronized boolean unlockIfExpired() {
-        if (expirationTimer.isExpired()) {
+        if (isExpired()) {
             if (unlock()) {
                 lockLog.lockExpired(token.getRequestId(), getLockDescriptors());
             }
@@ -66,10 +69,26 @@ public class HeldLocks {
             return false;
         }
 
+        if (session.isPresent()) {
+            return session.get().refresh();
+        }
         expirationTimer.refresh();
         return true;
     }
 
+    /**
+     * Hands the lease of these locks over to the given session, so that they are kept alive by refreshing the
+     * session rather than by refreshing them individually. Returns false if the locks are no longer held.
+     */
+    public synchronized boolean joinSession(LockSession newSession) {
+        if (isUnlocked || isExpired()) {
+            return false;
+        }
+
+        session = Optional.of(newSession);
+        return true;
+    }
+
     public synchronized boolean unlock() {
         if (isUnlocked) {
             return false;
@@ -83,6 +102,11 @@ public class HeldLocks {
         return true;
     }
 
+    @GuardedBy("this")
+    private boolean isExpired() {
+        return session.map(LockSession::isExpired).orElseGet(expirationTimer::isExpired);
+    }
+
     public LockToken getToken() {
         return token;
     }
@@ -96,7 +120,7 @@ public class HeldLocks {
         return acquiredLocks;
     }
 
-    private Collection<LockDescriptor> getLockDescriptors() {
+    Collection<LockDescriptor> getLockDescriptors() {
         return acquiredLocks.stream()
                 .map(AsyncLock::getDescriptor)
                 .collect(Collectors.toList());
@@ -33,16 +33,31 @@ public class HeldLocksCollection {
     @VisibleForTesting
     final ConcurrentMap<UUID, AsyncResult<HeldLocks>> heldLocksById = Maps.newConcurrentMap();
 
+    private final LockWatchLog lockWatches;
+
+    public HeldLocksCollection() {
+        this(new LockWatchLog(System::currentTimeMillis));
+    }
+
+    public HeldLocksCollection(LockWatchLog lockWatches) {
+        this.lockWatches = lockWatches;
+    }
+
     public AsyncResult<LockToken> getExistingOrAcquire(
             UUID requestId,
             Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
         AsyncResult<HeldLocks> locksFuture = heldLocksById.computeIfAbsent(
                 requestId, ignored -> lockAcquirer.get());
-        return locksFuture.map(HeldLocks::getToken);
+        // The token is only returned once the lock has been logged, so that a watcher sees the lock before the
+        // holder can act on it. Retries of the same request log the lock again, which watchers must tolerate anyway.
+        return locksFuture.map(locks -> {
+            lockWatches.logLocked(locks.getLockDescriptors());
+            return locks.getToken();
+        });
     }
 
     public Set<LockToken> unlock(Set<LockToken> tokens) {
-        Set<LockToken> unlocked = filter(tokens, HeldLocks::unlock);
+        Set<LockToken> unlocked = filter(tokens, this::unlock);
         for (LockToken token : unlocked) {
             heldLocksById.remove(token.getRequestId());
         }
@@ -53,6 +68,14 @@ public class HeldLocksCollection {
         return filter(tokens, HeldLocks::refresh);
     }
 
+    public Set<LockToken> joinSession(Set<LockToken> tokens, LockSession session) {
+        return filter(tokens, heldLocks -> heldLocks.joinSession(session));
+    }
+
+    public LockWatchLog getLockWatches() {
+        return lockWatches;
+    }
+
     public void removeExpired() {
         Iterator<AsyncResult<HeldLocks>> iterator = heldLocksById.values().iterator();
         while (iterator.hasNext()) {
@@ -71,7 +94,23 @@ public class HeldLocksCollection {
     private boolean shouldRemove(AsyncResult<HeldLocks> lockResult) {
         return lockResult.isFailed()
                 || lockResult.isTimedOut()
-                || lockResult.test(HeldLocks::unlockIfExpired);
+                || lockResult.test(this::unlockIfExpired);
+    }
+
+    private boolean unlock(HeldLocks heldLocks) {
+        if (heldLocks.unlock()) {
+            lockWatches.logUnlocked(heldLocks.getLockDescriptors());
+            return true;
+        }
+        return false;
+    }
+
+    private boolean unlockIfExpired(HeldLocks heldLocks) {
+        if (heldLocks.unlockIfExpired()) {
+            lockWatches.logUnlocked(heldLocks.getLockDescriptors());
+            return true;
+        }
+        return false;
     }
 
     private Set<LockToken> filter(Set<LockToken> tokens, Predicate<HeldLocks> predicate) {
@@ -23,12 +23,21 @@ import java.util.Set;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.palantir.lock.LockDescriptor;
 
 public class LockCollection {
 
+    /**
+     * Only small sets of descriptors are interned, since those are the sets that are requested over and over again,
+     * such as table-level advisory locks and singleton job locks.
+     */
+    private static final int MAX_DESCRIPTORS_TO_INTERN = 8;
+    private static final int MAX_INTERNED_SETS = 10_000;
+
     private final LoadingCache<LockDescriptor, ExclusiveLock> locksById;
+    private final LoadingCache<Set<LockDescriptor>, OrderedLocks> internedLocks;
 
     public LockCollection() {
         locksById = CacheBuilder.newBuilder()
@@ -39,9 +48,30 @@ public class LockCollection {
                         return new ExclusiveLock(descriptor);
                     }
                 });
+        // Interned sets hold strong references to their locks, which keeps the weak values in locksById alive for as
+        // long as the set is interned, so that a descriptor always maps to the same lock.
+        internedLocks = CacheBuilder.newBuilder()
+                .maximumSize(MAX_INTERNED_SETS)
+                .build(new CacheLoader<Set<LockDescriptor>, OrderedLocks>() {
+                    @Override
+                    public OrderedLocks load(Set<LockDescriptor> descriptors) throws Exception {
+                        return getAllUninterned(descriptors);
+                    }
+                });
     }
 
+    /**
+     * Returns the locks for the given descriptors, in lock order. Small sets of descriptors are interned, so that
+     * repeated requests for the same set share a single {@link OrderedLocks} rather than sorting it again.
+     */
     public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
+        if (descriptors.size() <= MAX_DESCRIPTORS_TO_INTERN) {
+            return internedLocks.getUnchecked(ImmutableSet.copyOf(descriptors));
+        }
+        return getAllUninterned(descriptors);
+    }
+
+    private OrderedLocks getAllUninterned(Set<LockDescriptor> descriptors) {
         List<LockDescriptor> orderedDescriptors = sort(descriptors);
 
         List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
@@ -53,6 +83,7 @@ public class LockCollection {
 
     private List<LockDescriptor> sort(Set<LockDescriptor> descriptors) {
         List<LockDescriptor> orderedDescriptors = Lists.newArrayList(descriptors);
+        // If the client already sent the descriptors in lock order, this is a single pass over the list.
         orderedDescriptors.sort(Comparator.naturalOrder());
         return orderedDescriptors;
     }
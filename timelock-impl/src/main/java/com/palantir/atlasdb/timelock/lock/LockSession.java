@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A lease shared by every {@link HeldLocks} that has joined the session. Once the lease has been observed to have
+ * expired it can never be refreshed again, so that a client refreshing the session can never be told that the
+ * session is valid after the reaper has started releasing its locks.
+ */
+public class LockSession {
+
+    private final LeaseExpirationTimer expirationTimer;
+
+    @GuardedBy("this")
+    private boolean isExpired = false;
+
+    public LockSession(LeaseExpirationTimer expirationTimer) {
+        this.expirationTimer = expirationTimer;
+    }
+
+    public synchronized boolean refresh() {
+        if (isExpired()) {
+            return false;
+        }
+
+        expirationTimer.refresh();
+        return true;
+    }
+
+    public synchronized boolean isExpired() {
+        if (!isExpired && expirationTimer.isExpired()) {
+            isExpired = true;
+        }
+        return isExpired;
+    }
+
+}
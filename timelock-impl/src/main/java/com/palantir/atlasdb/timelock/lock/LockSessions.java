@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.palantir.common.time.Clock;
+
+public class LockSessions {
+
+    @VisibleForTesting
+    final ConcurrentMap<UUID, LockSession> sessionsById = Maps.newConcurrentMap();
+
+    private final Clock clock;
+
+    public LockSessions(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Refreshes the session with the given id, opening it first if it does not exist and openIfAbsent is set.
+     * Returns the session if it was refreshed, or empty if it does not exist or its lease has already expired.
+     */
+    public Optional<LockSession> refresh(UUID sessionId, boolean openIfAbsent) {
+        LockSession session = openIfAbsent
+                ? sessionsById.computeIfAbsent(sessionId, ignored -> new LockSession(new LeaseExpirationTimer(clock)))
+                : sessionsById.get(sessionId);
+        if (session == null || !session.refresh()) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    public void removeExpired() {
+        sessionsById.values().removeIf(LockSession::isExpired);
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.palantir.common.time.Clock;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.ImmutableLockWatchResponse;
+import com.palantir.lock.v2.LockWatchEvent;
+import com.palantir.lock.v2.LockWatchRequest;
+import com.palantir.lock.v2.LockWatchResponse;
+import com.palantir.lock.v2.LockWatchVersion;
+
+/**
+ * A bounded, versioned log of the lock and unlock events of locks whose descriptors match a watched prefix. Prefixes
+ * are watched from the first request for them, and stop being watched once no request has named them for
+ * {@link #WATCH_EXPIRY_MILLIS}. Locks that do not match any watched prefix are not logged.
+ */
+public class LockWatchLog {
+
+    @VisibleForTesting
+    static final long WATCH_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int DEFAULT_MAX_EVENTS = 10_000;
+
+    private final UUID logId = UUID.randomUUID();
+    private final Clock clock;
+    private final int maxEvents;
+
+    // Written only while holding the monitor of this log, but read without it when deciding whether to log an event.
+    private final ConcurrentMap<LockDescriptor, Watch> watchesByPrefix = Maps.newConcurrentMap();
+
+    @GuardedBy("this")
+    private final Deque<LockWatchEvent> events = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long latestVersion = 0L;
+    @GuardedBy("this")
+    private long latestEvictedVersion = 0L;
+
+    public LockWatchLog(Clock clock) {
+        this(clock, DEFAULT_MAX_EVENTS);
+    }
+
+    @VisibleForTesting
+    LockWatchLog(Clock clock, int maxEvents) {
+        this.clock = clock;
+        this.maxEvents = maxEvents;
+    }
+
+    public void logLocked(Collection<LockDescriptor> lockDescriptors) {
+        log(LockWatchEvent.Type.LOCKED, lockDescriptors);
+    }
+
+    public void logUnlocked(Collection<LockDescriptor> lockDescriptors) {
+        log(LockWatchEvent.Type.UNLOCKED, lockDescriptors);
+    }
+
+    private void log(LockWatchEvent.Type type, Collection<LockDescriptor> lockDescriptors) {
+        if (watchesByPrefix.isEmpty()) {
+            return;
+        }
+
+        Set<LockDescriptor> watchedDescriptors = lockDescriptors.stream()
+                .filter(this::isWatched)
+                .collect(Collectors.toSet());
+        if (!watchedDescriptors.isEmpty()) {
+            append(type, watchedDescriptors);
+        }
+    }
+
+    private synchronized void append(LockWatchEvent.Type type, Set<LockDescriptor> watchedDescriptors) {
+        latestVersion++;
+        events.addLast(LockWatchEvent.of(latestVersion, type, watchedDescriptors));
+        if (events.size() > maxEvents) {
+            latestEvictedVersion = events.removeFirst().version();
+        }
+    }
+
+    /**
+     * Starts watching the requested prefixes, if they are not already watched, and returns the events of locks
+     * matching them since the requested version.
+     */
+    public synchronized LockWatchResponse getEvents(LockWatchRequest request) {
+        long nowMillis = clock.getTimeMillis();
+        Optional<Long> lastKnownVersion = request.lastKnownVersion()
+                .filter(version -> version.logId().equals(logId))
+                .map(LockWatchVersion::version)
+                .filter(version -> version >= latestEvictedVersion && version <= latestVersion);
+
+        boolean isComplete = lastKnownVersion.isPresent();
+        for (LockDescriptor prefix : request.descriptorPrefixes()) {
+            // Starting a watch takes a version of its own, so that a client that last saw the log before the watch
+            // started, possibly while an earlier watch of the same prefix was still active, knows it missed events.
+            Watch watch = watchesByPrefix.computeIfAbsent(prefix, unused -> new Watch(++latestVersion));
+            watch.lastRequestedMillis = nowMillis;
+            isComplete &= lastKnownVersion.map(version -> version >= watch.watchedSinceVersion).orElse(false);
+        }
+
+        ImmutableLockWatchResponse.Builder response = ImmutableLockWatchResponse.builder()
+                .currentVersion(LockWatchVersion.of(logId, latestVersion))
+                .isComplete(isComplete);
+        if (isComplete) {
+            eventsSince(lastKnownVersion.get(), request.descriptorPrefixes()).forEach(response::addEvents);
+        }
+        return response.build();
+    }
+
+    @GuardedBy("this")
+    private Collection<LockWatchEvent> eventsSince(long version, Set<LockDescriptor> prefixes) {
+        return events.stream()
+                .filter(event -> event.version() > version)
+                .map(event -> LockWatchEvent.of(event.version(), event.type(), event.lockDescriptors().stream()
+                        .filter(descriptor -> matchesAny(descriptor, prefixes))
+                        .collect(ImmutableSet.toImmutableSet())))
+                .filter(event -> !event.lockDescriptors().isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void removeExpiredWatches() {
+        long expiredBeforeMillis = clock.getTimeMillis() - WATCH_EXPIRY_MILLIS;
+        watchesByPrefix.values().removeIf(watch -> watch.lastRequestedMillis < expiredBeforeMillis);
+    }
+
+    private boolean isWatched(LockDescriptor descriptor) {
+        return matchesAny(descriptor, watchesByPrefix.keySet());
+    }
+
+    private static boolean matchesAny(LockDescriptor descriptor, Set<LockDescriptor> prefixes) {
+        for (LockDescriptor prefix : prefixes) {
+            if (descriptor.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Watch {
+        private final long watchedSinceVersion;
+        private long lastRequestedMillis;
+
+        private Watch(long watchedSinceVersion) {
+            this.watchedSinceVersion = watchedSinceVersion;
+        }
+    }
+}
@@ -15,13 +15,20 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.ws.rs.BadRequestException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.palantir.common.base.Throwables;
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockResponse;
 import com.palantir.lock.LockService;
 import com.palantir.lock.SimplifyingLockService;
+import com.palantir.lock.impl.NonBlockingLockService;
 import com.palantir.logsafe.UnsafeArg;
 
 /**
@@ -32,7 +39,7 @@ import com.palantir.logsafe.UnsafeArg;
  * We rely on the previous implementation of SnapshotTransactionManager#getImmutableTimestampInternal (e.g. in 0.48.0),
  * which attempts to acquire the immutable timestamp before transactions begin running.
  */
-public class NonTransactionalLockService extends SimplifyingLockService {
+public class NonTransactionalLockService extends SimplifyingLockService implements NonBlockingLockService {
     private static final Logger log = LoggerFactory.getLogger(NonTransactionalLockService.class);
 
     private final LockService delegate;
@@ -46,6 +53,19 @@ public class NonTransactionalLockService extends SimplifyingLockService {
         return delegate;
     }
 
+    @Override
+    public CompletableFuture<LockResponse> lockWithFullLockResponseAsync(LockClient client, LockRequest request) {
+        if (delegate instanceof NonBlockingLockService) {
+            return ((NonBlockingLockService) delegate).lockWithFullLockResponseAsync(client, request);
+        }
+        try {
+            return CompletableFuture.completedFuture(delegate.lockWithFullLockResponse(client, request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+    }
+
     @Override
     public Long getMinLockedInVersionId(String client) {
         log.warn("Client {} attempted to getMinLockedInVersionId() on a non-transactional lock service!"
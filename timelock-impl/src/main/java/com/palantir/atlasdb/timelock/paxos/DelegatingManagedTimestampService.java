@@ -15,6 +15,9 @@
  */
 package com.palantir.atlasdb.timelock.paxos;
 
+import java.io.Closeable;
+import java.io.IOException;
+
 import javax.ws.rs.QueryParam;
 
 import com.google.common.base.Preconditions;
@@ -22,7 +25,7 @@ import com.palantir.timestamp.TimestampManagementService;
 import com.palantir.timestamp.TimestampRange;
 import com.palantir.timestamp.TimestampService;
 
-public class DelegatingManagedTimestampService implements ManagedTimestampService {
+public class DelegatingManagedTimestampService implements ManagedTimestampService, Closeable {
     private final TimestampService timestampService;
     private final TimestampManagementService timestampManagementService;
 
@@ -59,4 +62,18 @@ public class DelegatingManagedTimestampService implements ManagedTimestampServic
     public String ping() {
         return timestampManagementService.ping();
     }
+
+    @Override
+    public void close() throws IOException {
+        closeIfCloseable(timestampService);
+        if (timestampManagementService != timestampService) {
+            closeIfCloseable(timestampManagementService);
+        }
+    }
+
+    private static void closeIfCloseable(Object service) throws IOException {
+        if (service instanceof Closeable) {
+            ((Closeable) service).close();
+        }
+    }
 }
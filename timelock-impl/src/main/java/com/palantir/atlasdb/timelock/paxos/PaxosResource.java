@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.timelock.paxos;
 
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Map;
 
@@ -76,6 +77,13 @@ public final class PaxosResource {
         return AtlasDbMetrics.instrument(metricRegistry, serviceClass, service, MetricRegistry.name(serviceClass));
     }
 
+    /**
+     * Returns whether this node has Paxos logs for the given client, without creating them if it does not.
+     */
+    public boolean hasLogs(String client) {
+        return paxosComponentsByClient.containsKey(client) || Files.isDirectory(Paths.get(logDirectory, client));
+    }
+
     @Path("/learner")
     public PaxosLearner getPaxosLearner(@PathParam("client") String client) {
         return getOrCreateComponents(client).learner();
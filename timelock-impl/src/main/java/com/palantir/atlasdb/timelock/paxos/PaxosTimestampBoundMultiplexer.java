@@ -0,0 +1,519 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import org.immutables.value.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.common.remoting.ServiceNotAvailableException;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosLearner;
+import com.palantir.paxos.PaxosProposer;
+import com.palantir.paxos.PaxosQuorumChecker;
+import com.palantir.paxos.PaxosResponse;
+import com.palantir.paxos.PaxosRoundFailureException;
+import com.palantir.paxos.PaxosValue;
+import com.palantir.timestamp.DebugLogger;
+import com.palantir.timestamp.TimestampBoundStore;
+
+/**
+ * Stores the timestamp bounds of many namespaces in a single Paxos log, instead of one log per namespace as
+ * {@link PaxosTimestampBoundStore} does. Most values in the log only contain the bounds that changed in that round;
+ * every {@link #SEQUENCES_PER_FULL_STATE}th value contains the complete map from namespace to bound, so the bounds
+ * at any sequence number can be rebuilt from at most that many values. Requests to store bounds that arrive while a
+ * round is in progress are batched into the next round.
+ *
+ * A namespace's bound is only updated if it has not changed since that namespace's store last read or wrote it,
+ * which gives each namespace the same protection against other timestamp services as a
+ * {@link PaxosTimestampBoundStore}. Before a namespace's bound is first stored in the multiplexed log, the namespace's
+ * own log is fenced, so that nodes that do not multiplex timestamp bounds refuse to serve the namespace from then on.
+ *
+ * No monitor is held while talking to other nodes: a single proposer thread proposes the pending updates, and the
+ * threads storing bounds only wait for their own update to complete.
+ */
+public class PaxosTimestampBoundMultiplexer {
+    private static final Logger log = LoggerFactory.getLogger(PaxosTimestampBoundMultiplexer.class);
+
+    @VisibleForTesting
+    static final int SEQUENCES_PER_FULL_STATE = 100;
+
+    private static final int QUORUM_OF_ONE = 1;
+    private static final int MAX_CONCURRENT_REQUESTS_PER_NODE = 16;
+    private static final PaxosBounds NO_CHANGES = ImmutablePaxosBounds.of(false, ImmutableMap.of());
+    private static final boolean ONLY_LOG_ON_QUORUM_FAILURE = true;
+    private static final SequenceAndBounds INITIAL_STATE =
+            ImmutableSequenceAndBounds.of(PaxosAcceptor.NO_LOG_ENTRY, ImmutableMap.of());
+
+    private final PaxosProposer proposer;
+    private final PaxosLearner knowledge;
+
+    private final List<PaxosAcceptor> acceptors;
+    private final List<PaxosLearner> learners;
+    private final LongSupplier maximumWaitBeforeProposalMs;
+
+    @GuardedBy("this")
+    private SequenceAndBounds agreedState;
+
+    @GuardedBy("pendingUpdates")
+    private final List<PendingUpdate> pendingUpdates = new ArrayList<>();
+
+    private final ExecutorService proposerExecutor = PTExecutors.newSingleThreadExecutor(true);
+    private final ExecutorService executor;
+
+    public PaxosTimestampBoundMultiplexer(PaxosProposer proposer,
+            PaxosLearner knowledge,
+            List<PaxosAcceptor> acceptors,
+            List<PaxosLearner> learners,
+            LongSupplier maximumWaitBeforeProposalMs) {
+        this.proposer = proposer;
+        this.knowledge = knowledge;
+        this.acceptors = acceptors;
+        this.learners = learners;
+        this.maximumWaitBeforeProposalMs = maximumWaitBeforeProposalMs;
+        this.executor = PTExecutors.newFixedThreadPool(
+                MAX_CONCURRENT_REQUESTS_PER_NODE * Math.max(acceptors.size(), learners.size()),
+                PTExecutors.newNamedThreadFactory(true));
+    }
+
+    /**
+     * Returns a bound store for a single namespace. If the multiplexed log has no bound for the namespace yet, the
+     * bound is read from the provided store, which should be the store the namespace used before it was multiplexed,
+     * and that store is fenced before the bound is first stored through the multiplexed log. If the namespace never
+     * had a store of its own, the supplier should return empty, and the namespace's bound starts at zero. Once a bound
+     * has been stored through the multiplexed log, the previous store is never consulted again.
+     */
+    public TimestampBoundStore forNamespace(
+            String namespace,
+            Supplier<Optional<PaxosTimestampBoundStore>> previousStore) {
+        return new NamespacedBoundStore(namespace, previousStore);
+    }
+
+    /**
+     * Contacts a quorum of nodes to find the latest agreed bounds, and returns the bound for the given namespace.
+     *
+     * @return the bound the cluster has agreed on for the namespace, or null if it has none
+     * @throws ServiceNotAvailableException if we couldn't contact a quorum
+     */
+    @VisibleForTesting
+    @Nullable
+    Long getUpperLimit(String namespace) {
+        List<PaxosTimestampBoundStore.PaxosLong> responses = PaxosQuorumChecker.collectQuorumResponses(
+                ImmutableList.copyOf(acceptors),
+                acceptor -> ImmutablePaxosLong.of(acceptor.getLatestSequencePreparedOrAccepted()),
+                proposer.getQuorumSize(),
+                executor,
+                PaxosQuorumChecker.DEFAULT_REMOTE_REQUESTS_TIMEOUT_IN_SECONDS,
+                ONLY_LOG_ON_QUORUM_FAILURE);
+        if (!PaxosQuorumChecker.hasQuorum(responses, proposer.getQuorumSize())) {
+            throw new ServiceNotAvailableException("could not get a quorum");
+        }
+        long maxSeq = Ordering.natural().onResultOf(PaxosTimestampBoundStore.PaxosLong::getValue)
+                .max(responses)
+                .getValue();
+        SequenceAndBounds latestState = getAgreedState(maxSeq);
+        synchronized (this) {
+            updateAgreedState(latestState);
+            return agreedState.getBounds().get(namespace);
+        }
+    }
+
+    @GuardedBy("this")
+    private void updateAgreedState(SequenceAndBounds state) {
+        if (agreedState == null || state.getSeqId() >= agreedState.getSeqId()) {
+            agreedState = state;
+        }
+    }
+
+    /**
+     * Stores a new bound for the given namespace, batched with the bounds of any other namespaces that are waiting
+     * to be stored.
+     *
+     * @param namespace the namespace whose bound should be stored
+     * @param expectedBound the bound the caller last read or stored for the namespace, or null if it had none
+     * @param limit the new bound
+     * @return the bound that was agreed for the namespace, which is at least limit
+     * @throws IllegalArgumentException if trying to persist a limit smaller than the agreed limit
+     * @throws NotCurrentLeaderException if the namespace's bound has changed out from under us
+     */
+    @VisibleForTesting
+    long storeUpperLimit(String namespace, @Nullable Long expectedBound, long limit) {
+        PendingUpdate update = new PendingUpdate(namespace, expectedBound, limit);
+        synchronized (pendingUpdates) {
+            pendingUpdates.add(update);
+        }
+        // Every update submits a task, so no update is left pending; tasks that find no pending updates do nothing.
+        proposerExecutor.execute(this::proposePendingUpdates);
+        try {
+            return update.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Proposes a single round containing every pending update. Only ever runs on the proposer thread.
+     */
+    private void proposePendingUpdates() {
+        List<PendingUpdate> updates;
+        synchronized (pendingUpdates) {
+            updates = ImmutableList.copyOf(pendingUpdates);
+            pendingUpdates.clear();
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        SequenceAndBounds state;
+        synchronized (this) {
+            state = agreedState;
+        }
+        if (state == null) {
+            // Stores always read their bound before writing it, so this only happens if a read failed.
+            updates.forEach(update -> update.result.completeExceptionally(new NotCurrentLeaderException(
+                    "The multiplexed timestamp bounds have not been read yet")));
+            return;
+        }
+
+        Map<String, Long> changedBounds = new HashMap<>();
+        Set<String> namespacesInRound = new HashSet<>();
+        List<PendingUpdate> updatesInRound = new ArrayList<>();
+        for (PendingUpdate update : updates) {
+            Long currentBound = state.getBounds().get(update.namespace);
+            if (!Objects.equals(currentBound, update.expectedBound) || !namespacesInRound.add(update.namespace)) {
+                update.result.completeExceptionally(new NotCurrentLeaderException(String.format(
+                        "The timestamp bound for namespace %s changed from under us: we expected %s, but found %s."
+                                + " This suggests that another timelock server has gained leadership and updated"
+                                + " the timestamp bound.",
+                        update.namespace,
+                        update.expectedBound,
+                        currentBound)));
+            } else if (currentBound != null && update.limit < currentBound) {
+                update.result.completeExceptionally(new IllegalArgumentException(String.format(
+                        "Tried to store an upper limit %s less than the current limit %s",
+                        update.limit,
+                        currentBound)));
+            } else {
+                changedBounds.put(update.namespace, update.limit);
+                updatesInRound.add(update);
+            }
+        }
+
+        if (updatesInRound.isEmpty()) {
+            return;
+        }
+
+        long newSeq = state.getSeqId() + 1;
+        PaxosBounds proposal = isFullStateSequence(newSeq)
+                ? ImmutablePaxosBounds.of(true, applyChanges(state.getBounds(), changedBounds))
+                : ImmutablePaxosBounds.of(false, changedBounds);
+        while (true) {
+            try {
+                proposer.propose(newSeq, encode(proposal));
+                PaxosValue value = knowledge.getLearnedValue(newSeq);
+                SequenceAndBounds newState = ImmutableSequenceAndBounds.of(
+                        newSeq, decode(value.getData()).applyTo(state.getBounds()));
+                synchronized (this) {
+                    updateAgreedState(newState);
+                }
+                completeUpdates(newState, value, updatesInRound);
+                return;
+            } catch (PaxosRoundFailureException e) {
+                waitForRandomBackoff(e);
+            } catch (RuntimeException e) {
+                // The callers waiting on these updates would otherwise never return.
+                updatesInRound.forEach(update -> update.result.completeExceptionally(e));
+                return;
+            }
+        }
+    }
+
+    private void completeUpdates(SequenceAndBounds state, PaxosValue value, List<PendingUpdate> updates) {
+        long seq = state.getSeqId();
+        boolean isOurs = value.getLeaderUUID().equals(proposer.getUuid());
+        for (PendingUpdate update : updates) {
+            Long agreedBound = state.getBounds().get(update.namespace);
+            if (isOurs && agreedBound != null && agreedBound >= update.limit) {
+                update.result.complete(agreedBound);
+            } else {
+                log.warn("Trying to store limit {} for sequence {} yielded consensus on a different bound {}, proposed"
+                                + " by {}; our UUID is {}. This suggests that we have lost leadership, or that another"
+                                + " timestamp service is running.",
+                        SafeArg.of("limit", update.limit),
+                        SafeArg.of("paxosSequenceNumber", seq),
+                        SafeArg.of("agreedBound", agreedBound),
+                        SafeArg.of("proposerUuid", value.getLeaderUUID()),
+                        SafeArg.of("ourUuid", proposer.getUuid()));
+                update.result.completeExceptionally(new NotCurrentLeaderException(String.format(
+                        "Timestamp limit changed from under us for sequence '%s'. We tried to propose a bound of '%s',"
+                                + " but the agreed bound was '%s'.",
+                        seq,
+                        update.limit,
+                        agreedBound)));
+            }
+        }
+        DebugLogger.logger.info("Stored timestamp bounds for {} namespaces in sequence '{}'.",
+                SafeArg.of("numNamespaces", updates.size()),
+                SafeArg.of("paxosSequenceNumber", seq));
+    }
+
+    /**
+     * Obtains agreement for a given sequence number, and rebuilds the bounds at that sequence number by applying the
+     * changes since the latest full state at or before it. Sequence numbers without an agreed value are forced, as
+     * {@link PaxosTimestampBoundStore#getAgreedState(long)} does, by proposing that nothing changed in them.
+     */
+    @VisibleForTesting
+    SequenceAndBounds getAgreedState(long seq) {
+        Deque<PaxosBounds> changes = new ArrayDeque<>();
+        SequenceAndBounds baseState = null;
+        for (long currentSeq = seq; baseState == null; currentSeq--) {
+            baseState = getKnownState(currentSeq);
+            if (baseState == null) {
+                PaxosBounds value = getOrForceAgreedValue(currentSeq);
+                if (value.isFullState()) {
+                    baseState = ImmutableSequenceAndBounds.of(currentSeq, value.getBounds());
+                } else {
+                    changes.push(value);
+                }
+            }
+        }
+
+        Map<String, Long> bounds = baseState.getBounds();
+        for (PaxosBounds change : changes) {
+            bounds = change.applyTo(bounds);
+        }
+        return ImmutableSequenceAndBounds.of(seq, bounds);
+    }
+
+    @Nullable
+    private synchronized SequenceAndBounds getKnownState(long seq) {
+        if (seq <= PaxosAcceptor.NO_LOG_ENTRY) {
+            return INITIAL_STATE;
+        }
+        return agreedState != null && agreedState.getSeqId() == seq ? agreedState : null;
+    }
+
+    private PaxosBounds getOrForceAgreedValue(long seq) {
+        Optional<PaxosBounds> learnedValue = getLearnedValue(seq);
+        if (learnedValue.isPresent()) {
+            return learnedValue.get();
+        }
+
+        PaxosBounds proposal = isFullStateSequence(seq)
+                ? ImmutablePaxosBounds.of(true, getAgreedState(seq - 1).getBounds())
+                : NO_CHANGES;
+        while (true) {
+            try {
+                byte[] acceptedValue = proposer.propose(seq, encode(proposal));
+                Preconditions.checkNotNull(acceptedValue, "Proposed value can't be null, but was in sequence %s", seq);
+                return decode(acceptedValue);
+            } catch (PaxosRoundFailureException e) {
+                waitForRandomBackoff(e);
+            }
+        }
+    }
+
+    private Optional<PaxosBounds> getLearnedValue(long seq) {
+        PaxosValue localValue = knowledge.getLearnedValue(seq);
+        if (localValue != null) {
+            return Optional.of(decode(localValue.getData()));
+        }
+        List<PaxosBounds> responses = PaxosQuorumChecker.collectQuorumResponses(
+                ImmutableList.copyOf(learners),
+                learner -> getLearnedValue(seq, learner),
+                QUORUM_OF_ONE,
+                executor,
+                PaxosQuorumChecker.DEFAULT_REMOTE_REQUESTS_TIMEOUT_IN_SECONDS,
+                ONLY_LOG_ON_QUORUM_FAILURE);
+        if (responses.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(responses.iterator().next());
+    }
+
+    private static PaxosBounds getLearnedValue(long seq, PaxosLearner learner) {
+        PaxosValue value = learner.getLearnedValue(seq);
+        if (value == null) {
+            throw new NoSuchElementException(
+                    String.format("Tried to get a learned value for sequence number '%d' which didn't exist", seq));
+        }
+        return decode(value.getData());
+    }
+
+    private static boolean isFullStateSequence(long seq) {
+        return seq % SEQUENCES_PER_FULL_STATE == 0;
+    }
+
+    private static Map<String, Long> applyChanges(Map<String, Long> bounds, Map<String, Long> changes) {
+        Map<String, Long> newBounds = new HashMap<>(bounds);
+        newBounds.putAll(changes);
+        return ImmutableMap.copyOf(newBounds);
+    }
+
+    private void waitForRandomBackoff(PaxosRoundFailureException paxosException) {
+        long backoffTime = (long) (maximumWaitBeforeProposalMs.getAsLong() * Math.random() + 1);
+        log.info("Paxos proposal couldn't complete, because we could not connect to a quorum of nodes. We"
+                        + " will retry in {} ms.",
+                SafeArg.of("backoffTime", backoffTime),
+                paxosException);
+        try {
+            // No monitor is held here, so reads are not blocked while we wait. Updates that arrive in the meantime
+            // are proposed in the next round.
+            Thread.sleep(backoffTime);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @VisibleForTesting
+    static byte[] encode(PaxosBounds value) {
+        ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        output.writeBoolean(value.isFullState());
+        output.writeInt(value.getBounds().size());
+        value.getBounds().forEach((namespace, bound) -> {
+            output.writeUTF(namespace);
+            output.writeLong(bound);
+        });
+        return output.toByteArray();
+    }
+
+    @VisibleForTesting
+    static PaxosBounds decode(byte[] data) {
+        ByteArrayDataInput input = ByteStreams.newDataInput(data);
+        boolean isFullState = input.readBoolean();
+        int size = input.readInt();
+        ImmutableMap.Builder<String, Long> bounds = ImmutableMap.builder();
+        for (int i = 0; i < size; i++) {
+            bounds.put(input.readUTF(), input.readLong());
+        }
+        return ImmutablePaxosBounds.of(isFullState, bounds.build());
+    }
+
+    private final class NamespacedBoundStore implements TimestampBoundStore {
+        private final String namespace;
+        private final Supplier<Optional<PaxosTimestampBoundStore>> previousStore;
+
+        @Nullable
+        @GuardedBy("this")
+        private Long expectedBound;
+
+        private NamespacedBoundStore(String namespace, Supplier<Optional<PaxosTimestampBoundStore>> previousStore) {
+            this.namespace = namespace;
+            this.previousStore = previousStore;
+        }
+
+        @Override
+        public synchronized long getUpperLimit() {
+            expectedBound = PaxosTimestampBoundMultiplexer.this.getUpperLimit(namespace);
+            if (expectedBound != null) {
+                return expectedBound;
+            }
+            return previousStore.get()
+                    .map(PaxosTimestampBoundStore::getUpperLimitForMultiplexing)
+                    .orElse(0L);
+        }
+
+        @Override
+        public synchronized void storeUpperLimit(long limit) {
+            if (expectedBound == null) {
+                // This fails if a node that does not multiplex bounds has changed the namespace's bound since we read
+                // it, and stops such nodes from serving the namespace once we store its bound in the multiplexed log.
+                previousStore.get().ifPresent(store -> store.fenceForMultiplexing(limit));
+            }
+            expectedBound = PaxosTimestampBoundMultiplexer.this.storeUpperLimit(namespace, expectedBound, limit);
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final String namespace;
+        @Nullable
+        private final Long expectedBound;
+        private final long limit;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        private PendingUpdate(String namespace, @Nullable Long expectedBound, long limit) {
+            this.namespace = namespace;
+            this.expectedBound = expectedBound;
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * A value in the multiplexed log: either the bound of every namespace, or only the bounds that changed since the
+     * previous sequence number.
+     */
+    @Value.Immutable
+    interface PaxosBounds extends PaxosResponse {
+        @Override
+        default boolean isSuccessful() {
+            return true;
+        }
+
+        @Value.Parameter
+        boolean isFullState();
+
+        @Value.Parameter
+        Map<String, Long> getBounds();
+
+        default Map<String, Long> applyTo(Map<String, Long> previousBounds) {
+            return isFullState() ? getBounds() : applyChanges(previousBounds, getBounds());
+        }
+    }
+
+    @Value.Immutable
+    interface SequenceAndBounds {
+        @Value.Parameter
+        long getSeqId();
+
+        @Value.Parameter
+        Map<String, Long> getBounds();
+    }
+}
@@ -92,10 +92,25 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
      */
     @Override
     public synchronized long getUpperLimit() {
+        readAgreedState();
+        throwIfFenced();
+        return agreedState.getBound();
+    }
+
+    /**
+     * Reads the upper limit as {@link #getUpperLimit()} does, but also returns the limit if this log has been fenced
+     * by {@link #fenceForMultiplexing(long)}. Only a {@link PaxosTimestampBoundMultiplexer} that is taking over the
+     * bound of this log's client should call this.
+     */
+    public synchronized long getUpperLimitForMultiplexing() {
+        readAgreedState();
+        return unfence(agreedState.getBound());
+    }
+
+    private void readAgreedState() {
         List<PaxosLong> responses = getLatestSequenceNumbersFromAcceptors();
         PaxosLong max = Ordering.natural().onResultOf(PaxosLong::getValue).max(responses);
         agreedState = getAgreedState(max.getValue());
-        return agreedState.getBound();
     }
 
     /**
@@ -248,19 +263,41 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
      */
     @Override
     public synchronized void storeUpperLimit(long limit) throws MultipleRunningTimestampServiceError {
+        if (agreedState != null) {
+            throwIfFenced();
+        }
+        storeLimit(limit, limit);
+    }
+
+    /**
+     * Stores the given limit in a form that {@link #getUpperLimit()} refuses to read. A multiplexer calls this before
+     * it first stores this log's client's bound in the multiplexed log, so that nodes that do not multiplex timestamp
+     * bounds cannot hand out timestamps for the client any more. Like {@link #storeUpperLimit(long)}, this fails if
+     * the bound has changed since it was last read.
+     *
+     * @param limit the upper limit the multiplexer is about to store for this log's client
+     * @throws NotCurrentLeaderException if the timestamp limit has changed out from under us
+     */
+    public synchronized void fenceForMultiplexing(long limit) {
+        Preconditions.checkArgument(limit >= 0, "Cannot fence a negative upper limit %s", limit);
+        storeLimit(limit, fence(limit));
+    }
+
+    private void storeLimit(long limit, long valueToStore) {
         long newSeq = PaxosAcceptor.NO_LOG_ENTRY + 1;
         if (agreedState != null) {
-            Preconditions.checkArgument(limit >= agreedState.getBound(),
-                    "Tried to store an upper limit %s less than the current limit %s", limit, agreedState.getBound());
+            long currentLimit = unfence(agreedState.getBound());
+            Preconditions.checkArgument(limit >= currentLimit,
+                    "Tried to store an upper limit %s less than the current limit %s", limit, currentLimit);
             newSeq = agreedState.getSeqId() + 1;
         }
         while (true) {
             try {
-                proposer.propose(newSeq, PtBytes.toBytes(limit));
+                proposer.propose(newSeq, PtBytes.toBytes(valueToStore));
                 PaxosValue value = knowledge.getLearnedValue(newSeq);
                 checkAgreedBoundIsOurs(limit, newSeq, value);
-                long newLimit = PtBytes.toLong(value.getData());
-                agreedState = ImmutableSequenceAndBound.of(newSeq, newLimit);
+                agreedState = ImmutableSequenceAndBound.of(newSeq, PtBytes.toLong(value.getData()));
+                long newLimit = unfence(agreedState.getBound());
                 if (newLimit < limit) {
                     // The bound is ours, but is not high enough.
                     // This is dangerous; proposing at the next sequence number is unsafe, as timestamp services
@@ -283,6 +320,30 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
         }
     }
 
+    private void throwIfFenced() {
+        if (isFenced(agreedState.getBound())) {
+            throw new ServiceNotAvailableException("The timestamp bound of this client is stored in the multiplexed"
+                    + " timestamp bound log, as another node has multiplex-timestamp-bounds enabled. This node"
+                    + " cannot serve timestamps for this client until it also has multiplex-timestamp-bounds enabled.");
+        }
+    }
+
+    /**
+     * Fenced bounds are stored as the bitwise complement of the limit. Timestamp bounds are never negative, so a
+     * negative value in the log always means it has been fenced.
+     */
+    private static long fence(long limit) {
+        return ~limit;
+    }
+
+    private static boolean isFenced(long bound) {
+        return bound < 0;
+    }
+
+    private static long unfence(long bound) {
+        return isFenced(bound) ? ~bound : bound;
+    }
+
     /**
      * Checks that the PaxosValue agreed upon by a quorum of nodes in our cluster was proposed by us.
      *
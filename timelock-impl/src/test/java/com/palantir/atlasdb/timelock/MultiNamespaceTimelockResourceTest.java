@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.util.AsyncOrLegacyTimelockService;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.lock.v2.ImmutableNamespaceTimelockRequest;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.NamespaceLockOperation;
+import com.palantir.lock.v2.NamespaceTimelockResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+public class MultiNamespaceTimelockResourceTest {
+    private static final String NAMESPACE_1 = "tom";
+    private static final String NAMESPACE_2 = "jerry";
+    private static final LockToken TOKEN_1 = LockToken.of(UUID.randomUUID());
+    private static final LockToken TOKEN_2 = LockToken.of(UUID.randomUUID());
+    private static final TimestampRange RANGE = TimestampRange.createInclusiveRange(10, 12);
+
+    private final TimeLockResource timeLockResource = mock(TimeLockResource.class);
+    private final TimelockService timelock1 = mock(TimelockService.class);
+    private final TimelockService timelock2 = mock(TimelockService.class);
+    private final MultiNamespaceTimelockResource resource = new MultiNamespaceTimelockResource(timeLockResource);
+
+    @Before
+    public void setUp() {
+        mockServices(NAMESPACE_1, timelock1);
+        mockServices(NAMESPACE_2, timelock2);
+    }
+
+    @Test
+    public void runsTheOperationsOfEachNamespace() {
+        when(timelock1.getFreshTimestamps(3)).thenReturn(RANGE);
+        when(timelock1.unlock(ImmutableSet.of(TOKEN_1))).thenReturn(ImmutableSet.of(TOKEN_1));
+        when(timelock2.refreshLockLeases(ImmutableSet.of(TOKEN_2))).thenReturn(ImmutableSet.of(TOKEN_2));
+
+        Map<String, NamespaceTimelockResponse> responses = resource.runBatch(ImmutableMap.of(
+                NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder()
+                        .numFreshTimestamps(3)
+                        .addLockOperations(unlock(TOKEN_1))
+                        .build(),
+                NAMESPACE_2, ImmutableNamespaceTimelockRequest.builder().addLockOperations(refresh(TOKEN_2)).build()));
+
+        assertThat(responses.get(NAMESPACE_1).freshTimestamps()).contains(RANGE);
+        assertThat(responses.get(NAMESPACE_1).lockOperationResults()).containsExactly(ImmutableSet.of(TOKEN_1));
+        assertThat(responses.get(NAMESPACE_1).error()).isEmpty();
+        assertThat(responses.get(NAMESPACE_2).freshTimestamps()).isEmpty();
+        assertThat(responses.get(NAMESPACE_2).lockOperationResults()).containsExactly(ImmutableSet.of(TOKEN_2));
+        assertThat(responses.get(NAMESPACE_2).error()).isEmpty();
+        verify(timelock2, never()).getFreshTimestamps(any(Integer.class));
+    }
+
+    @Test
+    public void runsLockOperationsInTheOrderTheyWereSent() {
+        when(timelock1.refreshLockLeases(ImmutableSet.of(TOKEN_1))).thenReturn(ImmutableSet.of(TOKEN_1));
+        when(timelock1.unlock(ImmutableSet.of(TOKEN_1))).thenReturn(ImmutableSet.of(TOKEN_1));
+
+        Map<String, NamespaceTimelockResponse> responses = resource.runBatch(ImmutableMap.of(
+                NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder()
+                        .addLockOperations(refresh(TOKEN_1), unlock(TOKEN_1), refresh(TOKEN_1))
+                        .build()));
+
+        assertThat(responses.get(NAMESPACE_1).lockOperationResults()).containsExactly(
+                ImmutableSet.of(TOKEN_1), ImmutableSet.of(TOKEN_1), ImmutableSet.of(TOKEN_1));
+        InOrder inOrder = inOrder(timelock1);
+        inOrder.verify(timelock1).refreshLockLeases(ImmutableSet.of(TOKEN_1));
+        inOrder.verify(timelock1).unlock(ImmutableSet.of(TOKEN_1));
+        inOrder.verify(timelock1).refreshLockLeases(ImmutableSet.of(TOKEN_1));
+    }
+
+    @Test
+    public void returnsAnErrorOnlyForTheNamespaceThatFailed() {
+        when(timelock1.refreshLockLeases(any())).thenThrow(new IllegalStateException("oops"));
+        when(timelock2.refreshLockLeases(ImmutableSet.of(TOKEN_2))).thenReturn(ImmutableSet.of(TOKEN_2));
+
+        Map<String, NamespaceTimelockResponse> responses = resource.runBatch(ImmutableMap.of(
+                NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder().addLockOperations(refresh(TOKEN_1)).build(),
+                NAMESPACE_2, ImmutableNamespaceTimelockRequest.builder().addLockOperations(refresh(TOKEN_2)).build()));
+
+        assertThat(responses.get(NAMESPACE_1).error()).hasValueSatisfying(error -> assertThat(error).contains("oops"));
+        assertThat(responses.get(NAMESPACE_2).error()).isEmpty();
+        assertThat(responses.get(NAMESPACE_2).lockOperationResults()).containsExactly(ImmutableSet.of(TOKEN_2));
+    }
+
+    @Test
+    public void returnsAnErrorForInvalidNamespaces() {
+        String invalidNamespace = "tom/../jerry";
+
+        Map<String, NamespaceTimelockResponse> responses = resource.runBatch(ImmutableMap.of(
+                invalidNamespace, ImmutableNamespaceTimelockRequest.builder().numFreshTimestamps(1).build()));
+
+        assertThat(responses.get(invalidNamespace).error()).isPresent();
+        verify(timeLockResource, never()).getOrCreateServices(invalidNamespace);
+    }
+
+    @Test
+    public void failsTheWholeBatchIfNotTheLeader() {
+        when(timelock1.getFreshTimestamps(1)).thenThrow(new NotCurrentLeaderException("not the leader"));
+
+        assertThatThrownBy(() -> resource.runBatch(ImmutableMap.of(
+                NAMESPACE_1, ImmutableNamespaceTimelockRequest.builder().numFreshTimestamps(1).build(),
+                NAMESPACE_2, ImmutableNamespaceTimelockRequest.builder().numFreshTimestamps(1).build())))
+                .isInstanceOf(NotCurrentLeaderException.class);
+    }
+
+    private static NamespaceLockOperation refresh(LockToken token) {
+        return NamespaceLockOperation.of(NamespaceLockOperation.Type.REFRESH, ImmutableSet.of(token));
+    }
+
+    private static NamespaceLockOperation unlock(LockToken token) {
+        return NamespaceLockOperation.of(NamespaceLockOperation.Type.UNLOCK, ImmutableSet.of(token));
+    }
+
+    private void mockServices(String namespace, TimelockService timelock) {
+        TimeLockServices services = mock(TimeLockServices.class);
+        when(services.getTimelockService())
+                .thenReturn(AsyncOrLegacyTimelockService.createFromLegacyTimelock(timelock));
+        when(timeLockResource.getOrCreateServices(namespace)).thenReturn(services);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.palantir.lock.HeldLocksToken;
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockCollections;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.LockMode;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockResponse;
+import com.palantir.lock.SimpleTimeDuration;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.impl.NonBlockingLockService;
+import com.palantir.lock.remoting.BlockingTimeoutException;
+
+public class NonBlockingLockResourceTest {
+    private static final LockClient CLIENT = LockClient.of("client");
+    private static final LockDescriptor LOCK = StringLockDescriptor.of("lock");
+    private static final LockRequest REQUEST = LockRequest.builder(ImmutableSortedMap.of(LOCK, LockMode.WRITE))
+            .build();
+    private static final HeldLocksToken TOKEN = new HeldLocksToken(
+            BigInteger.ONE,
+            CLIENT,
+            0,
+            0,
+            LockCollections.of(ImmutableSortedMap.of(LOCK, LockMode.WRITE)),
+            SimpleTimeDuration.of(1, TimeUnit.SECONDS),
+            0L,
+            "Dummy Thread");
+    private static final long TIME_LIMIT_MILLIS = 100;
+
+    private final NonBlockingLockService lockService = mock(NonBlockingLockService.class);
+    private final AsyncResponse response = mock(AsyncResponse.class);
+    private final CompletableFuture<LockResponse> result = new CompletableFuture<>();
+
+    @Before
+    public void setUp() {
+        when(lockService.lockWithFullLockResponseAsync(CLIENT, REQUEST)).thenReturn(result);
+        when(response.resume(any(Object.class))).thenReturn(true);
+        when(response.resume(any(Throwable.class))).thenReturn(true);
+    }
+
+    @Test
+    public void resumesWithTheResponseOnceLocked() {
+        new NonBlockingLockResource(lockService).lockWithFullLockResponse(response, CLIENT, REQUEST);
+        verify(response, never()).resume(any(Object.class));
+
+        LockResponse lockResponse = new LockResponse(TOKEN);
+        result.complete(lockResponse);
+
+        verify(response).resume(lockResponse);
+    }
+
+    @Test
+    public void resumesWithTheRefreshTokenForLock() {
+        new NonBlockingLockResource(lockService).lock(response, CLIENT.getClientId(), REQUEST);
+
+        result.complete(new LockResponse(TOKEN));
+
+        verify(response).resume(TOKEN.getLockRefreshToken());
+    }
+
+    @Test
+    public void resumesWithFailures() {
+        new NonBlockingLockResource(lockService).lockWithFullLockResponse(response, CLIENT, REQUEST);
+
+        IllegalStateException failure = new IllegalStateException();
+        result.completeExceptionally(failure);
+
+        verify(response).resume(failure);
+    }
+
+    @Test
+    public void doesNotTimeOutWithoutTimeLimit() {
+        new NonBlockingLockResource(lockService).lockWithFullLockResponse(response, CLIENT, REQUEST);
+
+        verify(response, never()).setTimeout(anyLong(), any());
+        verify(response, never()).setTimeoutHandler(any());
+    }
+
+    @Test
+    public void timingOutThrowsBlockingTimeoutExceptionAndCancelsTheRequest() {
+        TimeoutHandler timeoutHandler = lockWithTimeLimit();
+
+        timeoutHandler.handleTimeout(response);
+
+        // The timeout must be the first thing the response is resumed with, rather than the cancellation.
+        InOrder inOrder = inOrder(response);
+        inOrder.verify(response).resume(any(BlockingTimeoutException.class));
+        inOrder.verify(response).resume(any(CancellationException.class));
+        assertThat(result).isCancelled();
+    }
+
+    @Test
+    public void releasesLocksIfTheResponseWasAlreadyResumed() {
+        lockWithTimeLimit();
+        when(response.resume(any(Object.class))).thenReturn(false);
+
+        result.complete(new LockResponse(TOKEN));
+
+        verify(lockService).unlock(TOKEN.getLockRefreshToken());
+    }
+
+    @Test
+    public void doesNotReleaseLocksOnceResumed() {
+        lockWithTimeLimit();
+
+        result.complete(new LockResponse(TOKEN));
+
+        verify(response).resume(any(LockResponse.class));
+        verify(lockService, never()).unlock(TOKEN.getLockRefreshToken());
+    }
+
+    private TimeoutHandler lockWithTimeLimit() {
+        new NonBlockingLockResource(lockService, Optional.of(TIME_LIMIT_MILLIS))
+                .lockWithFullLockResponse(response, CLIENT, REQUEST);
+
+        verify(response).setTimeout(TIME_LIMIT_MILLIS, TimeUnit.MILLISECONDS);
+        ArgumentCaptor<TimeoutHandler> timeoutHandler = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(response).setTimeoutHandler(timeoutHandler.capture());
+        return timeoutHandler.getValue();
+    }
+}
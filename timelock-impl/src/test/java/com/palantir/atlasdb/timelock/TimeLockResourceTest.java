@@ -26,14 +26,25 @@ import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import javax.ws.rs.container.AsyncResponse;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSortedMap;
 import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockMode;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockService;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.impl.NonBlockingLockService;
 import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
 
 public class TimeLockResourceTest {
@@ -41,6 +52,7 @@ public class TimeLockResourceTest {
     private static final String CLIENT_B = "b-client";
 
     private static final int DEFAULT_MAX_NUMBER_OF_CLIENTS = 5;
+    private static final long BLOCKING_TIME_LIMIT_MILLIS = 100;
 
     private final TimeLockServices servicesA = mock(TimeLockServices.class);
     private final TimeLockServices servicesB = mock(TimeLockServices.class);
@@ -145,6 +157,34 @@ public class TimeLockResourceTest {
         assertMaxClientsIs(77);
     }
 
+    @Test
+    public void servesBlockingLockServicesDirectly() {
+        LockService lockService = mock(LockService.class);
+        when(servicesA.getLockService()).thenReturn(lockService);
+
+        assertThat(resource.getLockService(CLIENT_A)).isEqualTo(lockService);
+    }
+
+    @Test
+    public void appliesBlockingTimeLimitToNonBlockingLockServices() {
+        NonBlockingLockService lockService = mock(NonBlockingLockService.class);
+        when(lockService.lockWithFullLockResponseAsync(any(), any())).thenReturn(new CompletableFuture<>());
+        when(servicesA.getLockService()).thenReturn(lockService);
+        TimeLockResource timeLimitedResource = TimeLockResource.create(
+                new MetricsManager(new MetricRegistry(), DefaultTaggedMetricRegistry.getDefault(), unused -> false),
+                serviceFactory,
+                maxNumberOfClientsSupplier,
+                Optional.of(BLOCKING_TIME_LIMIT_MILLIS));
+
+        Object lockResource = timeLimitedResource.getLockService(CLIENT_A);
+        assertThat(lockResource).isInstanceOf(NonBlockingLockResource.class);
+
+        AsyncResponse response = mock(AsyncResponse.class);
+        ((NonBlockingLockResource) lockResource).lockWithFullLockResponse(response, LockClient.of("client"),
+                LockRequest.builder(ImmutableSortedMap.of(StringLockDescriptor.of("lock"), LockMode.WRITE)).build());
+        verify(response).setTimeout(BLOCKING_TIME_LIMIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
     private void createMaximumNumberOfClients() {
         for (int i = 0; i < DEFAULT_MAX_NUMBER_OF_CLIENTS; i++) {
             resource.getTimeService(uniqueClient());
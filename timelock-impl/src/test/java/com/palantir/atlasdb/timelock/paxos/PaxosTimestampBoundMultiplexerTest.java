@@ -0,0 +1,425 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosAcceptorImpl;
+import com.palantir.paxos.PaxosLearner;
+import com.palantir.paxos.PaxosLearnerImpl;
+import com.palantir.paxos.PaxosProposer;
+import com.palantir.paxos.PaxosProposerImpl;
+import com.palantir.paxos.PaxosRoundFailureException;
+import com.palantir.timestamp.TimestampBoundStore;
+
+public class PaxosTimestampBoundMultiplexerTest {
+    private static final int NUM_NODES = 3;
+
+    private static final String LOG_DIR = "testlogs/";
+    private static final String LEARNER_DIR_PREFIX = LOG_DIR + "learner/";
+    private static final String ACCEPTOR_DIR_PREFIX = LOG_DIR + "acceptor/";
+    private static final long TIMESTAMP_1 = 100000;
+    private static final long TIMESTAMP_2 = 200000;
+    private static final String NAMESPACE_1 = "tom";
+    private static final String NAMESPACE_2 = "jerry";
+
+    private final ExecutorService executor = PTExecutors.newCachedThreadPool();
+    private final List<PaxosAcceptor> acceptors = Lists.newArrayList();
+    private final List<PaxosLearner> learners = Lists.newArrayList();
+    private final PaxosTimestampBoundStore previousStore = mock(PaxosTimestampBoundStore.class);
+
+    private PaxosTimestampBoundMultiplexer multiplexer;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < NUM_NODES; i++) {
+            acceptors.add(PaxosAcceptorImpl.newAcceptor(ACCEPTOR_DIR_PREFIX + i));
+            learners.add(PaxosLearnerImpl.newLearner(LEARNER_DIR_PREFIX + i));
+        }
+
+        multiplexer = createMultiplexer(0, createPaxosProposer(0));
+    }
+
+    @After
+    public void tearDown() throws InterruptedException, IOException {
+        try {
+            executor.shutdownNow();
+            boolean terminated = executor.awaitTermination(10, TimeUnit.SECONDS);
+            if (!terminated) {
+                throw new IllegalStateException(
+                        "Some threads are still hanging around! Can't proceed or they might corrupt future tests.");
+            }
+        } finally {
+            FileUtils.deleteDirectory(new File(LOG_DIR));
+        }
+    }
+
+    @Test
+    public void readsBoundFromPreviousStoreIfNamespaceHasNoBound() {
+        when(previousStore.getUpperLimitForMultiplexing()).thenReturn(TIMESTAMP_1);
+
+        TimestampBoundStore store = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        assertThat(store.getUpperLimit()).isEqualTo(TIMESTAMP_1);
+    }
+
+    @Test
+    public void namespaceWithoutPreviousStoreStartsAtZero() {
+        TimestampBoundStore store = multiplexer.forNamespace(NAMESPACE_1, Optional::empty);
+        assertThat(store.getUpperLimit()).isEqualTo(0L);
+
+        store.storeUpperLimit(TIMESTAMP_1);
+        assertThat(createMultiplexer(1, createPaxosProposer(1)).getUpperLimit(NAMESPACE_1)).isEqualTo(TIMESTAMP_1);
+    }
+
+    @Test
+    public void doesNotReadPreviousStoreOnceBoundIsStored() {
+        TimestampBoundStore store = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        store.getUpperLimit();
+        store.storeUpperLimit(TIMESTAMP_1);
+
+        PaxosTimestampBoundStore unusedPreviousStore = mock(PaxosTimestampBoundStore.class);
+        TimestampBoundStore newStore = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(unusedPreviousStore));
+        assertThat(newStore.getUpperLimit()).isEqualTo(TIMESTAMP_1);
+        verifyZeroInteractions(unusedPreviousStore);
+    }
+
+    @Test
+    public void fencesPreviousStoreOnlyBeforeFirstStore() {
+        TimestampBoundStore store = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        store.getUpperLimit();
+        store.storeUpperLimit(TIMESTAMP_1);
+        store.storeUpperLimit(TIMESTAMP_2);
+
+        verify(previousStore).fenceForMultiplexing(TIMESTAMP_1);
+        verify(previousStore, times(1)).fenceForMultiplexing(anyLong());
+    }
+
+    @Test
+    public void doesNotStoreBoundIfPreviousStoreCannotBeFenced() {
+        doThrow(new NotCurrentLeaderException("bound changed")).when(previousStore).fenceForMultiplexing(anyLong());
+        TimestampBoundStore store = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        store.getUpperLimit();
+
+        assertThatThrownBy(() -> store.storeUpperLimit(TIMESTAMP_1)).isInstanceOf(NotCurrentLeaderException.class);
+        assertThat(createMultiplexer(1, createPaxosProposer(1)).getUpperLimit(NAMESPACE_1)).isNull();
+    }
+
+    @Test
+    public void storesBoundsOfNamespacesIndependently() {
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+        store2.getUpperLimit();
+
+        store1.storeUpperLimit(TIMESTAMP_1);
+        store2.storeUpperLimit(TIMESTAMP_2);
+
+        PaxosTimestampBoundMultiplexer otherNode = createMultiplexer(1, createPaxosProposer(1));
+        assertThat(otherNode.getUpperLimit(NAMESPACE_1)).isEqualTo(TIMESTAMP_1);
+        assertThat(otherNode.getUpperLimit(NAMESPACE_2)).isEqualTo(TIMESTAMP_2);
+    }
+
+    @Test
+    public void throwsIfStoringLimitLessThanUpperLimit() {
+        TimestampBoundStore store = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        store.getUpperLimit();
+        store.storeUpperLimit(TIMESTAMP_2);
+        assertThatThrownBy(() -> store.storeUpperLimit(TIMESTAMP_1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void throwsOnlyForNamespacesWhoseBoundChangedUnderUs() {
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+        store2.getUpperLimit();
+
+        PaxosTimestampBoundMultiplexer otherNode = createMultiplexer(1, createPaxosProposer(1));
+        TimestampBoundStore otherStore = otherNode.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        otherStore.getUpperLimit();
+        otherStore.storeUpperLimit(TIMESTAMP_1);
+
+        assertThatThrownBy(() -> store1.storeUpperLimit(TIMESTAMP_2)).isInstanceOf(NotCurrentLeaderException.class);
+        store2.storeUpperLimit(TIMESTAMP_2);
+        assertThat(otherNode.getUpperLimit(NAMESPACE_2)).isEqualTo(TIMESTAMP_2);
+    }
+
+    @Test
+    public void batchesStoresThatArriveDuringARound() throws Exception {
+        BlockingPaxosProposer proposer = new BlockingPaxosProposer(createPaxosProposer(0));
+        multiplexer = createMultiplexer(0, proposer);
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        TimestampBoundStore store3 = multiplexer.forNamespace("spike", () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+        store2.getUpperLimit();
+        store3.getUpperLimit();
+
+        Future<?> firstRound = executor.submit(() -> store1.storeUpperLimit(TIMESTAMP_1));
+        proposer.awaitFirstProposal();
+        Future<?> secondStore = executor.submit(() -> store2.storeUpperLimit(TIMESTAMP_1));
+        Future<?> thirdStore = executor.submit(() -> store3.storeUpperLimit(TIMESTAMP_1));
+        Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+        proposer.release();
+
+        firstRound.get();
+        secondStore.get();
+        thirdStore.get();
+        assertThat(proposer.numProposals.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void readsAreNotBlockedByARoundInProgress() throws Exception {
+        BlockingPaxosProposer proposer = new BlockingPaxosProposer(createPaxosProposer(0));
+        multiplexer = createMultiplexer(0, proposer);
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+
+        Future<?> round = executor.submit(() -> store1.storeUpperLimit(TIMESTAMP_1));
+        proposer.awaitFirstProposal();
+        Future<Long> read = executor.submit(store2::getUpperLimit);
+        try {
+            read.get(5, TimeUnit.SECONDS);
+        } finally {
+            proposer.release();
+        }
+
+        round.get();
+        assertThat(multiplexer.getUpperLimit(NAMESPACE_1)).isEqualTo(TIMESTAMP_1);
+    }
+
+    @Test
+    public void storeReturnsWithoutWaitingForRoundsOfOtherNamespaces() throws Exception {
+        GatedPaxosProposer proposer = new GatedPaxosProposer(createPaxosProposer(0));
+        multiplexer = createMultiplexer(0, proposer);
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+        store2.getUpperLimit();
+
+        Future<?> firstStore = executor.submit(() -> store1.storeUpperLimit(TIMESTAMP_1));
+        proposer.awaitProposals(1);
+        Future<?> secondStore = executor.submit(() -> store2.storeUpperLimit(TIMESTAMP_1));
+        Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+        proposer.allowProposals(1);
+
+        try {
+            firstStore.get(5, TimeUnit.SECONDS);
+            assertThat(secondStore.isDone()).isFalse();
+        } finally {
+            proposer.allowProposals(1);
+        }
+        secondStore.get();
+    }
+
+    @Test
+    public void proposesOnlyTheBoundsThatChanged() {
+        RecordingPaxosProposer proposer = new RecordingPaxosProposer(createPaxosProposer(0));
+        multiplexer = createMultiplexer(0, proposer);
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+        store2.getUpperLimit();
+
+        store1.storeUpperLimit(TIMESTAMP_1);
+        store2.storeUpperLimit(TIMESTAMP_2);
+
+        PaxosTimestampBoundMultiplexer.PaxosBounds lastProposal =
+                PaxosTimestampBoundMultiplexer.decode(Iterables.getLast(proposer.proposals));
+        assertThat(lastProposal.isFullState()).isFalse();
+        assertThat(lastProposal.getBounds()).containsOnlyKeys(NAMESPACE_2);
+    }
+
+    @Test
+    public void otherNodesRebuildBoundsAcrossFullStates() {
+        TimestampBoundStore store1 = multiplexer.forNamespace(NAMESPACE_1, () -> Optional.of(previousStore));
+        TimestampBoundStore store2 = multiplexer.forNamespace(NAMESPACE_2, () -> Optional.of(previousStore));
+        store1.getUpperLimit();
+        store2.getUpperLimit();
+
+        store1.storeUpperLimit(TIMESTAMP_1);
+        long lastLimit = TIMESTAMP_2;
+        for (int i = 0; i <= PaxosTimestampBoundMultiplexer.SEQUENCES_PER_FULL_STATE; i++) {
+            lastLimit = TIMESTAMP_2 + i;
+            store2.storeUpperLimit(lastLimit);
+        }
+
+        PaxosTimestampBoundMultiplexer otherNode = createMultiplexer(1, createPaxosProposer(1));
+        assertThat(otherNode.getUpperLimit(NAMESPACE_1)).isEqualTo(TIMESTAMP_1);
+        assertThat(otherNode.getUpperLimit(NAMESPACE_2)).isEqualTo(lastLimit);
+    }
+
+    @Test
+    public void canEncodeAndDecodeBounds() {
+        PaxosTimestampBoundMultiplexer.PaxosBounds bounds = ImmutablePaxosBounds.of(
+                false, ImmutableMap.of(NAMESPACE_1, TIMESTAMP_1, NAMESPACE_2, Long.MAX_VALUE));
+        assertThat(PaxosTimestampBoundMultiplexer.decode(PaxosTimestampBoundMultiplexer.encode(bounds)))
+                .isEqualTo(bounds);
+    }
+
+    private PaxosTimestampBoundMultiplexer createMultiplexer(int nodeIndex, PaxosProposer proposer) {
+        return new PaxosTimestampBoundMultiplexer(
+                proposer,
+                learners.get(nodeIndex),
+                ImmutableList.copyOf(acceptors),
+                ImmutableList.copyOf(learners),
+                () -> 1000L);
+    }
+
+    private PaxosProposer createPaxosProposer(int nodeIndex) {
+        return PaxosProposerImpl.newProposer(
+                learners.get(nodeIndex),
+                ImmutableList.copyOf(acceptors),
+                ImmutableList.copyOf(learners),
+                NUM_NODES / 2 + 1,
+                UUID.randomUUID(),
+                executor);
+    }
+
+    private static class GatedPaxosProposer implements PaxosProposer {
+        private final PaxosProposer delegate;
+        private final Semaphore allowedProposals = new Semaphore(0);
+        private final Semaphore startedProposals = new Semaphore(0);
+
+        GatedPaxosProposer(PaxosProposer delegate) {
+            this.delegate = delegate;
+        }
+
+        void awaitProposals(int numProposals) throws InterruptedException {
+            startedProposals.acquire(numProposals);
+        }
+
+        void allowProposals(int numProposals) {
+            allowedProposals.release(numProposals);
+        }
+
+        @Override
+        public byte[] propose(long seq, @Nullable byte[] proposalValue) throws PaxosRoundFailureException {
+            startedProposals.release();
+            allowedProposals.acquireUninterruptibly();
+            return delegate.propose(seq, proposalValue);
+        }
+
+        @Override
+        public int getQuorumSize() {
+            return delegate.getQuorumSize();
+        }
+
+        @Override
+        public String getUuid() {
+            return delegate.getUuid();
+        }
+    }
+
+    private static class RecordingPaxosProposer implements PaxosProposer {
+        private final PaxosProposer delegate;
+        private final List<byte[]> proposals = new CopyOnWriteArrayList<>();
+
+        RecordingPaxosProposer(PaxosProposer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public byte[] propose(long seq, @Nullable byte[] proposalValue) throws PaxosRoundFailureException {
+            proposals.add(proposalValue);
+            return delegate.propose(seq, proposalValue);
+        }
+
+        @Override
+        public int getQuorumSize() {
+            return delegate.getQuorumSize();
+        }
+
+        @Override
+        public String getUuid() {
+            return delegate.getUuid();
+        }
+    }
+
+    private static class BlockingPaxosProposer implements PaxosProposer {
+        private final PaxosProposer delegate;
+        private final CountDownLatch firstProposal = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final AtomicInteger numProposals = new AtomicInteger();
+
+        BlockingPaxosProposer(PaxosProposer delegate) {
+            this.delegate = delegate;
+        }
+
+        void awaitFirstProposal() throws InterruptedException {
+            firstProposal.await();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public byte[] propose(long seq, @Nullable byte[] proposalValue) throws PaxosRoundFailureException {
+            numProposals.incrementAndGet();
+            firstProposal.countDown();
+            Uninterruptibles.awaitUninterruptibly(released);
+            return delegate.propose(seq, proposalValue);
+        }
+
+        @Override
+        public int getQuorumSize() {
+            return delegate.getQuorumSize();
+        }
+
+        @Override
+        public String getUuid() {
+            return delegate.getUuid();
+        }
+    }
+}
@@ -185,6 +185,47 @@ public class PaxosTimestampBoundStoreTest {
         assertThat(additionalStore2.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_3);
     }
 
+    @Test
+    public void fencedLogCanOnlyBeReadForMultiplexing() {
+        store.getUpperLimit();
+        store.fenceForMultiplexing(TIMESTAMP_1);
+
+        PaxosTimestampBoundStore additionalStore = createPaxosTimestampBoundStore(1);
+        assertThatThrownBy(additionalStore::getUpperLimit).isInstanceOf(ServiceNotAvailableException.class);
+        assertThat(additionalStore.getUpperLimitForMultiplexing()).isEqualTo(TIMESTAMP_1);
+    }
+
+    @Test
+    public void cannotStoreUpperLimitAfterReadingFencedLog() {
+        store.getUpperLimit();
+        store.fenceForMultiplexing(TIMESTAMP_1);
+
+        PaxosTimestampBoundStore additionalStore = createPaxosTimestampBoundStore(1);
+        assertThatThrownBy(additionalStore::getUpperLimit).isInstanceOf(ServiceNotAvailableException.class);
+        assertThatThrownBy(() -> additionalStore.storeUpperLimit(TIMESTAMP_2))
+                .isInstanceOf(ServiceNotAvailableException.class);
+    }
+
+    @Test
+    public void cannotStoreUpperLimitIfLogWasFencedUnderUs() {
+        PaxosTimestampBoundStore additionalStore = createPaxosTimestampBoundStore(1);
+        store.getUpperLimit();
+        additionalStore.getUpperLimit();
+        additionalStore.fenceForMultiplexing(TIMESTAMP_1);
+
+        assertThatThrownBy(() -> store.storeUpperLimit(TIMESTAMP_2)).isInstanceOf(NotCurrentLeaderException.class);
+    }
+
+    @Test
+    public void cannotFenceIfBoundChangedUnderUs() {
+        PaxosTimestampBoundStore additionalStore = createPaxosTimestampBoundStore(1);
+        store.getUpperLimit();
+        additionalStore.getUpperLimit();
+        additionalStore.storeUpperLimit(TIMESTAMP_1);
+
+        assertThatThrownBy(() -> store.fenceForMultiplexing(TIMESTAMP_2)).isInstanceOf(NotCurrentLeaderException.class);
+    }
+
     @Test
     public void canGetAgreedInitialState() {
         PaxosTimestampBoundStore.SequenceAndBound sequenceAndBound = store.getAgreedState(0);
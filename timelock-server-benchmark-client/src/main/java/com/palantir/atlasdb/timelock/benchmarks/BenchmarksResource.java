@@ -34,6 +34,7 @@ import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TransactionReadRowsBe
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TransactionWriteBenchmarkContended;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TransactionWriteDynamicColumnsBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TransactionWriteRowsBenchmark;
+import com.palantir.atlasdb.timelock.benchmarks.benchmarks.WaitForHotLocksBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.schema.BenchmarksSchema;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
@@ -82,6 +83,11 @@ public class BenchmarksResource implements BenchmarksService {
         return LockAndUnlockContendedBenchmark.execute(txnManager, numClients, numRequestsPerClient, numDistinctLocks);
     }
 
+    @Override
+    public Map<String, Object> waitForHotLocks(int numClients, int numRequestsPerClient, int numDescriptors) {
+        return WaitForHotLocksBenchmark.execute(txnManager, numClients, numRequestsPerClient, numDescriptors);
+    }
+
     @Override
     public Map<String, Object> transactionReadRows(int numClients, int numRequestsPerClient, int numRows,
             int dataSize) {
@@ -65,6 +65,13 @@ public interface BenchmarksService {
             @QueryParam("numRequestsPerClient") int numRequestsPerClient,
             @QueryParam("numDistinctLocks") int numDistinctLocks);
 
+    @GET
+    @Path("/wait-for-hot-locks")
+    Map<String, Object> waitForHotLocks(
+            @QueryParam("numClients") int numClients,
+            @QueryParam("numRequestsPerClient") int numRequestsPerClient,
+            @QueryParam("numDescriptors") int numDescriptors);
+
     @GET
     @Path("/read-txn-rows")
     Map<String, Object> transactionReadRows(
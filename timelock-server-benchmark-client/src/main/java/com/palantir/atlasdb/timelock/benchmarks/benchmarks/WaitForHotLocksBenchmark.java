@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.benchmarks.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockRequest;
+import com.palantir.lock.v2.LockResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.lock.v2.WaitForLocksRequest;
+
+/**
+ * Measures many clients waiting for the same set of locks, while a background client repeatedly takes and releases
+ * them. The descriptors are sent in their canonical (sorted) order.
+ */
+public class WaitForHotLocksBenchmark extends AbstractBenchmark {
+    private static final int ACQUIRE_TIMEOUT_MS = 50_000;
+    private static final long HOLD_TIME_MS = 1;
+
+    private final TimelockService timelock;
+    private final Set<LockDescriptor> lockDescriptors;
+    private final ExecutorService lockHolder = Executors.newSingleThreadExecutor();
+
+    private volatile boolean isRunning = true;
+
+    public static Map<String, Object> execute(TransactionManager txnManager, int numClients,
+            int requestsPerClient, int numDescriptors) {
+        return new WaitForHotLocksBenchmark(txnManager.getTimelockService(), numClients, requestsPerClient,
+                numDescriptors).execute();
+    }
+
+    protected WaitForHotLocksBenchmark(TimelockService timelock, int numClients, int numRequestsPerClient,
+            int numDescriptors) {
+        super(numClients, numRequestsPerClient);
+        this.timelock = timelock;
+
+        ImmutableSortedSet.Builder<LockDescriptor> descriptors = ImmutableSortedSet.naturalOrder();
+        for (int i = 0; i < numDescriptors; i++) {
+            descriptors.add(StringLockDescriptor.of(UUID.randomUUID().toString()));
+        }
+        lockDescriptors = descriptors.build();
+    }
+
+    @Override
+    protected void setup() {
+        lockHolder.submit(this::repeatedlyLockAndUnlock);
+    }
+
+    @Override
+    protected void performOneCall() {
+        boolean wasSuccessful = timelock.waitForLocks(WaitForLocksRequest.of(lockDescriptors, ACQUIRE_TIMEOUT_MS))
+                .wasSuccessful();
+        Preconditions.checkState(wasSuccessful, "waitForLocks timed out");
+    }
+
+    @Override
+    protected void cleanup() {
+        isRunning = false;
+        lockHolder.shutdown();
+    }
+
+    @Override
+    protected Map<String, Object> getExtraParameters() {
+        return ImmutableMap.of("numDescriptors", lockDescriptors.size());
+    }
+
+    private void repeatedlyLockAndUnlock() {
+        while (isRunning) {
+            LockResponse response = timelock.lock(LockRequest.of(lockDescriptors, ACQUIRE_TIMEOUT_MS));
+            Uninterruptibles.sleepUninterruptibly(HOLD_TIME_MS, TimeUnit.MILLISECONDS);
+            timelock.unlock(ImmutableSet.of(response.getToken()));
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -90,7 +91,7 @@ public class AsyncLockServiceTest {
 
         lockService.waitForLocks(REQUEST_ID, descriptors, DEADLINE);
 
-        verify(acquirer).waitForLocks(REQUEST_ID, expected, DEADLINE);
+        verify(acquirer).waitForLocks(any(), eq(expected), eq(DEADLINE));
     }
 
     @Test
@@ -113,6 +114,15 @@ public class AsyncLockServiceTest {
         verifyNoMoreInteractions(acquirer);
     }
 
+    @Test
+    public void coalescesConcurrentWaitsForTheSameLocks() {
+        Set<LockDescriptor> descriptors = descriptors(LOCK_A);
+        lockService.waitForLocks(REQUEST_ID, descriptors, DEADLINE);
+        lockService.waitForLocks(UUID.randomUUID(), descriptors, TimeLimit.zero());
+
+        verify(acquirer, times(1)).waitForLocks(any(), any(), any());
+    }
+
     @Test
     public void delegatesImmutableTimestampRequestsToTracker() {
         UUID requestId = UUID.randomUUID();
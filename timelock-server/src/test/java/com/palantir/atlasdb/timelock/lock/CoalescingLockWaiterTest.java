@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.jmock.lib.concurrent.DeterministicScheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.palantir.lock.StringLockDescriptor;
+
+public class CoalescingLockWaiterTest {
+
+    private static final UUID LOCK_HOLDER = UUID.randomUUID();
+    private static final UUID OTHER_LOCK_HOLDER = UUID.randomUUID();
+
+    private static final TimeLimit SHORT_TIMEOUT = TimeLimit.of(10L);
+    private static final TimeLimit LONG_TIMEOUT = TimeLimit.of(1_000L);
+
+    private final DeterministicScheduler executor = new DeterministicScheduler();
+    private final ExclusiveLock lock = new ExclusiveLock(StringLockDescriptor.of("foo"));
+    private final OrderedLocks locks = OrderedLocks.fromSingleLock(lock);
+
+    private final LockAcquirer lockAcquirer = spy(
+            new LockAcquirer(new LockLog(new MetricRegistry(), () -> 2L), executor));
+    private final CoalescingLockWaiter lockWaiter = new CoalescingLockWaiter(lockAcquirer, executor, () -> 0L);
+
+    @Before
+    public void before() {
+        lock.lock(LOCK_HOLDER);
+    }
+
+    @Test
+    public void concurrentWaitsShareOneWaitOnTheLocks() {
+        AsyncResult<Void> first = lockWaiter.waitForLocks(locks, LONG_TIMEOUT);
+        AsyncResult<Void> second = lockWaiter.waitForLocks(locks, LONG_TIMEOUT);
+
+        verify(lockAcquirer, times(1)).waitForLocks(any(), eq(locks), any());
+        assertThat(first.isComplete()).isFalse();
+        assertThat(second.isComplete()).isFalse();
+
+        lock.unlock(LOCK_HOLDER);
+
+        assertThat(first.isCompletedSuccessfully()).isTrue();
+        assertThat(second.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void joinedWaitTimesOutWithoutAffectingOthers() {
+        AsyncResult<Void> first = lockWaiter.waitForLocks(locks, LONG_TIMEOUT);
+        AsyncResult<Void> second = lockWaiter.waitForLocks(locks, SHORT_TIMEOUT);
+
+        executor.tick(SHORT_TIMEOUT.getTimeMillis(), TimeUnit.MILLISECONDS);
+
+        assertThat(second.isTimedOut()).isTrue();
+        assertThat(first.isComplete()).isFalse();
+
+        lock.unlock(LOCK_HOLDER);
+
+        assertThat(first.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void startsNewWaitIfExistingWaitWouldTimeOutFirst() {
+        AsyncResult<Void> first = lockWaiter.waitForLocks(locks, SHORT_TIMEOUT);
+        AsyncResult<Void> second = lockWaiter.waitForLocks(locks, LONG_TIMEOUT);
+
+        verify(lockAcquirer, times(2)).waitForLocks(any(), eq(locks), any());
+
+        executor.tick(SHORT_TIMEOUT.getTimeMillis(), TimeUnit.MILLISECONDS);
+
+        assertThat(first.isTimedOut()).isTrue();
+        assertThat(second.isComplete()).isFalse();
+    }
+
+    @Test
+    public void doesNotJoinCompletedWaits() {
+        lockWaiter.waitForLocks(locks, LONG_TIMEOUT);
+        lock.unlock(LOCK_HOLDER);
+
+        AsyncResult<Void> result = lockWaiter.waitForLocks(locks, LONG_TIMEOUT);
+
+        assertThat(result.isCompletedSuccessfully()).isTrue();
+        verify(lockAcquirer, times(2)).waitForLocks(any(), eq(locks), any());
+    }
+
+    @Test
+    public void doesNotCoalesceWaitsOnSeveralLocks() {
+        ExclusiveLock otherLock = new ExclusiveLock(StringLockDescriptor.of("bar"));
+        OrderedLocks severalLocks = OrderedLocks.fromOrderedList(ImmutableList.of(lock, otherLock));
+        otherLock.lock(LOCK_HOLDER);
+
+        AsyncResult<Void> first = lockWaiter.waitForLocks(severalLocks, LONG_TIMEOUT);
+        lock.unlock(LOCK_HOLDER);
+        lock.lock(OTHER_LOCK_HOLDER);
+        AsyncResult<Void> second = lockWaiter.waitForLocks(severalLocks, LONG_TIMEOUT);
+
+        verify(lockAcquirer, times(2)).waitForLocks(any(), eq(severalLocks), any());
+
+        otherLock.unlock(LOCK_HOLDER);
+
+        assertThat(first.isCompletedSuccessfully()).isTrue();
+        assertThat(second.isComplete()).isFalse();
+    }
+
+    @Test
+    public void cancelsTimeoutOfJoinedWaitWhenTheSharedWaitCompletes() {
+        DeterministicScheduler joinedWaitTimeouts = new DeterministicScheduler();
+        CoalescingLockWaiter waiter = new CoalescingLockWaiter(lockAcquirer, joinedWaitTimeouts, () -> 0L);
+
+        waiter.waitForLocks(locks, LONG_TIMEOUT);
+        AsyncResult<Void> joined = waiter.waitForLocks(locks, LONG_TIMEOUT);
+        assertThat(joinedWaitTimeouts.isIdle()).isFalse();
+
+        lock.unlock(LOCK_HOLDER);
+
+        assertThat(joined.isCompletedSuccessfully()).isTrue();
+        assertThat(joinedWaitTimeouts.isIdle()).isTrue();
+    }
+
+}
@@ -16,7 +16,9 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -35,7 +37,8 @@ public class HeldLocksCollectionTest {
 
     private static final UUID REQUEST_ID = UUID.randomUUID();
 
-    private final HeldLocksCollection heldLocksCollection = new HeldLocksCollection();
+    private final LockWatchLog lockWatches = mock(LockWatchLog.class);
+    private final HeldLocksCollection heldLocksCollection = new HeldLocksCollection(lockWatches);
 
     @Test
     public void callsSupplierForNewRequest() {
@@ -120,6 +123,33 @@ public class HeldLocksCollectionTest {
         assertThat(heldLocksCollection.heldLocksById.isEmpty()).isTrue();
     }
 
+    @Test
+    public void logsLocksAndUnlocks() {
+        LockToken token = mockRefreshableRequest();
+        verify(lockWatches).logLocked(any());
+
+        heldLocksCollection.unlock(ImmutableSet.of(token));
+        verify(lockWatches).logUnlocked(any());
+    }
+
+    @Test
+    public void logsUnlocksOfExpiredLocks() {
+        mockExpiredRequest();
+
+        heldLocksCollection.removeExpired();
+
+        verify(lockWatches).logUnlocked(any());
+    }
+
+    @Test
+    public void doesNotLogUnlocksOfLocksThatWereNotHeld() {
+        LockToken token = mockNonRefreshableRequest();
+
+        heldLocksCollection.unlock(ImmutableSet.of(token));
+
+        verify(lockWatches, never()).logUnlocked(any());
+    }
+
     private LockToken mockExpiredRequest() {
         return mockHeldLocksForNewRequest(
                 heldLocks -> when(heldLocks.unlockIfExpired()).thenReturn(true));
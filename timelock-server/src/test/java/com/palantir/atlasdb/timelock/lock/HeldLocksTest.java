@@ -42,6 +42,7 @@ public class HeldLocksTest {
     private final ExclusiveLock lockB = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
 
     private final LeaseExpirationTimer timer = mock(LeaseExpirationTimer.class);
+    private final LockSession session = mock(LockSession.class);
 
     private HeldLocks heldLocks;
 
@@ -98,4 +99,48 @@ public class HeldLocksTest {
         verify(timer).refresh();
     }
 
+    @Test
+    public void canJoinSessionBeforeUnlocking() {
+        assertTrue(heldLocks.joinSession(session));
+    }
+
+    @Test
+    public void cannotJoinSessionAfterUnlocking() {
+        heldLocks.unlock();
+
+        assertFalse(heldLocks.joinSession(session));
+    }
+
+    @Test
+    public void cannotJoinSessionIfExpired() {
+        when(timer.isExpired()).thenReturn(true);
+
+        assertFalse(heldLocks.joinSession(session));
+    }
+
+    @Test
+    public void expiresWithSessionOnceJoined() {
+        heldLocks.joinSession(session);
+        when(session.isExpired()).thenReturn(true);
+
+        assertTrue(heldLocks.unlockIfExpired());
+    }
+
+    @Test
+    public void doesNotExpireWithOwnTimerOnceJoined() {
+        heldLocks.joinSession(session);
+        when(timer.isExpired()).thenReturn(true);
+
+        assertFalse(heldLocks.unlockIfExpired());
+    }
+
+    @Test
+    public void refreshRefreshesSessionOnceJoined() {
+        heldLocks.joinSession(session);
+        when(session.refresh()).thenReturn(true);
+
+        assertTrue(heldLocks.refresh());
+        verify(session).refresh();
+    }
+
 }
@@ -54,6 +54,14 @@ public class LockCollectionTest {
         assertThat(locks1).isEqualTo(locks2);
     }
 
+    @Test
+    public void reusesOrderedLocksForRepeatedSmallSets() {
+        OrderedLocks locks1 = lockCollection.getAll(descriptors("foo", "bar"));
+        OrderedLocks locks2 = lockCollection.getAll(descriptors("bar", "foo"));
+
+        assertThat(locks1).isSameAs(locks2);
+    }
+
     @Test
     public void returnsLocksInOrder() {
         List<LockDescriptor> orderedDescriptors = IntStream.range(0, 10)
@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.palantir.common.time.Clock;
+
+public class LockSessionsTest {
+
+    private static final long START_TIME_MILLIS = 123L;
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    private final Clock clock = mock(Clock.class);
+    private final LockSessions sessions = new LockSessions(clock);
+
+    @Before
+    public void before() {
+        when(clock.getTimeMillis()).thenReturn(START_TIME_MILLIS);
+    }
+
+    @Test
+    public void doesNotRefreshUnknownSession() {
+        assertThat(sessions.refresh(SESSION_ID, false)).isEmpty();
+    }
+
+    @Test
+    public void opensSessionIfRequested() {
+        assertThat(sessions.refresh(SESSION_ID, true)).isPresent();
+        assertThat(sessions.refresh(SESSION_ID, false)).isPresent();
+    }
+
+    @Test
+    public void refreshExtendsLease() {
+        sessions.refresh(SESSION_ID, true);
+
+        mockOffsetFromStartTime(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS);
+        assertThat(sessions.refresh(SESSION_ID, false)).isPresent();
+
+        mockOffsetFromStartTime(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS * 2);
+        assertThat(sessions.refresh(SESSION_ID, false)).isPresent();
+    }
+
+    @Test
+    public void cannotRefreshExpiredSession() {
+        sessions.refresh(SESSION_ID, true);
+
+        mockOffsetFromStartTime(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS + 1L);
+        assertThat(sessions.refresh(SESSION_ID, false)).isEmpty();
+        assertThat(sessions.refresh(SESSION_ID, true)).isEmpty();
+    }
+
+    @Test
+    public void removesExpiredSessions() {
+        sessions.refresh(SESSION_ID, true);
+        sessions.removeExpired();
+        assertThat(sessions.sessionsById).containsOnlyKeys(SESSION_ID);
+
+        mockOffsetFromStartTime(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS + 1L);
+        sessions.removeExpired();
+        assertThat(sessions.sessionsById).isEmpty();
+    }
+
+    @Test
+    public void sessionCannotBeRefreshedOnceObservedExpired() {
+        LockSession session = sessions.refresh(SESSION_ID, true).get();
+        mockOffsetFromStartTime(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS + 1L);
+        assertThat(session.isExpired()).isTrue();
+
+        mockOffsetFromStartTime(0L);
+        assertThat(session.refresh()).isFalse();
+        assertThat(session.isExpired()).isTrue();
+    }
+
+    private void mockOffsetFromStartTime(long offset) {
+        when(clock.getTimeMillis()).thenReturn(START_TIME_MILLIS + offset);
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.ImmutableLockWatchRequest;
+import com.palantir.lock.v2.LockWatchEvent;
+import com.palantir.lock.v2.LockWatchResponse;
+import com.palantir.lock.v2.LockWatchVersion;
+
+public class LockWatchLogTest {
+
+    private static final LockDescriptor TABLE = AtlasRowLockDescriptor.tablePrefix("table");
+    private static final LockDescriptor OTHER_TABLE = AtlasRowLockDescriptor.tablePrefix("other");
+    private static final LockDescriptor ROW_1 = AtlasRowLockDescriptor.of("table", new byte[] {1});
+    private static final LockDescriptor ROW_2 = AtlasRowLockDescriptor.of("table", new byte[] {2});
+    private static final LockDescriptor OTHER_ROW = AtlasRowLockDescriptor.of("other", new byte[] {1});
+
+    private long timeMillis = 0L;
+    private final LockWatchLog lockWatches = new LockWatchLog(() -> timeMillis, 3);
+
+    @Test
+    public void firstRequestIsNotComplete() {
+        LockWatchResponse response = watch(Optional.empty(), TABLE);
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.events()).isEmpty();
+    }
+
+    @Test
+    public void returnsEventsOfWatchedLocksSinceLastKnownVersion() {
+        LockWatchVersion version = watch(Optional.empty(), TABLE).currentVersion();
+
+        lockWatches.logLocked(ImmutableList.of(ROW_1, OTHER_ROW));
+        lockWatches.logUnlocked(ImmutableList.of(ROW_1, OTHER_ROW));
+        LockWatchResponse response = watch(Optional.of(version), TABLE);
+
+        assertThat(response.isComplete()).isTrue();
+        assertThat(response.events()).containsExactly(
+                LockWatchEvent.of(2L, LockWatchEvent.Type.LOCKED, ImmutableSet.of(ROW_1)),
+                LockWatchEvent.of(3L, LockWatchEvent.Type.UNLOCKED, ImmutableSet.of(ROW_1)));
+        assertThat(response.currentVersion().version()).isEqualTo(3L);
+    }
+
+    @Test
+    public void doesNotReturnEventsAlreadySeen() {
+        LockWatchVersion version = watch(Optional.empty(), TABLE).currentVersion();
+        lockWatches.logLocked(ImmutableList.of(ROW_1));
+        version = watch(Optional.of(version), TABLE).currentVersion();
+
+        lockWatches.logLocked(ImmutableList.of(ROW_2));
+
+        assertThat(watch(Optional.of(version), TABLE).events()).containsExactly(
+                LockWatchEvent.of(3L, LockWatchEvent.Type.LOCKED, ImmutableSet.of(ROW_2)));
+    }
+
+    @Test
+    public void doesNotLogLocksThatAreNotWatched() {
+        lockWatches.logLocked(ImmutableList.of(ROW_1));
+        LockWatchVersion version = watch(Optional.empty(), TABLE).currentVersion();
+        lockWatches.logLocked(ImmutableList.of(OTHER_ROW));
+
+        assertThat(watch(Optional.of(version), TABLE).currentVersion()).isEqualTo(version);
+    }
+
+    @Test
+    public void onlyReturnsEventsOfRequestedPrefixes() {
+        LockWatchVersion version = watch(Optional.empty(), TABLE, OTHER_TABLE).currentVersion();
+
+        lockWatches.logLocked(ImmutableList.of(ROW_1, OTHER_ROW));
+        lockWatches.logLocked(ImmutableList.of(OTHER_ROW));
+
+        assertThat(watch(Optional.of(version), TABLE).events()).containsExactly(
+                LockWatchEvent.of(3L, LockWatchEvent.Type.LOCKED, ImmutableSet.of(ROW_1)));
+    }
+
+    @Test
+    public void isNotCompleteIfEventsSinceLastKnownVersionWereEvicted() {
+        LockWatchVersion version = watch(Optional.empty(), TABLE).currentVersion();
+
+        for (int i = 0; i < 4; i++) {
+            lockWatches.logLocked(ImmutableList.of(ROW_1));
+        }
+        LockWatchResponse response = watch(Optional.of(version), TABLE);
+
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.events()).isEmpty();
+        assertThat(response.currentVersion().version()).isEqualTo(5L);
+    }
+
+    @Test
+    public void isNotCompleteForVersionOfAnotherLog() {
+        watch(Optional.empty(), TABLE);
+
+        LockWatchResponse response = watch(Optional.of(LockWatchVersion.of(UUID.randomUUID(), 0L)), TABLE);
+
+        assertThat(response.isComplete()).isFalse();
+    }
+
+    @Test
+    public void isNotCompleteIfPrefixWasNotWatchedAtLastKnownVersion() {
+        LockWatchVersion version = watch(Optional.empty(), TABLE).currentVersion();
+        lockWatches.logLocked(ImmutableList.of(ROW_1));
+
+        assertThat(watch(Optional.of(version), TABLE, OTHER_TABLE).isComplete()).isFalse();
+    }
+
+    @Test
+    public void stopsLoggingLocksOfExpiredWatches() {
+        LockWatchVersion version = watch(Optional.empty(), TABLE).currentVersion();
+
+        timeMillis += LockWatchLog.WATCH_EXPIRY_MILLIS + 1;
+        lockWatches.removeExpiredWatches();
+        lockWatches.logLocked(ImmutableList.of(ROW_1));
+
+        LockWatchResponse response = watch(Optional.of(version), TABLE);
+        assertThat(response.isComplete()).isFalse();
+        assertThat(response.currentVersion().version()).isEqualTo(version.version() + 1);
+    }
+
+    private LockWatchResponse watch(Optional<LockWatchVersion> lastKnownVersion, LockDescriptor... prefixes) {
+        return lockWatches.getEvents(ImmutableLockWatchRequest.builder()
+                .addDescriptorPrefixes(prefixes)
+                .lastKnownVersion(lastKnownVersion)
+                .build());
+    }
+}
@@ -30,17 +30,16 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
 import com.palantir.common.base.Throwables;
-import com.palantir.common.proxy.TimingProxy;
-import com.palantir.util.jmx.OperationTimer;
-import com.palantir.util.timer.LoggingOperationTimer;
+import com.palantir.common.proxy.TimingCallDecorator;
+import com.palantir.processors.AutoDecorate;
 
 /**
  * This uses smart batching to queue up requests and send them all as one larger batch.
  * @author carrino
  */
 @ThreadSafe
+@AutoDecorate(typesToDecorate = TimestampService.class)
 public class RequestBatchingTimestampService implements TimestampService {
-    private static final OperationTimer timer = LoggingOperationTimer.create(RequestBatchingTimestampService.class);
     private static final Logger log = LoggerFactory.getLogger(RequestBatchingTimestampService.class);
 
     public static final long DEFAULT_MIN_TIME_BETWEEN_REQUESTS = 0L;
@@ -63,7 +62,7 @@ public class RequestBatchingTimestampService implements TimestampService {
     }
 
     public RequestBatchingTimestampService(TimestampService delegate, long minTimeBetweenRequestsMillis) {
-        this.delegate = TimingProxy.newProxyInstance(TimestampService.class, delegate, timer);
+        this.delegate = new AutoDecorated_TimestampService(new TimingCallDecorator<>(delegate, log));
         this.minTimeBetweenRequestsMillis = minTimeBetweenRequestsMillis;
     }
 
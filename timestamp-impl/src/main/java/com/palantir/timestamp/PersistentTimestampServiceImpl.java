@@ -15,6 +15,10 @@
  */
 package com.palantir.timestamp;
 
+import java.io.Closeable;
+import java.util.Map;
+import java.util.function.Function;
+
 import javax.annotation.concurrent.ThreadSafe;
 
 import org.slf4j.Logger;
@@ -24,10 +28,11 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.palantir.async.initializer.AsyncInitializer;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.logsafe.SafeArg;
 
 @ThreadSafe
-public class PersistentTimestampServiceImpl implements PersistentTimestampService {
+public class PersistentTimestampServiceImpl implements PersistentTimestampService, Closeable {
     private class InitializingWrapper extends AsyncInitializer implements AutoDelegate_PersistentTimestampService {
         @Override
         public PersistentTimestampService delegate() {
@@ -50,6 +55,8 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
     private static final int MAX_TIMESTAMPS_PER_REQUEST = 10_000;
 
     private ErrorCheckingTimestampBoundStore store;
+    private Function<TimestampBoundStore, PersistentUpperLimit> upperLimitFactory;
+    private volatile PersistentUpperLimit upperLimit;
     private PersistentTimestamp timestamp;
     private final InitializingWrapper wrapper = new InitializingWrapper();
 
@@ -67,7 +74,30 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
 
     public static PersistentTimestampService create(ErrorCheckingTimestampBoundStore store,
             boolean initializeAsync) {
-        PersistentTimestampServiceImpl service = new PersistentTimestampServiceImpl(store);
+        return create(store, PersistentUpperLimit::new, initializeAsync);
+    }
+
+    /**
+     * Creates a timestamp service whose upper limit is extended in the background before it runs out; see
+     * {@link PersistentUpperLimit#createWithBackgroundAllocation(TimestampBoundStore)}. Metrics about the upper limit
+     * are registered with the given tags.
+     */
+    public static PersistentTimestampService createWithBackgroundAllocation(TimestampBoundStore store,
+            MetricsManager metricsManager, Map<String, String> metricTags) {
+        return create(
+                new ErrorCheckingTimestampBoundStore(store),
+                boundStore -> {
+                    PersistentUpperLimit upperLimit = PersistentUpperLimit.createWithBackgroundAllocation(boundStore);
+                    upperLimit.registerMetrics(metricsManager, metricTags);
+                    return upperLimit;
+                },
+                AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC);
+    }
+
+    private static PersistentTimestampService create(ErrorCheckingTimestampBoundStore store,
+            Function<TimestampBoundStore, PersistentUpperLimit> upperLimitFactory,
+            boolean initializeAsync) {
+        PersistentTimestampServiceImpl service = new PersistentTimestampServiceImpl(store, upperLimitFactory);
         service.wrapper.initialize(initializeAsync);
         return service.wrapper.isInitialized() ? service : service.wrapper;
     }
@@ -77,13 +107,15 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
         this.timestamp = timestamp;
     }
 
-    private PersistentTimestampServiceImpl(ErrorCheckingTimestampBoundStore store) {
+    private PersistentTimestampServiceImpl(ErrorCheckingTimestampBoundStore store,
+            Function<TimestampBoundStore, PersistentUpperLimit> upperLimitFactory) {
         this.store = store;
+        this.upperLimitFactory = upperLimitFactory;
     }
 
     private void tryInitialize() {
         long latestTimestamp = store.getUpperLimit();
-        PersistentUpperLimit upperLimit = new PersistentUpperLimit(store);
+        upperLimit = upperLimitFactory.apply(store);
         timestamp = new PersistentTimestamp(upperLimit, latestTimestamp);
     }
 
@@ -138,4 +170,16 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
     public String ping() {
         return PING_RESPONSE;
     }
+
+    /**
+     * Stops extending the upper limit in the background; see {@link PersistentUpperLimit#close()}. Leadership proxies
+     * close their delegate when they lose leadership.
+     */
+    @Override
+    public void close() {
+        PersistentUpperLimit limit = upperLimit;
+        if (limit != null) {
+            limit.close();
+        }
+    }
 }
@@ -15,9 +15,28 @@
  */
 package com.palantir.timestamp;
 
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Longs;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 
 public class PersistentUpperLimit {
+    private static final Logger log = LoggerFactory.getLogger(PersistentUpperLimit.class);
 
     /**
      * Some internal atlas clients have behavior tied to this value and will need to
@@ -26,12 +45,53 @@ public class PersistentUpperLimit {
     @VisibleForTesting
     static final long BUFFER = 1_000_000;
 
+    @VisibleForTesting
+    static final long MAX_BUFFER = 100 * BUFFER;
+
+    /**
+     * With background allocation, the buffer is sized to last roughly this long at the observed consumption rate.
+     */
+    @VisibleForTesting
+    static final long TARGET_BUFFER_DURATION_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final Executor BACKGROUND_ALLOCATION_EXECUTOR = PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("timestamp-upper-limit-allocator", true));
+
     private volatile long currentLimit;
     private final TimestampBoundStore store;
 
+    @Nullable
+    private final Executor backgroundExecutor;
+    private final LongSupplier clock;
+    private final AtomicBoolean backgroundAllocationPending = new AtomicBoolean(false);
+    private volatile long bufferSize = BUFFER;
+    private final AtomicLong latestRequestedLimit;
+    private volatile boolean closed = false;
+    private long lastAllocationNanos;
+    private long lastAllocationRequestedLimit;
+
     public PersistentUpperLimit(TimestampBoundStore boundStore) {
+        this(boundStore, null, System::nanoTime);
+    }
+
+    /**
+     * Creates an upper limit that extends itself on a background thread once less than half of its buffer remains,
+     * so that callers only block on the store when the limit is actually exhausted. The buffer is sized from the
+     * observed rate at which the limit is consumed, between {@link #BUFFER} and {@link #MAX_BUFFER}.
+     */
+    public static PersistentUpperLimit createWithBackgroundAllocation(TimestampBoundStore boundStore) {
+        return new PersistentUpperLimit(boundStore, BACKGROUND_ALLOCATION_EXECUTOR, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    PersistentUpperLimit(TimestampBoundStore boundStore, @Nullable Executor backgroundExecutor, LongSupplier clock) {
         this.store = boundStore;
         this.currentLimit = boundStore.getUpperLimit();
+        this.backgroundExecutor = backgroundExecutor;
+        this.clock = clock;
+        this.latestRequestedLimit = new AtomicLong(currentLimit);
+        this.lastAllocationNanos = clock.getAsLong();
+        this.lastAllocationRequestedLimit = currentLimit;
     }
 
     public long get() {
@@ -42,6 +102,54 @@ public class PersistentUpperLimit {
         if (newLimit > currentLimit) {
             updateLimit(newLimit);
         }
+        if (backgroundExecutor != null) {
+            long requestedLimit = latestRequestedLimit.accumulateAndGet(newLimit, Math::max);
+            allocateInBackgroundIfRunningLow(requestedLimit);
+        }
+    }
+
+    /**
+     * Stops extending the limit in the background, for example because this node has lost leadership and another
+     * node may now be storing bounds. An extension that is already storing a bound is not interrupted, but no further
+     * extensions start. Callers that exhaust the limit still extend it synchronously.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Registers gauges for the number of timestamps that can be handed out before callers block, and for the
+     * current buffer size.
+     */
+    public void registerMetrics(MetricsManager metricsManager, Map<String, String> tags) {
+        metricsManager.registerMetric(PersistentUpperLimit.class, "headroom",
+                (Gauge<Long>) () -> currentLimit - latestRequestedLimit.get(), tags);
+        metricsManager.registerMetric(PersistentUpperLimit.class, "bufferSize",
+                (Gauge<Long>) () -> bufferSize, tags);
+    }
+
+    private void allocateInBackgroundIfRunningLow(long requestedLimit) {
+        if (closed
+                || currentLimit - requestedLimit >= bufferSize / 2
+                || !backgroundAllocationPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            backgroundExecutor.execute(() -> {
+                try {
+                    extendLimit(latestRequestedLimit.get());
+                } catch (Throwable t) {
+                    log.warn("Failed to extend the timestamp upper limit in the background. Timestamp requests will"
+                            + " block on extending it once it is exhausted.", t);
+                } finally {
+                    backgroundAllocationPending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundAllocationPending.set(false);
+            log.warn("Could not schedule extending the timestamp upper limit in the background", e);
+        }
     }
 
     private synchronized void updateLimit(long newLimit) {
@@ -49,11 +157,39 @@ public class PersistentUpperLimit {
             return;
         }
 
-        long newLimitWithBuffer = Math.addExact(newLimit, BUFFER);
+        storeLimitWithBuffer(newLimit);
+    }
+
+    private synchronized void extendLimit(long requestedLimit) {
+        if (closed || currentLimit - requestedLimit >= bufferSize / 2) {
+            return;
+        }
+
+        storeLimitWithBuffer(requestedLimit);
+    }
+
+    private void storeLimitWithBuffer(long requestedLimit) {
+        if (backgroundExecutor != null) {
+            adaptBufferSize(requestedLimit);
+        }
+        long newLimitWithBuffer = Math.addExact(requestedLimit, bufferSize);
         storeUpperLimit(newLimitWithBuffer);
         currentLimit = newLimitWithBuffer;
     }
 
+    private void adaptBufferSize(long requestedLimit) {
+        long now = clock.getAsLong();
+        long elapsedNanos = now - lastAllocationNanos;
+        long consumed = requestedLimit - lastAllocationRequestedLimit;
+        if (elapsedNanos > 0 && consumed > 0) {
+            double consumedPerNano = (double) consumed / elapsedNanos;
+            long targetBufferSize = (long) Math.min(consumedPerNano * TARGET_BUFFER_DURATION_NANOS, MAX_BUFFER);
+            bufferSize = Longs.constrainToRange(targetBufferSize, BUFFER, MAX_BUFFER);
+        }
+        lastAllocationNanos = now;
+        lastAllocationRequestedLimit = requestedLimit;
+    }
+
     private void storeUpperLimit(long upperLimit) {
         DebugLogger.willStoreNewUpperLimit(upperLimit);
         store.storeUpperLimit(upperLimit);
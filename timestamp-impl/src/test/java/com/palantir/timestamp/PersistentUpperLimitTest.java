@@ -21,10 +21,16 @@ import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -119,4 +125,109 @@ public class PersistentUpperLimitTest {
         assertThat(upperLimit.get(), is(INITIAL_UPPER_LIMIT));
     }
 
+    @Test
+    public void backgroundAllocationDoesNotExtendWhileMoreThanHalfTheBufferRemains() {
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(new AtomicLong());
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = backgroundLimit.get();
+
+        backgroundLimit.increaseToAtLeast(limit - BUFFER / 2);
+
+        assertThat(backgroundLimit.get(), is(limit));
+        verify(boundStore, times(1)).storeUpperLimit(anyLong());
+    }
+
+    @Test
+    public void backgroundAllocationExtendsBeforeTheLimitIsExhausted() {
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(new AtomicLong());
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = backgroundLimit.get();
+
+        backgroundLimit.increaseToAtLeast(limit - BUFFER / 4);
+
+        assertThat(backgroundLimit.get(), is(limit - BUFFER / 4 + BUFFER));
+    }
+
+    @Test
+    public void backgroundAllocationGrowsTheBufferWithTheConsumptionRate() {
+        AtomicLong clock = new AtomicLong();
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(clock);
+
+        long consumed = 10 * BUFFER;
+        clock.addAndGet(PersistentUpperLimit.TARGET_BUFFER_DURATION_NANOS);
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + consumed);
+
+        assertThat(backgroundLimit.get(), is(INITIAL_UPPER_LIMIT + consumed + consumed));
+    }
+
+    @Test
+    public void backgroundAllocationBufferIsBounded() {
+        AtomicLong clock = new AtomicLong();
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(clock);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + BUFFER);
+
+        assertThat(backgroundLimit.get(), is(INITIAL_UPPER_LIMIT + BUFFER + PersistentUpperLimit.MAX_BUFFER));
+    }
+
+    @Test
+    public void backgroundAllocationFailuresAreNotPropagatedToCallers() {
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(new AtomicLong());
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = backgroundLimit.get();
+        doThrow(RuntimeException.class).when(boundStore).storeUpperLimit(anyLong());
+
+        backgroundLimit.increaseToAtLeast(limit - 1);
+
+        assertThat(backgroundLimit.get(), is(limit));
+    }
+
+    @Test
+    public void closedLimitDoesNotExtendInTheBackground() {
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(new AtomicLong());
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = backgroundLimit.get();
+
+        backgroundLimit.close();
+        backgroundLimit.increaseToAtLeast(limit - 1);
+
+        assertThat(backgroundLimit.get(), is(limit));
+        verify(boundStore, times(1)).storeUpperLimit(anyLong());
+    }
+
+    @Test
+    public void closedLimitStillExtendsSynchronouslyOnceExhausted() {
+        PersistentUpperLimit backgroundLimit = createUpperLimitWithBackgroundAllocation(new AtomicLong());
+        backgroundLimit.close();
+
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+
+        assertThat(backgroundLimit.get(), is(INITIAL_UPPER_LIMIT + 1 + BUFFER));
+    }
+
+    @Test
+    public void backgroundAllocationUsesTheHighestRequestedLimit() {
+        List<Runnable> scheduled = new ArrayList<>();
+        PersistentUpperLimit backgroundLimit = new PersistentUpperLimit(boundStore, scheduled::add, () -> 0L);
+        backgroundLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + 1);
+        long limit = backgroundLimit.get();
+
+        backgroundLimit.increaseToAtLeast(limit - 2);
+        backgroundLimit.increaseToAtLeast(limit - BUFFER);
+        scheduled.forEach(Runnable::run);
+
+        assertThat(backgroundLimit.get(), is(limit - 2 + BUFFER));
+    }
+
+    @Test
+    public void synchronousUpperLimitNeverExtendsEarly() {
+        upperLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT);
+
+        verify(boundStore, never()).storeUpperLimit(anyLong());
+    }
+
+    private PersistentUpperLimit createUpperLimitWithBackgroundAllocation(AtomicLong clock) {
+        return new PersistentUpperLimit(boundStore, Runnable::run, clock::get);
+    }
 }